@@ -41,7 +41,6 @@ import org.jboss.as.controller.RuntimeTask;
 import org.jboss.as.controller.RuntimeTaskContext;
 import org.jboss.dmr.ModelNode;
 import org.jboss.jca.core.api.management.Connector;
-import org.jboss.jca.core.api.management.DataSource;
 import org.jboss.jca.core.api.management.ManagementRepository;
 import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPoolStatisticsImpl;
 import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
@@ -98,25 +97,6 @@ public abstract class PoolMetrics implements ModelQueryOperationHandler {
 
     protected abstract List<StatisticsPlugin> getMatchingStats(String jndiName, ManagementRepository repository);
 
-    public static class LocalAndXaDataSourcePoolMetricsHandler extends PoolMetrics {
-        public static LocalAndXaDataSourcePoolMetricsHandler INSTANCE = new LocalAndXaDataSourcePoolMetricsHandler();
-
-        protected List<StatisticsPlugin> getMatchingStats(String jndiName, ManagementRepository repository) {
-            ArrayList<StatisticsPlugin> result = new ArrayList<StatisticsPlugin>(repository.getDataSources().size());
-            if (repository.getDataSources() != null) {
-                for (DataSource ds : repository.getDataSources()) {
-                    if (jndiName.equalsIgnoreCase(ds.getJndiName()) && ds.getPool() != null) {
-                        result.add(ds.getPool().getStatistics());
-                    }
-
-                }
-            }
-            result.trimToSize();
-            return result;
-        }
-
-    }
-
     public static class RaPoolMetricsHandler extends PoolMetrics {
         public static RaPoolMetricsHandler INSTANCE = new RaPoolMetricsHandler();
 
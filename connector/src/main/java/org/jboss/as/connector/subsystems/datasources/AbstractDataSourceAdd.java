@@ -38,6 +38,7 @@ import org.jboss.as.controller.ModelAddOperationHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.RuntimeTask;
 import org.jboss.as.controller.RuntimeTaskContext;
@@ -115,6 +116,13 @@ public abstract class AbstractDataSourceAdd implements ModelAddOperationHandler
                                 dataSourceService.getDriverInjector());
                     }
 
+                    final DataSourceStatisticsService statisticsService = new DataSourceStatisticsService(jndiName);
+                    final ServiceBuilder<?> statisticsBuilder = serviceTarget
+                            .addService(DataSourceStatisticsService.getServiceName(PathAddress.pathAddress(address)), statisticsService)
+                            .addDependency(ConnectorServices.MANAGEMENT_REPOSISTORY_SERVICE, ManagementRepository.class,
+                                    statisticsService.getManagementRepositoryInjector())
+                            .addDependency(dataSourceServiceName);
+
                     final DataSourceReferenceFactoryService referenceFactoryService = new DataSourceReferenceFactoryService();
                     final ServiceName referenceFactoryServiceName = DataSourceReferenceFactoryService.SERVICE_NAME_BASE
                             .append(jndiName);
@@ -151,10 +159,12 @@ public abstract class AbstractDataSourceAdd implements ModelAddOperationHandler
                         dataSourceServiceBuilder.setInitialMode(ServiceController.Mode.ACTIVE).install();
                         referenceBuilder.setInitialMode(ServiceController.Mode.ACTIVE).install();
                         binderBuilder.setInitialMode(ServiceController.Mode.ACTIVE).install();
+                        statisticsBuilder.setInitialMode(ServiceController.Mode.ACTIVE).install();
                     } else {
                         dataSourceServiceBuilder.setInitialMode(ServiceController.Mode.NEVER).install();
                         referenceBuilder.setInitialMode(ServiceController.Mode.NEVER).install();
                         binderBuilder.setInitialMode(ServiceController.Mode.NEVER).install();
+                        statisticsBuilder.setInitialMode(ServiceController.Mode.NEVER).install();
                     }
                     resultHandler.handleResultComplete();
                 }
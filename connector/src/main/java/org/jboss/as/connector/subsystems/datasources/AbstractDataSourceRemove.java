@@ -89,6 +89,12 @@ public abstract class AbstractDataSourceRemove implements ModelRemoveOperationHa
                         referenceFactoryController.setMode(ServiceController.Mode.REMOVE);
                     }
 
+                    final ServiceController<?> statisticsController = registry.getService(
+                            DataSourceStatisticsService.getServiceName(PathAddress.pathAddress(opAddr)));
+                    if (statisticsController != null) {
+                        statisticsController.setMode(ServiceController.Mode.REMOVE);
+                    }
+
                     final ServiceName dataSourceServiceName = AbstractDataSourceService.SERVICE_NAME_BASE.append(jndiName);
                     final ServiceController<?> dataSourceController = registry.getService(dataSourceServiceName);
                     if (dataSourceController != null) {
@@ -100,6 +100,12 @@ public class DataSourceDisable implements ModelUpdateOperationHandler {
                     if (binderController != null && ServiceController.State.UP.equals(binderController.getState())) {
                         binderController.setMode(ServiceController.Mode.NEVER);
                     }
+
+                    final ServiceController<?> statisticsController = registry.getService(
+                            DataSourceStatisticsService.getServiceName(PathAddress.pathAddress(opAddr)));
+                    if (statisticsController != null && ServiceController.State.UP.equals(statisticsController.getState())) {
+                        statisticsController.setMode(ServiceController.Mode.NEVER);
+                    }
                 }
 
             });
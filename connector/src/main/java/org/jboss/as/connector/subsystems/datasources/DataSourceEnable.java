@@ -92,6 +92,12 @@ public class DataSourceEnable implements ModelUpdateOperationHandler {
                     if (binderController != null && !ServiceController.State.UP.equals(binderController.getState())) {
                         binderController.setMode(ServiceController.Mode.ACTIVE);
                     }
+
+                    final ServiceController<?> statisticsController = registry.getService(
+                            DataSourceStatisticsService.getServiceName(PathAddress.pathAddress(opAddr)));
+                    if (statisticsController != null && !ServiceController.State.UP.equals(statisticsController.getState())) {
+                        statisticsController.setMode(ServiceController.Mode.ACTIVE);
+                    }
                     resultHandler.handleResultComplete();
                 }
             });
@@ -27,7 +27,6 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 
 import java.util.Set;
 
-import org.jboss.as.connector.ConnectorServices;
 import org.jboss.as.controller.BasicOperationResult;
 import org.jboss.as.controller.ModelQueryOperationHandler;
 import org.jboss.as.controller.OperationContext;
@@ -37,22 +36,19 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.RuntimeTask;
 import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
 import org.jboss.dmr.ModelNode;
 import org.jboss.jca.adapters.jdbc.statistics.JdbcStatisticsPlugin;
-import org.jboss.jca.core.api.management.DataSource;
-import org.jboss.jca.core.api.management.ManagementRepository;
 import org.jboss.msc.service.ServiceController;
 
 /**
- * @author <a href="mailto:stefano.maestri@redhat.com">Stefano Maestri</a>
+ * Reads the pool and JDBC metrics of a data source from its {@link DataSourceStatisticsService}.
  */
-public class LocalAndXaDataSourcesJdbcMetrics implements ModelQueryOperationHandler {
+class DataSourceStatisticsHandler implements ModelQueryOperationHandler {
 
-    static LocalAndXaDataSourcesJdbcMetrics INSTANCE = new LocalAndXaDataSourcesJdbcMetrics();
+    static final DataSourceStatisticsHandler INSTANCE = new DataSourceStatisticsHandler();
 
-    static final String[] NO_LOCATION = new String[0];
-
-    static final Set<String> ATTRIBUTES = (new JdbcStatisticsPlugin()).getNames();
+    static final Set<String> JDBC_ATTRIBUTES = (new JdbcStatisticsPlugin()).getNames();
 
     /** {@inheritDoc} */
     @Override
@@ -63,36 +59,20 @@ public class LocalAndXaDataSourcesJdbcMetrics implements ModelQueryOperationHand
             context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
                 public void execute(RuntimeTaskContext context) throws OperationFailedException {
                     final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
-                    final String jndiName = address.getLastElement().getValue();
                     final String attributeName = operation.require(NAME).asString();
 
-                    final ServiceController<?> managementRepoService = context.getServiceRegistry().getService(
-                            ConnectorServices.MANAGEMENT_REPOSISTORY_SERVICE);
-                    if (managementRepoService != null) {
-                        try {
-                            final ManagementRepository repository = (ManagementRepository) managementRepoService.getValue();
-                            final ModelNode result = new ModelNode();
-                            if (repository.getDataSources() != null) {
-                                for (DataSource ds : repository.getDataSources()) {
-                                    if (jndiName.equalsIgnoreCase(ds.getJndiName())) {
-                                        if (ds.getStatistics() != null) {
-                                            result.set("" + ds.getStatistics().getValue(attributeName));
-                                        }
-
-                                    }
-                                }
-                            }
-                            resultHandler.handleResultFragment(new String[0], result);
-                            resultHandler.handleResultComplete();
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            throw new OperationFailedException(new ModelNode().set("failed to get metrics " + e.getMessage()));
-                        }
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(
+                            DataSourceStatisticsService.getServiceName(address));
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        ((DataSourceStatisticsService) controller.getValue()).readStatistic(attributeName, result);
                     }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
                 }
             });
         } else {
-            resultHandler.handleResultFragment(NO_LOCATION, new ModelNode().set("no metrics available"));
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode().set("no metrics available"));
             resultHandler.handleResultComplete();
         }
         return new BasicOperationResult();
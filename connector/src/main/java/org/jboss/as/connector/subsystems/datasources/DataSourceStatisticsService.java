@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.jca.core.api.management.DataSource;
+import org.jboss.jca.core.api.management.ManagementRepository;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+import org.jboss.logging.Logger;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Holds the pool and JDBC statistics of a deployed data source, so its metrics can be read without searching the
+ * {@link ManagementRepository}.  The statistics are looked up once, when the data source has been deployed, and the
+ * service is named after the address of the data source resource.
+ */
+public class DataSourceStatisticsService implements Service<DataSourceStatisticsService> {
+
+    public static final Logger log = Logger.getLogger("org.jboss.as.connector.subsystems.datasources");
+
+    public static final ServiceName SERVICE_NAME_BASE = ServiceName.JBOSS.append("data-source-statistics");
+
+    private final InjectedValue<ManagementRepository> managementRepositoryValue = new InjectedValue<ManagementRepository>();
+
+    private final String jndiName;
+
+    private volatile StatisticsPlugin poolStatistics;
+    private volatile StatisticsPlugin jdbcStatistics;
+
+    public DataSourceStatisticsService(final String jndiName) {
+        this.jndiName = jndiName;
+    }
+
+    /**
+     * Gets the name of the statistics service of a data source resource.
+     *
+     * @param address the address of the data-source or xa-data-source resource
+     * @return the service name
+     */
+    public static ServiceName getServiceName(final PathAddress address) {
+        final PathElement element = address.getLastElement();
+        return SERVICE_NAME_BASE.append(element.getKey(), element.getValue());
+    }
+
+    public synchronized void start(StartContext context) throws StartException {
+        final ManagementRepository repository = managementRepositoryValue.getValue();
+        if (repository.getDataSources() != null) {
+            for (DataSource ds : repository.getDataSources()) {
+                if (jndiName.equalsIgnoreCase(ds.getJndiName())) {
+                    poolStatistics = ds.getPool() != null ? ds.getPool().getStatistics() : null;
+                    jdbcStatistics = ds.getStatistics();
+                    return;
+                }
+            }
+        }
+        log.debugf("No statistics are registered for data source %s", jndiName);
+    }
+
+    public synchronized void stop(StopContext context) {
+        poolStatistics = null;
+        jdbcStatistics = null;
+    }
+
+    public DataSourceStatisticsService getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    public Injector<ManagementRepository> getManagementRepositoryInjector() {
+        return managementRepositoryValue;
+    }
+
+    /**
+     * Reads a pool or JDBC statistic.  Numeric and boolean statistics are set with their own type.
+     *
+     * @param name the name of the statistic
+     * @param target the node to set to the value of the statistic
+     * @return {@code true} if the statistic is known
+     */
+    public boolean readStatistic(final String name, final ModelNode target) {
+        return readStatistic(poolStatistics, name, target) || readStatistic(jdbcStatistics, name, target);
+    }
+
+    private static boolean readStatistic(final StatisticsPlugin statistics, final String name, final ModelNode target) {
+        if (statistics == null) {
+            return false;
+        }
+        final Set<String> names = statistics.getNames();
+        if (!names.contains(name)) {
+            return false;
+        }
+        final Object value = statistics.getValue(name);
+        if (value instanceof Integer) {
+            target.set(((Integer) value).intValue());
+        } else if (value instanceof Long) {
+            target.set(((Long) value).longValue());
+        } else if (value instanceof Boolean) {
+            target.set(((Boolean) value).booleanValue());
+        } else if (value instanceof Number) {
+            target.set(((Number) value).doubleValue());
+        } else if (value != null) {
+            target.set(value.toString());
+        }
+        return true;
+    }
+}
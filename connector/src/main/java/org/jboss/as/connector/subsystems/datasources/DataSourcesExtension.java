@@ -200,12 +200,12 @@ public class DataSourcesExtension implements Extension {
                 TEST_CONNECTION_DESC, false);
 
         for (final String attributeName : PoolMetrics.ATTRIBUTES) {
-            dataSources.registerMetric(attributeName, PoolMetrics.LocalAndXaDataSourcePoolMetricsHandler.INSTANCE);
+            dataSources.registerMetric(attributeName, DataSourceStatisticsHandler.INSTANCE);
 
         }
 
-        for (final String attributeName : LocalAndXaDataSourcesJdbcMetrics.ATTRIBUTES) {
-            dataSources.registerMetric(attributeName, LocalAndXaDataSourcesJdbcMetrics.INSTANCE);
+        for (final String attributeName : DataSourceStatisticsHandler.JDBC_ATTRIBUTES) {
+            dataSources.registerMetric(attributeName, DataSourceStatisticsHandler.INSTANCE);
 
         }
 
@@ -222,11 +222,11 @@ public class DataSourcesExtension implements Extension {
         xaDataSources.registerOperationHandler(DISABLE, DataSourceDisable.INSTANCE, DISABLE_XA_DATA_SOURCE_DESC, false);
 
         for (final String attributeName : PoolMetrics.ATTRIBUTES) {
-            xaDataSources.registerMetric(attributeName, PoolMetrics.LocalAndXaDataSourcePoolMetricsHandler.INSTANCE);
+            xaDataSources.registerMetric(attributeName, DataSourceStatisticsHandler.INSTANCE);
         }
 
-        for (final String attributeName : LocalAndXaDataSourcesJdbcMetrics.ATTRIBUTES) {
-            xaDataSources.registerMetric(attributeName, LocalAndXaDataSourcesJdbcMetrics.INSTANCE);
+        for (final String attributeName : DataSourceStatisticsHandler.JDBC_ATTRIBUTES) {
+            xaDataSources.registerMetric(attributeName, DataSourceStatisticsHandler.INSTANCE);
 
         }
 
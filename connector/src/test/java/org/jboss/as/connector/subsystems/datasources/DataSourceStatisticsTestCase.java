@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeOperationContext;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.jca.adapters.jdbc.statistics.JdbcStatisticsPlugin;
+import org.jboss.jca.core.api.management.DataSource;
+import org.jboss.jca.core.api.management.ManagementRepository;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+import org.jboss.msc.service.ServiceTarget;
+import org.junit.Test;
+
+/**
+ * Unit tests of the lookup of data source statistics by resource address.
+ */
+public class DataSourceStatisticsTestCase {
+
+    private static final PathAddress SUBSYSTEM = PathAddress.pathAddress(PathElement.pathElement("subsystem", "datasources"));
+    private static final PathAddress DATA_SOURCE = SUBSYSTEM.append(PathElement.pathElement("data-source", "java:/ExampleDS"));
+    private static final PathAddress XA_DATA_SOURCE = SUBSYSTEM.append(PathElement.pathElement("xa-data-source", "java:/ExampleDS"));
+    private static final PathAddress OTHER_DATA_SOURCE = SUBSYSTEM.append(PathElement.pathElement("data-source", "java:/OtherDS"));
+
+    private static final String STATISTIC = DataSourceStatisticsHandler.JDBC_ATTRIBUTES.iterator().next();
+
+    @Test
+    public void testServiceNameByAddress() {
+        assertEquals(DataSourceStatisticsService.getServiceName(DATA_SOURCE),
+                DataSourceStatisticsService.getServiceName(PathAddress.pathAddress(DATA_SOURCE.toModelNode())));
+        assertFalse(DataSourceStatisticsService.getServiceName(DATA_SOURCE).equals(DataSourceStatisticsService.getServiceName(XA_DATA_SOURCE)));
+        assertFalse(DataSourceStatisticsService.getServiceName(DATA_SOURCE).equals(DataSourceStatisticsService.getServiceName(OTHER_DATA_SOURCE)));
+    }
+
+    @Test
+    public void testStatisticsLookedUpByJndiName() throws Exception {
+        final DataSourceStatisticsService service = startService("java:/ExampleDS");
+        assertTrue(service.readStatistic(STATISTIC, new ModelNode()));
+        assertFalse(service.readStatistic("no-such-statistic", new ModelNode()));
+
+        service.stop(null);
+        assertFalse(service.readStatistic(STATISTIC, new ModelNode()));
+
+        // a data source which is not registered has no statistics
+        assertFalse(startService("java:/MissingDS").readStatistic(STATISTIC, new ModelNode()));
+    }
+
+    @Test
+    public void testHandlerReadsStatisticsOfAddressedDataSource() throws Exception {
+        final DataSourceStatisticsService service = startService("java:/ExampleDS");
+        final Map<ServiceName, Object> services = new HashMap<ServiceName, Object>();
+        services.put(DataSourceStatisticsService.getServiceName(DATA_SOURCE), service);
+
+        final ModelNode expected = new ModelNode();
+        service.readStatistic(STATISTIC, expected);
+
+        assertEquals(expected, readMetric(DATA_SOURCE, services));
+        assertFalse(readMetric(XA_DATA_SOURCE, services).isDefined());
+        assertFalse(readMetric(OTHER_DATA_SOURCE, services).isDefined());
+    }
+
+    private static DataSourceStatisticsService startService(final String jndiName) throws Exception {
+        final ManagementRepository repository = new ManagementRepository();
+        final DataSource dataSource = new DataSource(false);
+        dataSource.setJndiName("java:/ExampleDS");
+        dataSource.setStatistics(new JdbcStatisticsPlugin());
+        repository.getDataSources().add(dataSource);
+
+        final DataSourceStatisticsService service = new DataSourceStatisticsService(jndiName);
+        service.getManagementRepositoryInjector().inject(repository);
+        service.start(null);
+        return service;
+    }
+
+    private static ModelNode readMetric(final PathAddress address, final Map<ServiceName, Object> services) throws Exception {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP_ADDR).set(address.toModelNode());
+        operation.get(NAME).set(STATISTIC);
+
+        final RuntimeTask[] task = new RuntimeTask[1];
+        final RuntimeOperationContext runtimeContext = proxy(RuntimeOperationContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("setRuntimeTask".equals(method.getName())) {
+                    task[0] = (RuntimeTask) args[0];
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        final OperationContext context = proxy(OperationContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("getRuntimeContext".equals(method.getName())) {
+                    return runtimeContext;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        final ModelNode result = new ModelNode();
+        final ResultHandler resultHandler = new ResultHandler() {
+            @Override
+            public void handleResultFragment(final String[] location, final ModelNode fragment) {
+                result.set(fragment);
+            }
+
+            @Override
+            public void handleResultComplete() {
+            }
+
+            @Override
+            public void handleFailed(final ModelNode failureDescription) {
+                throw new AssertionError(failureDescription.asString());
+            }
+
+            @Override
+            public void handleCancellation() {
+                throw new AssertionError("cancelled");
+            }
+        };
+
+        DataSourceStatisticsHandler.INSTANCE.execute(context, operation, resultHandler);
+        assertNotNull(task[0]);
+
+        final ServiceRegistry registry = proxy(ServiceRegistry.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("getService".equals(method.getName())) {
+                    final Object value = services.get(args[0]);
+                    return value == null ? null : upController(value);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        task[0].execute(new RuntimeTaskContext() {
+            @Override
+            public ServiceTarget getServiceTarget() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ServiceRegistry getServiceRegistry() {
+                return registry;
+            }
+        });
+        return result;
+    }
+
+    private static ServiceController<?> upController(final Object value) {
+        return proxy(ServiceController.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("getState".equals(method.getName())) {
+                    return ServiceController.State.UP;
+                }
+                if ("getValue".equals(method.getName())) {
+                    return value;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
@@ -27,6 +27,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COM
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FLUSH_CONFIGURATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
@@ -51,6 +52,7 @@ import java.util.NoSuchElementException;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -63,6 +65,7 @@ import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.ParameterValidator;
+import org.jboss.as.controller.persistence.CoalescingConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersisterProvider;
@@ -86,6 +89,7 @@ public class BasicModelController extends AbstractModelController<OperationContr
     private final ModelNodeRegistration registry;
     private final ModelNode model;
     private final ConfigurationPersister configurationPersister;
+    private final AtomicLong modelRevision = new AtomicLong();
     private final ModelProvider modelSource = new ModelProvider() {
         @Override
         public ModelNode getModel() {
@@ -261,18 +265,31 @@ public class BasicModelController extends AbstractModelController<OperationContr
             }
 
 
+            final boolean flush = isFlushRequested(operation.getOperation()) && !isCommitDeferred(operationExecutionContext);
             if (isMultiStepOperation(operation.getOperation(), address)) {
-                MultiStepOperationController multistepController = getMultiStepOperationController(operation, handler, operationExecutionContext);
-                return multistepController.execute(handler);
+                final ResultHandler stepsHandler = flush ? new FlushingResultHandler(handler) : handler;
+                MultiStepOperationController multistepController = getMultiStepOperationController(operation, stepsHandler, operationExecutionContext);
+                final OperationResult result = multistepController.execute(stepsHandler);
+                if (flush) {
+                    flushAndComplete((FlushingResultHandler) stepsHandler, operationExecutionContext.getConfigurationPersisterProvider());
+                }
+                return result;
             }
 
             final OperationHandler operationHandler = getHandlerForOperation(operation.getOperation(), address);
-            if (!isReadOnly(operationHandler)) {
+            final boolean readOnly = isReadOnly(operationHandler);
+            if (!readOnly) {
                 locked = acquireWriteLock(operationExecutionContext);
             }
 
             final OperationContext context = operationExecutionContext.getOperationContextFactory().getOperationContext(operationExecutionContext.getModelProvider(), address, operationHandler, operation);
 
+            if (flush && !readOnly) {
+                final FlushingResultHandler flushingHandler = new FlushingResultHandler(handler);
+                final OperationResult result = doExecute(context, operation, operationHandler, flushingHandler, address, operationExecutionContext);
+                flushAndComplete(flushingHandler, operationExecutionContext.getConfigurationPersisterProvider());
+                return result;
+            }
             return doExecute(context, operation, operationHandler, handler, address, operationExecutionContext);
         } catch (OperationFailedException e) {
             log.debugf(e, "operation (%s) failed - address: (%s)", operation.getOperation().get(OP), operation.getOperation().get(OP_ADDR));
@@ -320,8 +337,21 @@ public class BasicModelController extends AbstractModelController<OperationContr
         } else if (operationHandler instanceof ModelQueryOperationHandler) {
             // or model update operation handler...
             final ModelNode model = modelSource.getModel();
-            synchronized (model) {
-                subModel = address.navigate(model, false).clone();
+            if (modelSource instanceof MultiStepOperationController) {
+                // The steps of a composite operation update the nodes owned by its view in place, so a view of that
+                // model would not stay stable. The model is private to the operation, so copying it blocks no one.
+                synchronized (model) {
+                    subModel = address.navigate(model, false).clone();
+                }
+            } else {
+                final CopyOnWriteModel view;
+                synchronized (model) {
+                    view = new CopyOnWriteModel(model);
+                }
+                // The view is not affected by later updates of the model, so it can be read without holding the
+                // monitor. Handlers which only read get a private top level, handlers which update get a private copy.
+                final ModelNode resource = address.navigate(view.getModel(), false);
+                subModel = isReadOnly(operationHandler) ? new CopyOnWriteModel(resource).getModel() : resource.clone();
             }
         } else {
             subModel = null;
@@ -333,6 +363,27 @@ public class BasicModelController extends AbstractModelController<OperationContr
         return address.size() == 0 && COMPOSITE.equals(operation.require(OP).asString());
     }
 
+    /**
+     * Record that the model was updated and persist it.  The caller must hold the monitor of {@code model}.
+     *
+     * @param model the new model
+     * @param configurationPersisterFactory factory for the configuration persister
+     */
+    protected final void modelUpdated(final ModelNode model, final ConfigurationPersisterProvider configurationPersisterFactory) {
+        modelRevision.incrementAndGet();
+        persistConfiguration(model, configurationPersisterFactory);
+    }
+
+    /**
+     * Gets the revision of the model, which is incremented whenever an update of the model is applied.  Two reads of
+     * the persistent model made under the same revision return the same result; runtime attributes are not covered.
+     *
+     * @return the revision
+     */
+    public long getModelRevision() {
+        return modelRevision.get();
+    }
+
     /**
      * Persist the configuration after an update was executed.
      *
@@ -350,6 +401,53 @@ public class BasicModelController extends AbstractModelController<OperationContr
         }
     }
 
+    /**
+     * Wait for the configuration to be written if the persister writes asynchronously.
+     *
+     * @param configurationPersisterFactory factory for the configuration persister
+     * @throws ConfigurationPersistenceException if writing the configuration failed
+     */
+    protected void flushConfiguration(final ConfigurationPersisterProvider configurationPersisterFactory) throws ConfigurationPersistenceException {
+        final ConfigurationPersister configurationPersister = configurationPersisterFactory.getConfigurationPersister();
+        if (configurationPersister instanceof CoalescingConfigurationPersister) {
+            ((CoalescingConfigurationPersister) configurationPersister).flush();
+        }
+    }
+
+    /**
+     * Whether the model updates of an operation executed with the given context are only applied when the context is
+     * committed, after the operation completed.  Controllers which defer the commit flush the configuration as part of
+     * the commit instead of delaying the completion of the operation.  By default updates are applied immediately.
+     *
+     * @param operationExecutionContext the context of the invocation
+     * @return {@code true} if the model is updated after the operation completed
+     */
+    protected boolean isCommitDeferred(final OperationControllerContext operationExecutionContext) {
+        return false;
+    }
+
+    /**
+     * Whether the operation asked for its changes to be on disk before it completes, using the
+     * {@code flush-configuration} operation header.
+     */
+    protected static boolean isFlushRequested(final ModelNode operation) {
+        return operation.hasDefined(OPERATION_HEADERS) && operation.get(OPERATION_HEADERS).hasDefined(FLUSH_CONFIGURATION)
+                && operation.get(OPERATION_HEADERS, FLUSH_CONFIGURATION).asBoolean();
+    }
+
+    /**
+     * Flush the configuration and then release the completion of an operation which asked for it.
+     */
+    private void flushAndComplete(final FlushingResultHandler handler, final ConfigurationPersisterProvider configurationPersisterFactory) {
+        try {
+            flushConfiguration(configurationPersisterFactory);
+            handler.flushed(null);
+        } catch (final ConfigurationPersistenceException e) {
+            log.warnf(e, "Failed to persist configuration change: %s", e);
+            handler.flushed(new ModelNode().set("Failed to persist configuration change: " + e));
+        }
+    }
+
     /**
      * Registers {@link OperationHandler}s for operations that require
      * access to controller internals not meant to be exposed via an
@@ -402,19 +500,38 @@ public class BasicModelController extends AbstractModelController<OperationContr
             final PathAddress address, final OperationControllerContext operationControllerContext) throws OperationFailedException {
         final OperationResult result = operationHandler.execute(operationHandlerContext, operation.getOperation(), resultHandler);
         if (operationHandler instanceof ModelUpdateOperationHandler) {
-            final ModelNode model = operationControllerContext.getModelProvider().getModel();
+            final ModelProvider modelProvider = operationControllerContext.getModelProvider();
+            final ModelNode model = modelProvider.getModel();
             synchronized (model) {
+                prepareModelForUpdate(modelProvider, model, address);
                 if (operationHandler instanceof ModelRemoveOperationHandler) {
                     address.remove(model);
                 } else {
                     address.navigate(model, true).set(operationHandlerContext.getSubModel());
                 }
-                persistConfiguration(model, operationControllerContext.getConfigurationPersisterProvider());
+                modelUpdated(model, operationControllerContext.getConfigurationPersisterProvider());
             }
         }
         return result;
     }
 
+    /**
+     * Prepare a model for an in-place update of the resource at the given address. The nodes along the address are
+     * copied so that copy-on-write views of the model held by in-flight composite operations do not see the update.
+     * The caller must hold the monitor of {@code model}.
+     *
+     * @param modelProvider the provider of the model
+     * @param model the model obtained from {@code modelProvider}
+     * @param address the address of the resource that is going to be updated
+     */
+    protected void prepareModelForUpdate(final ModelProvider modelProvider, final ModelNode model, final PathAddress address) {
+        if (modelProvider instanceof MultiStepOperationController) {
+            ((MultiStepOperationController) modelProvider).localModelView.getModelForUpdate(address);
+        } else {
+            CopyOnWriteModel.copyPath(model, address);
+        }
+    }
+
     protected ModelNodeRegistration getRegistry() {
         return registry;
     }
@@ -461,6 +578,83 @@ public class BasicModelController extends AbstractModelController<OperationContr
         }
     }
 
+    /**
+     * A {@link ResultHandler} which holds back the completion of an operation until the configuration changes it
+     * made have been written, and reports the operation as failed if they could not be.
+     */
+    private static final class FlushingResultHandler implements ResultHandler {
+        private final ResultHandler delegate;
+        private boolean flushed;
+        private boolean completed;
+        private boolean done;
+
+        private FlushingResultHandler(final ResultHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void handleResultFragment(final String[] location, final ModelNode result) {
+            delegate.handleResultFragment(location, result);
+        }
+
+        @Override
+        public void handleResultComplete() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (!flushed) {
+                    completed = true;
+                    return;
+                }
+                done = true;
+            }
+            delegate.handleResultComplete();
+        }
+
+        @Override
+        public void handleFailed(final ModelNode failureDescription) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            delegate.handleFailed(failureDescription);
+        }
+
+        @Override
+        public void handleCancellation() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            delegate.handleCancellation();
+        }
+
+        /**
+         * Notification that the configuration was flushed.
+         *
+         * @param failureDescription the description of the failure to write the configuration, or {@code null}
+         */
+        void flushed(final ModelNode failureDescription) {
+            synchronized (this) {
+                flushed = true;
+                if (done || (failureDescription == null && !completed)) {
+                    return;
+                }
+                done = true;
+            }
+            if (failureDescription != null) {
+                delegate.handleFailed(failureDescription);
+            } else {
+                delegate.handleResultComplete();
+            }
+        }
+    }
+
     /** An {@link OperationHandler} that can output a model in XML form */
     public static final class XmlMarshallingHandler implements ModelQueryOperationHandler, DescriptionProvider {
 
@@ -558,7 +752,9 @@ public class BasicModelController extends AbstractModelController<OperationContr
         protected ModelNode overallFailure;
         /** Provides the model the overall operation should read and/or update */
         protected final ModelProvider modelSource;
-        /** Our clone of the model provided by modelSource -- steps read or modify this */
+        /** Our copy-on-write view of the model provided by modelSource */
+        protected final CopyOnWriteModel localModelView;
+        /** The root of localModelView -- steps read or modify this */
         protected final ModelNode localModel;
         /** Flag indicating a step has modified the model */
         protected boolean modelUpdated;
@@ -665,7 +861,11 @@ public class BasicModelController extends AbstractModelController<OperationContr
                     || !operationNode.get(OPERATION_HEADERS).hasDefined(ROLLBACK_ON_RUNTIME_FAILURE)
                     || operationNode.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).asBoolean());
             this.modelSource = modelProvider;
-            this.localModel = this.modelSource.getModel().clone();
+            final ModelNode model = this.modelSource.getModel();
+            synchronized (model) {
+                this.localModelView = new CopyOnWriteModel(model);
+            }
+            this.localModel = this.localModelView.getModel();
             this.injectedConfigPersisterProvider = injectedConfigPersisterProvider;
             this.injectedOperationControllerContext = injectedOperationControllerContext;
             // Ensure the outcome and result fields come first for each result
@@ -759,9 +959,8 @@ public class BasicModelController extends AbstractModelController<OperationContr
             final ModelNode model = modelSource.getModel();
             synchronized (model) {
                 model.set(localModel);
-                BasicModelController.this.persistConfiguration(model, injectedConfigPersisterProvider);
+                BasicModelController.this.modelUpdated(model, injectedConfigPersisterProvider);
             }
-
         }
 
         protected final String getStepKey(int id) {
@@ -780,7 +979,7 @@ public class BasicModelController extends AbstractModelController<OperationContr
 
             try {
 
-                if (isReadOnly(operation.getOperation())) {
+                if (!isReadOnly(operation.getOperation())) {
                     locked = acquireWriteLock(injectedOperationControllerContext);
                 }
 
@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * A copy-on-write view of a model.
+ * <p>
+ * Creating the view only copies the top level of the base model; every other node is shared with the base model.
+ * Before a node is modified in place the nodes on the path leading to it are given private structure by
+ * {@link #getModelForUpdate(PathAddress)}, so updates applied to the view are never visible in the base model and
+ * subtrees that are not touched are never copied.  Nodes shared with the base model must therefore not be modified
+ * in place by the owner of the base model either; such updates should go through {@link #copyPath(ModelNode, PathAddress)}
+ * first.
+ */
+public final class CopyOnWriteModel {
+
+    private final ModelNode root;
+    /** Nodes whose structure is private to this view and which can therefore be modified in place */
+    private final Set<ModelNode> owned = Collections.newSetFromMap(new IdentityHashMap<ModelNode, Boolean>());
+
+    /**
+     * Create a new view of a model.  The caller must ensure that {@code base} is not modified while the view is created.
+     *
+     * @param base the model. Cannot be {@code null}
+     */
+    public CopyOnWriteModel(final ModelNode base) {
+        root = shallowCopy(base);
+        owned.add(root);
+    }
+
+    /**
+     * Gets the root of the view for reading.  Nodes reachable from the root must not be modified in place unless they
+     * were first prepared with {@link #getModelForUpdate(PathAddress)}.
+     *
+     * @return the root of the view
+     */
+    public ModelNode getModel() {
+        return root;
+    }
+
+    /**
+     * Gets the root of the view, after making the structure along the given address private to this view so the
+     * resource at the address can be added, replaced or removed in place.
+     *
+     * @param address the address of the resource that is going to be updated
+     * @return the root of the view
+     */
+    public ModelNode getModelForUpdate(final PathAddress address) {
+        copyPath(root, owned, address);
+        return root;
+    }
+
+    /**
+     * Give the nodes along the given address private structure, so that any view sharing nodes with {@code model} is
+     * unaffected when the resource at the address is then added, replaced or removed in place.
+     *
+     * @param model the model to update
+     * @param address the address of the resource that is going to be updated
+     * @return the model
+     */
+    public static ModelNode copyPath(final ModelNode model, final PathAddress address) {
+        copyPath(model, null, address);
+        return model;
+    }
+
+    private static void copyPath(final ModelNode root, final Set<ModelNode> owned, final PathAddress address) {
+        ModelNode node = own(root, owned);
+        final Iterator<PathElement> i = address.iterator();
+        while (i.hasNext()) {
+            final PathElement element = i.next();
+            if (!node.has(element.getKey())) {
+                return;
+            }
+            node = own(node.get(element.getKey()), owned);
+            // The resource itself will be replaced or removed, only its parents need to be copied
+            if (!i.hasNext() || !node.has(element.getValue())) {
+                return;
+            }
+            node = own(node.get(element.getValue()), owned);
+        }
+    }
+
+    private static ModelNode own(final ModelNode node, final Set<ModelNode> owned) {
+        if (owned != null && owned.contains(node)) {
+            return node;
+        }
+        if (node.getType() == ModelType.OBJECT) {
+            node.set(shallowCopy(node));
+        }
+        if (owned != null) {
+            owned.add(node);
+        }
+        return node;
+    }
+
+    private static ModelNode shallowCopy(final ModelNode node) {
+        if (node.getType() != ModelType.OBJECT) {
+            return node.clone();
+        }
+        final ModelNode copy = new ModelNode();
+        copy.setEmptyObject();
+        for (String key : node.keys()) {
+            // set() shares the child's value instead of copying it
+            copy.get(key).set(node.get(key));
+        }
+        return copy;
+    }
+}
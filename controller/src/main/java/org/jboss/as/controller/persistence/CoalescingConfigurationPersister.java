@@ -0,0 +1,298 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.jboss.as.controller.CopyOnWriteModel;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.staxmapper.XMLElementWriter;
+
+/**
+ * A configuration persister which writes the configuration on a background thread.
+ * <p>
+ * {@link #store(ModelNode)} only takes a snapshot of the model and returns. A background task passes the most recent
+ * snapshot to the delegate persister, so a burst of changes that arrives while a write is in progress results in a
+ * single further write. Callers that need the change to be on disk before continuing use {@link #flush()}, and the
+ * owner of the persister calls {@link #shutdown()} when the controller stops.
+ */
+public class CoalescingConfigurationPersister implements ExtensibleConfigurationPersister {
+
+    /**
+     * System property which enables asynchronous, coalescing persistence of the configuration files.
+     */
+    public static final String ASYNC_PERSIST_PROPERTY = "jboss.config.persist.async";
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    private final ExtensibleConfigurationPersister delegate;
+    private final Executor executor;
+    /** The executor created by this persister, which it shuts down in {@link #shutdown()} */
+    private final ExecutorService ownedExecutor;
+
+    private final Object lock = new Object();
+    /** The latest snapshot which has not been handed to the delegate yet */
+    private ModelNode pending;
+    /** Number of snapshots received */
+    private long requested;
+    /** Number of snapshots received before the last completed write started */
+    private long written;
+    /** Whether the write task is scheduled or running */
+    private boolean writing;
+    /** The failure of the last completed write, if it failed */
+    private ConfigurationPersistenceException lastFailure;
+    /** Whether {@link #shutdown()} was called, after which changes are written on the calling thread */
+    private boolean shutdown;
+
+    private final Runnable writeTask = new Runnable() {
+        @Override
+        public void run() {
+            for (;;) {
+                final ModelNode model;
+                final long generation;
+                synchronized (lock) {
+                    if (pending == null) {
+                        writing = false;
+                        lock.notifyAll();
+                        return;
+                    }
+                    model = pending;
+                    pending = null;
+                    generation = requested;
+                }
+                ConfigurationPersistenceException failure = null;
+                try {
+                    delegate.store(model);
+                } catch (ConfigurationPersistenceException e) {
+                    log.warnf(e, "Failed to persist configuration change: %s", e);
+                    failure = e;
+                } catch (RuntimeException e) {
+                    log.warnf(e, "Failed to persist configuration change: %s", e);
+                    failure = new ConfigurationPersistenceException("Failed to store configuration", e);
+                }
+                synchronized (lock) {
+                    written = generation;
+                    lastFailure = failure;
+                    lock.notifyAll();
+                }
+            }
+        }
+    };
+
+    /**
+     * Construct a new instance which writes on its own daemon thread.
+     *
+     * @param delegate the persister which writes the configuration
+     */
+    public CoalescingConfigurationPersister(final ExtensibleConfigurationPersister delegate) {
+        this(delegate, Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Configuration persister");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }), true);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param delegate the persister which writes the configuration
+     * @param executor the executor used to run the writes
+     */
+    public CoalescingConfigurationPersister(final ExtensibleConfigurationPersister delegate, final Executor executor) {
+        this(delegate, executor, false);
+    }
+
+    private CoalescingConfigurationPersister(final ExtensibleConfigurationPersister delegate, final Executor executor, final boolean ownsExecutor) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate is null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is null");
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+    }
+
+    /**
+     * Wraps the given persister in a {@code CoalescingConfigurationPersister} if the {@link #ASYNC_PERSIST_PROPERTY}
+     * system property is set to {@code true}.
+     *
+     * @param persister the persister
+     * @return the persister to use
+     */
+    public static ExtensibleConfigurationPersister wrapIfEnabled(final ExtensibleConfigurationPersister persister) {
+        return Boolean.getBoolean(ASYNC_PERSIST_PROPERTY) ? new CoalescingConfigurationPersister(persister) : persister;
+    }
+
+    /**
+     * Takes a copy-on-write snapshot of the model and schedules it to be written.  Taking the snapshot only copies the
+     * top level of the model, the rest is shared with the model until the owner of the model prepares it for an update
+     * with {@link CopyOnWriteModel#copyPath(ModelNode, org.jboss.as.controller.PathAddress)}.  The caller must prevent
+     * concurrent modification of the model for the duration of the call, as it does for a synchronous persister.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void store(final ModelNode model) throws ConfigurationPersistenceException {
+        final ModelNode snapshot = new CopyOnWriteModel(model).getModel();
+        synchronized (lock) {
+            if (shutdown) {
+                // a write started before the shutdown must not overwrite this change
+                awaitWriter();
+                delegate.store(snapshot);
+                return;
+            }
+            pending = snapshot;
+            requested++;
+            if (!writing) {
+                writing = true;
+                try {
+                    executor.execute(writeTask);
+                } catch (RuntimeException e) {
+                    writing = false;
+                    throw new ConfigurationPersistenceException("Failed to schedule configuration write", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until every model passed to {@link #store(ModelNode)} before this call has been written.
+     *
+     * @throws ConfigurationPersistenceException if the write which covers those changes failed
+     */
+    public void flush() throws ConfigurationPersistenceException {
+        synchronized (lock) {
+            final long target = requested;
+            boolean interrupted = false;
+            try {
+                while (written < target) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (lastFailure != null) {
+                throw lastFailure;
+            }
+        }
+    }
+
+    /**
+     * Waits until the write task is no longer scheduled or running.  The caller must hold {@code lock}.
+     */
+    private void awaitWriter() {
+        boolean interrupted = false;
+        try {
+            while (writing) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes the changes which are still pending and stops the thread created by this persister, if any.  Changes
+     * stored afterwards are written on the calling thread.
+     *
+     * @throws ConfigurationPersistenceException if the write which covers the pending changes failed
+     */
+    public void shutdown() throws ConfigurationPersistenceException {
+        synchronized (lock) {
+            shutdown = true;
+        }
+        try {
+            flush();
+        } finally {
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+        }
+    }
+
+    @Override
+    public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        delegate.marshallAsXml(model, output);
+    }
+
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        return delegate.load();
+    }
+
+    @Override
+    public void successfulBoot() throws ConfigurationPersistenceException {
+        flush();
+        delegate.successfulBoot();
+    }
+
+    @Override
+    public String snapshot() throws ConfigurationPersistenceException {
+        // the snapshot must include every change made before it was requested
+        flush();
+        return delegate.snapshot();
+    }
+
+    @Override
+    public SnapshotInfo listSnapshots() {
+        return delegate.listSnapshots();
+    }
+
+    @Override
+    public void deleteSnapshot(final String name) {
+        delegate.deleteSnapshot(name);
+    }
+
+    @Override
+    public void registerSubsystemWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemWriter(name, writer);
+    }
+
+    @Override
+    public void registerSubsystemDeploymentWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemDeploymentWriter(name, writer);
+    }
+}
@@ -312,7 +312,10 @@ public class ConfigurationFile {
             return;
         }
         try {
-            moveFile(mainFile, getVersionedFile(mainFile));
+            // Copy rather than move, so the main file stays in place until the new version replaces it
+            if (mainFile.exists()) {
+                copyFile(mainFile, getVersionedFile(mainFile));
+            }
             int seq = sequence.get();
             if (seq > CURRENT_HISTORY_LENGTH) {
                 File delete = getVersionedFile(mainFile, seq - CURRENT_HISTORY_LENGTH);
@@ -338,16 +341,6 @@ public class ConfigurationFile {
     }
 
 
-    private void moveFile(final File file, final File backup) throws IOException {
-
-        if (backup.exists())
-            backup.delete();
-
-        if (!file.renameTo(backup) && file.exists()) {
-            copyFile(file, backup);
-        }
-    }
-
     String snapshot() throws ConfigurationPersistenceException {
         String name = getTimeStamp(new Date()) + mainFileName;
         File snapshot = new File(snapshotsDirectory, name);
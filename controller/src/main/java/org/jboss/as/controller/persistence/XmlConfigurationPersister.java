@@ -75,19 +75,42 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         store(model, fileName);
     }
 
+    /**
+     * Write the model to a temporary file in the same directory as {@code file} and then rename it, so a reader of
+     * {@code file} sees either the previous or the new configuration but never a partially written one.
+     *
+     * @param model the model to store
+     * @param file the file to write
+     * @throws ConfigurationPersistenceException if the configuration could not be written
+     */
     protected void store(final ModelNode model, final File file) throws ConfigurationPersistenceException {
+        File tmp = null;
         try {
-            final FileOutputStream fos = new FileOutputStream(file);
+            tmp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+            final FileOutputStream fos = new FileOutputStream(tmp);
             try {
                 BufferedOutputStream output = new BufferedOutputStream(fos);
                 marshallAsXml(model, output);
+                output.flush();
+                fos.getFD().sync();
                 output.close();
                 fos.close();
             } finally {
                 safeClose(fos);
             }
+            // renameTo() does not replace an existing file on every platform
+            if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+                throw new ConfigurationPersistenceException("Failed to rename " + tmp + " to " + file);
+            }
+            tmp = null;
+        } catch (ConfigurationPersistenceException e) {
+            throw e;
         } catch (Exception e) {
             throw new ConfigurationPersistenceException("Failed to store configuration", e);
+        } finally {
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
         }
     }
 
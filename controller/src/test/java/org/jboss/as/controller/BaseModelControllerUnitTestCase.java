@@ -5,9 +5,11 @@ package org.jboss.as.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FLUSH_CONFIGURATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
@@ -16,8 +18,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Executor;
 
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
@@ -25,7 +29,11 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersister.SnapshotInfo;
+import org.jboss.as.controller.persistence.CoalescingConfigurationPersister;
+import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
+import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -77,6 +85,99 @@ public class BaseModelControllerUnitTestCase {
         assertEquals(1, result.get("result").asInt());
     }
 
+    @Test
+    public void testReadHandlerCannotChangeModel() throws Exception {
+        ModelNode result = controller.execute(getOperation("read", "attr1", 5));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(1, result.get(RESULT).asInt());
+
+        result = controller.execute(getOperation("read", "attr1", 6));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(1, result.get(RESULT).asInt());
+    }
+
+    @Test
+    public void testFailedFlushFailsOperation() throws Exception {
+        final Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        controller = new TestModelController(new CoalescingConfigurationPersister(new FailingConfigurationPersister(), direct));
+
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+
+        final Operation operation = getOperation("good", "attr1", 6);
+        operation.getOperation().get(OPERATION_HEADERS, FLUSH_CONFIGURATION).set(true);
+        result = controller.execute(operation);
+        assertEquals(FAILED, result.get(OUTCOME).asString());
+        assertTrue(result.get(FAILURE_DESCRIPTION).asString().indexOf("cannot write") > -1);
+    }
+
+    @Test
+    public void testStoredSnapshotIsNotAffectedByLaterUpdates() throws Exception {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        final Executor deferred = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        final RecordingConfigurationPersister persister = new RecordingConfigurationPersister();
+        controller = new TestModelController(new CoalescingConfigurationPersister(persister, deferred));
+
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        result = controller.execute(getOperation("good", "attr2", 6));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+
+        // both changes are written by a single task
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(1, persister.stored.size());
+        final ModelNode written = persister.stored.get(0);
+        assertEquals(5, written.get("attr1").asInt());
+        assertEquals(6, written.get("attr2").asInt());
+
+        result = controller.execute(getOperation("good", "attr1", 7));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(5, written.get("attr1").asInt());
+    }
+
+    @Test
+    public void testShutdownWritesPendingChanges() throws Exception {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        final Executor deferred = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        final RecordingConfigurationPersister persister = new RecordingConfigurationPersister();
+        final CoalescingConfigurationPersister coalescing = new CoalescingConfigurationPersister(persister, deferred);
+        controller = new TestModelController(coalescing);
+
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(1, tasks.size());
+
+        final Thread writer = new Thread(tasks.remove(0));
+        writer.start();
+        coalescing.shutdown();
+        writer.join();
+        assertEquals(1, persister.stored.size());
+        assertEquals(5, persister.stored.get(0).get("attr1").asInt());
+
+        // once shut down, changes are written by the caller
+        result = controller.execute(getOperation("good", "attr1", 6));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertTrue(tasks.isEmpty());
+        assertEquals(2, persister.stored.size());
+        assertEquals(6, persister.stored.get(1).get("attr1").asInt());
+    }
+
     public static ModelNode createTestNode() {
         ModelNode model = new ModelNode();
 
@@ -145,6 +246,23 @@ public class BaseModelControllerUnitTestCase {
         }
     }
 
+    public static class ReadHandler implements ModelQueryOperationHandler {
+        @Override
+        public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler)
+                throws OperationFailedException {
+
+            String name = operation.require(NAME).asString();
+            ModelNode attr = context.getSubModel().get(name);
+            int current = attr.asInt();
+            // a careless reader which writes to the model it was given
+            attr.set(operation.require(VALUE));
+
+            resultHandler.handleResultFragment(new String[0], new ModelNode().set(current));
+            resultHandler.handleResultComplete();
+            return new BasicOperationResult();
+        }
+    }
+
     public static final DescriptionProvider DESC_PROVIDER = new DescriptionProvider() {
         @Override
         public ModelNode getModelDescription(Locale locale) {
@@ -154,11 +272,16 @@ public class BaseModelControllerUnitTestCase {
 
     private static class TestModelController extends BasicModelController {
         protected TestModelController() {
-            super(createTestNode(), new NullConfigurationPersister(), DESC_PROVIDER);
+            this(new NullConfigurationPersister());
+        }
+
+        protected TestModelController(final ConfigurationPersister persister) {
+            super(createTestNode(), persister, DESC_PROVIDER);
 
             getRegistry().registerOperationHandler("good", new GoodHandler(), DESC_PROVIDER, false);
             getRegistry().registerOperationHandler("bad", new BadHandler(), DESC_PROVIDER, false);
             getRegistry().registerOperationHandler("evil", new EvilHandler(), DESC_PROVIDER, false);
+            getRegistry().registerOperationHandler("read", new ReadHandler(), DESC_PROVIDER, false);
         }
     }
 
@@ -197,4 +320,38 @@ public class BaseModelControllerUnitTestCase {
         }
 
     }
+
+    private static class FailingConfigurationPersister extends NullConfigurationPersister implements ExtensibleConfigurationPersister {
+
+        @Override
+        public void store(ModelNode model) throws ConfigurationPersistenceException {
+            throw new ConfigurationPersistenceException("cannot write");
+        }
+
+        @Override
+        public void registerSubsystemWriter(String name, XMLElementWriter<SubsystemMarshallingContext> writer) {
+        }
+
+        @Override
+        public void registerSubsystemDeploymentWriter(String name, XMLElementWriter<SubsystemMarshallingContext> writer) {
+        }
+    }
+
+    private static class RecordingConfigurationPersister extends NullConfigurationPersister implements ExtensibleConfigurationPersister {
+
+        private final List<ModelNode> stored = new ArrayList<ModelNode>();
+
+        @Override
+        public synchronized void store(ModelNode model) throws ConfigurationPersistenceException {
+            stored.add(model);
+        }
+
+        @Override
+        public void registerSubsystemWriter(String name, XMLElementWriter<SubsystemMarshallingContext> writer) {
+        }
+
+        @Override
+        public void registerSubsystemDeploymentWriter(String name, XMLElementWriter<SubsystemMarshallingContext> writer) {
+        }
+    }
 }
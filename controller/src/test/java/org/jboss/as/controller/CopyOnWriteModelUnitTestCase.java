@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link CopyOnWriteModel}.
+ */
+public class CopyOnWriteModelUnitTestCase {
+
+    private static ModelNode createModel() {
+        final ModelNode model = new ModelNode();
+        model.get("subsystem", "a", "resource", "one", "attr").set(1);
+        model.get("subsystem", "a", "resource", "two", "attr").set(2);
+        model.get("subsystem", "b", "attr").set(3);
+        return model;
+    }
+
+    @Test
+    public void testUpdateIsIsolatedFromBase() {
+        final ModelNode base = createModel();
+        final CopyOnWriteModel view = new CopyOnWriteModel(base);
+
+        final PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "a"), PathElement.pathElement("resource", "one"));
+        final ModelNode resource = new ModelNode();
+        resource.get("attr").set(10);
+        address.navigate(view.getModelForUpdate(address), true).set(resource);
+
+        assertEquals(10, view.getModel().get("subsystem", "a", "resource", "one", "attr").asInt());
+        assertEquals(1, base.get("subsystem", "a", "resource", "one", "attr").asInt());
+        assertEquals(createModel(), base);
+    }
+
+    @Test
+    public void testAddAndRemoveAreIsolatedFromBase() {
+        final ModelNode base = createModel();
+        final CopyOnWriteModel view = new CopyOnWriteModel(base);
+
+        final PathAddress added = PathAddress.pathAddress(PathElement.pathElement("subsystem", "a"), PathElement.pathElement("resource", "three"));
+        final ModelNode resource = new ModelNode();
+        resource.get("attr").set(3);
+        added.navigate(view.getModelForUpdate(added), true).set(resource);
+        final PathAddress removed = PathAddress.pathAddress(PathElement.pathElement("subsystem", "a"), PathElement.pathElement("resource", "two"));
+        removed.remove(view.getModelForUpdate(removed));
+
+        assertTrue(view.getModel().get("subsystem", "a", "resource").has("three"));
+        assertFalse(view.getModel().get("subsystem", "a", "resource").has("two"));
+        assertEquals(createModel(), base);
+    }
+
+    @Test
+    public void testBaseUpdateIsIsolatedFromView() {
+        final ModelNode base = createModel();
+        final CopyOnWriteModel view = new CopyOnWriteModel(base);
+
+        final PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "b"));
+        final ModelNode resource = new ModelNode();
+        resource.get("attr").set(30);
+        address.navigate(CopyOnWriteModel.copyPath(base, address), true).set(resource);
+
+        assertEquals(30, base.get("subsystem", "b", "attr").asInt());
+        assertEquals(createModel(), view.getModel());
+    }
+}
@@ -46,7 +46,6 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
 
     protected static final String CONTENT = "content";
     private final File repoRoot;
-    protected final MessageDigest messageDigest;
 
     protected DeploymentRepositoryImpl(final File repoRoot) {
         if (repoRoot == null)
@@ -64,8 +63,19 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
         }
         this.repoRoot = repoRoot;
 
+        // fail early if the digest is not available
+        createMessageDigest();
+    }
+
+    /**
+     * Creates the digest used to hash content.  Each call returns a new instance, so content can be added by
+     * several threads at once.
+     *
+     * @return the digest
+     */
+    protected MessageDigest createMessageDigest() {
         try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
+            return MessageDigest.getInstance("SHA-1");
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
         }
@@ -76,22 +86,20 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
         byte[] sha1Bytes = null;
         File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
         FileOutputStream fos = new FileOutputStream(tmp);
-        synchronized (messageDigest) {
-            messageDigest.reset();
-            try {
-                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                BufferedInputStream bis = new BufferedInputStream(stream);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    dos.write(bytes, 0, read);
-                }
-            }
-            finally {
-                safeClose(fos);
+        final MessageDigest messageDigest = createMessageDigest();
+        try {
+            DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
+            BufferedInputStream bis = new BufferedInputStream(stream);
+            byte[] bytes = new byte[8192];
+            int read;
+            while ((read = bis.read(bytes)) > -1) {
+                dos.write(bytes, 0, read);
             }
-            sha1Bytes = messageDigest.digest();
         }
+        finally {
+            safeClose(fos);
+        }
+        sha1Bytes = messageDigest.digest();
         final File realFile = getDeploymentContentFile(sha1Bytes, true);
         if(hasDeploymentContent(sha1Bytes)) {
             // we've already got this content
@@ -81,21 +81,18 @@ public class ServerDeploymentRepositoryImpl extends DeploymentRepositoryImpl imp
     public byte[] addExternalFileReference(File file) throws IOException {
         byte[] sha1Bytes = null;
         final String fileName = file.getAbsolutePath();
-        final MessageDigest messageDigest = this.messageDigest;
-        synchronized(messageDigest) {
-            messageDigest.reset();
-            if(! file.exists()) {
-                throw new FileNotFoundException(fileName);
-            }
-            final OutputStream os = new OutputStream() {
-                public void write(int b) throws IOException {
-                    //
-                }
-            };
-            final DigestOutputStream dos = new DigestOutputStream(os, messageDigest);
-            calculateHash(file, dos);
-            sha1Bytes = messageDigest.digest();
+        final MessageDigest messageDigest = createMessageDigest();
+        if(! file.exists()) {
+            throw new FileNotFoundException(fileName);
         }
+        final OutputStream nullStream = new OutputStream() {
+            public void write(int b) throws IOException {
+                //
+            }
+        };
+        final DigestOutputStream dos = new DigestOutputStream(nullStream, messageDigest);
+        calculateHash(file, dos);
+        sha1Bytes = messageDigest.digest();
         final File content = getExternalFileReference(sha1Bytes, true);
         final OutputStream os = new FileOutputStream(content);
         try {
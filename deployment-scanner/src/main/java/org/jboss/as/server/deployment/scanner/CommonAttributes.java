@@ -37,5 +37,6 @@ interface CommonAttributes {
     String SCANNER = "scanner";
     String SCAN_ENABLED = "scan-enabled";
     String SCAN_INTERVAL = "scan-interval";
+    String WATCH_ENABLED = "watch-enabled";
 
 }
@@ -106,6 +106,7 @@ public class DeploymentScannerExtension implements Extension {
         scanners.registerReadWriteAttribute(Attribute.AUTO_DEPLOY_ZIPPED.getLocalName(), null, WriteAutoDeployZipAttributeHandler.INSTANCE, Storage.CONFIGURATION);
         scanners.registerReadWriteAttribute(Attribute.AUTO_DEPLOY_EXPLODED.getLocalName(), null, WriteAutoDeployExplodedAttributeHandler.INSTANCE, Storage.CONFIGURATION);
         scanners.registerReadWriteAttribute(Attribute.DEPLOYMENT_TIMEOUT.getLocalName(), null, WriteDeploymentTimeoutAttributeHandler.INSTANCE, Storage.CONFIGURATION);
+        scanners.registerReadWriteAttribute(Attribute.WATCH_ENABLED.getLocalName(), null, WriteWatchEnabledAttributeHandler.INSTANCE, Storage.CONFIGURATION);
     }
 
     /** {@inheritDoc} */
@@ -158,6 +159,11 @@ public class DeploymentScannerExtension implements Extension {
                     if (configuration.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT)) {
                         writer.writeAttribute(Attribute.DEPLOYMENT_TIMEOUT.getLocalName(), configuration.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asString());
                     }
+                    if (configuration.hasDefined(CommonAttributes.WATCH_ENABLED)) {
+                        if (configuration.get(CommonAttributes.WATCH_ENABLED).asBoolean()) {
+                            writer.writeAttribute(Attribute.WATCH_ENABLED.getLocalName(), Boolean.TRUE.toString());
+                        }
+                    }
                 }
                 writer.writeEndElement();
             }
@@ -208,6 +214,7 @@ public class DeploymentScannerExtension implements Extension {
             Boolean autoDeployZipped = null;
             Boolean autoDeployExploded = null;
             Long deploymentTimeout = null;
+            Boolean watchEnabled = null;
             final int attrCount = reader.getAttributeCount();
             for (int i = 0; i < attrCount; i++) {
                 requireNoNamespaceAttribute(reader, i);
@@ -246,6 +253,10 @@ public class DeploymentScannerExtension implements Extension {
                         deploymentTimeout = Long.parseLong(value);
                         break;
                     }
+                    case WATCH_ENABLED: {
+                        watchEnabled = Boolean.parseBoolean(value);
+                        break;
+                    }
                     default:
                         throw ParseUtils.unexpectedAttribute(reader, i);
                 }
@@ -268,6 +279,7 @@ public class DeploymentScannerExtension implements Extension {
             if (enabled != null) operation.get(CommonAttributes.SCAN_ENABLED).set(enabled.booleanValue());
             if(relativeTo != null) operation.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
             if(deploymentTimeout != null) operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).set(deploymentTimeout);
+            if (watchEnabled != null) operation.get(CommonAttributes.WATCH_ENABLED).set(watchEnabled.booleanValue());
             list.add(operation);
         }
 
@@ -59,6 +59,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private boolean autoDeployZipped;
     private boolean autoDeployExploded;
     private Long deploymentTimeout;
+    private boolean watchEnabled;
 
     /** The created scanner. */
     private DeploymentScanner scanner;
@@ -82,11 +83,13 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanInterval the scan interval
      * @param scanEnabled scan enabled
      * @param deploymentTimeout the deployment timeout
+     * @param watchEnabled whether the path is watched for changes instead of being polled
      * @return
      */
     public static void addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path,
-            final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip, final Boolean autoDeployExploded, final Boolean scanEnabled, final Long deploymentTimeout) {
-        final DeploymentScannerService service = new DeploymentScannerService(scanInterval, unit, autoDeployZip, autoDeployExploded, scanEnabled, deploymentTimeout);
+            final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip, final Boolean autoDeployExploded, final Boolean scanEnabled, final Long deploymentTimeout,
+            final Boolean watchEnabled) {
+        final DeploymentScannerService service = new DeploymentScannerService(scanInterval, unit, autoDeployZip, autoDeployExploded, scanEnabled, deploymentTimeout, watchEnabled);
         final ServiceName serviceName = getServiceName(name);
         final ServiceName pathService = serviceName.append("path");
 
@@ -96,7 +99,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             AbsolutePathService.addService(pathService, path, serviceTarget);
         }
         final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("DeploymentScanner-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
-        final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(2, threadFactory);
+        // the scan itself, plus the threads adding deployment content alongside it
+        final ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(1 + FileSystemDeploymentService.MAX_CONCURRENT_CONTENT, threadFactory);
 
         serviceTarget.addService(serviceName, service)
             .addDependency(pathService, String.class, service.pathValue)
@@ -108,13 +112,14 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     }
 
     DeploymentScannerService(final Integer interval, final TimeUnit unit, final Boolean autoDeployZipped,
-            final Boolean autoDeployExploded, final Boolean enabled, final Long deploymentTimeout) {
+            final Boolean autoDeployExploded, final Boolean enabled, final Long deploymentTimeout, final Boolean watchEnabled) {
         this.interval = interval == null ? DEFAULT_INTERVAL : interval.longValue();
         this.unit = unit;
         this.autoDeployZipped = autoDeployZipped == null ? true : autoDeployZipped.booleanValue();
         this.autoDeployExploded = autoDeployExploded == null ? false : autoDeployExploded.booleanValue();
         this.enabled = enabled == null ? true : enabled.booleanValue();
         this.deploymentTimeout = deploymentTimeout;
+        this.watchEnabled = watchEnabled == null ? false : watchEnabled.booleanValue();
     }
 
 
@@ -131,6 +136,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             if(deploymentTimeout != null) {
                 scanner.setDeploymentTimeout(deploymentTimeout);
             }
+            scanner.setWatchEnabled(watchEnabled);
 
             if(enabled) {
                 scanner.startScanner();
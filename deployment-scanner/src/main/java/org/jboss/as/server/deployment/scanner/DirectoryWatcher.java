@@ -0,0 +1,364 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Watches a directory tree for created, modified and deleted entries using the platform file change notification
+ * service, and notifies a {@link Listener} once the tree has been quiet for the debounce period.  Waiting for the
+ * tree to go quiet means a file which is still being copied produces a single notification rather than one per write.
+ * <p>
+ * The {@code java.nio.file} API is only accessed reflectively, as it is not available on every JVM this module runs
+ * on.  {@link #create(File, FileFilter, long, Listener)} returns {@code null} where it is missing, where the JVM only
+ * provides a polling implementation of the watch service, or where the directory is on a network filesystem whose
+ * remote changes are not reported; callers then keep polling the directory instead.
+ */
+final class DirectoryWatcher implements Runnable {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.deployment");
+
+    /** Watch service implementation which polls instead of receiving notifications from the OS */
+    private static final String POLLING_WATCH_SERVICE = "sun.nio.fs.PollingWatchService";
+
+    /** Filesystem types on which notifications only cover changes made through the local host */
+    private static final Set<String> REMOTE_FILESYSTEMS = new HashSet<String>(Arrays.asList("nfs", "nfs4", "cifs", "smbfs", "smb2", "fuse.sshfs"));
+
+    /** The longest a notification is delayed by continuous changes, as a multiple of the debounce period */
+    private static final int MAX_DELAY_FACTOR = 10;
+
+    private static final Nio NIO = Nio.load();
+
+    /**
+     * Receives notifications from a {@code DirectoryWatcher}.  Notifications are delivered on the watcher thread.
+     */
+    interface Listener {
+
+        /**
+         * Called after one or more changes once the directory tree has been quiet for the debounce period, or if
+         * notifications were lost.
+         */
+        void directoryChanged();
+
+        /**
+         * Called if the watched directory can no longer be watched.  No further notifications are delivered.
+         */
+        void watchFailed();
+    }
+
+    private final File root;
+    private final FileFilter directoryFilter;
+    private final long debounce;
+    private final Listener listener;
+    private final Object watchService;
+    private final Thread thread;
+    private volatile boolean closed;
+    private Object rootKey;
+
+    private DirectoryWatcher(final File root, final FileFilter directoryFilter, final long debounce, final Listener listener, final Object watchService) {
+        this.root = root;
+        this.directoryFilter = directoryFilter;
+        this.debounce = debounce;
+        this.listener = listener;
+        this.watchService = watchService;
+        thread = new Thread(this, "DeploymentScanner-watcher - " + root.getName());
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Create a watcher for a directory tree.
+     *
+     * @param root the root of the tree
+     * @param directoryFilter selects the subdirectories which are watched along with the root
+     * @param debounce how long, in milliseconds, the tree must be quiet before the listener is notified
+     * @param listener the listener
+     * @return the watcher, or {@code null} if changes to the directory cannot be watched without polling
+     */
+    static DirectoryWatcher create(final File root, final FileFilter directoryFilter, final long debounce, final Listener listener) {
+        if (root == null) {
+            throw new IllegalArgumentException("root is null");
+        }
+        if (directoryFilter == null) {
+            throw new IllegalArgumentException("directoryFilter is null");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null");
+        }
+        if (NIO == null) {
+            log.debugf("File change notifications are not available, %s will be polled", root);
+            return null;
+        }
+        Object watchService = null;
+        try {
+            final String type = NIO.getFileStoreType(root);
+            if (REMOTE_FILESYSTEMS.contains(type)) {
+                log.debugf("%s is on a %s filesystem, it will be polled", root, type);
+                return null;
+            }
+            watchService = NIO.newWatchService();
+            if (POLLING_WATCH_SERVICE.equals(watchService.getClass().getName())) {
+                log.debugf("File change notifications are not supported by this platform, %s will be polled", root);
+                NIO.close(watchService);
+                return null;
+            }
+            final DirectoryWatcher watcher = new DirectoryWatcher(root, directoryFilter, debounce, listener, watchService);
+            watcher.rootKey = watcher.registerAll(root);
+            return watcher;
+        } catch (Exception e) {
+            log.debugf(e, "Cannot watch %s for changes, it will be polled", root);
+            if (watchService != null) {
+                NIO.close(watchService);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Start delivering notifications.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Stop the watcher.  A notification which is being delivered may still complete after this method returns.
+     */
+    void stop() {
+        closed = true;
+        NIO.close(watchService);
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (;;) {
+                boolean changed = handle(NIO.take(watchService));
+                // wait for the tree to go quiet, so content which is still being written is not scanned repeatedly
+                final long deadline = System.currentTimeMillis() + debounce * MAX_DELAY_FACTOR;
+                for (;;) {
+                    final long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    final Object key = NIO.poll(watchService, Math.min(debounce, remaining));
+                    if (key == null) {
+                        break;
+                    }
+                    changed |= handle(key);
+                }
+                if (changed && !closed) {
+                    listener.directoryChanged();
+                }
+            }
+        } catch (Exception e) {
+            if (closed) {
+                return;
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warnf(e, "Stopped watching %s for changes", root.getAbsolutePath());
+        }
+        NIO.close(watchService);
+        listener.watchFailed();
+    }
+
+    /**
+     * Handle the events of a signalled key, registering any new subdirectories.
+     *
+     * @return {@code true} if the key reported any events
+     */
+    private boolean handle(final Object key) throws Exception {
+        final List<?> events = NIO.pollEvents(key);
+        for (Object event : events) {
+            final Object kind = NIO.kind(event);
+            if (kind == NIO.entryCreate) {
+                final File child = NIO.resolve(NIO.watchable(key), NIO.context(event));
+                if (child.isDirectory() && directoryFilter.accept(child)) {
+                    registerAll(child);
+                }
+            }
+        }
+        if (!NIO.reset(key) && key == rootKey) {
+            throw new IllegalStateException(root.getAbsolutePath() + " is no longer accessible");
+        }
+        return !events.isEmpty();
+    }
+
+    private Object registerAll(final File dir) throws Exception {
+        final Object key = NIO.register(dir, watchService);
+        final File[] children = dir.listFiles(directoryFilter);
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    registerAll(child);
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Reflective access to the parts of {@code java.nio.file} used by the watcher.
+     */
+    private static final class Nio {
+
+        private final Method toPath;
+        private final Method toFile;
+        private final Method resolve;
+        private final Method register;
+        private final Method getFileStore;
+        private final Method fileStoreType;
+        private final Object fileSystem;
+        private final Method newWatchService;
+        private final Method take;
+        private final Method poll;
+        private final Method close;
+        private final Method pollEvents;
+        private final Method reset;
+        private final Method watchable;
+        private final Method kind;
+        private final Method context;
+        private final Object kinds;
+        private final Object entryCreate;
+
+        private Nio() throws Exception {
+            final Class<?> pathClass = Class.forName("java.nio.file.Path");
+            final Class<?> watchServiceClass = Class.forName("java.nio.file.WatchService");
+            final Class<?> watchKeyClass = Class.forName("java.nio.file.WatchKey");
+            final Class<?> watchEventClass = Class.forName("java.nio.file.WatchEvent");
+            final Class<?> kindClass = Class.forName("java.nio.file.WatchEvent$Kind");
+            final Class<?> kindsClass = Class.forName("java.nio.file.StandardWatchEventKinds");
+            final Class<?> fileStoreClass = Class.forName("java.nio.file.FileStore");
+
+            toPath = File.class.getMethod("toPath");
+            toFile = pathClass.getMethod("toFile");
+            resolve = pathClass.getMethod("resolve", pathClass);
+            register = pathClass.getMethod("register", watchServiceClass, Array.newInstance(kindClass, 0).getClass());
+            getFileStore = Class.forName("java.nio.file.Files").getMethod("getFileStore", pathClass);
+            fileStoreType = fileStoreClass.getMethod("type");
+            fileSystem = Class.forName("java.nio.file.FileSystems").getMethod("getDefault").invoke(null);
+            newWatchService = Class.forName("java.nio.file.FileSystem").getMethod("newWatchService");
+            take = watchServiceClass.getMethod("take");
+            poll = watchServiceClass.getMethod("poll", long.class, TimeUnit.class);
+            close = watchServiceClass.getMethod("close");
+            pollEvents = watchKeyClass.getMethod("pollEvents");
+            reset = watchKeyClass.getMethod("reset");
+            watchable = watchKeyClass.getMethod("watchable");
+            kind = watchEventClass.getMethod("kind");
+            context = watchEventClass.getMethod("context");
+
+            entryCreate = kindsClass.getField("ENTRY_CREATE").get(null);
+            kinds = Array.newInstance(kindClass, 3);
+            Array.set(kinds, 0, entryCreate);
+            Array.set(kinds, 1, kindsClass.getField("ENTRY_DELETE").get(null));
+            Array.set(kinds, 2, kindsClass.getField("ENTRY_MODIFY").get(null));
+        }
+
+        static Nio load() {
+            try {
+                return new Nio();
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+
+        String getFileStoreType(final File file) throws Exception {
+            return (String) invoke(fileStoreType, invoke(getFileStore, null, invoke(toPath, file)));
+        }
+
+        Object newWatchService() throws Exception {
+            return invoke(newWatchService, fileSystem);
+        }
+
+        Object register(final File dir, final Object watchService) throws Exception {
+            return invoke(register, invoke(toPath, dir), watchService, kinds);
+        }
+
+        Object take(final Object watchService) throws Exception {
+            return invoke(take, watchService);
+        }
+
+        Object poll(final Object watchService, final long millis) throws Exception {
+            return invoke(poll, watchService, Long.valueOf(millis), TimeUnit.MILLISECONDS);
+        }
+
+        void close(final Object watchService) {
+            try {
+                invoke(close, watchService);
+            } catch (Exception e) {
+                log.debugf(e, "Failed to close watch service");
+            }
+        }
+
+        List<?> pollEvents(final Object key) throws Exception {
+            return (List<?>) invoke(pollEvents, key);
+        }
+
+        boolean reset(final Object key) throws Exception {
+            return ((Boolean) invoke(reset, key)).booleanValue();
+        }
+
+        Object watchable(final Object key) throws Exception {
+            return invoke(watchable, key);
+        }
+
+        Object kind(final Object event) throws Exception {
+            return invoke(kind, event);
+        }
+
+        Object context(final Object event) throws Exception {
+            return invoke(context, event);
+        }
+
+        File resolve(final Object dir, final Object name) throws Exception {
+            return (File) invoke(toFile, invoke(resolve, dir, name));
+        }
+
+        private static Object invoke(final Method method, final Object target, final Object... args) throws Exception {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
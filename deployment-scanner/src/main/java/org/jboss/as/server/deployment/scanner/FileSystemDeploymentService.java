@@ -47,15 +47,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
@@ -103,11 +107,21 @@ class FileSystemDeploymentService implements DeploymentScanner {
     /** Default timeout for deployments to execute in seconds*/
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 60;
 
+    /** Max number of deployments whose content is added to the deployment repository at the same time */
+    static final int MAX_CONCURRENT_CONTENT = 4;
+
+    /** Period, in ms, the deployment directory must be unchanged before a watched directory is scanned */
+    static final long WATCH_DEBOUNCE = 500;
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
     private ScheduledFuture<?> scanTask;
     private ScheduledFuture<?> rescanIncompleteTask;
+    private boolean watchEnabled;
+    private volatile DirectoryWatcher watcher;
+    private boolean watchScanPending;
+    private boolean watchScanRunning;
     private final Lock scanLock = new ReentrantLock();
 
     private final Map<String, DeploymentMarker> deployed = new HashMap<String, DeploymentMarker>();
@@ -126,6 +140,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private volatile long maxNoProgress = MAX_NO_PROGRESS;
 
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
+    private volatile long watchDebounce = WATCH_DEBOUNCE;
 
     private final Runnable scanRunnable = new Runnable() {
         @Override
@@ -138,6 +153,52 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     };
 
+    /**
+     * Runs scans requested while the directory is watched, one at a time, until no further scan is pending.  A scan
+     * waiting for the scan lock would hold one of the executor threads the running scan needs for its deployment task.
+     */
+    private final Runnable watchScanRunnable = new Runnable() {
+        @Override
+        public void run() {
+            for (;;) {
+                synchronized (FileSystemDeploymentService.this) {
+                    if (!watchScanPending) {
+                        watchScanRunning = false;
+                        return;
+                    }
+                    watchScanPending = false;
+                }
+                scanRunnable.run();
+            }
+        }
+    };
+
+    private final DirectoryWatcher.Listener watchListener = new DirectoryWatcher.Listener() {
+        @Override
+        public void directoryChanged() {
+            synchronized (FileSystemDeploymentService.this) {
+                if (scanEnabled && watcher != null) {
+                    requestWatchScan();
+                }
+            }
+        }
+
+        @Override
+        public void watchFailed() {
+            synchronized (FileSystemDeploymentService.this) {
+                if (scanEnabled && watcher != null) {
+                    log.warnf("Falling back to scanning %s every %d ms", deploymentDir.getAbsolutePath(), scanInterval);
+                    watcher = null;
+                    if (scanInterval > 0) {
+                        scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
+                    } else {
+                        scanTask = scheduledExecutor.schedule(scanRunnable, 0, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        }
+    };
+
     FileSystemDeploymentService(final File deploymentDir, final ServerController serverController, final ScheduledExecutorService scheduledExecutor,
             final ServerDeploymentRepository deploymentRepository) throws OperationFailedException {
         if (scheduledExecutor == null) {
@@ -214,6 +275,20 @@ class FileSystemDeploymentService implements DeploymentScanner {
         startScan();
     }
 
+    @Override
+    public synchronized boolean isWatchEnabled() {
+        return watchEnabled;
+    }
+
+    @Override
+    public synchronized void setWatchEnabled(boolean watchEnabled) {
+        if (watchEnabled != this.watchEnabled) {
+            cancelScan();
+            this.watchEnabled = watchEnabled;
+            startScan();
+        }
+    }
+
     @Override
     public void setDeploymentTimeout(long deploymentTimeout) {
         this.deploymentTimeout = deploymentTimeout;
@@ -247,6 +322,16 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.maxNoProgress = max;
     }
 
+    /** Hook solely for unit test to control how long a watched directory must be quiet before it is scanned */
+    void setWatchDebounce(long debounce) {
+        this.watchDebounce = debounce;
+    }
+
+    /** Hook solely for unit test to check whether file change notifications are being used */
+    boolean isWatching() {
+        return watcher != null;
+    }
+
     private void establishDeployedContentList(File dir) throws OperationFailedException {
         final Set<String> deploymentNames = getDeploymentNames();
         final File[] children = dir.listFiles();
@@ -307,7 +392,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 // Deal with any incomplete or non-scannable auto-deploy content
                 ScanStatus status = handleAutoDeployFailures(scanContext);
                 if (status != ScanStatus.PROCEED) {
-                    if (status == ScanStatus.RETRY && scanInterval > 1000) {
+                    if (status == ScanStatus.RETRY && (scanInterval > 1000 || watcher != null)) {
                         // in finally block, schedule a non-repeating task to try again more quickly
                         scheduleRescan = true;
                     }
@@ -327,15 +412,15 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
                 // Process the tasks
                 if (scannerTasks.size() > 0) {
-                    List<ModelNode> updates = new ArrayList<ModelNode>(scannerTasks.size());
-
                     for (ScannerTask task : scannerTasks) {
                         task.recordInProgress(); // puts down .isdeploying, .isundeploying
-                        final ModelNode update = task.getUpdate();
-                        if (log.isDebugEnabled()) {
+                    }
+
+                    List<ModelNode> updates = getUpdates(scannerTasks);
+                    if (log.isDebugEnabled()) {
+                        for (ModelNode update : updates) {
                             log.debugf("Deployment scan of [%s] found update action [%s]", deploymentDir, update);
                         }
-                        updates.add(update);
                     }
 
                     while (!updates.isEmpty()) {
@@ -387,7 +472,21 @@ class FileSystemDeploymentService implements DeploymentScanner {
             if (scheduleRescan) {
                 synchronized (this) {
                     if (scanEnabled) {
-                        rescanIncompleteTask = scheduledExecutor.schedule(scanRunnable, 200, TimeUnit.MILLISECONDS);
+                        if (watcher == null) {
+                            rescanIncompleteTask = scheduledExecutor.schedule(scanRunnable, 200, TimeUnit.MILLISECONDS);
+                        } else {
+                            // Content that is still being written triggers a scan when it changes; this rescan only
+                            // makes sure content which stopped changing before it was complete gets reported
+                            if (rescanIncompleteTask != null) {
+                                rescanIncompleteTask.cancel(false);
+                            }
+                            rescanIncompleteTask = scheduledExecutor.schedule(new Runnable() {
+                                @Override
+                                public void run() {
+                                    requestWatchScan();
+                                }
+                            }, maxNoProgress, TimeUnit.MILLISECONDS);
+                        }
                     }
                 }
             }
@@ -673,6 +772,26 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private synchronized void startScan() {
         if (scanEnabled) {
+            if (watchEnabled) {
+                if (watcher != null) {
+                    return;
+                }
+                watcher = DirectoryWatcher.create(deploymentDir, new FileFilter() {
+                    @Override
+                    public boolean accept(File file) {
+                        // the same subdirectories scanDirectory descends into
+                        return file.isDirectory() && !isEEArchive(file.getName()) && filter.accept(file);
+                    }
+                }, watchDebounce, watchListener);
+                if (watcher != null) {
+                    watcher.start();
+                    // pick up anything which changed while the directory was not being watched
+                    requestWatchScan();
+                    return;
+                }
+                log.infof("File change notifications are not available for %s, falling back to scanning every %d ms",
+                        deploymentDir.getAbsolutePath(), scanInterval);
+            }
             if (scanInterval > 0) {
                 scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
             } else {
@@ -681,10 +800,22 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    private synchronized void requestWatchScan() {
+        watchScanPending = true;
+        if (!watchScanRunning) {
+            watchScanRunning = true;
+            scheduledExecutor.execute(watchScanRunnable);
+        }
+    }
+
     /**
      * Invoke with the object monitor held
      */
     private void cancelScan() {
+        if (watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
         if (rescanIncompleteTask != null) {
             rescanIncompleteTask.cancel(false);
             rescanIncompleteTask = null;
@@ -710,6 +841,64 @@ class FileSystemDeploymentService implements DeploymentScanner {
         return deploymentNames;
     }
 
+    /**
+     * Gets the updates of the tasks.  Adding deployment content to the repository is done by up to
+     * {@link #MAX_CONCURRENT_CONTENT} tasks at a time.  The calling thread takes part as well, so all the updates are
+     * created even if the executor has no thread available.
+     */
+    private List<ModelNode> getUpdates(final List<ScannerTask> tasks) {
+        final int size = tasks.size();
+        final ModelNode[] updates = new ModelNode[size];
+        final RuntimeException[] failures = new RuntimeException[size];
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(size);
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int i;
+                while ((i = next.getAndIncrement()) < size) {
+                    try {
+                        updates[i] = tasks.get(i).getUpdate();
+                    } catch (RuntimeException e) {
+                        failures[i] = e;
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+        for (int i = 1; i < Math.min(size, MAX_CONCURRENT_CONTENT); i++) {
+            try {
+                scheduledExecutor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (RuntimeException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return new ArrayList<ModelNode>(Arrays.asList(updates));
+    }
+
     private ModelNode getCompositeUpdate(final List<ModelNode> updates) {
         final ModelNode op = Util.getEmptyOperation(COMPOSITE, new ModelNode());
         final ModelNode steps = op.get(STEPS);
@@ -54,6 +54,21 @@ public interface DeploymentScanner {
      */
     void setScanInterval(long scanInterval);
 
+    /**
+     * Check whether the scanner reacts to file change notifications instead of polling.
+     *
+     * @return true if watching is enabled, false otherwise
+     */
+    boolean isWatchEnabled();
+
+    /**
+     * Set whether the scanner reacts to file change notifications instead of scanning every scan interval.  If the
+     * filesystem does not provide notifications the scanner keeps polling.
+     *
+     * @param watchEnabled true to watch the deployment directory for changes
+     */
+    void setWatchEnabled(boolean watchEnabled);
+
     /**
      * Start the scanner, if not already started.
      */
@@ -3,6 +3,7 @@
  */
 package org.jboss.as.server.deployment.scanner;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -29,6 +30,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUC
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEPLOY;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.Closeable;
@@ -39,6 +41,7 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -46,6 +49,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -65,6 +69,7 @@ import org.jboss.vfs.VirtualFile;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -181,6 +186,31 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertTrue(deployed2.exists());
     }
 
+    @Test
+    public void testConcurrentContentDeploy() throws Exception {
+        final int count = FileSystemDeploymentService.MAX_CONCURRENT_CONTENT * 2;
+        File[] dodeploy = new File[count];
+        File[] deployed = new File[count];
+        for (int i = 0; i < count; i++) {
+            createFile("foo" + i + ".war");
+            dodeploy[i] = createFile("foo" + i + ".war" + FileSystemDeploymentService.DO_DEPLOY);
+            deployed[i] = new File(tmpDir, "foo" + i + ".war" + FileSystemDeploymentService.DEPLOYED);
+        }
+        TesteeSet ts = createTestee(new DiscardTaskExecutor() {
+            @Override
+            public void execute(Runnable command) {
+                new Thread(command).start();
+            }
+        });
+        ts.controller.addCompositeSuccessResponse(count);
+        ts.testee.scan();
+        assertEquals(count, ts.repo.content.size());
+        for (int i = 0; i < count; i++) {
+            assertFalse(dodeploy[i].exists());
+            assertTrue(deployed[i].exists());
+        }
+    }
+
     @Test
     public void testBasicFailure() throws Exception {
         File war = createFile("foo.war");
@@ -939,6 +969,42 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertTrue(failed.exists());
     }
 
+    @Test
+    public void testWatchTriggersScan() throws Exception {
+        final BlockingQueue<Runnable> scans = new LinkedBlockingQueue<Runnable>();
+        TesteeSet ts = createTestee(new DiscardTaskExecutor() {
+            @Override
+            public void execute(Runnable command) {
+                scans.add(command);
+            }
+        });
+        ts.testee.setWatchDebounce(50);
+        ts.testee.setWatchEnabled(true);
+        try {
+            Assume.assumeTrue(ts.testee.isWatching());
+
+            // the scan of anything which changed before the directory was watched
+            Runnable scan = scans.poll(5, TimeUnit.SECONDS);
+            assertNotNull(scan);
+            scan.run();
+
+            File war = createFile("foo.war");
+            File dodeploy = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+            File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+            ts.controller.addCompositeSuccessResponse(1);
+
+            scan = scans.poll(10, TimeUnit.SECONDS);
+            assertNotNull(scan);
+            scan.run();
+            assertEquals(1, ts.repo.content.size());
+            assertTrue(war.exists());
+            assertFalse(dodeploy.exists());
+            assertTrue(deployed.exists());
+        } finally {
+            ts.testee.stopScanner();
+        }
+    }
+
     private TesteeSet createTestee(String... existingContent) throws OperationFailedException {
         return createTestee(new MockServerController(new MockDeploymentRepository(), existingContent));
     }
@@ -1010,7 +1076,7 @@ public class FileSystemDeploymentServiceUnitTestCase {
 
     private static class MockDeploymentRepository implements ServerDeploymentRepository {
 
-        private Set<byte[]> content = new HashSet<byte[]>(2);
+        private Set<byte[]> content = Collections.synchronizedSet(new HashSet<byte[]>(2));
 
         @Override
         public byte[] addDeploymentContent(InputStream stream) throws IOException {
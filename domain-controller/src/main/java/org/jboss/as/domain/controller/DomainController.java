@@ -48,6 +48,21 @@ public interface DomainController extends ModelController {
      */
     ModelNode addClient(final DomainControllerSlaveClient hostControllerClient);
 
+    /**
+     * Registers a Host Controller with this domain controller, preferring to send it only the changes to the
+     * domain level model it missed since the given revision.
+     *
+     * @param hostControllerClient client the domain controller can use to communicate with the Host Controller.
+     * @param revision the domain model revision the Host Controller last synchronized with, or an undefined node
+     *
+     * @return the update for the Host Controller, containing the {@link DomainModelJournal#ID id} and
+     * {@link DomainModelJournal#REVISION revision} of the domain model, and either the missed
+     * {@link DomainModelJournal#OPERATIONS operations} or a copy of the {@link DomainModelJournal#MODEL model}
+     * @throws IllegalArgumentException if there already exists a host controller with the same id as
+     * <code>hostControllerClient</code>
+     */
+    ModelNode addClient(final DomainControllerSlaveClient hostControllerClient, final ModelNode revision);
+
     /**
      * Deregisters a previously registered Host Controller.
      *
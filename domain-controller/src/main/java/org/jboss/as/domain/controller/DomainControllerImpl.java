@@ -72,14 +72,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AbstractModelController;
 import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ControllerResource;
 import org.jboss.as.controller.ControllerTransaction;
 import org.jboss.as.controller.ControllerTransactionContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -95,6 +96,7 @@ import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadByte
 import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadStreamAttachmentHandler;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadURLHandler;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadUtil;
+import org.jboss.as.domain.controller.plan.FanOut;
 import org.jboss.as.domain.controller.plan.RolloutPlanController;
 import org.jboss.as.domain.controller.plan.ServerOperationExecutor;
 import org.jboss.as.server.deployment.api.DeploymentRepository;
@@ -112,6 +114,15 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
 
     private static final Logger log = Logger.getLogger("org.jboss.as.domain.controller");
 
+    /**
+     * System property which sets the number of seconds the master waits for each host to apply an operation.
+     */
+    public static final String HOST_OPERATION_TIMEOUT_PROPERTY = "jboss.domain.host.operation.timeout";
+    private static final long DEFAULT_HOST_OPERATION_TIMEOUT = 300;
+
+    /** Operation header carrying the domain model revision of a change pushed to the slaves */
+    private static final String DOMAIN_MODEL_REVISION = "domain-model-revision";
+
     // FIXME this is an overly primitive way to check for read-only ops
     private static final Set<String> READ_ONLY_OPERATIONS;
     private static final Set<String> DEPLOYMENT_OPS;
@@ -141,6 +152,8 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
     private final FileRepository fileRepository;
     private final DeploymentRepository deploymentRepository;
     private final MasterDomainControllerClient masterDomainControllerClient;
+    private final DomainModelJournal journal;
+    private final long hostOperationTimeout = Long.getLong(HOST_OPERATION_TIMEOUT_PROPERTY, DEFAULT_HOST_OPERATION_TIMEOUT);
     private final ServerOperationExecutor serverOperationExecutor = new ServerOperationExecutor() {
         @Override
         public ModelNode executeServerOperation(ServerIdentity server, Operation operation) {
@@ -158,6 +171,7 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         this.fileRepository = fileRepository;
         this.deploymentRepository = deploymentRepository;
         this.masterDomainControllerClient = null;
+        this.journal = new DomainModelJournal(UUID.randomUUID().toString());
 
     }
 
@@ -171,6 +185,7 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         this.hosts = hosts;
         this.hosts.put(hostName, new LocalDomainModelAdapter());
         this.deploymentRepository = null;
+        this.journal = new DomainModelJournal(null);
     }
 
     /** {@inheritDoc} */
@@ -184,6 +199,34 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         return localDomainModel.getDomainModel();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ModelNode addClient(final DomainControllerSlaveClient client, final ModelNode revision) {
+        Logger.getLogger("org.jboss.domain").info("register host " + client.getId());
+        if (hosts.containsKey(client.getId()) || localHostName.equals(client.getId())){
+            throw new IllegalArgumentException("There is already a host named '" + client.getId() + "'");
+        }
+        this.hosts.put(client.getId(), client);
+
+        ModelNode update = journal.getUpdate(revision);
+        if (update != null) {
+            log.debugf("Sending %d domain model operation(s) to host %s", update.get(DomainModelJournal.OPERATIONS).asList().size(), client.getId());
+            return update;
+        }
+        // The model is not read under the domain model lock, so make sure no change was recorded while it was copied
+        ModelNode model;
+        long current;
+        do {
+            current = journal.getRevision();
+            model = localDomainModel.getDomainModel();
+        } while (current != journal.getRevision());
+        update = new ModelNode();
+        update.get(DomainModelJournal.ID).set(journal.getId());
+        update.get(DomainModelJournal.REVISION).set(current);
+        update.get(DomainModelJournal.MODEL).set(model);
+        return update;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void removeClient(final String id) {
@@ -218,6 +261,14 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
      */
     @Override
     public ModelNode execute(final Operation operation, final ControllerTransactionContext transaction) {
+        final ModelNode operationNode = operation.getOperation();
+        if (operationNode.hasDefined(OPERATION_HEADERS) && operationNode.get(OPERATION_HEADERS).hasDefined(DOMAIN_MODEL_REVISION)) {
+            // A change pushed by the master; we are at its revision once it is committed
+            final long revision = operationNode.get(OPERATION_HEADERS).remove(DOMAIN_MODEL_REVISION).asLong();
+            if (transaction != null) {
+                transaction.registerResource(new DomainModelRevisionResource(revision, null));
+            }
+        }
         return localDomainModel.executeForDomain(operation, transaction);
     }
 
@@ -538,11 +589,95 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         ((DomainModelImpl) localDomainModel).setInitialDomainModel(initialModel);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ModelNode getDomainModelRevision() {
+        return journal.getRevisionNode();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean applyDomainModelUpdate(ModelNode update) {
+        if (masterDomainControllerClient == null) {
+            throw new IllegalStateException("Cannot apply a domain model update on non-slave DomainController");
+        }
+        if (update.hasDefined(DomainModelJournal.MODEL)) {
+            // FIXME cast is poor
+            ((DomainModelImpl) localDomainModel).setInitialDomainModel(update.get(DomainModelJournal.MODEL));
+        } else if (update.hasDefined(DomainModelJournal.OPERATIONS)) {
+            for (ModelNode operation : update.get(DomainModelJournal.OPERATIONS).asList()) {
+                if (!replay(operation)) {
+                    return false;
+                }
+            }
+        }
+        journal.reset(update.require(DomainModelJournal.ID).asString(), update.require(DomainModelJournal.REVISION).asLong());
+        return true;
+    }
+
+    private boolean replay(final ModelNode operation) {
+        final ControllerTransaction transaction = new ControllerTransaction();
+        try {
+            final ModelNode result = localDomainModel.executeForDomain(OperationBuilder.Factory.create(operation).build(), transaction);
+            if (!SUCCESS.equals(result.get(OUTCOME).asString()) && !IGNORED.equals(result.get(OUTCOME).asString())) {
+                log.warnf("Failed to apply domain model operation %s received from the master: %s", operation, result.get(FAILURE_DESCRIPTION));
+                transaction.setRollbackOnly();
+                return false;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warnf(e, "Failed to apply domain model operation %s received from the master", operation);
+            transaction.setRollbackOnly();
+            return false;
+        } finally {
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Whether the operation changes the domain level model rather than just host level models.
+     */
+    private static boolean isDomainModelChange(final ModelNode operation) {
+        if (COMPOSITE.equals(operation.get(OP).asString()) && operation.hasDefined(STEPS)) {
+            for (ModelNode step : operation.get(STEPS).asList()) {
+                if (isDomainModelChange(step)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return !isHostOperation(operation);
+    }
+
+    /**
+     * Whether the operation can be replayed on a slave which missed it, which is the case unless it also changes
+     * host level models.
+     */
+    private static boolean isReplayable(final ModelNode operation) {
+        if (operation.hasDefined(INPUT_STREAM_INDEX)) {
+            return false;
+        }
+        if (COMPOSITE.equals(operation.get(OP).asString()) && operation.hasDefined(STEPS)) {
+            for (ModelNode step : operation.get(STEPS).asList()) {
+                if (!isReplayable(step)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return !isHostOperation(operation);
+    }
+
+    private static boolean isHostOperation(final ModelNode operation) {
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        return address.size() > 0 && HOST.equals(address.getElement(0).getKey());
+    }
+
     private Map<String, ModelNode> pushToHosts(Operation operation, final OperationRouting routing,
             final ControllerTransaction transaction) throws Exception {
 
         final Map<String, ModelNode> hostResults = new HashMap<String, ModelNode>();
-        final Map<String, Future<ModelNode>> futures = new HashMap<String, Future<ModelNode>>();
+        final HostResultCollector collector = new HostResultCollector(hostResults);
         ModelNode opNode = operation.getOperation();
         // Try and execute locally first; if it fails don't bother with the other hosts
         final Set<String> targets = routing.getHosts();
@@ -559,8 +694,9 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
                 // we send to the other hosts
                 localOperation = localOperation.clone(localOperation.getOperation().clone());
             }
-            pushToHost(localOperation, transaction, localHostName, futures);
-            processHostFuture(localHostName, futures.remove(localHostName), hostResults);
+            final FanOut<String, ModelNode> localFanOut = new FanOut<String, ModelNode>(scheduledExecutorService);
+            pushToHost(localOperation, transaction, localHostName, localFanOut, 0);
+            localFanOut.await(collector);
             ModelNode hostResult = hostResults.get(localHostName);
             if (!transaction.isRollbackOnly()) {
                 if (hostResult.hasDefined(OUTCOME) && FAILED.equals(hostResult.get(OUTCOME).asString())) {
@@ -571,20 +707,30 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
 
         if (!transaction.isRollbackOnly()) {
 
+            if (masterDomainControllerClient == null && hostResults.containsKey(localHostName) && isDomainModelChange(opNode)) {
+                // We hold the domain model lock until the transaction completes, so the revisions are reserved in
+                // the order the changes are committed
+                final long revision = journal.reserveRevision();
+                transaction.registerResource(new DomainModelRevisionResource(revision, isReplayable(opNode) ? opNode.clone() : null));
+                opNode = opNode.clone();
+                opNode.get(OPERATION_HEADERS, DOMAIN_MODEL_REVISION).set(revision);
+            }
+
             // We don't push stream to slaves
             operation = OperationBuilder.Factory.create(opNode).build();
 
+            // Handle the results as the hosts respond, so a slow host only delays the overall result
+            final FanOut<String, ModelNode> fanOut = new FanOut<String, ModelNode>(scheduledExecutorService);
+            int pushed = 0;
             for (final String host : targets) {
-                pushToHost(operation, transaction, host, futures);
+                if (pushToHost(operation, transaction, host, fanOut, hostOperationTimeout)) {
+                    pushed++;
+                }
             }
 
-            log.debugf("Domain updates pushed to %s host controller(s)", futures.size());
+            log.debugf("Domain updates pushed to %s host controller(s)", pushed);
 
-            for (final Map.Entry<String, Future<ModelNode>> entry : futures.entrySet()) {
-                String host = entry.getKey();
-                Future<ModelNode> future = entry.getValue();
-                processHostFuture(host, future, hostResults);
-            }
+            fanOut.await(collector);
         }
 
         return hostResults;
@@ -617,21 +763,8 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         }
     }
 
-    private void processHostFuture(String host, Future<ModelNode> future, final Map<String, ModelNode> hostResults) {
-        try {
-            hostResults.put(host, future.get());
-        } catch (final InterruptedException e) {
-            log.debug("Interrupted reading host controller response");
-            Thread.currentThread().interrupt();
-            hostResults.put(host, getDomainFailureResult(e));
-        } catch (final ExecutionException e) {
-            log.info("Execution exception reading host controller response", e);
-            hostResults.put(host, getDomainFailureResult(e.getCause()));
-        }
-    }
-
-    private void pushToHost(final Operation operation, final ControllerTransaction transaction, final String host,
-            final Map<String, Future<ModelNode>> futures) {
+    private boolean pushToHost(final Operation operation, final ControllerTransaction transaction, final String host,
+            final FanOut<String, ModelNode> fanOut, final long timeout) {
         if (hosts.containsKey(host)) {
             final Callable<ModelNode> callable = new Callable<ModelNode>() {
 
@@ -648,8 +781,10 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
                 }
             };
 
-            futures.put(host, scheduledExecutorService.submit(callable));
+            fanOut.submit(host, callable, timeout, TimeUnit.SECONDS);
+            return true;
         }
+        return false;
     }
 
     private ModelNode getDomainFailureResult(Throwable e) {
@@ -962,6 +1097,67 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
      * Adapter to allow this domain controller to talk to the DomainModel via the same
      * interface it uses for remote slave domain controllers.
      */
+    /**
+     * Advances the domain model revision when the change it belongs to is committed.  Resources are committed before
+     * the domain model lock is released, so the next change cannot be recorded first.
+     */
+    private class DomainModelRevisionResource implements ControllerResource {
+
+        private final long revision;
+        private final ModelNode operation;
+
+        DomainModelRevisionResource(final long revision, final ModelNode operation) {
+            this.revision = revision;
+            this.operation = operation;
+        }
+
+        @Override
+        public void commit() {
+            journal.record(revision, operation);
+        }
+
+        @Override
+        public void rollback() {
+        }
+    }
+
+    /**
+     * Collects the host results in the order the hosts respond.
+     */
+    private class HostResultCollector implements FanOut.Listener<String, ModelNode> {
+
+        private final Map<String, ModelNode> hostResults;
+
+        HostResultCollector(final Map<String, ModelNode> hostResults) {
+            this.hostResults = hostResults;
+        }
+
+        @Override
+        public void handleResult(final String host, final ModelNode result) {
+            log.tracef("Received result from host %s", host);
+            hostResults.put(host, result);
+        }
+
+        @Override
+        public void handleFailure(final String host, final Throwable cause) {
+            if (cause instanceof InterruptedException) {
+                log.debug("Interrupted reading host controller response");
+            } else {
+                log.info("Execution exception reading host controller response", cause);
+            }
+            hostResults.put(host, getDomainFailureResult(cause));
+        }
+
+        @Override
+        public void handleTimeout(final String host) {
+            log.warnf("Host %s did not respond within %d seconds", host, hostOperationTimeout);
+            final ModelNode node = new ModelNode();
+            node.get(OUTCOME).set(FAILED);
+            node.get(FAILURE_DESCRIPTION).set("Host " + host + " did not respond within " + hostOperationTimeout + " seconds");
+            hostResults.put(host, node);
+        }
+    }
+
     private class LocalDomainModelAdapter implements DomainControllerSlaveClient {
 
         @Override
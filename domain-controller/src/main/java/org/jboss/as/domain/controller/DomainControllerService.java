@@ -110,6 +110,7 @@ public final class DomainControllerService implements Service<DomainController>
         if (masterClient != null) {
             masterClient.unregister();
         }
+        domainModel.shutdownConfigurationPersisters();
         this.controller = null;
     }
 
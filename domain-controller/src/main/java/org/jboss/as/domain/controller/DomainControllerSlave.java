@@ -19,4 +19,22 @@ public interface DomainControllerSlave extends TransactionalModelController {
      * @param initialModel the model. Will not be {@code null}
      */
     void setInitialDomainModel(ModelNode initialModel);
+
+    /**
+     * Gets the revision of the master's domain model this slave is synchronized with, to be sent when it registers
+     * with the master.
+     *
+     * @return the revision, or an undefined node if the slave has not received a domain model yet
+     */
+    ModelNode getDomainModelRevision();
+
+    /**
+     * Applies a domain model update received from the master when registering, which either replaces the domain
+     * model or contains the operations the slave missed since its {@link #getDomainModelRevision() revision}.
+     *
+     * @param update the update, as returned by {@link DomainController#addClient(DomainControllerSlaveClient, ModelNode)}
+     * @return {@code true} if the update was applied, {@code false} if replaying the operations failed and the full
+     *         model should be requested instead
+     */
+    boolean applyDomainModelUpdate(ModelNode update);
 }
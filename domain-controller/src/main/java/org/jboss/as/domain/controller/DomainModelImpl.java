@@ -53,6 +53,7 @@ import org.jboss.as.controller.BasicModelController;
 import org.jboss.as.controller.ControllerResource;
 import org.jboss.as.controller.ControllerTransactionContext;
 import org.jboss.as.controller.ControllerTransactionSynchronization;
+import org.jboss.as.controller.CopyOnWriteModel;
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.ExtensionContext;
 import org.jboss.as.controller.ModelController;
@@ -78,6 +79,7 @@ import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
 import org.jboss.as.controller.descriptions.common.ExtensionDescription;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.persistence.CoalescingConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersisterProvider;
@@ -87,6 +89,7 @@ import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.server.deployment.api.DeploymentRepository;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
+import org.jboss.logging.Logger;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleLoadException;
@@ -101,6 +104,8 @@ import org.jboss.msc.service.ServiceTarget;
  */
 public class DomainModelImpl extends BasicModelController implements DomainModel {
 
+    private static final Logger log = Logger.getLogger("org.jboss.as.domain.controller");
+
     // Member Variables Handled Post Refactor
     private ServiceContainer serviceContainer;
 
@@ -131,6 +136,8 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
     private ExtensionContext extensionContext;
     // The write lock we use. Not thread based to allow transaction commit from another thread
     private final Semaphore mutex = new Semaphore(1);
+    // The modules of the extensions already initialized, as a slave may be sent the domain model again on reconnect
+    private final Set<String> initializedExtensions = new HashSet<String>();
 
     // The persister for the domain configuration.
     private DelegatingConfigurationPersister domainPersister;
@@ -398,6 +405,54 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
         return result;
     }
 
+    /** Within a transaction the model is only updated when the transaction commits */
+    @Override
+    protected boolean isCommitDeferred(final OperationControllerContext operationExecutionContext) {
+        return operationExecutionContext.getControllerTransactionContext() != null;
+    }
+
+    /** The persisters handed to the operations delegate to the domain and host persisters, flush those instead */
+    @Override
+    protected void flushConfiguration(final ConfigurationPersisterProvider configurationPersisterFactory) throws ConfigurationPersistenceException {
+        if (domainPersister.delegate instanceof CoalescingConfigurationPersister) {
+            ((CoalescingConfigurationPersister) domainPersister.delegate).flush();
+        }
+        if (hostPersister instanceof CoalescingConfigurationPersister) {
+            ((CoalescingConfigurationPersister) hostPersister).flush();
+        }
+    }
+
+    /**
+     * Flush the configuration once a transaction which asked for it committed.  The operation already completed, so a
+     * failure can only be logged.
+     */
+    private void flushAfterCommit() {
+        try {
+            flushConfiguration(null);
+        } catch (ConfigurationPersistenceException e) {
+            log.warnf(e, "Failed to persist configuration change: %s", e);
+        }
+    }
+
+    /**
+     * Write the configuration changes which have not reached the disk yet and stop the threads writing them. Called
+     * when the domain controller stops.
+     */
+    public void shutdownConfigurationPersisters() {
+        shutdown(domainPersister.delegate);
+        shutdown(hostPersister);
+    }
+
+    private static void shutdown(final ConfigurationPersister persister) {
+        if (persister instanceof CoalescingConfigurationPersister) {
+            try {
+                ((CoalescingConfigurationPersister) persister).shutdown();
+            } catch (ConfigurationPersistenceException e) {
+                log.errorf(e, "Failed to persist configuration on shutdown");
+            }
+        }
+    }
+
     @Override
     protected MultiStepOperationController getMultiStepOperationController(Operation executionContext, ResultHandler handler,
             final OperationControllerContext operationControllerContext) throws OperationFailedException {
@@ -412,7 +467,8 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
         ControllerResource resource = null;
 
         if (operationHandler instanceof ModelUpdateOperationHandler) {
-            resource = new DomainModelControllerResource(operationHandler, address, context.getSubModel(), operationControllerContext);
+            resource = new DomainModelControllerResource(operationHandler, address, context.getSubModel(), operationControllerContext,
+                    isFlushRequested(operation));
         }
 
         return resource;
@@ -424,6 +480,9 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
             for (Property prop : model.get(EXTENSION).asPropertyList()) {
                 try {
                     String module = prop.getValue().get(ExtensionDescription.MODULE).asString();
+                    if (!initializedExtensions.add(module)) {
+                        continue;
+                    }
                     for (Extension extension : Module.loadServiceFromCallerModuleLoader(ModuleIdentifier.fromString(module), Extension.class)) {
                         extension.initialize(extensionContext);
                     }
@@ -1106,12 +1165,16 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
             synchronized (model) {
                 model.set(localModel);
                 if (modelUpdated) {
-                    DomainModelImpl.this.persistConfiguration(model, injectedConfigPersisterProvider);
+                    DomainModelImpl.this.modelUpdated(model, injectedConfigPersisterProvider);
                 }
                 if (hostModelUpdated) {
-                    DomainModelImpl.this.persistConfiguration(model, hostPersisterProvider);
+                    DomainModelImpl.this.modelUpdated(model, hostPersisterProvider);
                 }
             }
+            // without a transaction the commit happens before the operation completes, which flushes it
+            if (transaction != null && (modelUpdated || hostModelUpdated) && isFlushRequested(operation.getOperation())) {
+                flushAfterCommit();
+            }
         }
 
     }
@@ -1122,9 +1185,10 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
         private final ModelNode subModel;
         private final boolean isRemove;
         private final OperationControllerContext operationControllerContext;
+        private final boolean flush;
 
         public DomainModelControllerResource(final OperationHandler handler, final PathAddress address, final ModelNode subModel,
-                final OperationControllerContext operationControllerContext) {
+                final OperationControllerContext operationControllerContext, final boolean flush) {
             if (handler instanceof ModelUpdateOperationHandler) {
                 this.address = address;
                 this.subModel = subModel;
@@ -1137,21 +1201,26 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
                 this.isRemove = false;
                 this.operationControllerContext = null;
             }
+            this.flush = flush;
         }
 
         @Override
         public void commit() {
             if (address != null) {
-                final ModelNode model = operationControllerContext.getModelProvider().getModel();
+                final ModelProvider modelProvider = operationControllerContext.getModelProvider();
+                final ModelNode model = modelProvider.getModel();
                 synchronized (model) {
+                    prepareModelForUpdate(modelProvider, model, address);
                     if (isRemove) {
                         address.remove(model);
                     } else {
                         address.navigate(model, true).set(subModel);
                     }
-                    persistConfiguration(model, operationControllerContext.getConfigurationPersisterProvider());
+                    modelUpdated(model, operationControllerContext.getConfigurationPersisterProvider());
+                }
+                if (flush) {
+                    flushAfterCommit();
                 }
-
             }
         }
 
@@ -1164,10 +1233,12 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
         public ModelNode getUncommittedModel() {
             ModelNode model = null;
             if (address != null) {
-                model = operationControllerContext.getModelProvider().getModel();
-                synchronized (model) {
-                    model = model.clone();
+                final ModelNode base = operationControllerContext.getModelProvider().getModel();
+                final CopyOnWriteModel view;
+                synchronized (base) {
+                    view = new CopyOnWriteModel(base);
                 }
+                model = view.getModelForUpdate(address);
                 if (isRemove) {
                     address.remove(model);
                 } else {
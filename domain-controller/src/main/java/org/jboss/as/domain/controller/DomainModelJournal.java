@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import java.util.LinkedList;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Tracks the revision of the domain-wide model and the most recent operations which changed it, so that a host
+ * controller which registers again with the master can be sent the operations it missed instead of the whole model.
+ * <p>
+ * Every change committed to the domain model on the master is given a revision, which increases monotonically.
+ * Revisions are only comparable between journals with the same {@link #getId() id}; the master picks a new id each
+ * time it starts. Only the most recent changes are retained, and a change which cannot be replayed on another host
+ * discards the older ones, so a host which is too far behind has to be sent the full model.
+ */
+public final class DomainModelJournal {
+
+    /**
+     * System property which sets the number of operations retained by the master.
+     */
+    public static final String JOURNAL_SIZE_PROPERTY = "jboss.domain.model.journal.size";
+
+    /** Key of the journal id in an update or revision node */
+    public static final String ID = "id";
+    /** Key of the revision in an update or revision node */
+    public static final String REVISION = "revision";
+    /** Key of the operations of an incremental update */
+    public static final String OPERATIONS = "operations";
+    /** Key of the domain model of a full update */
+    public static final String MODEL = "model";
+
+    private static final int DEFAULT_SIZE = 256;
+
+    private final int maxSize;
+    private final LinkedList<Entry> entries = new LinkedList<Entry>();
+    private String id;
+    /** The revision of the last committed change */
+    private long revision;
+    /** The last revision handed out by {@link #reserveRevision()} */
+    private long reserved;
+    /** The newest revision which can no longer be brought up to date from the retained entries */
+    private long floor;
+
+    /**
+     * Create a new journal retaining the number of operations given by {@link #JOURNAL_SIZE_PROPERTY}.
+     *
+     * @param id the id of the journal, or {@code null} if this is a slave which has not synchronized yet
+     */
+    public DomainModelJournal(final String id) {
+        this(id, Integer.getInteger(JOURNAL_SIZE_PROPERTY, DEFAULT_SIZE));
+    }
+
+    /**
+     * Create a new journal.
+     *
+     * @param id the id of the journal, or {@code null} if this is a slave which has not synchronized yet
+     * @param maxSize the maximum number of operations retained
+     */
+    public DomainModelJournal(final String id, final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize is negative");
+        }
+        this.id = id;
+        this.maxSize = maxSize;
+    }
+
+    public synchronized String getId() {
+        return id;
+    }
+
+    public synchronized long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gets the current revision in the form sent by a host controller when it registers.
+     *
+     * @return the revision, or an undefined node if the journal has no id
+     */
+    public synchronized ModelNode getRevisionNode() {
+        final ModelNode node = new ModelNode();
+        if (id != null) {
+            node.get(ID).set(id);
+            node.get(REVISION).set(revision);
+        }
+        return node;
+    }
+
+    /**
+     * Reserve the revision for a change which is about to be committed.  The caller must hold the lock on the domain
+     * model, so that revisions are reserved in the order the changes are committed.  A reserved revision which is
+     * never {@link #record(long, ModelNode) recorded} is simply skipped.
+     *
+     * @return the revision
+     */
+    public synchronized long reserveRevision() {
+        reserved = Math.max(reserved, revision) + 1;
+        return reserved;
+    }
+
+    /**
+     * Record a committed change.  A change older than the current revision is ignored; on a slave this happens when a
+     * change pushed by the master was already included in the update received when registering.
+     *
+     * @param revision the revision of the change
+     * @param operation the operation to replay on hosts which missed the change, or {@code null} if it cannot be replayed
+     */
+    public synchronized void record(final long revision, final ModelNode operation) {
+        if (revision <= this.revision) {
+            return;
+        }
+        this.revision = revision;
+        reserved = Math.max(reserved, revision);
+        if (operation == null || maxSize == 0) {
+            entries.clear();
+            floor = revision;
+            return;
+        }
+        entries.add(new Entry(revision, operation));
+        while (entries.size() > maxSize) {
+            floor = entries.removeFirst().revision;
+        }
+    }
+
+    /**
+     * Reset the journal to a revision of another journal, discarding the retained operations.  Used by a slave once it
+     * has applied an update from the master.
+     *
+     * @param id the id of the other journal
+     * @param revision the revision
+     */
+    public synchronized void reset(final String id, final long revision) {
+        if (id == null) {
+            throw new IllegalArgumentException("id is null");
+        }
+        this.id = id;
+        this.revision = revision;
+        this.reserved = revision;
+        this.floor = revision;
+        entries.clear();
+    }
+
+    /**
+     * Gets the operations needed to bring a host from the given revision up to date.
+     *
+     * @param revisionNode the revision of the host, as returned by its {@link #getRevisionNode()}
+     * @return the update, containing the {@link #ID id}, {@link #REVISION revision} and {@link #OPERATIONS operations},
+     *         or {@code null} if the host has to be sent the full model
+     */
+    public synchronized ModelNode getUpdate(final ModelNode revisionNode) {
+        if (id == null || revisionNode == null || !revisionNode.hasDefined(ID) || !revisionNode.hasDefined(REVISION)
+                || !id.equals(revisionNode.get(ID).asString())) {
+            return null;
+        }
+        final long since = revisionNode.get(REVISION).asLong();
+        if (since < floor || since > revision) {
+            return null;
+        }
+        final ModelNode update = new ModelNode();
+        update.get(ID).set(id);
+        update.get(REVISION).set(revision);
+        final ModelNode operations = update.get(OPERATIONS).setEmptyList();
+        for (Entry entry : entries) {
+            if (entry.revision > since) {
+                operations.add(entry.operation);
+            }
+        }
+        return update;
+    }
+
+    private static final class Entry {
+        private final long revision;
+        private final ModelNode operation;
+
+        private Entry(final long revision, final ModelNode operation) {
+            this.revision = revision;
+            this.operation = operation;
+        }
+    }
+}
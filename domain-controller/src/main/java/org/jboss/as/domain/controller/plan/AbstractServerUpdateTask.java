@@ -22,16 +22,22 @@
 package org.jboss.as.domain.controller.plan;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.dmr.ModelNode;
 
 /**
  * Base class for tasks that can perform an update on a server.
  *
- * Thread-Safety: This class is immutable, but is intended to only have its
- * {@link #run()} method executed once.
+ * Thread-Safety: This class is thread-safe, but is intended to only have its
+ * {@link #run()} method executed once. Only the first result reported for the
+ * server is passed on, so a late result after a {@link #timedOut(long) timeout}
+ * is ignored.
  *
  * @author Brian Stansberry
  */
@@ -55,6 +61,7 @@ abstract class AbstractServerUpdateTask implements Runnable {
     protected final ServerUpdatePolicy updatePolicy;
     protected final ServerIdentity serverId;
     protected final ServerUpdateResultHandler resultHandler;
+    private final AtomicBoolean completed = new AtomicBoolean();
 
     /**
      * Create a new update task.
@@ -95,10 +102,39 @@ abstract class AbstractServerUpdateTask implements Runnable {
      */
     protected abstract void processUpdates();
 
+    /**
+     * Records the result of the update with the {@link ServerUpdatePolicy} and
+     * passes it to the {@link ServerUpdateResultHandler}, unless a result was
+     * already reported.
+     *
+     * @param response the result of the update
+     */
+    protected void handleResult(final ModelNode response) {
+        if (completed.compareAndSet(false, true)) {
+            updatePolicy.recordServerResult(serverId, response);
+            resultHandler.handleServerUpdateResult(serverId, response);
+        }
+    }
+
+    /**
+     * Reports the update as failed because it did not complete in time.
+     *
+     * @param timeout the number of seconds the update was allowed to take
+     */
+    void timedOut(final long timeout) {
+        ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(FAILED);
+        response.get(FAILURE_DESCRIPTION).set("Server " + serverId.getServerName() + " on host " + serverId.getHostName()
+                + " did not respond within " + timeout + " seconds");
+        handleResult(response);
+    }
+
     private void sendCancelledResponse() {
         ModelNode response = new ModelNode();
         response.get(OUTCOME).set(CANCELLED);
-        resultHandler.handleServerUpdateResult(serverId, response);
+        if (completed.compareAndSet(false, true)) {
+            resultHandler.handleServerUpdateResult(serverId, response);
+        }
     }
 
     @Override
@@ -21,52 +21,65 @@
  */
 package org.jboss.as.domain.controller.plan;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.logging.Logger;
 
 /**
- * A task that uses an executor service to concurrently execute other tasks
+ * A task that uses an executor service to concurrently execute other tasks. Server update
+ * tasks which do not complete within the server timeout are reported as failed.
  */
 class ConcurrentUpdateTask implements Runnable {
 
     private static final Logger logger = Logger.getLogger("org.jboss.as.domain.deployment");
     private final List<Runnable> concurrentTasks;
     private final ExecutorService executorService;
+    private final long serverTimeout;
 
-    ConcurrentUpdateTask(final List<Runnable> concurrentTasks, final ExecutorService executorService) {
+    ConcurrentUpdateTask(final List<Runnable> concurrentTasks, final ExecutorService executorService, final long serverTimeout) {
         this.concurrentTasks = concurrentTasks;
         this.executorService = executorService;
+        this.serverTimeout = serverTimeout;
     }
 
     @Override
     public void run() {
 
         // Submit each task to the executor
-        List<Future<?>> futures = new ArrayList<Future<?>>();
+        FanOut<Runnable, Object> fanOut = new FanOut<Runnable, Object>(executorService);
         for (Runnable r : concurrentTasks) {
-            futures.add(executorService.submit(r));
+            long timeout = r instanceof AbstractServerUpdateTask ? serverTimeout : 0;
+            fanOut.submit(r, Executors.callable(r), timeout, TimeUnit.SECONDS);
         }
 
-        // Wait until all complete before returning
-        for (int i = 0; i < futures.size(); i++) {
-            Future<?> future = futures.get(i);
-            try {
-                future.get();
-            } catch (InterruptedException e) {
-                logger.errorf("%s caught InterruptedException waiting for task %s; returning",
-                        ConcurrentUpdateTask.class.getSimpleName(), concurrentTasks.get(i).toString());
-                Thread.currentThread().interrupt();
-                return;
-            } catch (ExecutionException e) {
-                logger.errorf(e, "%s caught ExecutionException waiting for task %s",
-                        ConcurrentUpdateTask.class.getSimpleName(), concurrentTasks.get(i).toString());
+        // Wait until all complete before returning, handling them as they complete
+        fanOut.await(new FanOut.Listener<Runnable, Object>() {
+            @Override
+            public void handleResult(Runnable task, Object result) {
             }
-        }
+
+            @Override
+            public void handleFailure(Runnable task, Throwable cause) {
+                if (cause instanceof InterruptedException) {
+                    logger.errorf("%s caught InterruptedException waiting for task %s; cancelled",
+                            ConcurrentUpdateTask.class.getSimpleName(), task.toString());
+                }
+                else {
+                    logger.errorf(cause, "%s caught ExecutionException waiting for task %s",
+                            ConcurrentUpdateTask.class.getSimpleName(), task.toString());
+                }
+            }
+
+            @Override
+            public void handleTimeout(Runnable task) {
+                logger.warnf("%s cancelled task %s after %d seconds",
+                        ConcurrentUpdateTask.class.getSimpleName(), task.toString(), serverTimeout);
+                ((AbstractServerUpdateTask) task).timedOut(serverTimeout);
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a set of tasks concurrently and hands their results to a {@link Listener} in the order the tasks complete,
+ * so one slow task does not delay the handling of the others.  Each task may be given a deadline; a task which has
+ * not completed by its deadline is cancelled and reported as timed out.
+ * <p>
+ * Thread-Safety: tasks must be submitted, and {@link #await(Listener)} called, by a single thread.  The listener is
+ * only invoked by the thread calling {@code await}.
+ *
+ * @param <K> the type of the keys identifying the tasks
+ * @param <V> the type of the task results
+ */
+public final class FanOut<K, V> {
+
+    /**
+     * Callback for the outcome of each task.
+     */
+    public interface Listener<K, V> {
+
+        /**
+         * Handle the result of a task which completed normally.
+         *
+         * @param key the key of the task
+         * @param result the result
+         */
+        void handleResult(K key, V result);
+
+        /**
+         * Handle a task which failed, or which could not be waited for because the waiting thread was interrupted.
+         *
+         * @param key the key of the task
+         * @param cause the failure
+         */
+        void handleFailure(K key, Throwable cause);
+
+        /**
+         * Handle a task which did not complete before its deadline and was cancelled.
+         *
+         * @param key the key of the task
+         */
+        void handleTimeout(K key);
+    }
+
+    private final CompletionService<V> completionService;
+    private final Map<Future<V>, Pending<K>> outstanding = new HashMap<Future<V>, Pending<K>>();
+
+    public FanOut(final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is null");
+        }
+        this.completionService = new ExecutorCompletionService<V>(executor);
+    }
+
+    /**
+     * Submit a task.
+     *
+     * @param key the key identifying the task
+     * @param task the task
+     * @param timeout the time the task is allowed to run, or {@code 0} or less for no deadline
+     * @param unit the unit of {@code timeout}
+     */
+    public void submit(final K key, final Callable<V> task, final long timeout, final TimeUnit unit) {
+        final boolean hasDeadline = timeout > 0;
+        final long deadline = hasDeadline ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        outstanding.put(completionService.submit(task), new Pending<K>(key, hasDeadline, deadline));
+    }
+
+    /**
+     * Waits for all submitted tasks, passing each outcome to the listener as soon as it is known.  If the calling
+     * thread is interrupted the remaining tasks are cancelled and reported as failed, and the interrupt status is
+     * restored.
+     *
+     * @param listener the listener
+     * @return {@code false} if the wait was interrupted, {@code true} otherwise
+     */
+    public boolean await(final Listener<K, V> listener) {
+        while (!outstanding.isEmpty()) {
+            final Future<V> done;
+            try {
+                final long wait = getNextDeadline();
+                if (wait == Long.MAX_VALUE) {
+                    done = completionService.take();
+                } else {
+                    done = completionService.poll(wait, TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                cancelAll(listener, e);
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (done != null) {
+                // Cancelled tasks are queued as well, but they were removed when they timed out
+                final Pending<K> pending = outstanding.remove(done);
+                if (pending != null) {
+                    report(pending.key, done, listener);
+                }
+            } else {
+                expire(listener);
+            }
+        }
+        return true;
+    }
+
+    /** Gets the time until the earliest deadline, or {@code Long.MAX_VALUE} if no outstanding task has a deadline */
+    private long getNextDeadline() {
+        final long now = System.nanoTime();
+        long wait = Long.MAX_VALUE;
+        for (Pending<K> pending : outstanding.values()) {
+            if (pending.hasDeadline) {
+                wait = Math.min(wait, Math.max(0, pending.deadline - now));
+            }
+        }
+        return wait;
+    }
+
+    private void expire(final Listener<K, V> listener) {
+        final long now = System.nanoTime();
+        final List<K> expired = new ArrayList<K>();
+        for (Map.Entry<Future<V>, Pending<K>> entry : new ArrayList<Map.Entry<Future<V>, Pending<K>>>(outstanding.entrySet())) {
+            final Pending<K> pending = entry.getValue();
+            if (pending.hasDeadline && pending.deadline - now <= 0) {
+                outstanding.remove(entry.getKey());
+                entry.getKey().cancel(true);
+                expired.add(pending.key);
+            }
+        }
+        for (K key : expired) {
+            listener.handleTimeout(key);
+        }
+    }
+
+    private void cancelAll(final Listener<K, V> listener, final InterruptedException cause) {
+        final List<K> cancelled = new ArrayList<K>();
+        for (Map.Entry<Future<V>, Pending<K>> entry : outstanding.entrySet()) {
+            entry.getKey().cancel(true);
+            cancelled.add(entry.getValue().key);
+        }
+        outstanding.clear();
+        for (K key : cancelled) {
+            listener.handleFailure(key, cause);
+        }
+    }
+
+    private void report(final K key, final Future<V> future, final Listener<K, V> listener) {
+        final V result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            listener.handleFailure(key, e.getCause());
+            return;
+        } catch (CancellationException e) {
+            listener.handleFailure(key, e);
+            return;
+        } catch (InterruptedException e) {
+            // cannot happen, the task is complete
+            Thread.currentThread().interrupt();
+            listener.handleFailure(key, e);
+            return;
+        }
+        listener.handleResult(key, result);
+    }
+
+    private static final class Pending<K> {
+        private final K key;
+        private final boolean hasDeadline;
+        private final long deadline;
+
+        private Pending(final K key, final boolean hasDeadline, final long deadline) {
+            this.key = key;
+            this.hasDeadline = hasDeadline;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -43,6 +43,13 @@ import org.jboss.dmr.Property;
  */
 public class RolloutPlanController implements ServerUpdateResultHandler {
 
+    /**
+     * System property which sets the number of seconds a server is given to apply an operation when servers are
+     * updated concurrently.
+     */
+    public static final String SERVER_OPERATION_TIMEOUT_PROPERTY = "jboss.domain.server.operation.timeout";
+    private static final long DEFAULT_SERVER_OPERATION_TIMEOUT = 300;
+
     public static enum Result {
         SUCCESS,
         PARTIAL,
@@ -60,6 +67,7 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
     private final ServerOperationExecutor serverOperationExecutor;
     private final ConcurrentMap<String, Map<ServerIdentity, ModelNode>> serverResults = new ConcurrentHashMap<String, Map<ServerIdentity, ModelNode>>();
     private final boolean forRollback;
+    private final long serverTimeout;
 
     public RolloutPlanController(final Map<String, Map<ServerIdentity, ModelNode>> opsByGroup,
             final ModelNode rolloutPlan, final ResultHandler resultHandler,
@@ -74,6 +82,8 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
         this.rollbackAcrossGroups = !rolloutPlan.hasDefined(ROLLBACK_ACROSS_GROUPS) || rolloutPlan.get(ROLLBACK_ACROSS_GROUPS).asBoolean();
         this.shutdown = rolloutPlan.hasDefined(SHUTDOWN) && rolloutPlan.get(SHUTDOWN).asBoolean();
         this.gracefulShutdownPeriod = rolloutPlan.hasDefined(GRACEFUL_SHUTDOWN_TIMEOUT) ? rolloutPlan.get(GRACEFUL_SHUTDOWN_TIMEOUT).asInt() : -1;
+        // Restarts are bounded by the graceful shutdown period instead
+        this.serverTimeout = shutdown ? 0 : Long.getLong(SERVER_OPERATION_TIMEOUT_PROPERTY, DEFAULT_SERVER_OPERATION_TIMEOUT);
 
         final List<Runnable> rollingTasks = new ArrayList<Runnable>();
         this.rootTask = new RollingUpdateTask(rollingTasks);
@@ -83,7 +93,7 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
             for (ModelNode series : rolloutPlan.get(IN_SERIES).asList()) {
 
                 final List<Runnable> seriesTasks = new ArrayList<Runnable>();
-                rollingTasks.add(new ConcurrentUpdateTask(seriesTasks, executor));
+                rollingTasks.add(new ConcurrentUpdateTask(seriesTasks, executor, serverTimeout));
 
                 Set<String> groupNames = new HashSet<String>();
                 List<Property> groupPolicies = new ArrayList<Property>();
@@ -111,7 +121,7 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
                     final List<Runnable> groupTasks = new ArrayList<Runnable>();
                     final ModelNode policyNode = prop.getValue();
                     final boolean rollingGroup = policyNode.hasDefined(ROLLING_TO_SERVERS) && policyNode.get(ROLLING_TO_SERVERS).asBoolean();
-                    seriesTasks.add(rollingGroup ? new RollingUpdateTask(groupTasks) : new ConcurrentUpdateTask(groupTasks, executor));
+                    seriesTasks.add(rollingGroup ? new RollingUpdateTask(groupTasks) : new ConcurrentUpdateTask(groupTasks, executor, serverTimeout));
 
                     final Set<ServerIdentity> servers = groupEntry.keySet();
                     ServerUpdatePolicy policy;
@@ -165,10 +175,13 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
 
     @Override
     public void handleServerUpdateResult(ServerIdentity serverId, ModelNode response) {
+        // Stream each server's result as soon as it is known; results arrive from concurrent tasks
         String[] location = { SERVER_GROUPS, serverId.getServerGroupName(), serverId.getServerName(), HOST };
-        resultHandler.handleResultFragment(location, new ModelNode().set(serverId.getHostName()));
-        location[3] = RESPONSE;
-        resultHandler.handleResultFragment(location, response);
+        synchronized (resultHandler) {
+            resultHandler.handleResultFragment(location, new ModelNode().set(serverId.getHostName()));
+            location[3] = RESPONSE;
+            resultHandler.handleResultFragment(location, response);
+        }
 
         Map<ServerIdentity, ModelNode> groupResults = serverResults.get(serverId.getServerGroupName());
         if (groupResults == null) {
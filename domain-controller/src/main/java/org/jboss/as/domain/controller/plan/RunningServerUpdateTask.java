@@ -35,7 +35,7 @@ import org.jboss.logging.Logger;
  * {@link AbstractServerUpdateTask} that performs the updates by applying them
  * to a running server.
  *
- * Thread-Safety: This class is immutable, but is intended to only have its
+ * Thread-Safety: This class is thread-safe, but is intended to only have its
  * {@link #run()} method executed once.
  */
 class RunningServerUpdateTask extends AbstractServerUpdateTask {
@@ -71,9 +71,7 @@ class RunningServerUpdateTask extends AbstractServerUpdateTask {
         ModelNode op = getServerOp();
         ModelNode rsp =
             serverOperationExecutor.executeServerOperation(serverId, OperationBuilder.Factory.create(op).build());
-        updatePolicy.recordServerResult(serverId, rsp);
-
-        resultHandler.handleServerUpdateResult(serverId, rsp);
+        handleResult(rsp);
     }
 
     private ModelNode getServerOp() {
@@ -34,7 +34,7 @@ import org.jboss.dmr.ModelNode;
  * restart of the server. The restart results in the server getting the current
  * model state.
  *
- * Thread-Safety: This class is immutable, but is intended to only have its
+ * Thread-Safety: This class is thread-safe, but is intended to only have its
  * {@link #run()} method executed once.
  */
 class ServerRestartTask extends AbstractServerUpdateTask {
@@ -58,9 +58,7 @@ class ServerRestartTask extends AbstractServerUpdateTask {
         ModelNode restartOp = getRestartOp();
         ModelNode rsp = serverOperationExecutor.executeServerOperation(serverId, OperationBuilder.Factory.create(restartOp).build());
         // FIXME what if it's a rollback case?
-        updatePolicy.recordServerResult(serverId, rsp);
-
-        resultHandler.handleServerUpdateResult(serverId, rsp);
+        handleResult(rsp);
     }
 
     private ModelNode getRestartOp() {
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DomainModelJournal}.
+ */
+public class DomainModelJournalUnitTestCase {
+
+    @Test
+    public void testReplayFromRevision() {
+        final DomainModelJournal master = new DomainModelJournal("master", 10);
+        for (int i = 1; i <= 3; i++) {
+            master.record(master.reserveRevision(), operation(i));
+        }
+        assertEquals(3, master.getRevision());
+
+        final ModelNode update = master.getUpdate(revision("master", 1));
+        assertNotNull(update);
+        assertEquals("master", update.get(DomainModelJournal.ID).asString());
+        assertEquals(3, update.get(DomainModelJournal.REVISION).asLong());
+        final List<ModelNode> operations = update.get(DomainModelJournal.OPERATIONS).asList();
+        assertEquals(2, operations.size());
+        assertEquals(2, operations.get(0).get("value").asInt());
+        assertEquals(3, operations.get(1).get("value").asInt());
+
+        // a host which is up to date gets no operations
+        final ModelNode current = master.getUpdate(master.getRevisionNode());
+        assertNotNull(current);
+        assertEquals(0, current.get(DomainModelJournal.OPERATIONS).asList().size());
+    }
+
+    @Test
+    public void testFullModelWhenTooFarBehind() {
+        final DomainModelJournal master = new DomainModelJournal("master", 2);
+        for (int i = 1; i <= 4; i++) {
+            master.record(master.reserveRevision(), operation(i));
+        }
+        assertNull(master.getUpdate(revision("master", 1)));
+        final ModelNode update = master.getUpdate(revision("master", 2));
+        assertNotNull(update);
+        assertEquals(2, update.get(DomainModelJournal.OPERATIONS).asList().size());
+    }
+
+    @Test
+    public void testFullModelAfterChangeWhichCannotBeReplayed() {
+        final DomainModelJournal master = new DomainModelJournal("master", 10);
+        master.record(master.reserveRevision(), operation(1));
+        master.record(master.reserveRevision(), null);
+        master.record(master.reserveRevision(), operation(3));
+
+        assertNull(master.getUpdate(revision("master", 1)));
+        final ModelNode update = master.getUpdate(revision("master", 2));
+        assertNotNull(update);
+        assertEquals(1, update.get(DomainModelJournal.OPERATIONS).asList().size());
+    }
+
+    @Test
+    public void testFullModelWhenJournalIdDiffers() {
+        final DomainModelJournal master = new DomainModelJournal("master", 10);
+        master.record(master.reserveRevision(), operation(1));
+
+        assertNull(master.getUpdate(revision("previous-master", 1)));
+        assertNull(master.getUpdate(new ModelNode()));
+        // a revision the master never reached comes from another journal as well
+        assertNull(master.getUpdate(revision("master", 5)));
+    }
+
+    @Test
+    public void testSlaveRevision() {
+        final DomainModelJournal slave = new DomainModelJournal(null, 10);
+        assertFalse(slave.getRevisionNode().isDefined());
+
+        slave.reset("master", 7);
+        final ModelNode revision = slave.getRevisionNode();
+        assertEquals("master", revision.get(DomainModelJournal.ID).asString());
+        assertEquals(7, revision.get(DomainModelJournal.REVISION).asLong());
+
+        // changes pushed by the master which were already part of the update are ignored
+        slave.record(6, operation(6));
+        assertEquals(7, slave.getRevision());
+        slave.record(8, operation(8));
+        assertEquals(8, slave.getRevision());
+    }
+
+    @Test
+    public void testSkippedReservation() {
+        final DomainModelJournal master = new DomainModelJournal("master", 10);
+        master.record(master.reserveRevision(), operation(1));
+        // a change which was rolled back never records its revision
+        master.reserveRevision();
+        final long revision = master.reserveRevision();
+        master.record(revision, operation(3));
+        assertEquals(3, master.getRevision());
+
+        final ModelNode update = master.getUpdate(revision("master", 1));
+        assertNotNull(update);
+        assertEquals(1, update.get(DomainModelJournal.OPERATIONS).asList().size());
+    }
+
+    private static ModelNode operation(final int value) {
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("write-attribute");
+        operation.get("value").set(value);
+        return operation;
+    }
+
+    private static ModelNode revision(final String id, final long revision) {
+        final ModelNode node = new ModelNode();
+        node.get(DomainModelJournal.ID).set(id);
+        node.get(DomainModelJournal.REVISION).set(revision);
+        return node;
+    }
+}
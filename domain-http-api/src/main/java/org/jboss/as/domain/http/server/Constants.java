@@ -41,10 +41,22 @@ interface Constants {
      */
 
     String ACCEPT = "Accept";
+    String ACCEPT_ENCODING = "Accept-Encoding";
     String ACCESS_CONTROL_ALLOW_ORIGIN = "Access-Control-Allow-Origin";
     String CONTENT_DISPOSITION = "Content-Disposition";
+    String CONTENT_ENCODING = "Content-Encoding";
     String CONTENT_TYPE = "Content-Type";
+    String ETAG = "ETag";
+    String IF_NONE_MATCH = "If-None-Match";
     String LOCATION = "Location";
+    String VARY = "Vary";
+
+    /*
+     * Content Codings
+     */
+
+    String DEFLATE = "deflate";
+    String GZIP = "gzip";
 
     /*
      * Content Types
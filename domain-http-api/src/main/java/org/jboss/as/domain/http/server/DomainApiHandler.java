@@ -23,40 +23,68 @@
 package org.jboss.as.domain.http.server;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.domain.http.server.Constants.ACCEPT;
+import static org.jboss.as.domain.http.server.Constants.ACCEPT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.ACCESS_CONTROL_ALLOW_ORIGIN;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR_ENCODED;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_JSON;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_DISPOSITION;
+import static org.jboss.as.domain.http.server.Constants.CONTENT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_TYPE;
+import static org.jboss.as.domain.http.server.Constants.DEFLATE;
+import static org.jboss.as.domain.http.server.Constants.ETAG;
 import static org.jboss.as.domain.http.server.Constants.GET;
+import static org.jboss.as.domain.http.server.Constants.GZIP;
+import static org.jboss.as.domain.http.server.Constants.IF_NONE_MATCH;
 import static org.jboss.as.domain.http.server.Constants.INTERNAL_SERVER_ERROR;
 import static org.jboss.as.domain.http.server.Constants.METHOD_NOT_ALLOWED;
+import static org.jboss.as.domain.http.server.Constants.NOT_MODIFIED;
 import static org.jboss.as.domain.http.server.Constants.OK;
 import static org.jboss.as.domain.http.server.Constants.POST;
 import static org.jboss.as.domain.http.server.Constants.TEXT_HTML;
 import static org.jboss.as.domain.http.server.Constants.US_ASCII;
 import static org.jboss.as.domain.http.server.Constants.UTF_8;
+import static org.jboss.as.domain.http.server.Constants.VARY;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.Closeable;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
+import org.jboss.as.controller.BasicModelController;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.domain.http.server.multipart.BoundaryDelimitedInputStream;
@@ -101,6 +129,11 @@ public class DomainApiHandler implements ManagementHttpHandler {
         }
     }
 
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Distinguishes the entity tags of this instance from those issued before a restart */
+    private final String instanceId = Long.toHexString(System.currentTimeMillis());
+
     private ModelController modelController;
 
     DomainApiHandler(ModelController modelController) {
@@ -153,7 +186,7 @@ public class DomainApiHandler implements ManagementHttpHandler {
         }
 
         // TODO Determine what format the response should be in for a deployment upload request.
-        writeResponse(http, false, false, response, OK, false, TEXT_HTML);
+        writeResponse(http, false, false, response, OK, false, TEXT_HTML, null);
     }
 
     /**
@@ -174,16 +207,33 @@ public class DomainApiHandler implements ManagementHttpHandler {
         }
 
         ModelNode dmr = null;
-        ModelNode response;
+        ModelNode response = null;
         int status = OK;
 
         Headers requestHeaders = http.getRequestHeaders();
         boolean encode = APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(ACCEPT))
                 || APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(CONTENT_TYPE));
 
+        boolean pretty = false;
+        String entityTag = null;
+        boolean notModified = false;
         try {
             dmr = isGet ? convertGetRequest(request) : convertPostRequest(http.getRequestBody(), encode);
-            response = modelController.execute(OperationBuilder.Factory.create(dmr).build());
+            pretty = dmr.hasDefined("json.pretty") && dmr.get("json.pretty").asBoolean();
+            if (isGet && isModelRead(dmr) && modelController instanceof BasicModelController) {
+                // Read the revision before executing, so the result is never older than the tag
+                long revision = ((BasicModelController) modelController).getModelRevision();
+                entityTag = createEntityTag(instanceId + "-" + Long.toHexString(revision), pretty, encode);
+                notModified = isNotModified(requestHeaders, entityTag);
+            }
+            if (!notModified) {
+                response = modelController.execute(OperationBuilder.Factory.create(dmr).build());
+                if (isGet && entityTag == null && !isFailed(response)) {
+                    // Runtime values may change at any time, so tag the result by its content instead
+                    entityTag = createEntityTag(digest(response.get(RESULT)), pretty, encode);
+                    notModified = isNotModified(requestHeaders, entityTag);
+                }
+            }
         } catch (Throwable t) {
             log.error("Unexpected error executing model request", t);
 
@@ -192,22 +242,152 @@ public class DomainApiHandler implements ManagementHttpHandler {
             return;
         }
 
-        if (response.hasDefined(OUTCOME) && FAILED.equals(response.get(OUTCOME).asString())) {
+        if (notModified) {
+            sendNotModified(http, entityTag);
+
+            return;
+        }
+
+        if (isFailed(response)) {
             status = INTERNAL_SERVER_ERROR;
+            entityTag = null;
+        }
+
+        writeResponse(http, isGet, pretty, response, status, encode, entityTag);
+    }
+
+    private static boolean isFailed(final ModelNode response) {
+        return response.hasDefined(OUTCOME) && FAILED.equals(response.get(OUTCOME).asString());
+    }
+
+    /**
+     * Determines whether the result of a GET operation only depends on the persistent model and the registered
+     * operations, so that it cannot change without a change of the model revision.
+     */
+    private static boolean isModelRead(final ModelNode dmr) {
+        final String operation = dmr.get(OP).asString();
+        if (READ_RESOURCE_OPERATION.equals(operation)) {
+            return !dmr.hasDefined(INCLUDE_RUNTIME) || !dmr.get(INCLUDE_RUNTIME).asBoolean();
+        }
+        return READ_RESOURCE_DESCRIPTION_OPERATION.equals(operation) || READ_OPERATION_DESCRIPTION_OPERATION.equals(operation)
+                || READ_OPERATION_NAMES_OPERATION.equals(operation);
+    }
+
+    /**
+     * Creates a weak entity tag; the same value is used for every content coding of the response.
+     */
+    private static String createEntityTag(final String value, final boolean pretty, final boolean encode) {
+        return "W/\"" + value + (encode ? "-d" : pretty ? "-p" : "") + "\"";
+    }
+
+    private static boolean isNotModified(final Headers requestHeaders, final String entityTag) {
+        final List<String> values = requestHeaders.get(IF_NONE_MATCH);
+        if (values == null) {
+            return false;
+        }
+        final String opaqueTag = opaqueTag(entityTag);
+        for (String value : values) {
+            for (String candidate : value.split(",")) {
+                candidate = candidate.trim();
+                if ("*".equals(candidate) || opaqueTag.equals(opaqueTag(candidate))) {
+                    return true;
+                }
+            }
         }
+        return false;
+    }
+
+    private static String opaqueTag(final String entityTag) {
+        return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+    }
 
-        boolean pretty = dmr.hasDefined("json.pretty") && dmr.get("json.pretty").asBoolean();
-        writeResponse(http, isGet, pretty, response, status, encode);
+    private static void sendNotModified(final HttpExchange http, final String entityTag) throws IOException {
+        final Headers responseHeaders = http.getResponseHeaders();
+        responseHeaders.add(ETAG, entityTag);
+        responseHeaders.add(VARY, ACCEPT_ENCODING);
+        http.sendResponseHeaders(NOT_MODIFIED, -1);
+        http.close();
+    }
+
+    private static String digest(final ModelNode result) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+        // the binary form is cheaper to produce than JSON and is just as stable for an unchanged result
+        final DataOutputStream out = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT_STREAM, digest));
+        result.writeExternal(out);
+        out.flush();
+        final byte[] bytes = digest.digest();
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0x0f, 16)).append(Character.forDigit(b & 0x0f, 16));
+        }
+        return builder.toString();
+    }
+
+    private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    };
+
+    /**
+     * Selects the content coding of the response from the {@code Accept-Encoding} request header.
+     *
+     * @return {@link Constants#GZIP}, {@link Constants#DEFLATE} or {@code null} for the identity coding
+     */
+    private static String selectContentCoding(final Headers requestHeaders) {
+        final List<String> values = requestHeaders.get(ACCEPT_ENCODING);
+        if (values == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String value : values) {
+            for (String element : value.split(",")) {
+                final String[] parts = element.split(";");
+                final String coding = parts[0].trim().toLowerCase(Locale.ENGLISH);
+                if (!isAcceptable(parts)) {
+                    continue;
+                }
+                if (GZIP.equals(coding) || "*".equals(coding)) {
+                    return GZIP;
+                }
+                deflate |= DEFLATE.equals(coding);
+            }
+        }
+        return deflate ? DEFLATE : null;
+    }
+
+    private static boolean isAcceptable(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2)) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
      private void writeResponse(final HttpExchange http, boolean isGet, boolean pretty, ModelNode response, int status,
-            boolean encode) throws IOException {
+            boolean encode, String entityTag) throws IOException {
          String contentType = encode ? APPLICATION_DMR_ENCODED : APPLICATION_JSON;
-         writeResponse(http, isGet, pretty, response, status, encode, contentType);
+         writeResponse(http, isGet, pretty, response, status, encode, contentType, entityTag);
      }
 
     /**
-     * Writes the HTTP response to the output stream.
+     * Writes the HTTP response to the output stream.  The body is compressed if the client accepts it and is written
+     * as it is generated, using chunked transfer encoding, rather than being assembled in memory first.
      *
      * @param http The HttpExchange object that allows access to the request and response.
      * @param isGet Flag indicating whether or not the request was a GET request or POST request.
@@ -215,22 +395,41 @@ public class DomainApiHandler implements ManagementHttpHandler {
      * @param response The DMR response from the operation.
      * @param status The HTTP status code to be included in the response.
      * @param encode Flag indicating whether or not to Base64 encode the response payload.
+     * @param contentType The content type of the response.
+     * @param entityTag The entity tag of the response, or {@code null} if it has none.
      * @throws IOException if an error occurs while attempting to generate the HTTP response.
      */
     private void writeResponse(final HttpExchange http, boolean isGet, boolean pretty, ModelNode response, int status,
-            boolean encode, String contentType) throws IOException {
+            boolean encode, String contentType, String entityTag) throws IOException {
+        final String contentCoding = selectContentCoding(http.getRequestHeaders());
         final Headers responseHeaders = http.getResponseHeaders();
         responseHeaders.add(CONTENT_TYPE, contentType);
         responseHeaders.add(ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        responseHeaders.add(VARY, ACCEPT_ENCODING);
+        if (contentCoding != null) {
+            responseHeaders.add(CONTENT_ENCODING, contentCoding);
+        }
+        if (entityTag != null) {
+            responseHeaders.add(ETAG, entityTag);
+        }
         http.sendResponseHeaders(status, 0);
 
-        final OutputStream out = http.getResponseBody();
-        final PrintWriter print = new PrintWriter(out);
+        OutputStream out = http.getResponseBody();
+        Deflater deflater = null;
+        if (GZIP.equals(contentCoding)) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        } else if (DEFLATE.equals(contentCoding)) {
+            deflater = new Deflater();
+            out = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+        } else {
+            out = new BufferedOutputStream(out, BUFFER_SIZE);
+        }
+        final PrintWriter print = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, UTF_8), BUFFER_SIZE));
 
         // GET (read) operations will never have a compensating update, and the status is already
         // available via the http response status code, so unwrap them.
         if (isGet && status == OK)
-            response = response.get("result");
+            response = response.get(RESULT);
 
         try {
             if (encode) {
@@ -243,6 +442,9 @@ public class DomainApiHandler implements ManagementHttpHandler {
             out.flush();
             safeClose(print);
             safeClose(out);
+            if (deflater != null) {
+                deflater.end();
+            }
         }
     }
 
@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.domain.http.server.Constants.ACCEPT_ENCODING;
+import static org.jboss.as.domain.http.server.Constants.CONTENT_ENCODING;
+import static org.jboss.as.domain.http.server.Constants.DEFLATE;
+import static org.jboss.as.domain.http.server.Constants.ETAG;
+import static org.jboss.as.domain.http.server.Constants.GZIP;
+import static org.jboss.as.domain.http.server.Constants.IF_NONE_MATCH;
+import static org.jboss.as.domain.http.server.Constants.INTERNAL_SERVER_ERROR;
+import static org.jboss.as.domain.http.server.Constants.NOT_MODIFIED;
+import static org.jboss.as.domain.http.server.Constants.OK;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.jboss.as.controller.BasicModelController;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Unit tests of the content coding and entity tags of {@link DomainApiHandler}.
+ */
+public class DomainApiHandlerTestCase {
+
+    private static final String READ_RESOURCE = "/domain-api?operation=resource";
+    private static final String READ_RUNTIME = "/domain-api?operation=resource&include-runtime=true";
+
+    private TestModelController controller;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @Before
+    public void startServer() throws IOException {
+        controller = new TestModelController();
+        controller.response = success("value");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        new DomainApiHandler(controller).start(server);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testIdentityCoding() throws Exception {
+        final HttpURLConnection connection = get(READ_RESOURCE, null, null);
+        assertEquals(OK, connection.getResponseCode());
+        assertNull(connection.getHeaderField(CONTENT_ENCODING));
+        assertEquals(ACCEPT_ENCODING, connection.getHeaderField("Vary"));
+        assertEquals("value", ModelNode.fromJSONString(read(connection.getInputStream())).get("name").asString());
+    }
+
+    @Test
+    public void testGzipCoding() throws Exception {
+        final HttpURLConnection connection = get(READ_RESOURCE, "deflate, gzip", null);
+        assertEquals(OK, connection.getResponseCode());
+        assertEquals(GZIP, connection.getHeaderField(CONTENT_ENCODING));
+        final String body = read(new GZIPInputStream(connection.getInputStream()));
+        assertEquals("value", ModelNode.fromJSONString(body).get("name").asString());
+    }
+
+    @Test
+    public void testDeflateCoding() throws Exception {
+        final HttpURLConnection connection = get(READ_RESOURCE, "gzip;q=0, deflate", null);
+        assertEquals(OK, connection.getResponseCode());
+        assertEquals(DEFLATE, connection.getHeaderField(CONTENT_ENCODING));
+        final String body = read(new InflaterInputStream(connection.getInputStream()));
+        assertEquals("value", ModelNode.fromJSONString(body).get("name").asString());
+    }
+
+    @Test
+    public void testUnacceptableCoding() throws Exception {
+        final HttpURLConnection connection = get(READ_RESOURCE, "gzip;q=0, br", null);
+        assertEquals(OK, connection.getResponseCode());
+        assertNull(connection.getHeaderField(CONTENT_ENCODING));
+        assertEquals("value", ModelNode.fromJSONString(read(connection.getInputStream())).get("name").asString());
+    }
+
+    @Test
+    public void testNotModifiedForRevisionTag() throws Exception {
+        HttpURLConnection connection = get(READ_RESOURCE, null, null);
+        assertEquals(OK, connection.getResponseCode());
+        final String entityTag = connection.getHeaderField(ETAG);
+        assertNotNull(entityTag);
+        read(connection.getInputStream());
+        assertEquals(1, controller.executions.get());
+
+        // the revision tag is checked before the operation is executed
+        connection = get(READ_RESOURCE, null, entityTag);
+        assertEquals(NOT_MODIFIED, connection.getResponseCode());
+        assertEquals(entityTag, connection.getHeaderField(ETAG));
+        assertEquals(1, controller.executions.get());
+
+        // and the same tag is used whatever the content coding
+        connection = get(READ_RESOURCE, GZIP, entityTag);
+        assertEquals(NOT_MODIFIED, connection.getResponseCode());
+
+        controller.revision++;
+        connection = get(READ_RESOURCE, null, entityTag);
+        assertEquals(OK, connection.getResponseCode());
+        assertFalse(entityTag.equals(connection.getHeaderField(ETAG)));
+        read(connection.getInputStream());
+        assertEquals(2, controller.executions.get());
+    }
+
+    @Test
+    public void testNotModifiedForDigestTag() throws Exception {
+        HttpURLConnection connection = get(READ_RUNTIME, null, null);
+        assertEquals(OK, connection.getResponseCode());
+        final String entityTag = connection.getHeaderField(ETAG);
+        assertNotNull(entityTag);
+        read(connection.getInputStream());
+
+        // runtime values are not covered by the revision, so the tag follows the content
+        controller.revision++;
+        connection = get(READ_RUNTIME, null, entityTag);
+        assertEquals(NOT_MODIFIED, connection.getResponseCode());
+        assertEquals(entityTag, connection.getHeaderField(ETAG));
+
+        controller.response = success("other");
+        connection = get(READ_RUNTIME, null, entityTag);
+        assertEquals(OK, connection.getResponseCode());
+        assertFalse(entityTag.equals(connection.getHeaderField(ETAG)));
+        assertEquals("other", ModelNode.fromJSONString(read(connection.getInputStream())).get("name").asString());
+    }
+
+    @Test
+    public void testNoEntityTagOnFailure() throws Exception {
+        controller.response = new ModelNode();
+        controller.response.get("outcome").set("failed");
+        controller.response.get("failure-description").set("broken");
+
+        HttpURLConnection connection = get(READ_RESOURCE, null, null);
+        assertEquals(INTERNAL_SERVER_ERROR, connection.getResponseCode());
+        assertNull(connection.getHeaderField(ETAG));
+
+        connection = get(READ_RUNTIME, null, null);
+        assertEquals(INTERNAL_SERVER_ERROR, connection.getResponseCode());
+        assertNull(connection.getHeaderField(ETAG));
+    }
+
+    private HttpURLConnection get(final String path, final String acceptEncoding, final String ifNoneMatch) throws IOException {
+        final URL url = new URL("http", "localhost", server.getAddress().getPort(), path);
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        if (acceptEncoding != null) {
+            connection.setRequestProperty(ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            connection.setRequestProperty(IF_NONE_MATCH, ifNoneMatch);
+        }
+        return connection;
+    }
+
+    private static String read(final InputStream input) throws IOException {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            input.close();
+        }
+    }
+
+    private static ModelNode success(final String value) {
+        final ModelNode response = new ModelNode();
+        response.get("outcome").set("success");
+        response.get("result", "name").set(value);
+        return response;
+    }
+
+    private static class TestModelController extends BasicModelController {
+
+        private final AtomicInteger executions = new AtomicInteger();
+        private volatile long revision;
+        private volatile ModelNode response;
+
+        TestModelController() {
+            super(null);
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) {
+            executions.incrementAndGet();
+            return response.clone();
+        }
+
+        @Override
+        public long getModelRevision() {
+            return revision;
+        }
+    }
+}
@@ -41,6 +41,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -77,6 +78,9 @@ public abstract class AbstractComponent implements Component {
     private final List<ResourceInjection> resourceInjections;
     private final InterceptorFactory postConstruct;
     private final InterceptorFactory preDestroy;
+    private final InterceptorFactory prePassivate;
+    private final InterceptorFactory postActivate;
+    private final Map<Class<?>, List<ResourceInjection>> interceptorResourceInjections;
     private final List<ComponentInjector> componentInjectors;
     private Interceptor componentInterceptor;
     private final Map<Method, InterceptorFactory> interceptorFactoryMap;
@@ -101,11 +105,14 @@ public abstract class AbstractComponent implements Component {
         this.componentInjectors = configuration.getComponentInjectors();
         this.viewServices = new HashMap<Class<?>, ServiceName>(configuration.getViewServices());
         this.componentMethods = configuration.getComponentMethods();
+        this.interceptorResourceInjections = configuration.getInterceptorResourceInjections();
 
 
         //get the lifecycle interceptor chains
         postConstruct = Interceptors.getChainedInterceptorFactory(configuration.getPostConstruct());
         preDestroy = Interceptors.getChainedInterceptorFactory(configuration.getPreDestroy());
+        prePassivate = Interceptors.getChainedInterceptorFactory(configuration.getPrePassivate());
+        postActivate = Interceptors.getChainedInterceptorFactory(configuration.getPostActivate());
 
     }
 
@@ -113,6 +120,70 @@ public abstract class AbstractComponent implements Component {
      * {@inheritDoc}
      */
     public ComponentInstance createInstance() {
+        waitForStart();
+        return createInstance(createObjectInstance(), new SimpleInterceptorFactoryContext(), postConstruct);
+    }
+
+    /**
+     * Prepare a component instance for passivation.  The pre-passivate lifecycle is invoked through the interceptor
+     * chain, and the interceptor instances bound to the component instance are returned so that their state can be
+     * stored along with the object instance.
+     *
+     * @param instance the component instance
+     * @return the interceptor instances, keyed by interceptor class
+     */
+    protected Map<Class<?>, Object> passivateInstance(final ComponentInstance instance) {
+        final InterceptorFactoryContext interceptorContext = instance.getInterceptorFactoryContext();
+        performLifecycle(instance, prePassivate, interceptorContext);
+        final Map<Object, Object> contextData = interceptorContext.getContextData();
+        final Map<Class<?>, Object> interceptorInstances = new LinkedHashMap<Class<?>, Object>();
+        for (Class<?> interceptorClass : interceptorResourceInjections.keySet()) {
+            final Object interceptorInstance = contextData.get(interceptorClass);
+            if (interceptorInstance != null) {
+                interceptorInstances.put(interceptorClass, interceptorInstance);
+            }
+        }
+        return interceptorInstances;
+    }
+
+    /**
+     * Return a component instance whose passivation did not complete to active use.  The post-activate lifecycle is
+     * invoked, undoing what the pre-passivate lifecycle run by {@link #passivateInstance(ComponentInstance)} did.
+     *
+     * @param instance the component instance
+     */
+    protected void reactivateInstance(final ComponentInstance instance) {
+        performLifecycle(instance, postActivate, instance.getInterceptorFactoryContext());
+    }
+
+    /**
+     * Recreate a component instance around an object instance and interceptor instances which were restored from a
+     * passivated state.  The injections are applied again, as injected resources need not survive passivation, and the
+     * post-activate lifecycle is invoked instead of the post-construct lifecycle.
+     *
+     * @param objectInstance the restored object instance
+     * @param interceptorInstances the restored interceptor instances, keyed by interceptor class
+     * @return the component instance
+     */
+    protected ComponentInstance activateInstance(final Object objectInstance, final Map<Class<?>, Object> interceptorInstances) {
+        waitForStart();
+        final SimpleInterceptorFactoryContext interceptorContext = new SimpleInterceptorFactoryContext();
+        if (interceptorInstances != null) {
+            for (Map.Entry<Class<?>, Object> entry : interceptorInstances.entrySet()) {
+                final Object interceptorInstance = entry.getValue();
+                final List<ResourceInjection> injections = interceptorResourceInjections.get(entry.getKey());
+                if (injections != null) {
+                    for (ResourceInjection injection : injections) {
+                        injection.inject(interceptorInstance);
+                    }
+                }
+                interceptorContext.getContextData().put(entry.getKey(), interceptorInstance);
+            }
+        }
+        return createInstance(objectInstance, interceptorContext, postActivate);
+    }
+
+    private void waitForStart() {
         if (!gate) {
             // Block until successful start
             synchronized (this) {
@@ -127,11 +198,10 @@ public abstract class AbstractComponent implements Component {
                 }
             }
         }
-        //we must use the same context over the life of the instance
-        SimpleInterceptorFactoryContext interceptorContext = new SimpleInterceptorFactoryContext();
-
-        Object objectInstance = createObjectInstance();
+    }
 
+    private ComponentInstance createInstance(final Object objectInstance, final SimpleInterceptorFactoryContext interceptorContext, final InterceptorFactory lifecycle) {
+        //we must use the same context over the life of the instance
 
         //apply injections, and add the clean up interceptors to the pre destroy chain
         //we want interceptors that clean up injections to be last in the interceptor chain
@@ -146,7 +216,7 @@ public abstract class AbstractComponent implements Component {
         interceptorContext.getContextData().put(AbstractComponent.INSTANCE_KEY, objectInstance);
         interceptorContext.getContextData().put(AbstractComponent.COMPONENT_INSTANCE_KEY, instance);
 
-        performLifecycle(instance, postConstruct, interceptorContext);
+        performLifecycle(instance, lifecycle, interceptorContext);
 
         // process the interceptors bound to individual methods
         // the interceptors are tied to the lifecycle of the instance
@@ -260,7 +330,7 @@ public abstract class AbstractComponent implements Component {
                 context.setParameters(EMPTY_OBJECT_ARRAY);
                 interceptor.processInvocation(context);
             } catch (Throwable t) {
-                throw new RuntimeException("Failed to invoke post construct method for class " + getComponentClass(), t);
+                throw new RuntimeException("Failed to invoke lifecycle method for class " + getComponentClass(), t);
             }
         } finally {
             setContextClassLoader(contextCl);
@@ -49,6 +49,8 @@ public abstract class AbstractComponentConfiguration {
     private final String componentName;
     private final Deque<InterceptorFactory> postConstruct = new ArrayDeque<InterceptorFactory>();
     private final Deque<InterceptorFactory> preDestroy = new ArrayDeque<InterceptorFactory>();;
+    private final Deque<InterceptorFactory> prePassivate = new ArrayDeque<InterceptorFactory>();
+    private final Deque<InterceptorFactory> postActivate = new ArrayDeque<InterceptorFactory>();
     private final List<ResourceInjection> resourceInjections = new ArrayList<ResourceInjection>();
     private final Map<Class<?>,List<ResourceInjection>> interceptorResourceInjections = new IdentityHashMap<Class<?>,List<ResourceInjection>>();
     private final List<InterceptorFactory> componentSystemInterceptorFactories = new ArrayList<InterceptorFactory>();
@@ -103,6 +105,10 @@ public abstract class AbstractComponentConfiguration {
         return interceptorResourceInjections.get(interceptorClass);
     }
 
+    Map<Class<?>, List<ResourceInjection>> getInterceptorResourceInjections() {
+        return interceptorResourceInjections;
+    }
+
     List<ResourceInjection> getResourceInjections() {
         return resourceInjections;
     }
@@ -186,4 +192,12 @@ public abstract class AbstractComponentConfiguration {
     public Deque<InterceptorFactory> getPreDestroy() {
         return preDestroy;
     }
+
+    public Deque<InterceptorFactory> getPrePassivate() {
+        return prePassivate;
+    }
+
+    public Deque<InterceptorFactory> getPostActivate() {
+        return postActivate;
+    }
 }
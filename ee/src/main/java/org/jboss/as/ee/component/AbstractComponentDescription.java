@@ -396,6 +396,8 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
 
         final List<InterceptorFactory> postConstructInterceptors = new ArrayList<InterceptorFactory>();
         final List<InterceptorFactory> preDestroyInterceptors = new ArrayList<InterceptorFactory>();
+        final List<InterceptorFactory> prePassivateInterceptors = new ArrayList<InterceptorFactory>();
+        final List<InterceptorFactory> postActivateInterceptors = new ArrayList<InterceptorFactory>();
 
         //add system interceptors to the lifecycle chain
         //TODO: figure out how this is supposed to work
@@ -412,7 +414,7 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
         //TODO: The interceptor ordering should be more robust
         //TODO: default interceptors
         for(InterceptorDescription interceptor : classInterceptors) {
-            getInstanceFactory(configuration, module, index, interceptorFactories, interceptor, postConstructInterceptors, preDestroyInterceptors);
+            getInstanceFactory(configuration, module, index, interceptorFactories, interceptor, postConstructInterceptors, preDestroyInterceptors, prePassivateInterceptors, postActivateInterceptors);
         }
 
         // Mapping of method identifiers to component (target) methods
@@ -438,7 +440,7 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
                 //first class level interceptor
                 if(!methodExcludeClassInterceptors.contains(methodIdentifier)){
                     for(final InterceptorDescription interceptor: classInterceptors) {
-                        InjectingInterceptorInstanceFactory interceptorFactory = getInstanceFactory(configuration, module, index, interceptorFactories, interceptor, postConstructInterceptors, preDestroyInterceptors);
+                        InjectingInterceptorInstanceFactory interceptorFactory = getInstanceFactory(configuration, module, index, interceptorFactories, interceptor, postConstructInterceptors, preDestroyInterceptors, prePassivateInterceptors, postActivateInterceptors);
                         registerComponentInterceptor(interceptor, module, index, theInterceptorFactories, interceptorFactory);
                     }
                 }
@@ -446,7 +448,7 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
                 List<InterceptorDescription> methodLevelInterceptors = methodInterceptors.get(methodIdentifier);
                 if(methodLevelInterceptors != null)
                     for(final InterceptorDescription interceptor : methodLevelInterceptors) {
-                        InjectingInterceptorInstanceFactory interceptorFactory = getInstanceFactory(configuration, module, index, interceptorFactories, interceptor, postConstructInterceptors, preDestroyInterceptors);
+                        InjectingInterceptorInstanceFactory interceptorFactory = getInstanceFactory(configuration, module, index, interceptorFactories, interceptor, postConstructInterceptors, preDestroyInterceptors, prePassivateInterceptors, postActivateInterceptors);
                         registerComponentInterceptor(interceptor, module, index, theInterceptorFactories, interceptorFactory);
                     }
                 //now register around invoke methods on the bean and its superclasses
@@ -478,25 +480,10 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
             // we need to build lifecycle interceptor chains
             // The chains need the system interceptors, then any interceptor
             // lifecycle methods, then an interceptor to run component lifecycle methods
-            List<Method> preDestroyMethods = new ArrayList<Method>();
-            for(InterceptorMethodDescription interceptor : getPreDestroys()) {
-                final Class<?> declaringClass = module.getClassLoader().loadClass(interceptor.getDeclaringClass());
-                final Method lifecycleMethod = index.getClassIndex(declaringClass).getMethod(void.class, interceptor.getIdentifier().getName());
-                preDestroyMethods.add(lifecycleMethod);
-            }
-            ComponentLifecycleMethodInterceptorFactory preDestroyInterceptorFactory = new ComponentLifecycleMethodInterceptorFactory(preDestroyMethods);
-            preDestroyInterceptors.add(preDestroyInterceptorFactory);
-
-
-
-            List<Method> postConstructMethods = new ArrayList<Method>();
-            for(InterceptorMethodDescription interceptor : getPostConstructs()) {
-                final Class<?> declaringClass = module.getClassLoader().loadClass(interceptor.getDeclaringClass());
-                final Method lifecycleMethod = index.getClassIndex(declaringClass).getMethod(void.class, interceptor.getIdentifier().getName());
-                postConstructMethods.add(lifecycleMethod);
-            }
-            ComponentLifecycleMethodInterceptorFactory postConstructInterceptorFactory = new ComponentLifecycleMethodInterceptorFactory(postConstructMethods);
-            postConstructInterceptors.add(postConstructInterceptorFactory);
+            preDestroyInterceptors.add(new ComponentLifecycleMethodInterceptorFactory(getLifecycleMethods(getPreDestroys(), module, index)));
+            postConstructInterceptors.add(new ComponentLifecycleMethodInterceptorFactory(getLifecycleMethods(getPostConstructs(), module, index)));
+            prePassivateInterceptors.add(new ComponentLifecycleMethodInterceptorFactory(getLifecycleMethods(getPrePassivates(), module, index)));
+            postActivateInterceptors.add(new ComponentLifecycleMethodInterceptorFactory(getLifecycleMethods(getPostActivates(), module, index)));
         } catch(ClassNotFoundException e) {
             throw new DeploymentUnitProcessingException("Could not load class while configuring lifecycle methods",e);
         }
@@ -504,6 +491,8 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
         //set the final lifecycle chains on the configuration
         configuration.getPostConstruct().addAll(postConstructInterceptors);
         configuration.getPreDestroy().addAll(preDestroyInterceptors);
+        configuration.getPrePassivate().addAll(prePassivateInterceptors);
+        configuration.getPostActivate().addAll(postActivateInterceptors);
 
         // Now create the views
         final Map<Method, InterceptorFactory> viewToInterceptorFactory = configuration.getInterceptorFactoryMap();
@@ -559,10 +548,12 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
      * @param interceptor The interceptor
      * @param postConstructInterceptors The post construct interceptor chain
      * @param preDestroyInterceptors The pre destroy interceptor chain
+     * @param prePassivateInterceptors The pre passivate interceptor chain
+     * @param postActivateInterceptors The post activate interceptor chain
      * @return The factory for the interceptor
      * @throws DeploymentUnitProcessingException
      */
-    private InjectingInterceptorInstanceFactory getInstanceFactory(AbstractComponentConfiguration configuration, Module module, DeploymentReflectionIndex index, Map<String, InjectingInterceptorInstanceFactory> interceptorFactories, InterceptorDescription interceptor, List<InterceptorFactory> postConstructInterceptors, List<InterceptorFactory> preDestroyInterceptors) throws DeploymentUnitProcessingException {
+    private InjectingInterceptorInstanceFactory getInstanceFactory(AbstractComponentConfiguration configuration, Module module, DeploymentReflectionIndex index, Map<String, InjectingInterceptorInstanceFactory> interceptorFactories, InterceptorDescription interceptor, List<InterceptorFactory> postConstructInterceptors, List<InterceptorFactory> preDestroyInterceptors, List<InterceptorFactory> prePassivateInterceptors, List<InterceptorFactory> postActivateInterceptors) throws DeploymentUnitProcessingException {
         if(interceptorFactories.containsKey(interceptor.getInterceptorClassName())) {
             return interceptorFactories.get(interceptor.getInterceptorClassName());
         }
@@ -572,6 +563,8 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
             final List<InterceptorFactory> preDestroy = createLifecycleInterceptors(interceptor.getInterceptorPreDestroys(), module, index);
             postConstructInterceptors.addAll(postConstruct);
             preDestroyInterceptors.addAll(preDestroy);
+            prePassivateInterceptors.addAll(createLifecycleInterceptors(interceptor.getInterceptorPrePassivates(), module, index));
+            postActivateInterceptors.addAll(createLifecycleInterceptors(interceptor.getInterceptorPostActivates(), module, index));
             final InjectingInterceptorInstanceFactory instanceFactory = new InjectingInterceptorInstanceFactory(new SimpleInterceptorInstanceFactory(interceptorClass),interceptorClass,configuration);
             interceptorFactories.put(interceptor.getInterceptorClassName(),instanceFactory);
             return instanceFactory;
@@ -580,6 +573,24 @@ public abstract class AbstractComponentDescription extends AbstractLifecycleCapa
         }
     }
 
+    /**
+     * Resolve the lifecycle methods declared on the component class and its superclasses.
+     *
+     * @param lifecycleDescriptions The lifecycle descriptions
+     * @param module The deployment module
+     * @param index The deployment reflection index
+     * @return The lifecycle methods, in invocation order
+     * @throws ClassNotFoundException If a declaring class cannot be loaded
+     */
+    private static List<Method> getLifecycleMethods(final List<InterceptorMethodDescription> lifecycleDescriptions, final Module module, final DeploymentReflectionIndex index) throws ClassNotFoundException {
+        final List<Method> methods = new ArrayList<Method>();
+        for(InterceptorMethodDescription interceptor : lifecycleDescriptions) {
+            final Class<?> declaringClass = module.getClassLoader().loadClass(interceptor.getDeclaringClass());
+            methods.add(index.getClassIndex(declaringClass).getMethod(void.class, interceptor.getIdentifier().getName()));
+        }
+        return methods;
+    }
+
     /**
      * Create a list of {@link InterceptorFactory} instances from a list of {@link InterceptorMethodDescription}.
      *
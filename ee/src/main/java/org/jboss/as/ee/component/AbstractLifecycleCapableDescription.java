@@ -28,17 +28,22 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Abstract class used to allow a description to support life-cycle (PostConstruct and PreDestroy) descriptions.
+ * Abstract class used to allow a description to support life-cycle (PostConstruct, PreDestroy, PrePassivate and
+ * PostActivate) descriptions.
  *
  * @author John Bailey
  */
 public class AbstractLifecycleCapableDescription  {
     private final List<InterceptorMethodDescription> interceptorPostConstructs = new ArrayList<InterceptorMethodDescription>();
     private final List<InterceptorMethodDescription> interceptorPreDestroys = new ArrayList<InterceptorMethodDescription>();
+    private final List<InterceptorMethodDescription> interceptorPrePassivates = new ArrayList<InterceptorMethodDescription>();
+    private final List<InterceptorMethodDescription> interceptorPostActivates = new ArrayList<InterceptorMethodDescription>();
 
 
     private final List<InterceptorMethodDescription> postConstructs = new ArrayList<InterceptorMethodDescription>();
     private final List<InterceptorMethodDescription> preDestroys = new ArrayList<InterceptorMethodDescription>();
+    private final List<InterceptorMethodDescription> prePassivates = new ArrayList<InterceptorMethodDescription>();
+    private final List<InterceptorMethodDescription> postActivates = new ArrayList<InterceptorMethodDescription>();
 
     private final List<InterceptorFactory> postConstructInterceptorFactories = new ArrayList<InterceptorFactory>();
     private final List<InterceptorFactory> preDestroyInterceptorFactories = new ArrayList<InterceptorFactory>();
@@ -61,6 +66,24 @@ public class AbstractLifecycleCapableDescription  {
         return interceptorPreDestroys;
     }
 
+    /**
+     * Get the pre-passivate lifecycle method configurations for interceptor classes attached to this component
+     *
+     * @return the pre-passivate lifecycle method configurations
+     */
+    public List<InterceptorMethodDescription> getInterceptorPrePassivates() {
+        return interceptorPrePassivates;
+    }
+
+    /**
+     * Get the post-activate lifecycle method configurations for interceptor classes attached to this component
+     *
+     * @return the post-activate lifecycle method configurations
+     */
+    public List<InterceptorMethodDescription> getInterceptorPostActivates() {
+        return interceptorPostActivates;
+    }
+
     /**
      * Adds a PostConstruct method
      * @param methodDescription The method to add
@@ -81,6 +104,30 @@ public class AbstractLifecycleCapableDescription  {
         }
     }
 
+    /**
+     * Adds a PrePassivate method
+     * @param methodDescription The method to add
+     */
+    public void addPrePassivate(InterceptorMethodDescription methodDescription) {
+        if(methodDescription.isDeclaredOnTargetClass()) {
+            prePassivates.add(methodDescription);
+        } else {
+            interceptorPrePassivates.add(methodDescription);
+        }
+    }
+
+    /**
+     * Adds a PostActivate method
+     * @param methodDescription The method to add
+     */
+    public void addPostActivate(InterceptorMethodDescription methodDescription) {
+        if(methodDescription.isDeclaredOnTargetClass()) {
+            postActivates.add(methodDescription);
+        } else {
+            interceptorPostActivates.add(methodDescription);
+        }
+    }
+
     /**
      * Get pre-destroy lifecycle methods declared on the component itself
      *
@@ -99,6 +146,24 @@ public class AbstractLifecycleCapableDescription  {
         return postConstructs;
     }
 
+    /**
+     * Get pre-passivate lifecycle methods declared on the component itself
+     *
+     * @return The pre-passivate methods
+     */
+    public List<InterceptorMethodDescription> getPrePassivates() {
+        return prePassivates;
+    }
+
+    /**
+     * Get post-activate lifecycle methods declared on the component itself
+     *
+     * @return The post-activate methods
+     */
+    public List<InterceptorMethodDescription> getPostActivates() {
+        return postActivates;
+    }
+
     /**
      * Adds a InterceptorFactory that runs at the start of the post construct chain
      * @param factory The factory to add
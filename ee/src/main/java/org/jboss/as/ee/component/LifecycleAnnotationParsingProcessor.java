@@ -49,6 +49,9 @@ import java.util.Map;
 public class LifecycleAnnotationParsingProcessor extends AbstractComponentConfigProcessor {
     private static final DotName POST_CONSTRUCT_ANNOTATION = DotName.createSimple(PostConstruct.class.getName());
     private static final DotName PRE_DESTROY_ANNOTATION = DotName.createSimple(PreDestroy.class.getName());
+    // the EJB API is not a dependency of this module, only stateful session beans are passivated
+    private static final DotName PRE_PASSIVATE_ANNOTATION = DotName.createSimple("javax.ejb.PrePassivate");
+    private static final DotName POST_ACTIVATE_ANNOTATION = DotName.createSimple("javax.ejb.PostActivate");
 
     /**
      * {@inheritDoc} *
@@ -80,6 +83,14 @@ public class LifecycleAnnotationParsingProcessor extends AbstractComponentConfig
         if (preDestroyMethod != null) {
             lifecycleCapableDescription.addPreDestroy(preDestroyMethod);
         }
+        final InterceptorMethodDescription prePassivateMethod = getLifeCycle(classInfo, actualClassName, PRE_PASSIVATE_ANNOTATION, declaredOnTargetClass);
+        if (prePassivateMethod != null) {
+            lifecycleCapableDescription.addPrePassivate(prePassivateMethod);
+        }
+        final InterceptorMethodDescription postActivateMethod = getLifeCycle(classInfo, actualClassName, POST_ACTIVATE_ANNOTATION, declaredOnTargetClass);
+        if (postActivateMethod != null) {
+            lifecycleCapableDescription.addPostActivate(postActivateMethod);
+        }
     }
 
     private InterceptorMethodDescription getLifeCycle(final ClassInfo classInfo, final String actualClass, final DotName annotationType, boolean declaredOnTargetClass) {
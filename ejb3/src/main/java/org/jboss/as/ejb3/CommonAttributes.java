@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+/**
+ * Attribute and element names of the EJB3 subsystem.
+ */
+class CommonAttributes {
+    static final String BEAN = "bean";
+    static final String BEAN_INSTANCE_POOLS = "bean-instance-pools";
+    static final String DEFAULT_SLSB_INSTANCE_POOL = "default-slsb-instance-pool";
+    static final String DEFAULT_MDB_INSTANCE_POOL = "default-mdb-instance-pool";
+    static final String IDLE_TIMEOUT = "idle-timeout";
+    static final String IDLE_TIMEOUT_UNIT = "idle-timeout-unit";
+    static final String INSTANCE_ACQUISITION_TIMEOUT = "instance-acquisition-timeout";
+    static final String INSTANCE_ACQUISITION_TIMEOUT_UNIT = "instance-acquisition-timeout-unit";
+    static final String INSTANCE_POOL = "instance-pool";
+    static final String INSTANCE_POOLS = "instance-pools";
+    static final String MAX_POOL_SIZE = "max-pool-size";
+    static final String MAX_SIZE = "max-size";
+    static final String READ_INSTANCE_POOL_STATISTICS = "read-instance-pool-statistics";
+    static final String READ_STATEFUL_CACHE_STATISTICS = "read-stateful-cache-statistics";
+    static final String STATEFUL_CACHE = "stateful-cache";
+    static final String THREAD_POOL_NAME = "thread-pool-name";
+    static final String TIMER_SERVICE = "timer-service";
+
+    // instance pool statistics
+    static final String AVAILABLE_COUNT = "available-count";
+    static final String IN_USE_COUNT = "in-use-count";
+    static final String PEAK_IN_USE_COUNT = "peak-in-use-count";
+    static final String CREATE_COUNT = "create-count";
+    static final String REMOVE_COUNT = "remove-count";
+    static final String ACQUISITION_COUNT = "acquisition-count";
+    static final String TOTAL_WAIT_TIME = "total-wait-time";
+    static final String MAX_WAIT_TIME = "max-wait-time";
+
+    // stateful cache statistics
+    static final String CACHE_SIZE = "cache-size";
+    static final String PASSIVATED_COUNT = "passivated-count";
+    static final String PASSIVATION_COUNT = "passivation-count";
+    static final String PASSIVATION_FAILURE_COUNT = "passivation-failure-count";
+    static final String TOTAL_PASSIVATION_TIME = "total-passivation-time";
+    static final String ACTIVATION_COUNT = "activation-count";
+    static final String TOTAL_ACTIVATION_TIME = "total-activation-time";
+    static final String MAX_ACTIVATION_TIME = "max-activation-time";
+}
@@ -36,19 +36,43 @@ import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.as.controller.registry.AttributeAccess.Storage;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.component.pool.InstancePoolConfig;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.*;
+import static org.jboss.as.ejb3.CommonAttributes.BEAN;
+import static org.jboss.as.ejb3.CommonAttributes.BEAN_INSTANCE_POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_MDB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_SLSB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.IDLE_TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.IDLE_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_ACQUISITION_TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_ACQUISITION_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_POOL_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.READ_INSTANCE_POOL_STATISTICS;
+import static org.jboss.as.ejb3.CommonAttributes.READ_STATEFUL_CACHE_STATISTICS;
+import static org.jboss.as.ejb3.CommonAttributes.STATEFUL_CACHE;
+import static org.jboss.as.ejb3.CommonAttributes.THREAD_POOL_NAME;
+import static org.jboss.as.ejb3.CommonAttributes.TIMER_SERVICE;
 
 /**
  * @author Emanuel Muckenhuber
@@ -67,6 +91,12 @@ public class EJB3Extension implements Extension {
         final ModelNodeRegistration registration = subsystem.registerSubsystemModel(EJB3SubsystemProviders.SUBSYSTEM);
         registration.registerOperationHandler(ADD, Ejb3SubsystemAdd.INSTANCE, EJB3SubsystemProviders.SUBSYSTEM_ADD, false);
         registration.registerOperationHandler(DESCRIBE, SubsystemDescribeHandler.INSTANCE, SubsystemDescribeHandler.INSTANCE, false, OperationEntry.EntryType.PRIVATE);
+        registration.registerOperationHandler(READ_INSTANCE_POOL_STATISTICS, InstancePoolStatisticsHandler.INSTANCE, EJB3SubsystemProviders.READ_INSTANCE_POOL_STATISTICS, false);
+        registration.registerOperationHandler(READ_STATEFUL_CACHE_STATISTICS, StatefulCacheStatisticsHandler.INSTANCE, EJB3SubsystemProviders.READ_STATEFUL_CACHE_STATISTICS, false);
+        registration.registerReadWriteAttribute(DEFAULT_SLSB_INSTANCE_POOL, null, InstancePoolWriteHandler.DEFAULT_POOL, Storage.CONFIGURATION);
+        registration.registerReadWriteAttribute(DEFAULT_MDB_INSTANCE_POOL, null, InstancePoolWriteHandler.DEFAULT_POOL, Storage.CONFIGURATION);
+        registration.registerReadWriteAttribute(INSTANCE_POOLS, null, InstancePoolWriteHandler.POOLS, Storage.CONFIGURATION);
+        registration.registerReadWriteAttribute(BEAN_INSTANCE_POOLS, null, InstancePoolWriteHandler.POOLS, Storage.CONFIGURATION);
         subsystem.registerXMLElementWriter(parser);
     }
 
@@ -84,6 +114,58 @@ public class EJB3Extension implements Extension {
             // //TODO seems to be a problem with empty elements cleaning up the queue in FormattingXMLStreamWriter.runAttrQueue
             //context.startSubsystemElement(NewManagedBeansExtension.NAMESPACE, true);
             context.startSubsystemElement(NAMESPACE, false);
+            final ModelNode model = context.getModelNode();
+            if (model.hasDefined(INSTANCE_POOLS) || model.hasDefined(DEFAULT_SLSB_INSTANCE_POOL) || model.hasDefined(DEFAULT_MDB_INSTANCE_POOL)) {
+                writer.writeStartElement(INSTANCE_POOLS);
+                if (model.hasDefined(DEFAULT_SLSB_INSTANCE_POOL)) {
+                    writer.writeAttribute(DEFAULT_SLSB_INSTANCE_POOL, model.get(DEFAULT_SLSB_INSTANCE_POOL).asString());
+                }
+                if (model.hasDefined(DEFAULT_MDB_INSTANCE_POOL)) {
+                    writer.writeAttribute(DEFAULT_MDB_INSTANCE_POOL, model.get(DEFAULT_MDB_INSTANCE_POOL).asString());
+                }
+                if (model.hasDefined(INSTANCE_POOLS)) {
+                    for (Property type : model.get(INSTANCE_POOLS).asPropertyList()) {
+                        for (Property pool : type.getValue().asPropertyList()) {
+                            writer.writeEmptyElement(type.getName());
+                            writer.writeAttribute(NAME, pool.getName());
+                            final ModelNode config = pool.getValue();
+                            for (String attribute : new String[] {MAX_POOL_SIZE, INSTANCE_ACQUISITION_TIMEOUT, INSTANCE_ACQUISITION_TIMEOUT_UNIT}) {
+                                if (config.hasDefined(attribute)) {
+                                    writer.writeAttribute(attribute, config.get(attribute).asString());
+                                }
+                            }
+                        }
+                    }
+                }
+                writer.writeEndElement();
+            }
+            if (model.hasDefined(BEAN_INSTANCE_POOLS)) {
+                writer.writeStartElement(BEAN_INSTANCE_POOLS);
+                for (Property bean : model.get(BEAN_INSTANCE_POOLS).asPropertyList()) {
+                    writer.writeEmptyElement(BEAN);
+                    writer.writeAttribute(NAME, bean.getName());
+                    writer.writeAttribute(INSTANCE_POOL, bean.getValue().asString());
+                }
+                writer.writeEndElement();
+            }
+            if (model.hasDefined(STATEFUL_CACHE)) {
+                writer.writeEmptyElement(STATEFUL_CACHE);
+                final ModelNode cache = model.get(STATEFUL_CACHE);
+                for (String attribute : new String[] {MAX_SIZE, IDLE_TIMEOUT, IDLE_TIMEOUT_UNIT, PATH, RELATIVE_TO}) {
+                    if (cache.hasDefined(attribute)) {
+                        writer.writeAttribute(attribute, cache.get(attribute).asString());
+                    }
+                }
+            }
+            if (model.hasDefined(TIMER_SERVICE)) {
+                writer.writeEmptyElement(TIMER_SERVICE);
+                final ModelNode timerService = model.get(TIMER_SERVICE);
+                for (String attribute : new String[] {THREAD_POOL_NAME, PATH, RELATIVE_TO}) {
+                    if (timerService.hasDefined(attribute)) {
+                        writer.writeAttribute(attribute, timerService.get(attribute).asString());
+                    }
+                }
+            }
             writer.writeEndElement();
         }
 
@@ -91,18 +173,162 @@ public class EJB3Extension implements Extension {
         @Override
         public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> list) throws XMLStreamException {
             ParseUtils.requireNoAttributes(reader);
-            ParseUtils.requireNoContent(reader);
             final ModelNode update = new ModelNode();
             update.get(OP).set(ADD);
             update.get(OP_ADDR).add(SUBSYSTEM, SUBSYSTEM_NAME);
+            boolean instancePools = false;
+            boolean beanInstancePools = false;
+            boolean statefulCache = false;
+            boolean timerService = false;
+            while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                if (!NAMESPACE.equals(reader.getNamespaceURI())) {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+                final String element = reader.getLocalName();
+                if (INSTANCE_POOLS.equals(element) && !instancePools) {
+                    instancePools = true;
+                    parseInstancePools(reader, update);
+                } else if (BEAN_INSTANCE_POOLS.equals(element) && !beanInstancePools) {
+                    beanInstancePools = true;
+                    parseBeanInstancePools(reader, update);
+                } else if (STATEFUL_CACHE.equals(element) && !statefulCache) {
+                    statefulCache = true;
+                    parseStatefulCache(reader, update);
+                } else if (TIMER_SERVICE.equals(element) && !timerService) {
+                    timerService = true;
+                    parseTimerService(reader, update);
+                } else {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+            }
             list.add(update);
         }
+
+        private void parseInstancePools(final XMLExtendedStreamReader reader, final ModelNode update) throws XMLStreamException {
+            final int count = reader.getAttributeCount();
+            for (int i = 0; i < count; i++) {
+                ParseUtils.requireNoNamespaceAttribute(reader, i);
+                final String attribute = reader.getAttributeLocalName(i);
+                if (DEFAULT_SLSB_INSTANCE_POOL.equals(attribute) || DEFAULT_MDB_INSTANCE_POOL.equals(attribute)) {
+                    update.get(attribute).set(reader.getAttributeValue(i));
+                } else {
+                    throw ParseUtils.unexpectedAttribute(reader, i);
+                }
+            }
+            final ModelNode pools = update.get(INSTANCE_POOLS);
+            pools.setEmptyObject();
+            final Set<String> names = new HashSet<String>();
+            while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                if (!NAMESPACE.equals(reader.getNamespaceURI())) {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+                final InstancePoolConfig.Type type = InstancePoolConfig.Type.forName(reader.getLocalName());
+                if (type == null) {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+                String name = null;
+                final ModelNode config = new ModelNode();
+                config.setEmptyObject();
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    ParseUtils.requireNoNamespaceAttribute(reader, i);
+                    final String attribute = reader.getAttributeLocalName(i);
+                    final String value = reader.getAttributeValue(i);
+                    if (NAME.equals(attribute)) {
+                        name = value;
+                    } else if (MAX_POOL_SIZE.equals(attribute) && type != InstancePoolConfig.Type.THREAD_LOCAL) {
+                        config.get(MAX_POOL_SIZE).set(ParseUtils.parseBoundedIntegerAttribute(reader, i, 1, Integer.MAX_VALUE));
+                    } else if (INSTANCE_ACQUISITION_TIMEOUT.equals(attribute) && type == InstancePoolConfig.Type.STRICT_MAX) {
+                        try {
+                            config.get(INSTANCE_ACQUISITION_TIMEOUT).set(Long.parseLong(value));
+                        } catch (NumberFormatException e) {
+                            throw ParseUtils.invalidAttributeValue(reader, i);
+                        }
+                    } else if (INSTANCE_ACQUISITION_TIMEOUT_UNIT.equals(attribute) && type == InstancePoolConfig.Type.STRICT_MAX) {
+                        config.get(INSTANCE_ACQUISITION_TIMEOUT_UNIT).set(value);
+                    } else {
+                        throw ParseUtils.unexpectedAttribute(reader, i);
+                    }
+                }
+                if (name == null) {
+                    throw ParseUtils.missingRequired(reader, Collections.singleton(NAME));
+                }
+                ParseUtils.requireNoContent(reader);
+                if (!names.add(name)) {
+                    throw ParseUtils.duplicateNamedElement(reader, name);
+                }
+                pools.get(type.getLocalName(), name).set(config);
+            }
+        }
+
+        private void parseStatefulCache(final XMLExtendedStreamReader reader, final ModelNode update) throws XMLStreamException {
+            final ModelNode cache = update.get(STATEFUL_CACHE);
+            cache.setEmptyObject();
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                ParseUtils.requireNoNamespaceAttribute(reader, i);
+                final String attribute = reader.getAttributeLocalName(i);
+                final String value = reader.getAttributeValue(i);
+                if (MAX_SIZE.equals(attribute)) {
+                    cache.get(MAX_SIZE).set(ParseUtils.parseBoundedIntegerAttribute(reader, i, 1, Integer.MAX_VALUE));
+                } else if (IDLE_TIMEOUT.equals(attribute)) {
+                    try {
+                        cache.get(IDLE_TIMEOUT).set(Long.parseLong(value));
+                    } catch (NumberFormatException e) {
+                        throw ParseUtils.invalidAttributeValue(reader, i);
+                    }
+                } else if (IDLE_TIMEOUT_UNIT.equals(attribute) || PATH.equals(attribute) || RELATIVE_TO.equals(attribute)) {
+                    cache.get(attribute).set(value);
+                } else {
+                    throw ParseUtils.unexpectedAttribute(reader, i);
+                }
+            }
+            ParseUtils.requireNoContent(reader);
+        }
+
+        private void parseTimerService(final XMLExtendedStreamReader reader, final ModelNode update) throws XMLStreamException {
+            final ModelNode timerService = update.get(TIMER_SERVICE);
+            timerService.setEmptyObject();
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                ParseUtils.requireNoNamespaceAttribute(reader, i);
+                final String attribute = reader.getAttributeLocalName(i);
+                if (THREAD_POOL_NAME.equals(attribute) || PATH.equals(attribute) || RELATIVE_TO.equals(attribute)) {
+                    timerService.get(attribute).set(reader.getAttributeValue(i));
+                } else {
+                    throw ParseUtils.unexpectedAttribute(reader, i);
+                }
+            }
+            ParseUtils.requireNoContent(reader);
+        }
+
+        private void parseBeanInstancePools(final XMLExtendedStreamReader reader, final ModelNode update) throws XMLStreamException {
+            ParseUtils.requireNoAttributes(reader);
+            final ModelNode beans = update.get(BEAN_INSTANCE_POOLS);
+            beans.setEmptyObject();
+            while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                if (!NAMESPACE.equals(reader.getNamespaceURI()) || !BEAN.equals(reader.getLocalName())) {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+                final String[] values = ParseUtils.requireAttributes(reader, NAME, INSTANCE_POOL);
+                if (reader.getAttributeCount() > 2) {
+                    throw ParseUtils.unexpectedAttribute(reader, 2);
+                }
+                ParseUtils.requireNoContent(reader);
+                if (beans.has(values[0])) {
+                    throw ParseUtils.duplicateNamedElement(reader, values[0]);
+                }
+                beans.get(values[0]).set(values[1]);
+            }
+        }
     }
 
-    private static ModelNode createAddSubSystemOperation() {
+    private static ModelNode createAddSubSystemOperation(final ModelNode model) {
         final ModelNode subsystem = new ModelNode();
         subsystem.get(OP).set(ADD);
         subsystem.get(OP_ADDR).add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+        for (String attribute : new String[] {DEFAULT_SLSB_INSTANCE_POOL, DEFAULT_MDB_INSTANCE_POOL, INSTANCE_POOLS, BEAN_INSTANCE_POOLS, STATEFUL_CACHE, TIMER_SERVICE}) {
+            if (model.hasDefined(attribute)) {
+                subsystem.get(attribute).set(model.get(attribute));
+            }
+        }
         return subsystem;
     }
 
@@ -111,7 +337,7 @@ public class EJB3Extension implements Extension {
         @Override
         public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
             ModelNode node = new ModelNode();
-            node.add(createAddSubSystemOperation());
+            node.add(createAddSubSystemOperation(context.getSubModel()));
 
             resultHandler.handleResultFragment(Util.NO_LOCATION, node);
             resultHandler.handleResultComplete();
@@ -32,6 +32,9 @@ import org.jboss.as.controller.RuntimeTask;
 import org.jboss.as.controller.RuntimeTaskContext;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.ejb3.component.EJBUtilities;
+import org.jboss.as.ejb3.component.pool.InstancePoolConfig;
+import org.jboss.as.ejb3.component.pool.InstancePoolRegistry;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionCacheService;
 import org.jboss.as.ejb3.deployment.processors.AccessTimeoutAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.ApplicationExceptionAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.AsynchronousAnnotationProcessor;
@@ -51,24 +54,50 @@ import org.jboss.as.ejb3.deployment.processors.LockAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.MessageDrivenAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.ResourceAdapterAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.StartupAnnotationProcessor;
+import org.jboss.as.ejb3.deployment.processors.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.TransactionAttributeAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.TransactionManagementAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.dd.AssemblyDescriptorProcessor;
 import org.jboss.as.ejb3.deployment.processors.dd.MessageDrivenBeanXmlDescriptorProcessor;
 import org.jboss.as.ejb3.deployment.processors.dd.SessionBeanXmlDescriptorProcessor;
+import org.jboss.as.ejb3.timerservice.TimerServiceManager;
 import org.jboss.as.server.BootOperationContext;
 import org.jboss.as.server.BootOperationHandler;
 import org.jboss.as.server.deployment.Phase;
+import org.jboss.as.server.services.path.AbstractPathService;
+import org.jboss.as.server.services.path.RelativePathService;
+import org.jboss.as.threads.ThreadsServices;
 import org.jboss.as.txn.TxnServices;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceTarget;
 
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELATIVE_TO;
+import static org.jboss.as.ejb3.CommonAttributes.BEAN_INSTANCE_POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_MDB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_SLSB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.IDLE_TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.IDLE_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_ACQUISITION_TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_ACQUISITION_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_POOL_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.STATEFUL_CACHE;
+import static org.jboss.as.ejb3.CommonAttributes.THREAD_POOL_NAME;
+import static org.jboss.as.ejb3.CommonAttributes.TIMER_SERVICE;
 
 /**
  * @author Emanuel Muckenhuber
@@ -77,6 +106,12 @@ class Ejb3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
 
     static final Ejb3SubsystemAdd INSTANCE = new Ejb3SubsystemAdd();
 
+    private static final String PASSIVATION_PATH = "jboss.ejb3.passivation.store.path";
+    private static final String DEFAULT_PASSIVATION_PATH = "ejb3-passivation-store";
+    private static final String DEFAULT_PASSIVATION_RELATIVE_TO = "jboss.server.data.dir";
+    private static final String TIMER_SERVICE_DATA_PATH = "jboss.ejb3.timer-service.data.path";
+    private static final String DEFAULT_TIMER_SERVICE_DATA_PATH = "timer-service-data";
+
     private Ejb3SubsystemAdd() {
         //
     }
@@ -85,10 +120,27 @@ class Ejb3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
      * {@inheritDoc}
      */
     @Override
-    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
 
         final ModelNode compensatingOperation = Util.getResourceRemoveOperation(operation.require(OP_ADDR));
 
+        final ModelNode model = new ModelNode();
+        model.setEmptyObject();
+        for (String attribute : new String[] {DEFAULT_SLSB_INSTANCE_POOL, DEFAULT_MDB_INSTANCE_POOL, INSTANCE_POOLS, BEAN_INSTANCE_POOLS, STATEFUL_CACHE, TIMER_SERVICE}) {
+            if (operation.hasDefined(attribute)) {
+                model.get(attribute).set(operation.get(attribute));
+            }
+        }
+        final InstancePoolRegistry poolRegistry = createInstancePoolRegistry(model);
+        final ModelNode statefulCache = model.hasDefined(STATEFUL_CACHE) ? model.get(STATEFUL_CACHE) : new ModelNode();
+        final StatefulSessionCacheService statefulCacheService = createStatefulSessionCacheService(statefulCache);
+        final String passivationPath = statefulCache.hasDefined(PATH) ? statefulCache.get(PATH).asString() : DEFAULT_PASSIVATION_PATH;
+        final String passivationRelativeTo = statefulCache.hasDefined(RELATIVE_TO) ? statefulCache.get(RELATIVE_TO).asString() : DEFAULT_PASSIVATION_RELATIVE_TO;
+        final ModelNode timerService = model.hasDefined(TIMER_SERVICE) ? model.get(TIMER_SERVICE) : new ModelNode();
+        final String timerThreadPoolName = timerService.hasDefined(THREAD_POOL_NAME) ? timerService.get(THREAD_POOL_NAME).asString() : TimerServiceManager.DEFAULT_THREAD_POOL_NAME;
+        final String timerDataPath = timerService.hasDefined(PATH) ? timerService.get(PATH).asString() : DEFAULT_TIMER_SERVICE_DATA_PATH;
+        final String timerDataRelativeTo = timerService.hasDefined(RELATIVE_TO) ? timerService.get(RELATIVE_TO).asString() : DEFAULT_PASSIVATION_RELATIVE_TO;
+
         if (context instanceof BootOperationContext) {
             final BootOperationContext updateContext = (BootOperationContext) context;
 
@@ -103,6 +155,21 @@ class Ejb3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
                             .addDependency(TxnServices.JBOSS_TXN_USER_TRANSACTION, UserTransaction.class, utilities.getUserTransactionInjector())
                             .setInitialMode(ServiceController.Mode.ACTIVE)
                             .install();
+                    serviceTarget.addService(InstancePoolRegistry.SERVICE_NAME, poolRegistry)
+                            .setInitialMode(ServiceController.Mode.ACTIVE)
+                            .install();
+                    RelativePathService.addService(PASSIVATION_PATH, passivationPath, passivationRelativeTo, serviceTarget);
+                    serviceTarget.addService(StatefulSessionCacheService.SERVICE_NAME, statefulCacheService)
+                            .addDependency(AbstractPathService.pathNameOf(PASSIVATION_PATH), String.class, statefulCacheService.getPassivationPathInjector())
+                            .setInitialMode(ServiceController.Mode.ACTIVE)
+                            .install();
+                    RelativePathService.addService(TIMER_SERVICE_DATA_PATH, timerDataPath, timerDataRelativeTo, serviceTarget);
+                    final TimerServiceManager timerServiceManager = new TimerServiceManager();
+                    serviceTarget.addService(TimerServiceManager.SERVICE_NAME, timerServiceManager)
+                            .addDependency(AbstractPathService.pathNameOf(TIMER_SERVICE_DATA_PATH), String.class, timerServiceManager.getDataPathInjector())
+                            .addDependency(ThreadsServices.EXECUTOR.append(timerThreadPoolName), Executor.class, timerServiceManager.getExecutorInjector())
+                            .setInitialMode(ServiceController.Mode.ON_DEMAND)
+                            .install();
                     resultHandler.handleResultComplete(); // TODO: Listener
                 }
             });
@@ -127,6 +194,7 @@ class Ejb3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_TRANSACTION_ATTR_ANNOTATION, new TransactionAttributeAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_RESOURCE_ADAPTER_ANNOTATION, new ResourceAdapterAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_ASYNCHRONOUS_ANNOTATION, new AsynchronousAnnotationProcessor());
+            updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_TIMER_ANNOTATION, new TimerServiceAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_APPLICATION_EXCEPTION_ANNOTATION, new ApplicationExceptionAnnotationProcessor());
 
             updateContext.addDeploymentProcessor(Phase.DEPENDENCIES, Phase.DEPENDENCIES_EJB, new EjbDependencyDeploymentUnitProcessor());
@@ -143,9 +211,70 @@ class Ejb3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
             // updateContext.addDeploymentProcessor(processor, priority);
         }
 
-        context.getSubModel().setEmptyObject();
+        context.getSubModel().set(model);
         resultHandler.handleResultComplete();
         return new BasicOperationResult(compensatingOperation);
     }
 
+    static StatefulSessionCacheService createStatefulSessionCacheService(final ModelNode cache) throws OperationFailedException {
+        final int maxSize = cache.hasDefined(MAX_SIZE) ? cache.get(MAX_SIZE).asInt() : StatefulSessionCacheService.DEFAULT_MAX_SIZE;
+        final long idleTimeout = cache.hasDefined(IDLE_TIMEOUT) ? cache.get(IDLE_TIMEOUT).asLong() : StatefulSessionCacheService.DEFAULT_IDLE_TIMEOUT;
+        TimeUnit unit = StatefulSessionCacheService.DEFAULT_IDLE_TIMEOUT_UNIT;
+        if (cache.hasDefined(IDLE_TIMEOUT_UNIT)) {
+            try {
+                unit = TimeUnit.valueOf(cache.get(IDLE_TIMEOUT_UNIT).asString().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                throw new OperationFailedException(new ModelNode().set("Invalid " + IDLE_TIMEOUT_UNIT + " " + cache.get(IDLE_TIMEOUT_UNIT).asString()));
+            }
+        }
+        if (maxSize < 1) {
+            throw new OperationFailedException(new ModelNode().set("Invalid " + MAX_SIZE + " " + maxSize));
+        }
+        return new StatefulSessionCacheService(maxSize, idleTimeout, unit);
+    }
+
+    static InstancePoolRegistry createInstancePoolRegistry(final ModelNode model) throws OperationFailedException {
+        final Map<String, InstancePoolConfig> configs = new HashMap<String, InstancePoolConfig>();
+        if (model.hasDefined(INSTANCE_POOLS)) {
+            for (Property type : model.get(INSTANCE_POOLS).asPropertyList()) {
+                final InstancePoolConfig.Type poolType = InstancePoolConfig.Type.forName(type.getName());
+                if (poolType == null) {
+                    throw new OperationFailedException(new ModelNode().set("Unknown instance pool type " + type.getName()));
+                }
+                for (Property pool : type.getValue().asPropertyList()) {
+                    final ModelNode config = pool.getValue();
+                    final int maxPoolSize = config.hasDefined(MAX_POOL_SIZE) ? config.get(MAX_POOL_SIZE).asInt() : InstancePoolConfig.DEFAULT_MAX_POOL_SIZE;
+                    final long timeout = config.hasDefined(INSTANCE_ACQUISITION_TIMEOUT) ? config.get(INSTANCE_ACQUISITION_TIMEOUT).asLong() : InstancePoolConfig.DEFAULT_TIMEOUT;
+                    TimeUnit unit = InstancePoolConfig.DEFAULT_TIMEOUT_UNIT;
+                    if (config.hasDefined(INSTANCE_ACQUISITION_TIMEOUT_UNIT)) {
+                        try {
+                            unit = TimeUnit.valueOf(config.get(INSTANCE_ACQUISITION_TIMEOUT_UNIT).asString().toUpperCase(Locale.ENGLISH));
+                        } catch (IllegalArgumentException e) {
+                            throw new OperationFailedException(new ModelNode().set("Invalid " + INSTANCE_ACQUISITION_TIMEOUT_UNIT + " " + config.get(INSTANCE_ACQUISITION_TIMEOUT_UNIT).asString()));
+                        }
+                    }
+                    if (poolType != InstancePoolConfig.Type.THREAD_LOCAL && maxPoolSize < 1) {
+                        throw new OperationFailedException(new ModelNode().set("Invalid " + MAX_POOL_SIZE + " " + maxPoolSize + " for instance pool " + pool.getName()));
+                    }
+                    if (configs.put(pool.getName(), new InstancePoolConfig(pool.getName(), poolType, maxPoolSize, timeout, unit)) != null) {
+                        throw new OperationFailedException(new ModelNode().set("Duplicate instance pool " + pool.getName()));
+                    }
+                }
+            }
+        }
+        final Map<String, String> beanPools = new HashMap<String, String>();
+        if (model.hasDefined(BEAN_INSTANCE_POOLS)) {
+            for (Property bean : model.get(BEAN_INSTANCE_POOLS).asPropertyList()) {
+                beanPools.put(bean.getName(), bean.getValue().asString());
+            }
+        }
+        final String defaultSlsbPool = model.hasDefined(DEFAULT_SLSB_INSTANCE_POOL) ? model.get(DEFAULT_SLSB_INSTANCE_POOL).asString() : null;
+        final String defaultMdbPool = model.hasDefined(DEFAULT_MDB_INSTANCE_POOL) ? model.get(DEFAULT_MDB_INSTANCE_POOL).asString() : null;
+        try {
+            return new InstancePoolRegistry(configs, defaultSlsbPool, defaultMdbPool, beanPools);
+        } catch (IllegalArgumentException e) {
+            throw new OperationFailedException(new ModelNode().set(e.getMessage()));
+        }
+    }
+
 }
@@ -23,17 +23,37 @@
 package org.jboss.as.ejb3;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAMESPACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELATIVE_TO;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.ejb3.CommonAttributes.BEAN;
+import static org.jboss.as.ejb3.CommonAttributes.BEAN_INSTANCE_POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_MDB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_SLSB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.IDLE_TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.IDLE_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.STATEFUL_CACHE;
+import static org.jboss.as.ejb3.CommonAttributes.THREAD_POOL_NAME;
+import static org.jboss.as.ejb3.CommonAttributes.TIMER_SERVICE;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * @author Emanuel Muckenhuber
@@ -51,6 +71,7 @@ class EJB3SubsystemProviders {
             subsystem.get(HEAD_COMMENT_ALLOWED).set(true);
             subsystem.get(TAIL_COMMENT_ALLOWED).set(true);
             subsystem.get(NAMESPACE).set(EJB3Extension.NAMESPACE);
+            addInstancePoolAttributes(subsystem.get(ATTRIBUTES), bundle, "ejb3");
 
             return subsystem;
         }
@@ -64,11 +85,83 @@ class EJB3SubsystemProviders {
             final ModelNode op = new ModelNode();
             op.get(OPERATION_NAME).set(ADD);
             op.get(DESCRIPTION).set(bundle.getString("ejb3.add"));
+            addInstancePoolAttributes(op.get(REQUEST_PROPERTIES), bundle, "ejb3");
 
             return op;
         }
     };
 
+    static final DescriptionProvider READ_INSTANCE_POOL_STATISTICS = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode op = new ModelNode();
+            op.get(OPERATION_NAME).set(CommonAttributes.READ_INSTANCE_POOL_STATISTICS);
+            op.get(DESCRIPTION).set(bundle.getString("ejb3.read-instance-pool-statistics"));
+            op.get(REQUEST_PROPERTIES, BEAN, DESCRIPTION).set(bundle.getString("ejb3.read-instance-pool-statistics.bean"));
+            op.get(REQUEST_PROPERTIES, BEAN, TYPE).set(ModelType.STRING);
+            op.get(REQUEST_PROPERTIES, BEAN, REQUIRED).set(false);
+            op.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString("ejb3.read-instance-pool-statistics.reply"));
+            op.get(REPLY_PROPERTIES, TYPE).set(ModelType.OBJECT);
+            op.get(REPLY_PROPERTIES, VALUE_TYPE).set(ModelType.OBJECT);
+
+            return op;
+        }
+    };
+
+    static final DescriptionProvider READ_STATEFUL_CACHE_STATISTICS = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode op = new ModelNode();
+            op.get(OPERATION_NAME).set(CommonAttributes.READ_STATEFUL_CACHE_STATISTICS);
+            op.get(DESCRIPTION).set(bundle.getString("ejb3.read-stateful-cache-statistics"));
+            op.get(REQUEST_PROPERTIES, BEAN, DESCRIPTION).set(bundle.getString("ejb3.read-stateful-cache-statistics.bean"));
+            op.get(REQUEST_PROPERTIES, BEAN, TYPE).set(ModelType.STRING);
+            op.get(REQUEST_PROPERTIES, BEAN, REQUIRED).set(false);
+            op.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString("ejb3.read-stateful-cache-statistics.reply"));
+            op.get(REPLY_PROPERTIES, TYPE).set(ModelType.OBJECT);
+            op.get(REPLY_PROPERTIES, VALUE_TYPE).set(ModelType.OBJECT);
+
+            return op;
+        }
+    };
+
+    private static void addInstancePoolAttributes(final ModelNode node, final ResourceBundle bundle, final String prefix) {
+        node.get(DEFAULT_SLSB_INSTANCE_POOL, DESCRIPTION).set(bundle.getString(prefix + "." + DEFAULT_SLSB_INSTANCE_POOL));
+        node.get(DEFAULT_SLSB_INSTANCE_POOL, TYPE).set(ModelType.STRING);
+        node.get(DEFAULT_SLSB_INSTANCE_POOL, REQUIRED).set(false);
+        node.get(DEFAULT_MDB_INSTANCE_POOL, DESCRIPTION).set(bundle.getString(prefix + "." + DEFAULT_MDB_INSTANCE_POOL));
+        node.get(DEFAULT_MDB_INSTANCE_POOL, TYPE).set(ModelType.STRING);
+        node.get(DEFAULT_MDB_INSTANCE_POOL, REQUIRED).set(false);
+        node.get(INSTANCE_POOLS, DESCRIPTION).set(bundle.getString(prefix + "." + INSTANCE_POOLS));
+        node.get(INSTANCE_POOLS, TYPE).set(ModelType.OBJECT);
+        node.get(INSTANCE_POOLS, VALUE_TYPE).set(ModelType.OBJECT);
+        node.get(INSTANCE_POOLS, REQUIRED).set(false);
+        node.get(BEAN_INSTANCE_POOLS, DESCRIPTION).set(bundle.getString(prefix + "." + BEAN_INSTANCE_POOLS));
+        node.get(BEAN_INSTANCE_POOLS, TYPE).set(ModelType.OBJECT);
+        node.get(BEAN_INSTANCE_POOLS, VALUE_TYPE).set(ModelType.STRING);
+        node.get(BEAN_INSTANCE_POOLS, REQUIRED).set(false);
+        node.get(STATEFUL_CACHE, DESCRIPTION).set(bundle.getString(prefix + "." + STATEFUL_CACHE));
+        node.get(STATEFUL_CACHE, TYPE).set(ModelType.OBJECT);
+        node.get(STATEFUL_CACHE, REQUIRED).set(false);
+        for (String attribute : new String[] {MAX_SIZE, IDLE_TIMEOUT, IDLE_TIMEOUT_UNIT, PATH, RELATIVE_TO}) {
+            node.get(STATEFUL_CACHE, VALUE_TYPE, attribute, DESCRIPTION).set(bundle.getString(prefix + "." + STATEFUL_CACHE + "." + attribute));
+            node.get(STATEFUL_CACHE, VALUE_TYPE, attribute, TYPE).set(MAX_SIZE.equals(attribute) ? ModelType.INT : IDLE_TIMEOUT.equals(attribute) ? ModelType.LONG : ModelType.STRING);
+            node.get(STATEFUL_CACHE, VALUE_TYPE, attribute, REQUIRED).set(false);
+        }
+        node.get(TIMER_SERVICE, DESCRIPTION).set(bundle.getString(prefix + "." + TIMER_SERVICE));
+        node.get(TIMER_SERVICE, TYPE).set(ModelType.OBJECT);
+        node.get(TIMER_SERVICE, REQUIRED).set(false);
+        for (String attribute : new String[] {THREAD_POOL_NAME, PATH, RELATIVE_TO}) {
+            node.get(TIMER_SERVICE, VALUE_TYPE, attribute, DESCRIPTION).set(bundle.getString(prefix + "." + TIMER_SERVICE + "." + attribute));
+            node.get(TIMER_SERVICE, VALUE_TYPE, attribute, TYPE).set(ModelType.STRING);
+            node.get(TIMER_SERVICE, VALUE_TYPE, attribute, REQUIRED).set(false);
+        }
+    }
+
     private static ResourceBundle getResourceBundle(Locale locale) {
         if (locale == null) {
             locale = Locale.getDefault();
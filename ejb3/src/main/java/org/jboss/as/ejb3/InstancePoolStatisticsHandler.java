@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.ejb3.CommonAttributes.ACQUISITION_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.AVAILABLE_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.BEAN;
+import static org.jboss.as.ejb3.CommonAttributes.CREATE_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.IN_USE_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_POOL_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_WAIT_TIME;
+import static org.jboss.as.ejb3.CommonAttributes.PEAK_IN_USE_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.REMOVE_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.TOTAL_WAIT_TIME;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.ejb3.component.pool.InstancePool;
+import org.jboss.as.ejb3.component.pool.InstancePoolRegistry;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the statistics of the instance pools of the deployed beans, keyed by {@code module/bean}.
+ */
+class InstancePoolStatisticsHandler implements ModelQueryOperationHandler {
+
+    static final InstancePoolStatisticsHandler INSTANCE = new InstancePoolStatisticsHandler();
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final ModelNode result = new ModelNode();
+                    result.setEmptyObject();
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(InstancePoolRegistry.SERVICE_NAME);
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final InstancePoolRegistry registry = (InstancePoolRegistry) controller.getValue();
+                        final String bean = operation.hasDefined(BEAN) ? operation.get(BEAN).asString() : null;
+                        for (Map.Entry<String, InstancePool<?>> entry : registry.getPools().entrySet()) {
+                            if (bean == null || bean.equals(entry.getKey())) {
+                                result.get(entry.getKey()).set(getStatistics(entry.getValue()));
+                            }
+                        }
+                    }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode().setEmptyObject());
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+
+    static ModelNode getStatistics(final InstancePool<?> pool) {
+        final ModelNode statistics = new ModelNode();
+        statistics.get(MAX_POOL_SIZE).set(pool.getMaxSize());
+        statistics.get(AVAILABLE_COUNT).set(pool.getAvailableCount());
+        statistics.get(IN_USE_COUNT).set(pool.getInUseCount());
+        statistics.get(PEAK_IN_USE_COUNT).set(pool.getPeakInUseCount());
+        statistics.get(CREATE_COUNT).set(pool.getCreateCount());
+        statistics.get(REMOVE_COUNT).set(pool.getRemoveCount());
+        statistics.get(ACQUISITION_COUNT).set(pool.getAcquisitionCount());
+        statistics.get(TOTAL_WAIT_TIME).set(TimeUnit.NANOSECONDS.toMillis(pool.getTotalWaitTime()));
+        statistics.get(MAX_WAIT_TIME).set(TimeUnit.NANOSECONDS.toMillis(pool.getMaxWaitTime()));
+        return statistics;
+    }
+}
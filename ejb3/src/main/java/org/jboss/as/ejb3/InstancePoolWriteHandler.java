@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.as.ejb3.component.pool.InstancePoolRegistry;
+import org.jboss.as.server.operations.ServerWriteAttributeOperationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Changes the instance pool configuration of the subsystem.  Beans started afterwards use the new configuration,
+ * the pools of the beans already started are left as they are.
+ */
+class InstancePoolWriteHandler extends ServerWriteAttributeOperationHandler {
+
+    /** Writes the name of a default pool */
+    static final InstancePoolWriteHandler DEFAULT_POOL = new InstancePoolWriteHandler(ModelType.STRING);
+
+    /** Writes the pool definitions or the pools of individual beans */
+    static final InstancePoolWriteHandler POOLS = new InstancePoolWriteHandler(ModelType.OBJECT);
+
+    private InstancePoolWriteHandler(final ModelType type) {
+        super(new ModelTypeValidator(type, true));
+    }
+
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        // the defaults and the bean mappings refer to the pools by name, so the configuration is checked as a whole
+        // before the model is changed
+        final ModelNode model = context.getSubModel().clone();
+        model.get(operation.require(NAME).asString()).set(operation.get(VALUE));
+        Ejb3SubsystemAdd.createInstancePoolRegistry(model);
+        return super.execute(context, operation, resultHandler);
+    }
+
+    @Override
+    protected boolean applyUpdateToRuntime(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler,
+            final String attributeName, final ModelNode newValue, final ModelNode currentValue) throws OperationFailedException {
+        final InstancePoolRegistry configuration = Ejb3SubsystemAdd.createInstancePoolRegistry(context.getSubModel());
+        context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+            @Override
+            public void execute(final RuntimeTaskContext context) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry().getService(InstancePoolRegistry.SERVICE_NAME);
+                if (controller != null) {
+                    InstancePoolRegistry.class.cast(controller.getValue()).reconfigure(configuration);
+                }
+                resultHandler.handleResultComplete();
+            }
+        });
+        return false;
+    }
+}
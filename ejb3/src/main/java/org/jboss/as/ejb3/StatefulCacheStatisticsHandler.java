@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.ejb3.CommonAttributes.ACTIVATION_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.BEAN;
+import static org.jboss.as.ejb3.CommonAttributes.CACHE_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.CREATE_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_ACTIVATION_TIME;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_SIZE;
+import static org.jboss.as.ejb3.CommonAttributes.PASSIVATED_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.PASSIVATION_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.PASSIVATION_FAILURE_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.REMOVE_COUNT;
+import static org.jboss.as.ejb3.CommonAttributes.TOTAL_ACTIVATION_TIME;
+import static org.jboss.as.ejb3.CommonAttributes.TOTAL_PASSIVATION_TIME;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.ejb3.component.stateful.cache.PassivatingStatefulSessionCache;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionCacheService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the statistics of the caches of the deployed stateful session beans, keyed by {@code module/bean}.
+ */
+class StatefulCacheStatisticsHandler implements ModelQueryOperationHandler {
+
+    static final StatefulCacheStatisticsHandler INSTANCE = new StatefulCacheStatisticsHandler();
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final ModelNode result = new ModelNode();
+                    result.setEmptyObject();
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(StatefulSessionCacheService.SERVICE_NAME);
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final StatefulSessionCacheService service = (StatefulSessionCacheService) controller.getValue();
+                        final String bean = operation.hasDefined(BEAN) ? operation.get(BEAN).asString() : null;
+                        for (Map.Entry<String, PassivatingStatefulSessionCache<?>> entry : service.getCaches().entrySet()) {
+                            if (bean == null || bean.equals(entry.getKey())) {
+                                result.get(entry.getKey()).set(getStatistics(entry.getValue()));
+                            }
+                        }
+                    }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode().setEmptyObject());
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+
+    static ModelNode getStatistics(final PassivatingStatefulSessionCache<?> cache) {
+        final ModelNode statistics = new ModelNode();
+        statistics.get(MAX_SIZE).set(cache.getMaxSize());
+        statistics.get(CACHE_SIZE).set(cache.getCacheSize());
+        statistics.get(PASSIVATED_COUNT).set(cache.getPassivatedCount());
+        statistics.get(CREATE_COUNT).set(cache.getCreateCount());
+        statistics.get(REMOVE_COUNT).set(cache.getRemoveCount());
+        statistics.get(PASSIVATION_COUNT).set(cache.getPassivationCount());
+        statistics.get(PASSIVATION_FAILURE_COUNT).set(cache.getPassivationFailureCount());
+        statistics.get(TOTAL_PASSIVATION_TIME).set(TimeUnit.NANOSECONDS.toMillis(cache.getTotalPassivationTime()));
+        statistics.get(ACTIVATION_COUNT).set(cache.getActivationCount());
+        statistics.get(TOTAL_ACTIVATION_TIME).set(TimeUnit.NANOSECONDS.toMillis(cache.getTotalActivationTime()));
+        statistics.get(MAX_ACTIVATION_TIME).set(TimeUnit.NANOSECONDS.toMillis(cache.getMaxActivationTime()));
+        return statistics;
+    }
+}
@@ -22,12 +22,18 @@
 package org.jboss.as.ejb3.component;
 
 import org.jboss.as.ee.component.AbstractComponent;
+import org.jboss.as.ee.component.Component;
+import org.jboss.as.ejb3.timerservice.TimedObjectInvoker;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceManager;
 import org.jboss.ejb3.tx2.spi.TransactionalComponent;
+import org.jboss.invocation.InterceptorContext;
 import org.jboss.logging.Logger;
 
 import javax.ejb.ApplicationException;
 import javax.ejb.EJBHome;
 import javax.ejb.EJBLocalHome;
+import javax.ejb.Timer;
 import javax.ejb.TimerService;
 import javax.ejb.TransactionAttributeType;
 import javax.ejb.TransactionManagementType;
@@ -36,6 +42,8 @@ import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
 import java.lang.reflect.Method;
 import java.security.Principal;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
@@ -51,6 +59,8 @@ public abstract class EJBComponent extends AbstractComponent implements org.jbos
     private final boolean isBeanManagedTransaction;
     private static volatile boolean youHaveBeenWarnedEJBTHREE2120 = false;
     private Map<Class<?>, ApplicationException> applicationExceptions;
+    private volatile Map<Method, MethodInvocationMetadata> invocationMetadata = Collections.emptyMap();
+    private final TimerServiceImpl timerService;
 
     /**
      * Construct a new instance.
@@ -65,6 +75,90 @@ public abstract class EJBComponent extends AbstractComponent implements org.jbos
         // slurp some memory
         txAttrs = configuration.getTxAttrs();
         isBeanManagedTransaction = configuration.getTransactionManagementType().equals(TransactionManagementType.BEAN);
+
+        if (configuration.isTimerServiceApplicable()) {
+            final TimerServiceManager timerServiceManager = configuration.getInjectionValue(TimerServiceManager.SERVICE_NAME, TimerServiceManager.class);
+            this.timerService = timerServiceManager.createTimerService(configuration.getModuleName(), getComponentName(),
+                    new ComponentTimedObjectInvoker(), getComponentClass().getClassLoader(),
+                    configuration.getTimeoutMethod(), configuration.getAutoTimers());
+        } else {
+            this.timerService = null;
+        }
+    }
+
+    @Override
+    public void start() {
+        // the deployment processors are done with the configuration by now, so resolve the per method
+        // metadata once instead of on every invocation
+        this.invocationMetadata = createInvocationMetadataTable();
+        super.start();
+        // timers may expire right away, so only restore them once the component can be invoked
+        if (timerService != null) {
+            timerService.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (timerService != null) {
+            timerService.stop();
+        }
+        super.stop();
+    }
+
+    private Map<Method, MethodInvocationMetadata> createInvocationMetadataTable() {
+        final Map<Method, MethodInvocationMetadata> table = new HashMap<Method, MethodInvocationMetadata>();
+        // invocations come in with either the view method or the bean method
+        for (Class<?> view : getViewServices().keySet()) {
+            addInvocationMetadata(table, view.getMethods());
+        }
+        addInvocationMetadata(table, getComponentClass().getMethods());
+        return Collections.unmodifiableMap(table);
+    }
+
+    private void addInvocationMetadata(final Map<Method, MethodInvocationMetadata> table, final Method[] methods) {
+        for (Method method : methods) {
+            if (method.getDeclaringClass() == Object.class || table.containsKey(method)) {
+                continue;
+            }
+            table.put(method, createInvocationMetadata(method));
+        }
+    }
+
+    /**
+     * Resolves the invocation metadata of a business method. Called for every public method of the
+     * component class and its views when the component starts; subclasses add their own metadata
+     * to the one returned by the super class.
+     *
+     * @param method the method
+     * @return the metadata of the method
+     */
+    protected MethodInvocationMetadata createInvocationMetadata(final Method method) {
+        MethodInvocationMetadata metadata = MethodInvocationMetadata.EMPTY;
+        if (txAttrs == null) {
+            return metadata;
+        }
+        for (Map.Entry<MethodIntf, ConcurrentMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>>> entry : txAttrs.entrySet()) {
+            final ConcurrentMap<ArrayKey, TransactionAttributeType> perMethod = entry.getValue().get(method.getName());
+            if (perMethod == null) {
+                continue;
+            }
+            final TransactionAttributeType txAttr = perMethod.get(new ArrayKey((Object[]) method.getParameterTypes()));
+            if (txAttr != null) {
+                metadata = metadata.withTransactionAttributeType(entry.getKey(), txAttr);
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Returns the invocation metadata resolved for a method when the component started.
+     *
+     * @param method the invoked method
+     * @return the metadata, or {@code null} if the method is unknown or the component has not started yet
+     */
+    protected MethodInvocationMetadata getInvocationMetadata(final Method method) {
+        return invocationMetadata.get(method);
     }
 
     @Override
@@ -115,7 +209,10 @@ public abstract class EJBComponent extends AbstractComponent implements org.jbos
 
     @Override
     public TimerService getTimerService() throws IllegalStateException {
-        throw new RuntimeException("NYI: org.jboss.as.ejb3.component.EJBComponent.getTimerService");
+        if (timerService == null) {
+            throw new IllegalStateException("EJB 3.1 FR 18.2 " + getComponentName() + " bean cannot use the timer service");
+        }
+        return timerService;
     }
 
     @Deprecated
@@ -128,6 +225,13 @@ public abstract class EJBComponent extends AbstractComponent implements org.jbos
     }
 
     public TransactionAttributeType getTransactionAttributeType(MethodIntf methodIntf, Method method) {
+        final MethodInvocationMetadata metadata = getInvocationMetadata(method);
+        if (metadata != null) {
+            final TransactionAttributeType txAttr = metadata.getTransactionAttributeType(methodIntf);
+            if (txAttr != null) {
+                return txAttr;
+            }
+        }
         ConcurrentMap<String, ConcurrentMap<ArrayKey, TransactionAttributeType>> perMethodIntf = txAttrs.get(methodIntf);
         if (perMethodIntf == null)
             throw new IllegalStateException("Can't find tx attrs for " + methodIntf);
@@ -181,4 +285,21 @@ public abstract class EJBComponent extends AbstractComponent implements org.jbos
             throw new IllegalStateException("EJB 3.1 FR 4.3.3 & 5.4.5 Only beans with container-managed transaction demarcation can use this method.");
         throw new RuntimeException("NYI: org.jboss.as.ejb3.component.EJBComponent.setRollbackOnly");
     }
+
+    /**
+     * Invokes timeout callbacks through the interceptor chain of the component, so instance association,
+     * transactions and the bean interceptors apply to them as they do to business methods.
+     */
+    private class ComponentTimedObjectInvoker implements TimedObjectInvoker {
+
+        @Override
+        public void callTimeout(final Timer timer, final Method timeoutMethod) throws Exception {
+            final InterceptorContext context = new InterceptorContext();
+            context.putPrivateData(Component.class, EJBComponent.this);
+            context.setContextData(new HashMap<String, Object>());
+            context.setMethod(timeoutMethod);
+            context.setParameters(timeoutMethod.getParameterTypes().length == 1 ? new Object[]{timer} : new Object[0]);
+            getComponentInterceptor().processInvocation(context);
+        }
+    }
 }
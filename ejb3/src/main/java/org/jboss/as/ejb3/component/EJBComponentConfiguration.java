@@ -25,6 +25,8 @@ import org.jboss.as.ee.component.AbstractComponentConfiguration;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInterceptorFactory;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
+import org.jboss.as.ejb3.timerservice.AutoTimer;
+import org.jboss.as.ejb3.timerservice.TimerServiceManager;
 import org.jboss.as.ejb3.tx.CMTTxInterceptor;
 import org.jboss.ejb3.tx2.spi.TransactionalComponent;
 import org.jboss.invocation.Interceptor;
@@ -34,6 +36,11 @@ import org.jboss.msc.service.ServiceBuilder;
 
 import javax.ejb.TransactionAttributeType;
 import javax.ejb.TransactionManagementType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -46,6 +53,11 @@ public abstract class EJBComponentConfiguration extends AbstractComponentConfigu
 
     protected EjbJarConfiguration ejbJarConfiguration;
 
+    private final String moduleName;
+    private final boolean timerServiceApplicable;
+    private Method timeoutMethod;
+    private final Map<Method, List<AutoTimer>> autoTimers = new LinkedHashMap<Method, List<AutoTimer>>();
+
     /**
      * Construct a new instance.
      *
@@ -56,6 +68,12 @@ public abstract class EJBComponentConfiguration extends AbstractComponentConfigu
 
         description.addDependency(EJBUtilities.SERVICE_NAME, ServiceBuilder.DependencyType.REQUIRED);
 
+        moduleName = description.getModuleName();
+        timerServiceApplicable = description.isTimerServiceApplicable();
+        if (timerServiceApplicable) {
+            description.addDependency(TimerServiceManager.SERVICE_NAME, ServiceBuilder.DependencyType.REQUIRED);
+        }
+
         // CurrentInvocationContext
         addCurrentInvocationContextInterceptorFactory();
 
@@ -91,6 +109,33 @@ public abstract class EJBComponentConfiguration extends AbstractComponentConfigu
         return getComponentName();
     }
 
+    /**
+     * @return the name of the module containing the bean
+     */
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    boolean isTimerServiceApplicable() {
+        return timerServiceApplicable;
+    }
+
+    Method getTimeoutMethod() {
+        return timeoutMethod;
+    }
+
+    void setTimeoutMethod(Method timeoutMethod) {
+        this.timeoutMethod = timeoutMethod;
+    }
+
+    Map<Method, List<AutoTimer>> getAutoTimers() {
+        return Collections.unmodifiableMap(autoTimers);
+    }
+
+    void addAutoTimers(Method method, List<AutoTimer> timers) {
+        autoTimers.put(method, timers);
+    }
+
     TransactionManagementType getTransactionManagementType() {
         return transactionManagementType;
     }
@@ -27,14 +27,20 @@ import org.jboss.as.ee.component.ComponentNamingMode;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
 import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
+import org.jboss.as.ejb3.timerservice.AutoTimer;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.invocation.proxy.MethodIdentifier;
 
+import javax.ejb.TimedObject;
+import javax.ejb.Timer;
 import javax.ejb.TransactionAttributeType;
 import javax.ejb.TransactionManagementType;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -80,6 +86,16 @@ public abstract class EJBComponentDescription extends AbstractComponentDescripti
         }
     };
 
+    /**
+     * The timeout method of the bean, marked with {@link javax.ejb.Timeout}
+     */
+    private MethodIdentifier timeoutMethod;
+
+    /**
+     * The automatic timers of the bean, keyed by the methods marked with {@link javax.ejb.Schedule}
+     */
+    private final Map<MethodIdentifier, List<AutoTimer>> scheduleMethods = new HashMap<MethodIdentifier, List<AutoTimer>>();
+
     /**
      * Construct a new instance.
      *
@@ -176,6 +192,43 @@ public abstract class EJBComponentDescription extends AbstractComponentDescripti
         this.transactionManagementType = transactionManagementType;
     }
 
+    /**
+     * Returns true if beans of this type can use the timer service. Defaults to false.
+     *
+     * @return
+     */
+    public boolean isTimerServiceApplicable() {
+        return false;
+    }
+
+    /**
+     * Sets the timeout method of the bean.
+     *
+     * @param timeoutMethod the timeout method
+     * @throws IllegalArgumentException If the bean already has a different timeout method
+     */
+    public void setTimeoutMethod(final MethodIdentifier timeoutMethod) {
+        if (this.timeoutMethod != null && !this.timeoutMethod.equals(timeoutMethod)) {
+            throw new IllegalArgumentException(this.getEJBName() + " bean already has timeout method " + this.timeoutMethod + ". Cannot add " + timeoutMethod);
+        }
+        this.timeoutMethod = timeoutMethod;
+    }
+
+    /**
+     * Adds an automatic timer, created by the container when the bean starts.
+     *
+     * @param method the timeout method of the timer
+     * @param autoTimer the timer
+     */
+    public void addAutoTimer(final MethodIdentifier method, final AutoTimer autoTimer) {
+        List<AutoTimer> timers = scheduleMethods.get(method);
+        if (timers == null) {
+            timers = new ArrayList<AutoTimer>();
+            scheduleMethods.put(method, timers);
+        }
+        timers.add(autoTimer);
+    }
+
     public String getEJBName() {
         return this.getComponentName();
     }
@@ -205,6 +258,34 @@ public abstract class EJBComponentDescription extends AbstractComponentDescripti
         // TODO: a temporary measure until EJBTHREE-2120 is fully resolved
         MethodIntf methodIntf = MethodIntf.BEAN;
         processTxAttr((EJBComponentConfiguration) configuration, methodIntf, componentMethod);
+
+        if (isTimerServiceApplicable()) {
+            processTimeoutMethod((EJBComponentConfiguration) configuration, componentMethod);
+        }
+    }
+
+    private void processTimeoutMethod(EJBComponentConfiguration configuration, Method componentMethod) throws DeploymentUnitProcessingException {
+        final MethodIdentifier identifier = MethodIdentifier.getIdentifierForMethod(componentMethod);
+        final List<AutoTimer> autoTimers = scheduleMethods.get(identifier);
+        final boolean timedObjectTimeout = TimedObject.class.isAssignableFrom(componentMethod.getDeclaringClass())
+                && "ejbTimeout".equals(componentMethod.getName()) && componentMethod.getParameterTypes().length == 1;
+        if (!identifier.equals(timeoutMethod) && autoTimers == null && !timedObjectTimeout) {
+            return;
+        }
+        // EJB 3.1 FR 18.2.5.3
+        final Class<?>[] params = componentMethod.getParameterTypes();
+        if (!Void.TYPE.equals(componentMethod.getReturnType()) || params.length > 1 || (params.length == 1 && !Timer.class.equals(params[0]))) {
+            throw new DeploymentUnitProcessingException("Invalid timeout method [" + componentMethod + "].  Timeout methods must return void and take either no parameters or a javax.ejb.Timer.");
+        }
+        if (identifier.equals(timeoutMethod) || timedObjectTimeout) {
+            if (configuration.getTimeoutMethod() != null) {
+                throw new DeploymentUnitProcessingException(getEJBName() + " bean has more than one timeout method: " + configuration.getTimeoutMethod() + " and " + componentMethod);
+            }
+            configuration.setTimeoutMethod(componentMethod);
+        }
+        if (autoTimers != null) {
+            configuration.addAutoTimers(componentMethod, autoTimers);
+        }
     }
 
     @Override
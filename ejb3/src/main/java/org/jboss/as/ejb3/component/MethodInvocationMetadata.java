@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component;
+
+import javax.ejb.AccessTimeout;
+import javax.ejb.LockType;
+import javax.ejb.TransactionAttributeType;
+
+/**
+ * The invocation metadata of a single business method, resolved once when the component starts so the
+ * invocation path does not need to look it up (and allocate lookup keys) on every call.
+ * <p/>
+ * Instances are immutable. A {@code null} value means the metadata is not known for the method, in which
+ * case the component falls back to its regular lookup.
+ */
+public final class MethodInvocationMetadata {
+
+    private static final MethodIntf[] METHOD_INTFS = MethodIntf.values();
+
+    static final MethodInvocationMetadata EMPTY = new MethodInvocationMetadata(new TransactionAttributeType[METHOD_INTFS.length], null, null, false);
+
+    private final TransactionAttributeType[] txAttrs;
+    private final LockType lockType;
+    private final AccessTimeout accessTimeout;
+    private final boolean asynchronous;
+
+    private MethodInvocationMetadata(final TransactionAttributeType[] txAttrs, final LockType lockType, final AccessTimeout accessTimeout, final boolean asynchronous) {
+        this.txAttrs = txAttrs;
+        this.lockType = lockType;
+        this.accessTimeout = accessTimeout;
+        this.asynchronous = asynchronous;
+    }
+
+    /**
+     * Returns the transaction attribute of the method when invoked through the given method-intf.
+     *
+     * @param methodIntf the method-intf
+     * @return the transaction attribute, or {@code null} if none was resolved
+     */
+    public TransactionAttributeType getTransactionAttributeType(final MethodIntf methodIntf) {
+        return txAttrs[methodIntf.ordinal()];
+    }
+
+    public LockType getLockType() {
+        return lockType;
+    }
+
+    public AccessTimeout getAccessTimeout() {
+        return accessTimeout;
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    MethodInvocationMetadata withTransactionAttributeType(final MethodIntf methodIntf, final TransactionAttributeType txAttr) {
+        final TransactionAttributeType[] txAttrs = this.txAttrs.clone();
+        txAttrs[methodIntf.ordinal()] = txAttr;
+        return new MethodInvocationMetadata(txAttrs, lockType, accessTimeout, asynchronous);
+    }
+
+    /**
+     * Returns a copy of this metadata with the given concurrency settings.
+     *
+     * @param lockType the lock type
+     * @param accessTimeout the access timeout
+     * @return the new metadata
+     */
+    public MethodInvocationMetadata withConcurrency(final LockType lockType, final AccessTimeout accessTimeout) {
+        return new MethodInvocationMetadata(txAttrs, lockType, accessTimeout, asynchronous);
+    }
+
+    /**
+     * Returns a copy of this metadata with the given asynchronous flag.
+     *
+     * @param asynchronous whether the method is asynchronous
+     * @return the new metadata
+     */
+    public MethodInvocationMetadata withAsynchronous(final boolean asynchronous) {
+        return new MethodInvocationMetadata(txAttrs, lockType, accessTimeout, asynchronous);
+    }
+}
@@ -23,13 +23,13 @@ package org.jboss.as.ejb3.component.messagedriven;
 
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.pool.InstancePool;
+import org.jboss.as.ejb3.component.pool.InstancePoolRegistry;
 import org.jboss.as.ejb3.component.pool.PooledComponent;
 import org.jboss.as.ejb3.inflow.JBossMessageEndpointFactory;
 import org.jboss.as.ejb3.inflow.MessageEndpointService;
 import org.jboss.ejb3.context.spi.MessageDrivenBeanComponent;
-import org.jboss.ejb3.pool.Pool;
 import org.jboss.ejb3.pool.StatelessObjectFactory;
-import org.jboss.ejb3.pool.strictmax.StrictMaxPool;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.invocation.InterceptorFactoryContext;
@@ -50,7 +50,9 @@ import static org.jboss.as.ejb3.component.MethodIntf.BEAN;
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class MessageDrivenComponent extends EJBComponent implements MessageDrivenBeanComponent, PooledComponent<MessageDrivenComponentInstance> {
-    private final Pool<MessageDrivenComponentInstance> pool;
+    private final InstancePool<MessageDrivenComponentInstance> pool;
+    private final InstancePoolRegistry poolRegistry;
+    private final String poolKey;
 
     // TODO: implement creation of ActivationSpec
     private final ActivationSpec activationSpec = null;
@@ -77,7 +79,9 @@ public class MessageDrivenComponent extends EJBComponent implements MessageDrive
                 destroyInstance(obj);
             }
         };
-        this.pool = new StrictMaxPool<MessageDrivenComponentInstance>(factory, 20, 5, TimeUnit.MINUTES);
+        this.poolRegistry = configuration.getInjectionValue(InstancePoolRegistry.SERVICE_NAME, InstancePoolRegistry.class);
+        this.pool = poolRegistry.getMdbPoolConfig(configuration.getModuleName(), getComponentName()).createPool(factory);
+        this.poolKey = configuration.getModuleName() + "/" + getComponentName();
 
         this.messageListenerInterface = configuration.getMessageListenerInterface();
         final MessageEndpointService<?> service = new MessageEndpointService<Object>() {
@@ -140,7 +144,7 @@ public class MessageDrivenComponent extends EJBComponent implements MessageDrive
     }
 
     @Override
-    public Pool<MessageDrivenComponentInstance> getPool() {
+    public InstancePool<MessageDrivenComponentInstance> getPool() {
         return pool;
     }
 
@@ -151,6 +155,8 @@ public class MessageDrivenComponent extends EJBComponent implements MessageDrive
     @Override
     public void start() {
         super.start();
+        pool.start();
+        poolRegistry.registerPool(poolKey, pool);
 
         try {
             resourceAdapter.endpointActivation(endpointFactory, activationSpec);
@@ -162,6 +168,8 @@ public class MessageDrivenComponent extends EJBComponent implements MessageDrive
     @Override
     public void stop() {
         resourceAdapter.endpointDeactivation(endpointFactory, activationSpec);
+        poolRegistry.unregisterPool(poolKey, pool);
+        pool.stop();
 
         super.stop();
     }
@@ -22,6 +22,7 @@
 package org.jboss.as.ejb3.component.messagedriven;
 
 import org.jboss.as.ejb3.component.EJBComponentConfiguration;
+import org.jboss.as.ejb3.component.pool.InstancePoolRegistry;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceName;
@@ -55,6 +56,7 @@ public class MessageDrivenComponentConfiguration extends EJBComponentConfigurati
         // See ResourceAdapterDeploymentService
         this.raServiceName = ServiceName.of(deploymentName);
         description.addDependency(raServiceName, ServiceBuilder.DependencyType.REQUIRED);
+        description.addDependency(InstancePoolRegistry.SERVICE_NAME, ServiceBuilder.DependencyType.REQUIRED);
 
         addComponentSystemInterceptorFactory(pooled());
     }
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * Keeps the statistics common to all {@link InstancePool} implementations.
+ *
+ * @param <T> the instance type
+ */
+public abstract class AbstractInstancePool<T> implements InstancePool<T> {
+
+    private final StatelessObjectFactory<T> factory;
+
+    private final AtomicLong createCount = new AtomicLong();
+    private final AtomicLong removeCount = new AtomicLong();
+    private final AtomicInteger inUseCount = new AtomicInteger();
+    private final AtomicInteger peakInUseCount = new AtomicInteger();
+    private final AtomicLong acquisitionCount = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    protected AbstractInstancePool(final StatelessObjectFactory<T> factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("factory is null");
+        }
+        this.factory = factory;
+    }
+
+    protected T create() {
+        final T instance = factory.create();
+        createCount.incrementAndGet();
+        return instance;
+    }
+
+    protected void destroy(final T instance) {
+        try {
+            factory.destroy(instance);
+        } finally {
+            removeCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record that an instance was handed out.
+     *
+     * @param waitTime the time in nanoseconds the caller waited for it
+     */
+    protected void acquired(final long waitTime) {
+        final int inUse = inUseCount.incrementAndGet();
+        int peak;
+        while (inUse > (peak = peakInUseCount.get())) {
+            if (peakInUseCount.compareAndSet(peak, inUse)) {
+                break;
+            }
+        }
+        acquisitionCount.incrementAndGet();
+        if (waitTime > 0) {
+            totalWaitTime.addAndGet(waitTime);
+            long max;
+            while (waitTime > (max = maxWaitTime.get())) {
+                if (maxWaitTime.compareAndSet(max, waitTime)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Record that an instance handed out was returned or discarded.
+     */
+    protected void released() {
+        inUseCount.decrementAndGet();
+    }
+
+    @Override
+    public void discard(final T instance) {
+        try {
+            destroy(instance);
+        } finally {
+            released();
+        }
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public int getInUseCount() {
+        return inUseCount.get();
+    }
+
+    @Override
+    public int getPeakInUseCount() {
+        return peakInUseCount.get();
+    }
+
+    @Override
+    public long getCreateCount() {
+        return createCount.get();
+    }
+
+    @Override
+    public long getRemoveCount() {
+        return removeCount.get();
+    }
+
+    @Override
+    public long getAcquisitionCount() {
+        return acquisitionCount.get();
+    }
+
+    @Override
+    public long getTotalWaitTime() {
+        return totalWaitTime.get();
+    }
+
+    @Override
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+}
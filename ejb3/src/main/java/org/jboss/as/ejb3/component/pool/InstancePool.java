@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+/**
+ * A pool of component instances which can be used by one invocation at a time, together with the statistics used
+ * to size it.
+ *
+ * @param <T> the instance type
+ */
+public interface InstancePool<T> {
+
+    /**
+     * Get an instance for an invocation, creating one if needed.
+     *
+     * @return the instance
+     * @throws javax.ejb.EJBException if no instance could be obtained
+     */
+    T get();
+
+    /**
+     * Return an instance obtained with {@link #get()} once the invocation is done.
+     *
+     * @param instance the instance
+     */
+    void release(T instance);
+
+    /**
+     * Destroy an instance obtained with {@link #get()} instead of returning it to the pool, for example because the
+     * invocation left it in an unusable state.
+     *
+     * @param instance the instance
+     */
+    void discard(T instance);
+
+    void start();
+
+    /**
+     * Destroy the idle instances. Instances released after this point are destroyed as well.
+     */
+    void stop();
+
+    /**
+     * @return the maximum number of instances, or {@code -1} if the pool does not limit them
+     */
+    int getMaxSize();
+
+    /**
+     * @return the number of idle instances held by the pool
+     */
+    int getAvailableCount();
+
+    /**
+     * @return the number of instances currently used by invocations
+     */
+    int getInUseCount();
+
+    /**
+     * @return the highest number of instances used by invocations at the same time
+     */
+    int getPeakInUseCount();
+
+    /**
+     * @return the number of instances created
+     */
+    long getCreateCount();
+
+    /**
+     * @return the number of instances destroyed
+     */
+    long getRemoveCount();
+
+    /**
+     * @return the number of instances handed out by {@link #get()}
+     */
+    long getAcquisitionCount();
+
+    /**
+     * @return the total time, in nanoseconds, that callers of {@link #get()} waited for an instance to become available
+     */
+    long getTotalWaitTime();
+
+    /**
+     * @return the longest time, in nanoseconds, a caller of {@link #get()} waited for an instance to become available
+     */
+    long getMaxWaitTime();
+}
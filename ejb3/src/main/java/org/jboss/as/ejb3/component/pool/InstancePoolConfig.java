@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * The configuration of a named instance pool, as defined in the EJB3 subsystem.
+ */
+public final class InstancePoolConfig {
+
+    /**
+     * The kinds of pools which can be configured.
+     */
+    public enum Type {
+        /** A {@link StrictMaxInstancePool} */
+        STRICT_MAX("strict-max-pool"),
+        /** A {@link ThreadLocalInstancePool} */
+        THREAD_LOCAL("thread-local-pool"),
+        /** A {@link StripedInstancePool} */
+        STRIPED("striped-pool");
+
+        private static final Map<String, Type> TYPES;
+
+        static {
+            final Map<String, Type> map = new HashMap<String, Type>();
+            for (Type type : values()) {
+                map.put(type.getLocalName(), type);
+            }
+            TYPES = map;
+        }
+
+        private final String localName;
+
+        Type(final String localName) {
+            this.localName = localName;
+        }
+
+        /**
+         * @return the name of the element and model key of this kind of pool
+         */
+        public String getLocalName() {
+            return localName;
+        }
+
+        public static Type forName(final String localName) {
+            return TYPES.get(localName);
+        }
+    }
+
+    public static final int DEFAULT_MAX_POOL_SIZE = 20;
+    public static final long DEFAULT_TIMEOUT = 5;
+    public static final TimeUnit DEFAULT_TIMEOUT_UNIT = TimeUnit.MINUTES;
+
+    /**
+     * The pool used for stateless session beans when the subsystem does not configure one.
+     */
+    public static final InstancePoolConfig DEFAULT = new InstancePoolConfig("slsb-strict-max-pool", Type.STRICT_MAX,
+            DEFAULT_MAX_POOL_SIZE, DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT);
+
+    private final String name;
+    private final Type type;
+    private final int maxPoolSize;
+    private final long timeout;
+    private final TimeUnit timeoutUnit;
+
+    public InstancePoolConfig(final String name, final Type type, final int maxPoolSize, final long timeout, final TimeUnit timeoutUnit) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("type is null");
+        }
+        if (timeoutUnit == null) {
+            throw new IllegalArgumentException("timeoutUnit is null");
+        }
+        this.name = name;
+        this.type = type;
+        this.maxPoolSize = maxPoolSize;
+        this.timeout = timeout;
+        this.timeoutUnit = timeoutUnit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public TimeUnit getTimeoutUnit() {
+        return timeoutUnit;
+    }
+
+    /**
+     * Create a pool with this configuration.
+     *
+     * @param factory the factory creating the pooled instances
+     * @param <T> the instance type
+     * @return the pool, not yet started
+     */
+    public <T> InstancePool<T> createPool(final StatelessObjectFactory<T> factory) {
+        switch (type) {
+            case THREAD_LOCAL:
+                return new ThreadLocalInstancePool<T>(factory);
+            case STRIPED:
+                return new StripedInstancePool<T>(factory, maxPoolSize);
+            default:
+                return new StrictMaxInstancePool<T>(factory, maxPoolSize, timeout, timeoutUnit);
+        }
+    }
+}
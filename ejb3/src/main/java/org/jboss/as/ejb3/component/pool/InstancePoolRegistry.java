@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Holds the instance pools configured in the EJB3 subsystem, decides which of them a bean uses and keeps track of the
+ * pools of deployed beans so their statistics can be read.
+ */
+public class InstancePoolRegistry implements Service<InstancePoolRegistry> {
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "instance-pool-registry");
+
+    private volatile Configuration configuration;
+    private final ConcurrentMap<String, InstancePool<?>> pools = new ConcurrentHashMap<String, InstancePool<?>>();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param configs the configured pools, keyed by name
+     * @param defaultSlsbPool the name of the pool used by stateless session beans, or {@code null} to use
+     *            {@link InstancePoolConfig#DEFAULT}
+     * @param defaultMdbPool the name of the pool used by message driven beans, or {@code null} to use
+     *            {@link InstancePoolConfig#DEFAULT}
+     * @param beanPools the names of the pools used by individual beans, keyed by {@code module/bean} or {@code bean}
+     */
+    public InstancePoolRegistry(final Map<String, InstancePoolConfig> configs, final String defaultSlsbPool, final String defaultMdbPool, final Map<String, String> beanPools) {
+        if (configs == null) {
+            throw new IllegalArgumentException("configs is null");
+        }
+        if (beanPools == null) {
+            throw new IllegalArgumentException("beanPools is null");
+        }
+        if (defaultSlsbPool != null && !configs.containsKey(defaultSlsbPool)) {
+            throw new IllegalArgumentException("No instance pool named " + defaultSlsbPool);
+        }
+        if (defaultMdbPool != null && !configs.containsKey(defaultMdbPool)) {
+            throw new IllegalArgumentException("No instance pool named " + defaultMdbPool);
+        }
+        for (String pool : beanPools.values()) {
+            if (!configs.containsKey(pool)) {
+                throw new IllegalArgumentException("No instance pool named " + pool);
+            }
+        }
+        configuration = new Configuration(configs, defaultSlsbPool, defaultMdbPool, beanPools);
+    }
+
+    /**
+     * Use the configuration of another registry from now on.  Pools which are already started keep their
+     * configuration, beans started afterwards get their pool from the new one.
+     *
+     * @param registry the registry holding the new configuration
+     */
+    public void reconfigure(final InstancePoolRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("registry is null");
+        }
+        configuration = registry.configuration;
+    }
+
+    /**
+     * Get the configuration of the pool a stateless session bean uses.
+     *
+     * @param moduleName the name of the module containing the bean
+     * @param beanName the name of the bean
+     * @return the pool configuration
+     */
+    public InstancePoolConfig getSlsbPoolConfig(final String moduleName, final String beanName) {
+        final Configuration configuration = this.configuration;
+        return configuration.getPoolConfig(moduleName, beanName, configuration.defaultSlsbPool);
+    }
+
+    /**
+     * Get the configuration of the pool a message driven bean uses.
+     *
+     * @param moduleName the name of the module containing the bean
+     * @param beanName the name of the bean
+     * @return the pool configuration
+     */
+    public InstancePoolConfig getMdbPoolConfig(final String moduleName, final String beanName) {
+        final Configuration configuration = this.configuration;
+        return configuration.getPoolConfig(moduleName, beanName, configuration.defaultMdbPool);
+    }
+
+    /**
+     * Make the statistics of a started pool available.
+     *
+     * @param key the key identifying the bean, {@code module/bean}
+     * @param pool the pool
+     */
+    public void registerPool(final String key, final InstancePool<?> pool) {
+        pools.put(key, pool);
+    }
+
+    public void unregisterPool(final String key, final InstancePool<?> pool) {
+        pools.remove(key, pool);
+    }
+
+    /**
+     * @return the pools of the started beans, keyed by {@code module/bean}
+     */
+    public Map<String, InstancePool<?>> getPools() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        pools.clear();
+    }
+
+    @Override
+    public InstancePoolRegistry getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    private static final class Configuration {
+        private final Map<String, InstancePoolConfig> configs;
+        private final String defaultSlsbPool;
+        private final String defaultMdbPool;
+        private final Map<String, String> beanPools;
+
+        Configuration(final Map<String, InstancePoolConfig> configs, final String defaultSlsbPool, final String defaultMdbPool, final Map<String, String> beanPools) {
+            this.configs = new HashMap<String, InstancePoolConfig>(configs);
+            this.defaultSlsbPool = defaultSlsbPool;
+            this.defaultMdbPool = defaultMdbPool;
+            this.beanPools = new HashMap<String, String>(beanPools);
+        }
+
+        InstancePoolConfig getPoolConfig(final String moduleName, final String beanName, final String defaultPool) {
+            String pool = beanPools.get(moduleName + "/" + beanName);
+            if (pool == null) {
+                pool = beanPools.get(beanName);
+            }
+            if (pool == null) {
+                pool = defaultPool;
+            }
+            return pool == null ? InstancePoolConfig.DEFAULT : configs.get(pool);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.EJBException;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool which never lets more than a fixed number of instances be in use.  Callers wait, in arrival order, for an
+ * instance to be returned, and fail once the timeout passes.
+ *
+ * @param <T> the instance type
+ */
+public class StrictMaxInstancePool<T> extends AbstractInstancePool<T> {
+
+    private final int maxSize;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final Semaphore semaphore;
+    private final Queue<T> pool = new ConcurrentLinkedQueue<T>();
+    // protected by pool
+    private boolean stopped;
+
+    public StrictMaxInstancePool(final StatelessObjectFactory<T> factory, final int maxSize, final long timeout, final TimeUnit timeUnit) {
+        super(factory);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize is less than 1");
+        }
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("timeUnit is null");
+        }
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        semaphore = new Semaphore(maxSize, true);
+    }
+
+    @Override
+    public T get() {
+        if (semaphore.tryAcquire()) {
+            acquired(0);
+        } else {
+            // only a caller which has to wait is timed
+            final long start = System.nanoTime();
+            try {
+                if (!semaphore.tryAcquire(timeout, timeUnit)) {
+                    throw new EJBException("Failed to acquire a permit within " + timeout + " " + timeUnit);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EJBException("Acquire semaphore was interrupted");
+            }
+            acquired(System.nanoTime() - start);
+        }
+        final T instance = pool.poll();
+        if (instance != null) {
+            return instance;
+        }
+        boolean ok = false;
+        try {
+            final T created = create();
+            ok = true;
+            return created;
+        } finally {
+            if (!ok) {
+                released();
+                semaphore.release();
+            }
+        }
+    }
+
+    @Override
+    public void release(final T instance) {
+        try {
+            synchronized (pool) {
+                // checked and added under the lock, so stop() cannot drain the pool in between and miss the instance
+                if (!stopped) {
+                    pool.add(instance);
+                    return;
+                }
+            }
+            destroy(instance);
+        } finally {
+            released();
+            semaphore.release();
+        }
+    }
+
+    @Override
+    public void discard(final T instance) {
+        try {
+            super.discard(instance);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (pool) {
+            stopped = true;
+        }
+        T instance;
+        while ((instance = pool.poll()) != null) {
+            destroy(instance);
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getAvailableCount() {
+        return pool.size();
+    }
+}
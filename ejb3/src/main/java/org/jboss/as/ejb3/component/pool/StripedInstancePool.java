@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A non-blocking pool which keeps up to a fixed number of idle instances in an array of slots.  Each thread starts
+ * looking for an instance at a slot derived from its id, so threads mostly use different slots and do not contend.
+ * When no idle instance is found nearby a new one is created instead of waiting, and an instance released when the
+ * slots nearby are all taken is destroyed, so the number of instances in use is not limited.
+ *
+ * @param <T> the instance type
+ */
+public class StripedInstancePool<T> extends AbstractInstancePool<T> {
+
+    /** The number of slots a thread looks at before giving up */
+    private static final int MAX_PROBES = 8;
+
+    private final int maxSize;
+    private final AtomicReferenceArray<T> slots;
+    private final int probes;
+    private volatile boolean stopped;
+
+    public StripedInstancePool(final StatelessObjectFactory<T> factory, final int maxSize) {
+        super(factory);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize is less than 1");
+        }
+        this.maxSize = maxSize;
+        slots = new AtomicReferenceArray<T>(maxSize);
+        probes = Math.min(maxSize, MAX_PROBES);
+    }
+
+    private int firstSlot() {
+        // spread consecutive thread ids over the slots
+        final long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) ((id >>> 32) & Integer.MAX_VALUE) % maxSize;
+    }
+
+    @Override
+    public T get() {
+        int slot = firstSlot();
+        for (int i = 0; i < probes; i++) {
+            final T instance = slots.get(slot);
+            if (instance != null && slots.compareAndSet(slot, instance, null)) {
+                acquired(0);
+                return instance;
+            }
+            if (++slot == maxSize) {
+                slot = 0;
+            }
+        }
+        final T instance = create();
+        acquired(0);
+        return instance;
+    }
+
+    @Override
+    public void release(final T instance) {
+        try {
+            if (!stopped) {
+                int slot = firstSlot();
+                for (int i = 0; i < probes; i++) {
+                    if (slots.get(slot) == null && slots.compareAndSet(slot, null, instance)) {
+                        return;
+                    }
+                    if (++slot == maxSize) {
+                        slot = 0;
+                    }
+                }
+            }
+            destroy(instance);
+        } finally {
+            released();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        for (int i = 0; i < maxSize; i++) {
+            final T instance = slots.getAndSet(i, null);
+            if (instance != null) {
+                destroy(instance);
+            }
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getAvailableCount() {
+        int count = 0;
+        for (int i = 0; i < maxSize; i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
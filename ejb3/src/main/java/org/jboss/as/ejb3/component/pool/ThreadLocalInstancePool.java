@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool which keeps an idle instance per thread, so an invocation never waits for an instance or contends with
+ * invocations on other threads.  A thread which invokes the component again while its instance is in use, for example
+ * through a call back into the same bean, gets an additional instance which is destroyed once it is released.  The
+ * number of instances is therefore bounded by the number of threads invoking the component rather than by the pool.
+ *
+ * @param <T> the instance type
+ */
+public class ThreadLocalInstancePool<T> extends AbstractInstancePool<T> {
+
+    /**
+     * The slot of the idle instance of a thread. Every slot is registered with the pool, so stopping the pool can
+     * destroy the instances of all threads and not just of the calling one.  The registration is weakly keyed by the
+     * thread, so the slot of a thread which has died is dropped along with its idle instance.
+     */
+    private static final class Slot<T> {
+        // protected by this
+        private T instance;
+    }
+
+    private final Map<Thread, Slot<T>> slots = Collections.synchronizedMap(new WeakHashMap<Thread, Slot<T>>());
+    private final ThreadLocal<Slot<T>> slot = new ThreadLocal<Slot<T>>() {
+        @Override
+        protected Slot<T> initialValue() {
+            final Slot<T> slot = new Slot<T>();
+            slots.put(Thread.currentThread(), slot);
+            return slot;
+        }
+    };
+    private volatile boolean stopped;
+
+    public ThreadLocalInstancePool(final StatelessObjectFactory<T> factory) {
+        super(factory);
+    }
+
+    @Override
+    public T get() {
+        final Slot<T> slot = this.slot.get();
+        T instance;
+        synchronized (slot) {
+            instance = slot.instance;
+            slot.instance = null;
+        }
+        if (instance == null) {
+            instance = create();
+        }
+        acquired(0);
+        return instance;
+    }
+
+    @Override
+    public void release(final T instance) {
+        try {
+            final Slot<T> slot = this.slot.get();
+            synchronized (slot) {
+                // stop() empties each slot after setting the flag, so an instance kept here is never missed
+                if (!stopped && slot.instance == null) {
+                    slot.instance = instance;
+                    return;
+                }
+            }
+            destroy(instance);
+        } finally {
+            released();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        final List<Slot<T>> slots;
+        synchronized (this.slots) {
+            slots = new ArrayList<Slot<T>>(this.slots.values());
+            this.slots.clear();
+        }
+        for (Slot<T> slot : slots) {
+            final T instance;
+            synchronized (slot) {
+                instance = slot.instance;
+                slot.instance = null;
+            }
+            if (instance != null) {
+                destroy(instance);
+            }
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return -1;
+    }
+
+    @Override
+    public int getAvailableCount() {
+        int count = 0;
+        synchronized (slots) {
+            for (Slot<T> slot : slots.values()) {
+                synchronized (slot) {
+                    if (slot.instance != null) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -28,6 +28,7 @@ import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ejb3.component.AsyncFutureInterceptor;
 import org.jboss.as.ejb3.component.AsyncVoidInterceptor;
 import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.MethodInvocationMetadata;
 import org.jboss.as.threads.ThreadsServices;
 import org.jboss.ejb3.context.CurrentInvocationContext;
 import org.jboss.ejb3.context.base.BaseSessionInvocationContext;
@@ -156,7 +157,20 @@ public abstract class SessionBeanComponent extends EJBComponent implements org.j
         return asyncExecutor;
     }
 
+    @Override
+    protected MethodInvocationMetadata createInvocationMetadata(final Method method) {
+        return super.createInvocationMetadata(method).withAsynchronous(isAsynchronousMethod(method));
+    }
+
     protected boolean isAsynchronous(final Method method) {
+        final MethodInvocationMetadata metadata = getInvocationMetadata(method);
+        if (metadata != null) {
+            return metadata.isAsynchronous();
+        }
+        return isAsynchronousMethod(method);
+    }
+
+    private boolean isAsynchronousMethod(final Method method) {
         final Set<Method> asyncMethods = this.asynchronousMethods;
         if (asyncMethods == null) {
             return false;
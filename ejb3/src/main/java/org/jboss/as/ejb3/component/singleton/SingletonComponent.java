@@ -26,6 +26,7 @@ import org.jboss.as.ee.component.AbstractComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstance;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
+import org.jboss.as.ejb3.component.MethodInvocationMetadata;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.ejb3.concurrency.spi.LockableComponent;
 import org.jboss.invocation.Interceptor;
@@ -51,6 +52,25 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
 
     private static final Logger logger = Logger.getLogger(SingletonComponent.class);
 
+    // TODO: This has to be configurable.
+    // Currently defaults to 5 minutes
+    private static final AccessTimeout DEFAULT_ACCESS_TIMEOUT = new AccessTimeout() {
+        @Override
+        public long value() {
+            return 5;
+        }
+
+        @Override
+        public TimeUnit unit() {
+            return TimeUnit.MINUTES;
+        }
+
+        @Override
+        public Class<? extends Annotation> annotationType() {
+            return AccessTimeout.class;
+        }
+    };
+
     private SingletonComponentInstance singletonComponentInstance;
 
     private boolean initOnStartup;
@@ -116,9 +136,22 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
         super.stop();
     }
 
+    @Override
+    protected MethodInvocationMetadata createInvocationMetadata(final Method method) {
+        final EJBBusinessMethod beanMethod = new EJBBusinessMethod(method.getName(), method.getParameterTypes());
+        return super.createInvocationMetadata(method).withConcurrency(resolveLockType(beanMethod), resolveAccessTimeout(beanMethod));
+    }
+
     @Override
     public LockType getLockType(Method method) {
-        EJBBusinessMethod beanMethod = new EJBBusinessMethod(method.getName(), method.getParameterTypes());
+        final MethodInvocationMetadata metadata = getInvocationMetadata(method);
+        if (metadata != null) {
+            return metadata.getLockType();
+        }
+        return resolveLockType(new EJBBusinessMethod(method.getName(), method.getParameterTypes()));
+    }
+
+    private LockType resolveLockType(final EJBBusinessMethod beanMethod) {
         LockType lockType = this.methodLockTypes.get(beanMethod);
         if (lockType != null) {
             return lockType;
@@ -133,7 +166,14 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
 
     @Override
     public AccessTimeout getAccessTimeout(Method method) {
-        EJBBusinessMethod beanMethod = new EJBBusinessMethod(method.getName(), method.getParameterTypes());
+        final MethodInvocationMetadata metadata = getInvocationMetadata(method);
+        if (metadata != null) {
+            return metadata.getAccessTimeout();
+        }
+        return resolveAccessTimeout(new EJBBusinessMethod(method.getName(), method.getParameterTypes()));
+    }
+
+    private AccessTimeout resolveAccessTimeout(final EJBBusinessMethod beanMethod) {
         AccessTimeout accessTimeout = this.methodAccessTimeouts.get(beanMethod);
         if (accessTimeout != null) {
             return accessTimeout;
@@ -147,24 +187,7 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
 
     @Override
     public AccessTimeout getDefaultAccessTimeout() {
-        // TODO: This has to be configurable.
-        // Currently defaults to 5 minutes
-        return new AccessTimeout() {
-            @Override
-            public long value() {
-                return 5;
-            }
-
-            @Override
-            public TimeUnit unit() {
-                return TimeUnit.MINUTES;
-            }
-
-            @Override
-            public Class<? extends Annotation> annotationType() {
-                return AccessTimeout.class;
-            }
-        };
+        return DEFAULT_ACCESS_TIMEOUT;
     }
 
     private synchronized void destroySingletonInstance() {
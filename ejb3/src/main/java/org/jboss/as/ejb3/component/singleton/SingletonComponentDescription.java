@@ -78,6 +78,11 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
         return true;
     }
 
+    @Override
+    public boolean isTimerServiceApplicable() {
+        return true;
+    }
+
     @Override
     public SessionBeanType getSessionBeanType() {
         return SessionBeanComponentDescription.SessionBeanType.SINGLETON;
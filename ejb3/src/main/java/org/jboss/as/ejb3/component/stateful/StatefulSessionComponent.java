@@ -24,9 +24,10 @@ package org.jboss.as.ejb3.component.stateful;
 import org.jboss.as.ee.component.AbstractComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
-import org.jboss.ejb3.cache.Cache;
-import org.jboss.ejb3.cache.NoPassivationCache;
-import org.jboss.ejb3.cache.StatefulObjectFactory;
+import org.jboss.as.ejb3.component.stateful.cache.PassivatingObjectFactory;
+import org.jboss.as.ejb3.component.stateful.cache.PassivatingStatefulSessionCache;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionCache;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionCacheService;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.invocation.InterceptorFactoryContext;
@@ -43,7 +44,9 @@ import java.util.Map;
  */
 public class StatefulSessionComponent extends SessionBeanComponent {
 
-    private Cache<StatefulSessionComponentInstance> cache;
+    private final PassivatingStatefulSessionCache<StatefulSessionComponentInstance> cache;
+    private final StatefulSessionCacheService cacheService;
+    private final String cacheKey;
 
     /**
      * Construct a new instance.
@@ -54,8 +57,8 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         super(configuration);
 
 
-        cache = new NoPassivationCache<StatefulSessionComponentInstance>();
-        cache.setStatefulObjectFactory(new StatefulObjectFactory<StatefulSessionComponentInstance>() {
+        cacheService = configuration.getInjectionValue(StatefulSessionCacheService.SERVICE_NAME, StatefulSessionCacheService.class);
+        cache = cacheService.createCache(configuration.getModuleName(), getComponentName(), new PassivatingObjectFactory<StatefulSessionComponentInstance>() {
             @Override
             public StatefulSessionComponentInstance createInstance() {
                 return (StatefulSessionComponentInstance) StatefulSessionComponent.this.createInstance();
@@ -65,7 +68,41 @@ public class StatefulSessionComponent extends SessionBeanComponent {
             public void destroyInstance(StatefulSessionComponentInstance instance) {
                 StatefulSessionComponent.this.destroyInstance(instance);
             }
-        });
+
+            @Override
+            public Object passivateInstance(StatefulSessionComponentInstance instance) {
+                final Map<Class<?>, Object> interceptors = StatefulSessionComponent.this.passivateInstance(instance);
+                return new PassivatedInstance(instance.getId(), instance.getInstance(), interceptors);
+            }
+
+            @Override
+            public void passivationFailed(StatefulSessionComponentInstance instance) {
+                StatefulSessionComponent.this.reactivateInstance(instance);
+            }
+
+            @Override
+            public StatefulSessionComponentInstance activateInstance(Object state) {
+                final PassivatedInstance passivated = (PassivatedInstance) state;
+                final StatefulSessionComponentInstance instance = (StatefulSessionComponentInstance) StatefulSessionComponent.this.activateInstance(passivated.instance, passivated.interceptors);
+                instance.setId(passivated.id);
+                return instance;
+            }
+        }, getComponentClass().getClassLoader());
+        cacheKey = configuration.getModuleName() + "/" + getComponentName();
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        cache.start();
+        cacheService.registerCache(cacheKey, cache);
+    }
+
+    @Override
+    public void stop() {
+        cacheService.unregisterCache(cacheKey, cache);
+        cache.stop();
+        super.stop();
     }
 
     @Override
@@ -111,7 +148,7 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         return getCache().create().getId();
     }
 
-    protected Cache<StatefulSessionComponentInstance> getCache() {
+    protected StatefulSessionCache<StatefulSessionComponentInstance> getCache() {
         return cache;
     }
 
@@ -135,4 +172,21 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         context.setParameters(args);
         return getComponentInterceptor().processInvocation(context);
     }
+
+    /**
+     * The state written when an instance is passivated.
+     */
+    private static final class PassivatedInstance implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final Serializable id;
+        final Object instance;
+        final Map<Class<?>, Object> interceptors;
+
+        PassivatedInstance(final Serializable id, final Object instance, final Map<Class<?>, Object> interceptors) {
+            this.id = id;
+            this.instance = instance;
+            this.interceptors = interceptors;
+        }
+    }
 }
@@ -25,10 +25,12 @@ import org.jboss.as.ee.component.AbstractComponent;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInterceptorFactory;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentConfiguration;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionCacheService;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
+import org.jboss.msc.service.ServiceBuilder;
 
 import javax.ejb.TransactionManagementType;
 
@@ -39,6 +41,7 @@ public class StatefulSessionComponentConfiguration extends SessionBeanComponentC
 
     public StatefulSessionComponentConfiguration(final StatefulComponentDescription description) {
         super(description);
+        description.addDependency(StatefulSessionCacheService.SERVICE_NAME, ServiceBuilder.DependencyType.REQUIRED);
 
         addComponentSystemInterceptorFactory(new ImmediateInterceptorFactory(new ComponentInstanceInterceptor()));
 
@@ -32,7 +32,7 @@ import java.io.Serializable;
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class StatefulSessionComponentInstance extends SessionBeanComponentInstance implements Identifiable {
-    private final GUID id;
+    private Serializable id;
 
     protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final Object instance, InterceptorFactoryContext context) {
         super(component, instance, context);
@@ -47,4 +47,13 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
     public Serializable getId() {
         return id;
     }
+
+    /**
+     * Restore the id of an instance recreated from its passivated state.
+     *
+     * @param id the id
+     */
+    void setId(final Serializable id) {
+        this.id = id;
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Stores the state of passivated instances, one file per session, in a directory.
+ */
+public class FilePassivationStore {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.ejb3");
+
+    private static final String SUFFIX = ".ser";
+    private static final int BUFFER_SIZE = 8192;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+    private final ClassLoader classLoader;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param directory the directory holding the files, which is created when needed
+     * @param classLoader the class loader used to resolve the classes of the stored state
+     */
+    public FilePassivationStore(final File directory, final ClassLoader classLoader) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory is null");
+        }
+        this.directory = directory;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Write the state of a session.
+     *
+     * @param key the session id
+     * @param state the state
+     * @throws IOException if the state could not be written, for example because it is not serializable
+     */
+    public void store(final Object key, final Object state) throws IOException {
+        if (!directory.exists() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Cannot create passivation store directory " + directory);
+        }
+        final File file = getFile(key);
+        OutputStream out = null;
+        boolean ok = false;
+        try {
+            out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+            final ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(state);
+            oos.close();
+            out = null;
+            ok = true;
+        } finally {
+            safeClose(out);
+            if (!ok) {
+                delete(file);
+            }
+        }
+    }
+
+    /**
+     * Read and delete the state of a session.
+     *
+     * @param key the session id
+     * @return the state
+     * @throws IOException if the state could not be read
+     * @throws ClassNotFoundException if a class of the state cannot be found
+     */
+    public Object load(final Object key) throws IOException, ClassNotFoundException {
+        final File file = getFile(key);
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+            return new ObjectInputStream(in) {
+                @Override
+                protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                    if (classLoader == null) {
+                        return super.resolveClass(desc);
+                    }
+                    try {
+                        return Class.forName(desc.getName(), false, classLoader);
+                    } catch (ClassNotFoundException e) {
+                        return super.resolveClass(desc);
+                    }
+                }
+            }.readObject();
+        } finally {
+            safeClose(in);
+            delete(file);
+        }
+    }
+
+    /**
+     * Delete the state of a session, if it is stored.
+     *
+     * @param key the session id
+     */
+    public void remove(final Object key) {
+        final File file = getFile(key);
+        if (file.exists()) {
+            delete(file);
+        }
+    }
+
+    /**
+     * Delete the state of all sessions.
+     */
+    public void clear() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX)) {
+                    delete(file);
+                }
+            }
+        }
+    }
+
+    private File getFile(final Object key) {
+        // session ids may contain characters which are not valid in file names
+        final byte[] bytes;
+        try {
+            bytes = key.toString().getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new File(directory, new String(chars) + SUFFIX);
+    }
+
+    private static void delete(final File file) {
+        if (!file.delete() && file.exists()) {
+            log.debugf("Failed to delete passivated state %s", file);
+            file.deleteOnExit();
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                log.tracef(e, "Failed to close %s", closeable);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache;
+
+import org.jboss.ejb3.cache.StatefulObjectFactory;
+
+/**
+ * A factory of stateful instances which can also save the state of an instance and recreate the instance from it.
+ *
+ * @param <T> the instance type
+ */
+public interface PassivatingObjectFactory<T> extends StatefulObjectFactory<T> {
+
+    /**
+     * Get the state to save for an instance which is about to be passivated.
+     *
+     * @param instance the instance
+     * @return the state, which must be serializable for the instance to be passivated
+     */
+    Object passivateInstance(T instance);
+
+    /**
+     * Called when the state returned by {@link #passivateInstance(Object)} could not be stored.  The instance stays in
+     * memory and will be used again, so it must be returned to the state it was in before it was prepared for
+     * passivation.
+     *
+     * @param instance the instance
+     */
+    void passivationFailed(T instance);
+
+    /**
+     * Recreate an instance from the state returned by {@link #passivateInstance(Object)}.
+     *
+     * @param state the state
+     * @return the instance
+     */
+    T activateInstance(Object state);
+}
@@ -0,0 +1,444 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ejb.EJBException;
+import javax.ejb.NoSuchEJBException;
+
+import org.jboss.ejb3.cache.Identifiable;
+import org.jboss.logging.Logger;
+
+/**
+ * A stateful session cache which keeps a bounded number of instances in memory.  When there are more instances than
+ * the maximum, the least recently used instances which are not in use are passivated to a {@link FilePassivationStore},
+ * and instances which have not been used for longer than the idle timeout are passivated by {@link #passivateIdle()}.
+ * A passivated instance is activated again when it is next requested.  Instances whose state cannot be passivated
+ * stay in memory, as do instances which are in use, that is which were obtained with {@link #get(Object)} more often
+ * than they were released since.  Nested and concurrent invocations each hold a use of the instance, so it only
+ * becomes eligible for passivation once the last of them has released it.
+ *
+ * @param <T> the instance type
+ */
+public class PassivatingStatefulSessionCache<T extends Identifiable> implements StatefulSessionCache<T> {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.ejb3");
+
+    private enum State {
+        READY, PASSIVATING, ACTIVATING, PASSIVATED
+    }
+
+    private static final class Entry<T> {
+        final Object key;
+        T instance;
+        State state;
+        long lastUsed;
+        /** The number of {@link #get(Object)} calls not yet matched by a {@link #release(Object)} */
+        int useCount;
+        /** Whether passivating the instance failed, in which case it is not tried again */
+        boolean pinned;
+
+        Entry(final Object key, final T instance) {
+            this.key = key;
+            this.instance = instance;
+            state = State.READY;
+            lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    private final PassivatingObjectFactory<T> factory;
+    private final FilePassivationStore store;
+    private final int maxSize;
+    private final long idleTimeout;
+
+    private final Object lock = new Object();
+    /** The entries with an instance in memory, least recently used first */
+    private final LinkedHashMap<Object, Entry<T>> active = new LinkedHashMap<Object, Entry<T>>(16, 0.75f, true);
+    private final Map<Object, Entry<T>> passivated = new HashMap<Object, Entry<T>>();
+
+    private final AtomicLong createCount = new AtomicLong();
+    private final AtomicLong removeCount = new AtomicLong();
+    private final AtomicLong passivationCount = new AtomicLong();
+    private final AtomicLong passivationFailureCount = new AtomicLong();
+    private final AtomicLong totalPassivationTime = new AtomicLong();
+    private final AtomicLong activationCount = new AtomicLong();
+    private final AtomicLong totalActivationTime = new AtomicLong();
+    private final AtomicLong maxActivationTime = new AtomicLong();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param factory the factory creating, passivating and activating the instances
+     * @param store the store holding the state of passivated instances
+     * @param maxSize the maximum number of instances kept in memory
+     * @param idleTimeout the time an instance may be unused before it is passivated
+     * @param unit the unit of {@code idleTimeout}
+     */
+    public PassivatingStatefulSessionCache(final PassivatingObjectFactory<T> factory, final FilePassivationStore store,
+            final int maxSize, final long idleTimeout, final TimeUnit unit) {
+        if (factory == null) {
+            throw new IllegalArgumentException("factory is null");
+        }
+        if (store == null) {
+            throw new IllegalArgumentException("store is null");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize is less than 1");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit is null");
+        }
+        this.factory = factory;
+        this.store = store;
+        this.maxSize = maxSize;
+        this.idleTimeout = unit.toMillis(idleTimeout);
+    }
+
+    @Override
+    public T create() {
+        final T instance = factory.createInstance();
+        createCount.incrementAndGet();
+        final Object key = instance.getId();
+        synchronized (lock) {
+            active.put(key, new Entry<T>(key, instance));
+        }
+        passivateExcess();
+        return instance;
+    }
+
+    @Override
+    public T get(final Object key) throws NoSuchEJBException {
+        final Entry<T> entry;
+        synchronized (lock) {
+            for (;;) {
+                final Entry<T> current = active.get(key);
+                if (current == null) {
+                    entry = passivated.remove(key);
+                    if (entry == null) {
+                        throw new NoSuchEJBException("Could not find stateful bean: " + key);
+                    }
+                    entry.state = State.ACTIVATING;
+                    active.put(key, entry);
+                    break;
+                }
+                if (current.state == State.READY) {
+                    // concurrent invocations share the instance, they are serialized by the invocation interceptors
+                    current.useCount++;
+                    current.lastUsed = System.currentTimeMillis();
+                    return current.instance;
+                }
+                waitForChange();
+            }
+        }
+        return activate(entry);
+    }
+
+    private T activate(final Entry<T> entry) {
+        final long start = System.nanoTime();
+        T instance = null;
+        try {
+            instance = factory.activateInstance(store.load(entry.key));
+        } catch (Exception e) {
+            throw new EJBException("Failed to activate stateful bean " + entry.key, e);
+        } finally {
+            synchronized (lock) {
+                if (instance == null) {
+                    active.remove(entry.key);
+                } else {
+                    entry.instance = instance;
+                    entry.state = State.READY;
+                    entry.useCount = 1;
+                }
+                lock.notifyAll();
+            }
+        }
+        final long time = System.nanoTime() - start;
+        activationCount.incrementAndGet();
+        totalActivationTime.addAndGet(time);
+        long max;
+        while (time > (max = maxActivationTime.get())) {
+            if (maxActivationTime.compareAndSet(max, time)) {
+                break;
+            }
+        }
+        // activation may take the cache over its limit
+        passivateExcess();
+        return instance;
+    }
+
+    @Override
+    public void release(final T instance) {
+        synchronized (lock) {
+            final Entry<T> entry = active.get(instance.getId());
+            if (entry != null && entry.instance == instance && entry.useCount > 0) {
+                entry.useCount--;
+                entry.lastUsed = System.currentTimeMillis();
+            }
+        }
+        passivateExcess();
+    }
+
+    @Override
+    public void discard(final Object key) {
+        synchronized (lock) {
+            active.remove(key);
+            passivated.remove(key);
+            lock.notifyAll();
+        }
+        store.remove(key);
+    }
+
+    @Override
+    public void remove(final Object key) throws NoSuchEJBException {
+        final T instance = get(key);
+        synchronized (lock) {
+            active.remove(key);
+            lock.notifyAll();
+        }
+        try {
+            factory.destroyInstance(instance);
+        } finally {
+            removeCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void start() {
+    }
+
+    /**
+     * Destroy the instances in memory, and forget the passivated instances and delete their state.  Passivated
+     * instances are not activated again just to be destroyed.
+     */
+    @Override
+    public void stop() {
+        final List<T> instances = new ArrayList<T>();
+        synchronized (lock) {
+            for (Entry<T> entry : active.values()) {
+                // instances being passivated are treated like the passivated ones
+                if (entry.state == State.READY && entry.instance != null) {
+                    instances.add(entry.instance);
+                }
+            }
+            active.clear();
+            passivated.clear();
+            lock.notifyAll();
+        }
+        store.clear();
+        for (T instance : instances) {
+            try {
+                factory.destroyInstance(instance);
+            } catch (Exception e) {
+                log.debugf(e, "Failed to destroy stateful bean %s", instance.getId());
+            } finally {
+                removeCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Passivate the instances which have been idle for longer than the idle timeout.
+     */
+    public void passivateIdle() {
+        if (idleTimeout <= 0) {
+            return;
+        }
+        final long threshold = System.currentTimeMillis() - idleTimeout;
+        final List<Entry<T>> victims = new ArrayList<Entry<T>>();
+        synchronized (lock) {
+            // the least recently accessed entries come first, but lastUsed is only updated on release
+            for (Entry<T> entry : active.values()) {
+                if (entry.state == State.READY && entry.useCount == 0 && !entry.pinned && entry.lastUsed < threshold) {
+                    entry.state = State.PASSIVATING;
+                    victims.add(entry);
+                }
+            }
+        }
+        passivate(victims);
+    }
+
+    private void passivateExcess() {
+        final List<Entry<T>> victims;
+        synchronized (lock) {
+            int excess = active.size() - maxSize;
+            if (excess <= 0) {
+                return;
+            }
+            victims = new ArrayList<Entry<T>>(excess);
+            final Iterator<Entry<T>> i = active.values().iterator();
+            while (excess > 0 && i.hasNext()) {
+                final Entry<T> entry = i.next();
+                if (entry.state == State.READY && entry.useCount == 0 && !entry.pinned) {
+                    entry.state = State.PASSIVATING;
+                    victims.add(entry);
+                    excess--;
+                }
+            }
+        }
+        passivate(victims);
+    }
+
+    private void passivate(final List<Entry<T>> victims) {
+        for (Entry<T> entry : victims) {
+            final long start = System.nanoTime();
+            boolean prepared = false;
+            boolean stored = false;
+            try {
+                final Object state = factory.passivateInstance(entry.instance);
+                prepared = true;
+                store.store(entry.key, state);
+                stored = true;
+            } catch (Exception e) {
+                log.debugf(e, "Failed to passivate stateful bean %s, keeping it in memory", entry.key);
+                passivationFailureCount.incrementAndGet();
+            }
+            if (prepared && !stored) {
+                // the instance was told it is passivated, tell it that it is active again before it is used
+                try {
+                    factory.passivationFailed(entry.instance);
+                } catch (Exception e) {
+                    log.debugf(e, "Failed to reactivate stateful bean %s", entry.key);
+                }
+            }
+            boolean discarded = false;
+            synchronized (lock) {
+                if (active.get(entry.key) != entry) {
+                    // discarded while it was being passivated
+                    discarded = true;
+                } else if (stored) {
+                    active.remove(entry.key);
+                    entry.instance = null;
+                    entry.state = State.PASSIVATED;
+                    passivated.put(entry.key, entry);
+                } else {
+                    entry.state = State.READY;
+                    entry.pinned = true;
+                }
+                lock.notifyAll();
+            }
+            if (discarded && stored) {
+                store.remove(entry.key);
+            }
+            if (stored) {
+                passivationCount.incrementAndGet();
+                totalPassivationTime.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void waitForChange() {
+        boolean interrupted = false;
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new EJBException("Interrupted while waiting for stateful bean");
+        }
+    }
+
+    /**
+     * @return the maximum number of instances kept in memory
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of instances in memory
+     */
+    public int getCacheSize() {
+        synchronized (lock) {
+            return active.size();
+        }
+    }
+
+    /**
+     * @return the number of passivated instances
+     */
+    public int getPassivatedCount() {
+        synchronized (lock) {
+            return passivated.size();
+        }
+    }
+
+    public long getCreateCount() {
+        return createCount.get();
+    }
+
+    public long getRemoveCount() {
+        return removeCount.get();
+    }
+
+    /**
+     * @return the number of instances passivated
+     */
+    public long getPassivationCount() {
+        return passivationCount.get();
+    }
+
+    /**
+     * @return the number of times an instance could not be passivated
+     */
+    public long getPassivationFailureCount() {
+        return passivationFailureCount.get();
+    }
+
+    /**
+     * @return the total time, in nanoseconds, spent passivating instances
+     */
+    public long getTotalPassivationTime() {
+        return totalPassivationTime.get();
+    }
+
+    /**
+     * @return the number of instances activated
+     */
+    public long getActivationCount() {
+        return activationCount.get();
+    }
+
+    /**
+     * @return the total time, in nanoseconds, spent activating instances
+     */
+    public long getTotalActivationTime() {
+        return totalActivationTime.get();
+    }
+
+    /**
+     * @return the longest time, in nanoseconds, spent activating an instance
+     */
+    public long getMaxActivationTime() {
+        return maxActivationTime.get();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache;
+
+import javax.ejb.NoSuchEJBException;
+
+import org.jboss.ejb3.cache.Identifiable;
+
+/**
+ * Holds the instances of a stateful session bean between invocations.
+ *
+ * @param <T> the instance type
+ */
+public interface StatefulSessionCache<T extends Identifiable> {
+
+    /**
+     * Create a new instance and add it to the cache.  The instance is not in use until it is obtained with
+     * {@link #get(Object)}.
+     *
+     * @return the new instance
+     */
+    T create();
+
+    /**
+     * Get an instance for an invocation.  The instance is in use, and will not be passivated, until it is passed to
+     * {@link #release(Identifiable)}.
+     *
+     * @param key the session id
+     * @return the instance
+     * @throws NoSuchEJBException if there is no instance for the session id
+     */
+    T get(Object key) throws NoSuchEJBException;
+
+    /**
+     * Mark an instance obtained with {@link #get(Object)} as no longer in use, once it is no longer associated with an
+     * invocation or transaction.
+     *
+     * @param instance the instance
+     */
+    void release(T instance);
+
+    /**
+     * Remove an instance from the cache without destroying it, for example because an invocation failed with a
+     * system exception.
+     *
+     * @param key the session id
+     */
+    void discard(Object key);
+
+    /**
+     * Remove an instance from the cache and destroy it.
+     *
+     * @param key the session id
+     * @throws NoSuchEJBException if there is no instance for the session id
+     */
+    void remove(Object key) throws NoSuchEJBException;
+
+    void start();
+
+    void stop();
+}
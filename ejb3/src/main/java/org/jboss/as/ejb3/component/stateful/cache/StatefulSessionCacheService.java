@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.ejb3.cache.Identifiable;
+import org.jboss.logging.Logger;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Creates the caches of stateful session beans, passivates their idle instances in the background and keeps track of
+ * the caches of deployed beans so their statistics can be read.
+ */
+public class StatefulSessionCacheService implements Service<StatefulSessionCacheService> {
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "stateful-cache");
+
+    public static final int DEFAULT_MAX_SIZE = 100000;
+    public static final long DEFAULT_IDLE_TIMEOUT = 300;
+    public static final TimeUnit DEFAULT_IDLE_TIMEOUT_UNIT = TimeUnit.SECONDS;
+
+    /** The longest interval between two checks for idle instances */
+    private static final long MAX_SWEEP_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.ejb3");
+
+    private final int maxSize;
+    private final long idleTimeout;
+    private final TimeUnit idleTimeoutUnit;
+    private final InjectedValue<String> passivationPath = new InjectedValue<String>();
+    private final ConcurrentMap<String, PassivatingStatefulSessionCache<?>> caches = new ConcurrentHashMap<String, PassivatingStatefulSessionCache<?>>();
+    private final ConcurrentMap<PassivatingStatefulSessionCache<?>, ScheduledFuture<?>> sweepers = new ConcurrentHashMap<PassivatingStatefulSessionCache<?>, ScheduledFuture<?>>();
+    private volatile ScheduledExecutorService executor;
+
+    public StatefulSessionCacheService(final int maxSize, final long idleTimeout, final TimeUnit idleTimeoutUnit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize is less than 1");
+        }
+        if (idleTimeoutUnit == null) {
+            throw new IllegalArgumentException("idleTimeoutUnit is null");
+        }
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.idleTimeoutUnit = idleTimeoutUnit;
+    }
+
+    public Injector<String> getPassivationPathInjector() {
+        return passivationPath;
+    }
+
+    /**
+     * Create the cache of a bean.
+     *
+     * @param moduleName the name of the module containing the bean
+     * @param beanName the name of the bean
+     * @param factory the factory of the bean instances
+     * @param classLoader the class loader of the bean
+     * @param <T> the instance type
+     * @return the cache, not yet registered
+     */
+    public <T extends Identifiable> PassivatingStatefulSessionCache<T> createCache(final String moduleName, final String beanName,
+            final PassivatingObjectFactory<T> factory, final ClassLoader classLoader) {
+        final File directory = new File(new File(passivationPath.getValue(), toFileName(moduleName)), toFileName(beanName));
+        return new PassivatingStatefulSessionCache<T>(factory, new FilePassivationStore(directory, classLoader), maxSize, idleTimeout, idleTimeoutUnit);
+    }
+
+    /**
+     * Start passivating the idle instances of a started cache and make its statistics available.
+     *
+     * @param key the key identifying the bean, {@code module/bean}
+     * @param cache the cache
+     */
+    public void registerCache(final String key, final PassivatingStatefulSessionCache<?> cache) {
+        caches.put(key, cache);
+        final ScheduledExecutorService executor = this.executor;
+        if (executor != null && idleTimeout > 0) {
+            final long interval = Math.max(1, Math.min(idleTimeoutUnit.toMillis(idleTimeout), MAX_SWEEP_INTERVAL));
+            sweepers.put(cache, executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        cache.passivateIdle();
+                    } catch (Throwable t) {
+                        log.errorf(t, "Failed to passivate idle instances of %s", key);
+                    }
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    public void unregisterCache(final String key, final PassivatingStatefulSessionCache<?> cache) {
+        caches.remove(key, cache);
+        final ScheduledFuture<?> sweeper = sweepers.remove(cache);
+        if (sweeper != null) {
+            sweeper.cancel(false);
+        }
+    }
+
+    /**
+     * @return the caches of the started beans, keyed by {@code module/bean}
+     */
+    public Map<String, PassivatingStatefulSessionCache<?>> getCaches() {
+        return Collections.unmodifiableMap(caches);
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "EJB3 stateful cache passivation");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        executor.shutdownNow();
+        executor = null;
+        caches.clear();
+        sweepers.clear();
+    }
+
+    @Override
+    public StatefulSessionCacheService getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    private static String toFileName(final String name) {
+        return name == null ? "_" : name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
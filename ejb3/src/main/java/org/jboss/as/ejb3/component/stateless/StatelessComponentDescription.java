@@ -53,6 +53,11 @@ public class StatelessComponentDescription extends SessionBeanComponentDescripti
         return false;
     }
 
+    @Override
+    public boolean isTimerServiceApplicable() {
+        return true;
+    }
+
     @Override
     public SessionBeanType getSessionBeanType() {
         return SessionBeanComponentDescription.SessionBeanType.STATELESS;
@@ -25,11 +25,11 @@ package org.jboss.as.ejb3.component.stateless;
 import org.jboss.as.ee.component.AbstractComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstance;
+import org.jboss.as.ejb3.component.pool.InstancePool;
+import org.jboss.as.ejb3.component.pool.InstancePoolRegistry;
 import org.jboss.as.ejb3.component.pool.PooledComponent;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
-import org.jboss.ejb3.pool.Pool;
 import org.jboss.ejb3.pool.StatelessObjectFactory;
-import org.jboss.ejb3.pool.strictmax.StrictMaxPool;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.invocation.InterceptorFactoryContext;
@@ -38,7 +38,6 @@ import org.jboss.invocation.Interceptors;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 /**
  * {@link org.jboss.as.ee.component.Component} responsible for managing EJB3 stateless session beans
@@ -49,7 +48,9 @@ import java.util.concurrent.TimeUnit;
 public class StatelessSessionComponent extends SessionBeanComponent implements PooledComponent<StatelessSessionComponentInstance> {
     // some more injectable resources
     // @Resource
-    private Pool<StatelessSessionComponentInstance> pool;
+    private final InstancePool<StatelessSessionComponentInstance> pool;
+    private final InstancePoolRegistry poolRegistry;
+    private final String poolKey;
 
     /**
      * Constructs a StatelessEJBComponent for a stateless session bean
@@ -70,7 +71,23 @@ public class StatelessSessionComponent extends SessionBeanComponent implements P
                 destroyInstance(obj);
             }
         };
-        this.pool = new StrictMaxPool<StatelessSessionComponentInstance>(factory, 20, 5, TimeUnit.MINUTES);
+        this.poolRegistry = componentConfiguration.getInjectionValue(InstancePoolRegistry.SERVICE_NAME, InstancePoolRegistry.class);
+        this.pool = poolRegistry.getSlsbPoolConfig(componentConfiguration.getModuleName(), getComponentName()).createPool(factory);
+        this.poolKey = componentConfiguration.getModuleName() + "/" + getComponentName();
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        pool.start();
+        poolRegistry.registerPool(poolKey, pool);
+    }
+
+    @Override
+    public void stop() {
+        poolRegistry.unregisterPool(poolKey, pool);
+        pool.stop();
+        super.stop();
     }
 
     //TODO: This should be getInstance()
@@ -86,7 +103,7 @@ public class StatelessSessionComponent extends SessionBeanComponent implements P
     }
 
     @Override
-    public Pool<StatelessSessionComponentInstance> getPool() {
+    public InstancePool<StatelessSessionComponentInstance> getPool() {
         return pool;
     }
 
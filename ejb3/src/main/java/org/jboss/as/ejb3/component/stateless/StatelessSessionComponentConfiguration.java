@@ -25,9 +25,11 @@ package org.jboss.as.ejb3.component.stateless;
 import org.jboss.as.ee.component.AbstractComponent;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInterceptorFactory;
+import org.jboss.as.ejb3.component.pool.InstancePoolRegistry;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentConfiguration;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorFactoryContext;
+import org.jboss.msc.service.ServiceBuilder;
 
 import javax.ejb.TransactionManagementType;
 
@@ -45,6 +47,7 @@ public class StatelessSessionComponentConfiguration extends SessionBeanComponent
      */
     public StatelessSessionComponentConfiguration(final StatelessComponentDescription description) {
         super(description);
+        description.addDependency(InstancePoolRegistry.SERVICE_NAME, ServiceBuilder.DependencyType.REQUIRED);
 
         addComponentSystemInterceptorFactory(pooled());
 
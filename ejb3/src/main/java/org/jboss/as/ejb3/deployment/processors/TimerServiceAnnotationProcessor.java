@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.deployment.processors;
+
+import java.util.List;
+import java.util.Map;
+import javax.ejb.Schedule;
+import javax.ejb.Schedules;
+import javax.ejb.ScheduleExpression;
+import javax.ejb.Timeout;
+import javax.ejb.TimerConfig;
+import org.jboss.as.ejb3.component.EJBComponentDescription;
+import org.jboss.as.ejb3.timerservice.AutoTimer;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.invocation.proxy.MethodIdentifier;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.AnnotationValue;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.MethodInfo;
+import org.jboss.logging.Logger;
+
+/**
+ * Deployment processor responsible for detecting @Timeout, @Schedule and @Schedules annotations on EJB components.
+ */
+public class TimerServiceAnnotationProcessor extends AbstractAnnotationEJBProcessor<EJBComponentDescription> {
+
+    private static final Logger logger = Logger.getLogger("org.jboss.as.ejb3");
+
+    private static final DotName TIMEOUT_ANNOTATION = DotName.createSimple(Timeout.class.getName());
+    private static final DotName SCHEDULE_ANNOTATION = DotName.createSimple(Schedule.class.getName());
+    private static final DotName SCHEDULES_ANNOTATION = DotName.createSimple(Schedules.class.getName());
+
+    protected Class<EJBComponentDescription> getComponentDescriptionType() {
+        return EJBComponentDescription.class;
+    }
+
+    protected void processAnnotations(final ClassInfo beanClass, final CompositeIndex compositeIndex, final EJBComponentDescription componentDescription) throws DeploymentUnitProcessingException {
+        processTimerAnnotations(beanClass, compositeIndex, componentDescription);
+    }
+
+    private void processTimerAnnotations(final ClassInfo beanClass, final CompositeIndex compositeIndex, final EJBComponentDescription componentDescription) throws DeploymentUnitProcessingException {
+        final DotName superName = beanClass.superName();
+        if (superName != null) {
+            ClassInfo superClass = compositeIndex.getClassByName(superName);
+            if (superClass != null)
+                processTimerAnnotations(superClass, compositeIndex, componentDescription);
+        }
+
+        final Map<DotName, List<AnnotationInstance>> classAnnotations = beanClass.annotations();
+        if (classAnnotations == null) {
+            return;
+        }
+        final List<AnnotationInstance> timeouts = classAnnotations.get(TIMEOUT_ANNOTATION);
+        final List<AnnotationInstance> schedules = classAnnotations.get(SCHEDULE_ANNOTATION);
+        final List<AnnotationInstance> scheduleLists = classAnnotations.get(SCHEDULES_ANNOTATION);
+        if (timeouts == null && schedules == null && scheduleLists == null) {
+            return;
+        }
+        if (!componentDescription.isTimerServiceApplicable()) {
+            // EJB 3.1 FR 18.2, stateful session beans can't be timed objects
+            logger.warn("Ignoring timer annotations on " + beanClass.name() + ", " + componentDescription.getEJBName() + " bean cannot use the timer service");
+            return;
+        }
+
+        if (timeouts != null) {
+            for (AnnotationInstance annotationInstance : timeouts) {
+                final MethodInfo methodInfo = getTargetMethod(annotationInstance);
+                if (methodInfo != null) {
+                    componentDescription.setTimeoutMethod(getIdentifier(methodInfo));
+                }
+            }
+        }
+        if (schedules != null) {
+            for (AnnotationInstance annotationInstance : schedules) {
+                addAutoTimer(annotationInstance, getTargetMethod(annotationInstance), componentDescription);
+            }
+        }
+        if (scheduleLists != null) {
+            for (AnnotationInstance annotationInstance : scheduleLists) {
+                final MethodInfo methodInfo = getTargetMethod(annotationInstance);
+                final AnnotationValue value = annotationInstance.value();
+                if (value == null) {
+                    continue;
+                }
+                for (AnnotationInstance schedule : value.asNestedArray()) {
+                    addAutoTimer(schedule, methodInfo, componentDescription);
+                }
+            }
+        }
+    }
+
+    private static MethodInfo getTargetMethod(final AnnotationInstance annotationInstance) throws DeploymentUnitProcessingException {
+        final AnnotationTarget target = annotationInstance.target();
+        if (target instanceof MethodInfo) {
+            return MethodInfo.class.cast(target);
+        }
+        throw new DeploymentUnitProcessingException("@" + annotationInstance.name().local() + " is only allowed on methods, found on " + target);
+    }
+
+    private static MethodIdentifier getIdentifier(final MethodInfo methodInfo) {
+        final String[] args = new String[methodInfo.args().length];
+        for (int i = 0; i < methodInfo.args().length; i++) {
+            args[i] = methodInfo.args()[i].name().toString();
+        }
+        return MethodIdentifier.getIdentifier(methodInfo.returnType().name().toString(), methodInfo.name(), args);
+    }
+
+    private static void addAutoTimer(final AnnotationInstance schedule, final MethodInfo methodInfo, final EJBComponentDescription componentDescription) {
+        final ScheduleExpression expression = new ScheduleExpression()
+                .second(getString(schedule, "second", "0"))
+                .minute(getString(schedule, "minute", "0"))
+                .hour(getString(schedule, "hour", "0"))
+                .dayOfMonth(getString(schedule, "dayOfMonth", "*"))
+                .month(getString(schedule, "month", "*"))
+                .dayOfWeek(getString(schedule, "dayOfWeek", "*"))
+                .year(getString(schedule, "year", "*"));
+        final String timezone = getString(schedule, "timezone", "");
+        if (timezone.length() > 0) {
+            expression.timezone(timezone);
+        }
+        final String info = getString(schedule, "info", "");
+        final AnnotationValue persistent = schedule.value("persistent");
+        final TimerConfig timerConfig = new TimerConfig(info.length() > 0 ? info : null, persistent == null || persistent.asBoolean());
+        componentDescription.addAutoTimer(getIdentifier(methodInfo), new AutoTimer(expression, timerConfig));
+    }
+
+    private static String getString(final AnnotationInstance annotationInstance, final String name, final String defaultValue) {
+        final AnnotationValue value = annotationInstance.value(name);
+        return value == null ? defaultValue : value.asString();
+    }
+}
@@ -165,6 +165,24 @@ public abstract class AbstractEjbXmlDescriptorProcessor<T extends EnterpriseBean
                         interceptorDescription.addPreDestroy(preDestroyInterceptor);
                     }
                 }
+
+                // pre-passivate(s) of the interceptor configured (if any) in the deployment descriptor
+                LifecycleCallbacksMetaData prePassivates = interceptor.getPrePassivates();
+                if (prePassivates != null) {
+                    for (LifecycleCallbackMetaData prePassivate : prePassivates) {
+                        MethodIdentifier methodIdentifier = MethodIdentifier.getIdentifier(Void.TYPE, prePassivate.getMethodName(), new Class<?>[]{InvocationContext.class});
+                        interceptorDescription.addPrePassivate(new InterceptorMethodDescription(interceptor.getInterceptorClass(), interceptor.getInterceptorClass(), methodIdentifier, false));
+                    }
+                }
+
+                // post-activate(s) of the interceptor configured (if any) in the deployment descriptor
+                LifecycleCallbacksMetaData postActivates = interceptor.getPostActivates();
+                if (postActivates != null) {
+                    for (LifecycleCallbackMetaData postActivate : postActivates) {
+                        MethodIdentifier methodIdentifier = MethodIdentifier.getIdentifier(Void.TYPE, postActivate.getMethodName(), new Class<?>[]{InvocationContext.class});
+                        interceptorDescription.addPostActivate(new InterceptorMethodDescription(interceptor.getInterceptorClass(), interceptor.getInterceptorClass(), methodIdentifier, false));
+                    }
+                }
             }
         }
 
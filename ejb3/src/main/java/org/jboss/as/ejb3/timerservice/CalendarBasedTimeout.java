@@ -0,0 +1,457 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import javax.ejb.ScheduleExpression;
+
+/**
+ * Computes the expirations of a calendar based timer from its {@link ScheduleExpression}, following the syntax of
+ * EJB 3.1 FR 18.2.1.
+ * <p/>
+ * The expression is parsed once. Computing the next expiration walks the calendar fields from the year down to the
+ * second, skipping whole months, days and hours that cannot match, so it never iterates second by second.
+ */
+public final class CalendarBasedTimeout {
+
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+    private static final String[] DAYS_OF_WEEK = {"sun", "mon", "tue", "wed", "thu", "fri", "sat"};
+    private static final String[] ORDINALS = {"1st", "2nd", "3rd", "4th", "5th"};
+    private static final String LAST = "last";
+    private static final String WILDCARD = "*";
+
+    /** Bounds the search for expressions which can never match, such as the 30th of February */
+    private static final int MAX_ITERATIONS = 100000;
+
+    private final ScheduleExpression expression;
+    private final BitSet seconds;
+    private final BitSet minutes;
+    private final BitSet hours;
+    /** {@link Calendar#JANUARY} based */
+    private final BitSet months;
+    /** {@link Calendar#SUNDAY} based, {@code null} for a wildcard */
+    private final BitSet daysOfWeek;
+    /** {@code null} for a wildcard */
+    private final List<DayOfMonthRange> daysOfMonth;
+    /** Inclusive ranges, {@code null} for a wildcard */
+    private final List<int[]> years;
+    private final TimeZone timeZone;
+    private final Date start;
+    private final Date end;
+
+    /**
+     * Parse a schedule expression.
+     *
+     * @param expression the expression
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public CalendarBasedTimeout(final ScheduleExpression expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("expression is null");
+        }
+        this.expression = expression;
+        seconds = parseField("second", expression.getSecond(), 0, 59, null, 0, true);
+        minutes = parseField("minute", expression.getMinute(), 0, 59, null, 0, true);
+        hours = parseField("hour", expression.getHour(), 0, 23, null, 0, true);
+        final BitSet months = parseField("month", expression.getMonth(), 1, 12, MONTHS, 1, false);
+        this.months = months.get(1, 13);
+        if (isWildcard(expression.getDayOfWeek())) {
+            daysOfWeek = null;
+        } else {
+            final BitSet days = parseField("dayOfWeek", expression.getDayOfWeek(), 0, 7, DAYS_OF_WEEK, 0, false);
+            daysOfWeek = new BitSet(8);
+            for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+                // 0 and 7 both mean Sunday
+                daysOfWeek.set(i % 7 + Calendar.SUNDAY);
+            }
+        }
+        daysOfMonth = isWildcard(expression.getDayOfMonth()) ? null : parseDaysOfMonth(expression.getDayOfMonth());
+        years = isWildcard(expression.getYear()) ? null : parseYears(expression.getYear());
+        final String timeZoneId = expression.getTimezone();
+        timeZone = timeZoneId == null || timeZoneId.trim().length() == 0 ? TimeZone.getDefault() : TimeZone.getTimeZone(timeZoneId.trim());
+        start = expression.getStart();
+        end = expression.getEnd();
+    }
+
+    public ScheduleExpression getScheduleExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns the first expiration strictly after the given time.
+     *
+     * @param after the time
+     * @return the expiration, or {@code null} if the schedule has no further expiration
+     */
+    public Date getNextTimeout(final Date after) {
+        final Calendar cal = new GregorianCalendar(timeZone);
+        cal.setTime(after);
+        cal.set(Calendar.MILLISECOND, 0);
+        cal.add(Calendar.SECOND, 1);
+        if (start != null && cal.getTime().before(start)) {
+            cal.setTime(start);
+            if (cal.get(Calendar.MILLISECOND) != 0) {
+                cal.set(Calendar.MILLISECOND, 0);
+                cal.add(Calendar.SECOND, 1);
+            }
+        }
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            final int year = cal.get(Calendar.YEAR);
+            if (years != null) {
+                final int nextYear = nextYear(year);
+                if (nextYear < 0) {
+                    return null;
+                }
+                if (nextYear != year) {
+                    set(cal, nextYear, Calendar.JANUARY, 1, 0, 0, 0);
+                    continue;
+                }
+            }
+            final int month = cal.get(Calendar.MONTH);
+            final int nextMonth = months.nextSetBit(month);
+            if (nextMonth < 0) {
+                set(cal, year + 1, Calendar.JANUARY, 1, 0, 0, 0);
+                continue;
+            }
+            if (nextMonth != month) {
+                set(cal, year, nextMonth, 1, 0, 0, 0);
+                continue;
+            }
+            final int day = cal.get(Calendar.DAY_OF_MONTH);
+            final int nextDay = getDays(cal).nextSetBit(day);
+            if (nextDay < 0) {
+                set(cal, year, month, 1, 0, 0, 0);
+                cal.add(Calendar.MONTH, 1);
+                continue;
+            }
+            if (nextDay != day) {
+                set(cal, year, month, nextDay, 0, 0, 0);
+                continue;
+            }
+            final int hour = cal.get(Calendar.HOUR_OF_DAY);
+            final int nextHour = hours.nextSetBit(hour);
+            if (nextHour < 0) {
+                set(cal, year, month, day, 0, 0, 0);
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+                continue;
+            }
+            if (nextHour != hour) {
+                set(cal, year, month, day, nextHour, 0, 0);
+                continue;
+            }
+            final int minute = cal.get(Calendar.MINUTE);
+            final int nextMinute = minutes.nextSetBit(minute);
+            if (nextMinute < 0) {
+                set(cal, year, month, day, hour, 0, 0);
+                cal.add(Calendar.HOUR_OF_DAY, 1);
+                continue;
+            }
+            if (nextMinute != minute) {
+                set(cal, year, month, day, hour, nextMinute, 0);
+                continue;
+            }
+            final int second = cal.get(Calendar.SECOND);
+            final int nextSecond = seconds.nextSetBit(second);
+            if (nextSecond < 0) {
+                set(cal, year, month, day, hour, minute, 0);
+                cal.add(Calendar.MINUTE, 1);
+                continue;
+            }
+            if (nextSecond != second) {
+                cal.set(Calendar.SECOND, nextSecond);
+                continue;
+            }
+            final Date timeout = cal.getTime();
+            return end != null && timeout.after(end) ? null : timeout;
+        }
+        return null;
+    }
+
+    private static void set(final Calendar cal, final int year, final int month, final int day, final int hour, final int minute, final int second) {
+        cal.set(year, month, day, hour, minute, second);
+        cal.set(Calendar.MILLISECOND, 0);
+    }
+
+    private int nextYear(final int year) {
+        int next = -1;
+        for (int[] range : years) {
+            if (year <= range[1]) {
+                final int candidate = Math.max(year, range[0]);
+                if (next < 0 || candidate < next) {
+                    next = candidate;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * The days of the month the calendar is in which match both the day of month and the day of week attributes. If
+     * neither is a wildcard a day matches if either does (EJB 3.1 FR 18.2.1.2).
+     */
+    private BitSet getDays(final Calendar cal) {
+        final int lastDay = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
+        final BitSet days = new BitSet(lastDay + 1);
+        if (daysOfMonth == null && daysOfWeek == null) {
+            days.set(1, lastDay + 1);
+            return days;
+        }
+        final Calendar first = (Calendar) cal.clone();
+        first.set(Calendar.DAY_OF_MONTH, 1);
+        final int firstDayOfWeek = first.get(Calendar.DAY_OF_WEEK);
+        if (daysOfMonth != null) {
+            for (DayOfMonthRange range : daysOfMonth) {
+                range.addDays(days, lastDay, firstDayOfWeek);
+            }
+        }
+        if (daysOfWeek != null) {
+            for (int day = 1; day <= lastDay; day++) {
+                if (daysOfWeek.get(dayOfWeek(firstDayOfWeek, day))) {
+                    days.set(day);
+                }
+            }
+        }
+        return days;
+    }
+
+    private static int dayOfWeek(final int firstDayOfWeek, final int day) {
+        return (firstDayOfWeek - Calendar.SUNDAY + day - 1) % 7 + Calendar.SUNDAY;
+    }
+
+    private static boolean isWildcard(final String value) {
+        return value == null || WILDCARD.equals(value.trim());
+    }
+
+    private static BitSet parseField(final String attribute, final String value, final int min, final int max, final String[] names, final int nameBase, final boolean increments) {
+        if (value == null) {
+            throw new IllegalArgumentException(attribute + " is null");
+        }
+        final BitSet result = new BitSet(max + 1);
+        for (String part : value.split(",")) {
+            part = part.trim();
+            final int slash = part.indexOf('/');
+            final int dash = part.indexOf('-');
+            if (WILDCARD.equals(part)) {
+                result.set(min, max + 1);
+            } else if (increments && slash > 0) {
+                final String from = part.substring(0, slash).trim();
+                final int first = WILDCARD.equals(from) ? min : parseValue(attribute, from, min, max, names, nameBase);
+                final int step = parseValue(attribute, part.substring(slash + 1).trim(), 1, Integer.MAX_VALUE, null, 0);
+                for (int i = first; i <= max; i += step) {
+                    result.set(i);
+                }
+            } else if (dash > 0) {
+                final int from = parseValue(attribute, part.substring(0, dash).trim(), min, max, names, nameBase);
+                final int to = parseValue(attribute, part.substring(dash + 1).trim(), min, max, names, nameBase);
+                if (from <= to) {
+                    result.set(from, to + 1);
+                } else {
+                    // a range whose start is after its end wraps around
+                    result.set(from, max + 1);
+                    result.set(min, to + 1);
+                }
+            } else {
+                result.set(parseValue(attribute, part, min, max, names, nameBase));
+            }
+        }
+        return result;
+    }
+
+    private static int parseValue(final String attribute, final String value, final int min, final int max, final String[] names, final int nameBase) {
+        if (names != null) {
+            final int index = indexOf(names, value);
+            if (index >= 0) {
+                return index + nameBase;
+            }
+        }
+        final int result;
+        try {
+            result = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' of " + attribute);
+        }
+        if (result < min || result > max) {
+            throw new IllegalArgumentException("Value " + result + " of " + attribute + " is not between " + min + " and " + max);
+        }
+        return result;
+    }
+
+    private static int indexOf(final String[] names, final String value) {
+        final String name = value.toLowerCase(Locale.ENGLISH);
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<int[]> parseYears(final String value) {
+        final List<int[]> result = new ArrayList<int[]>();
+        for (String part : value.split(",")) {
+            part = part.trim();
+            final int dash = part.indexOf('-');
+            final int from;
+            final int to;
+            if (dash > 0) {
+                from = parseValue("year", part.substring(0, dash).trim(), 1000, 9999, null, 0);
+                to = parseValue("year", part.substring(dash + 1).trim(), 1000, 9999, null, 0);
+            } else {
+                from = to = parseValue("year", part, 1000, 9999, null, 0);
+            }
+            if (from > to) {
+                throw new IllegalArgumentException("Invalid year range " + part);
+            }
+            result.add(new int[] {from, to});
+        }
+        return result;
+    }
+
+    private static List<DayOfMonthRange> parseDaysOfMonth(final String value) {
+        final List<DayOfMonthRange> result = new ArrayList<DayOfMonthRange>();
+        for (String part : value.split(",")) {
+            part = part.trim().replaceAll("\\s+", " ");
+            final DayOfMonth single = parseDayOfMonth(part);
+            if (single != null) {
+                result.add(new DayOfMonthRange(single, single));
+                continue;
+            }
+            DayOfMonthRange range = null;
+            // the start of a range may itself be negative, so try every dash
+            for (int dash = part.indexOf('-', 1); dash > 0 && range == null; dash = part.indexOf('-', dash + 1)) {
+                final DayOfMonth from = parseDayOfMonth(part.substring(0, dash).trim());
+                final DayOfMonth to = parseDayOfMonth(part.substring(dash + 1).trim());
+                if (from != null && to != null) {
+                    range = new DayOfMonthRange(from, to);
+                }
+            }
+            if (range == null) {
+                throw new IllegalArgumentException("Invalid value '" + part + "' of dayOfMonth");
+            }
+            result.add(range);
+        }
+        return result;
+    }
+
+    private static DayOfMonth parseDayOfMonth(final String value) {
+        final String lower = value.toLowerCase(Locale.ENGLISH);
+        if (LAST.equals(lower)) {
+            return new DayOfMonth(0, 0, -1);
+        }
+        final int space = lower.indexOf(' ');
+        if (space > 0) {
+            final String ordinal = lower.substring(0, space);
+            final int dayOfWeek = indexOf(DAYS_OF_WEEK, lower.substring(space + 1));
+            if (dayOfWeek < 0) {
+                return null;
+            }
+            final int n = LAST.equals(ordinal) ? -1 : indexOf(ORDINALS, ordinal) + 1;
+            return n == 0 ? null : new DayOfMonth(0, n, dayOfWeek + Calendar.SUNDAY);
+        }
+        try {
+            final int day = Integer.parseInt(lower);
+            if (day >= 1 && day <= 31) {
+                return new DayOfMonth(day, 0, 0);
+            }
+            if (day >= -7 && day <= -1) {
+                // days before the last day of the month
+                return new DayOfMonth(day, 0, -1);
+            }
+        } catch (NumberFormatException e) {
+            // not a number
+        }
+        return null;
+    }
+
+    /**
+     * A day of month value, resolved against a particular month.
+     */
+    private static final class DayOfMonth {
+        /** Day of month, or the offset from the last day if {@code dayOfWeek} is -1 */
+        private final int day;
+        /** The occurrence of the day of week, -1 for the last one */
+        private final int n;
+        private final int dayOfWeek;
+
+        DayOfMonth(final int day, final int n, final int dayOfWeek) {
+            this.day = day;
+            this.n = n;
+            this.dayOfWeek = dayOfWeek;
+        }
+
+        /**
+         * @return the day in the month, or a value out of {@code 1..lastDay} if there is no such day
+         */
+        int resolve(final int lastDay, final int firstDayOfWeek) {
+            if (dayOfWeek == -1) {
+                return lastDay + day;
+            }
+            if (n == 0) {
+                return day;
+            }
+            if (n > 0) {
+                return 1 + (dayOfWeek - firstDayOfWeek + 7) % 7 + 7 * (n - 1);
+            }
+            return lastDay - (dayOfWeek(firstDayOfWeek, lastDay) - dayOfWeek + 7) % 7;
+        }
+    }
+
+    private static final class DayOfMonthRange {
+        private final DayOfMonth from;
+        private final DayOfMonth to;
+
+        DayOfMonthRange(final DayOfMonth from, final DayOfMonth to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        void addDays(final BitSet days, final int lastDay, final int firstDayOfWeek) {
+            final int first = from.resolve(lastDay, firstDayOfWeek);
+            final int last = to.resolve(lastDay, firstDayOfWeek);
+            if (from == to) {
+                setRange(days, first, first, lastDay);
+            } else if (first <= last) {
+                setRange(days, first, last, lastDay);
+            } else {
+                setRange(days, first, lastDay, lastDay);
+                setRange(days, 1, last, lastDay);
+            }
+        }
+
+        private static void setRange(final BitSet days, final int first, final int last, final int lastDay) {
+            final int from = Math.max(1, first);
+            final int to = Math.min(lastDay, last);
+            if (from <= to) {
+                days.set(from, to + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Stores the persistent timers of one bean in a journal file.
+ * <p/>
+ * Every change appends a record to the journal, so creating, cancelling or rescheduling a timer costs one small
+ * sequential write regardless of the number of timers. The journal is replayed and compacted when the timers are
+ * loaded, and compacted again once it holds many more records than live timers. A record which was only partially
+ * written when the server stopped is discarded.
+ */
+final class FileTimerStore {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.ejb3");
+
+    private static final int PUT = 1;
+    private static final int REMOVE = 2;
+    /** The minimum number of records appended since the last compaction before the journal is compacted again */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    private final File file;
+    private final ClassLoader classLoader;
+    /** The serialized state of the live timers, keyed by timer id */
+    private final Map<String, byte[]> timers = new LinkedHashMap<String, byte[]>();
+    private DataOutputStream out;
+    private int appended;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param file the journal file, which is created when needed
+     * @param classLoader the class loader used to resolve the classes of the timer info
+     */
+    FileTimerStore(final File file, final ClassLoader classLoader) {
+        if (file == null) {
+            throw new IllegalArgumentException("file is null");
+        }
+        this.file = file;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Replay the journal and compact it.
+     *
+     * @return the stored timers, keyed by timer id
+     * @throws IOException if the journal cannot be read or written
+     */
+    synchronized Map<String, TimerEntity> load() throws IOException {
+        close();
+        timers.clear();
+        if (file.exists()) {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                for (int op = in.read(); op != -1; op = in.read()) {
+                    if (op != PUT && op != REMOVE) {
+                        log.warnf("Discarding the remainder of timer journal %s after an invalid record", file);
+                        break;
+                    }
+                    try {
+                        final String id = in.readUTF();
+                        if (op == PUT) {
+                            final byte[] state = new byte[in.readInt()];
+                            in.readFully(state);
+                            timers.put(id, state);
+                        } else {
+                            timers.remove(id);
+                        }
+                    } catch (EOFException e) {
+                        log.warnf("Discarding incomplete record at the end of timer journal %s", file);
+                        break;
+                    }
+                }
+            } finally {
+                safeClose(in);
+            }
+        }
+        compact();
+        final Map<String, TimerEntity> result = new LinkedHashMap<String, TimerEntity>();
+        for (Map.Entry<String, byte[]> entry : timers.entrySet()) {
+            try {
+                result.put(entry.getKey(), deserialize(entry.getValue()));
+            } catch (Exception e) {
+                // keep the record, the class may be available after a redeployment
+                log.errorf(e, "Cannot restore timer %s from %s", entry.getKey(), file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Store the state of a timer, replacing any previous state.
+     *
+     * @param entity the state
+     * @throws IOException if the state cannot be written
+     */
+    synchronized void put(final TimerEntity entity) throws IOException {
+        final byte[] state = serialize(entity);
+        final DataOutputStream out = getOutput();
+        out.writeByte(PUT);
+        out.writeUTF(entity.getId());
+        out.writeInt(state.length);
+        out.write(state);
+        out.flush();
+        timers.put(entity.getId(), state);
+        appended();
+    }
+
+    /**
+     * Remove the state of a timer.
+     *
+     * @param id the timer id
+     * @throws IOException if the journal cannot be written
+     */
+    synchronized void remove(final String id) throws IOException {
+        if (timers.remove(id) == null) {
+            return;
+        }
+        final DataOutputStream out = getOutput();
+        out.writeByte(REMOVE);
+        out.writeUTF(id);
+        out.flush();
+        appended();
+    }
+
+    synchronized void close() {
+        if (out != null) {
+            safeClose(out);
+            out = null;
+        }
+    }
+
+    private void appended() throws IOException {
+        if (++appended > COMPACTION_THRESHOLD && appended > 2 * timers.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrite the journal with one record per live timer.
+     */
+    private void compact() throws IOException {
+        close();
+        appended = 0;
+        if (timers.isEmpty()) {
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Cannot delete timer journal " + file);
+            }
+            return;
+        }
+        final File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            for (Map.Entry<String, byte[]> entry : timers.entrySet()) {
+                out.writeByte(PUT);
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            out.close();
+        } finally {
+            safeClose(out);
+        }
+        if (!tmp.renameTo(file)) {
+            // rename does not replace an existing file on every platform
+            if (!file.delete() || !tmp.renameTo(file)) {
+                throw new IOException("Cannot replace timer journal " + file);
+            }
+        }
+    }
+
+    private DataOutputStream getOutput() throws IOException {
+        if (out == null) {
+            final File dir = file.getParentFile();
+            if (dir != null && !dir.exists() && !dir.mkdirs() && !dir.isDirectory()) {
+                throw new IOException("Cannot create timer store directory " + dir);
+            }
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        }
+        return out;
+    }
+
+    private static byte[] serialize(final TimerEntity entity) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(entity);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private TimerEntity deserialize(final byte[] state) throws IOException, ClassNotFoundException {
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state)) {
+            @Override
+            protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                if (classLoader == null) {
+                    return super.resolveClass(desc);
+                }
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    return super.resolveClass(desc);
+                }
+            }
+        };
+        try {
+            return (TimerEntity) in.readObject();
+        } finally {
+            safeClose(in);
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.tracef(e, "Failed to close %s", closeable);
+        }
+    }
+}
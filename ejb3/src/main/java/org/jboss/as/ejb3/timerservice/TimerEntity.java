@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.io.Serializable;
+
+import javax.ejb.ScheduleExpression;
+
+/**
+ * The persistent state of a timer.
+ */
+final class TimerEntity implements Serializable {
+
+    private static final long serialVersionUID = 4076937591011735186L;
+
+    private final String id;
+    private final long initialExpiration;
+    private final long intervalDuration;
+    private final long nextExpiration;
+    private final long previousRun;
+    private final Serializable info;
+    private final ScheduleExpression schedule;
+    /** The name of the timeout method of an automatic timer, {@code null} for a programmatic timer */
+    private final String timeoutMethodName;
+    /** Whether the timeout method of an automatic timer takes the timer as parameter */
+    private final boolean timeoutMethodTakesTimer;
+
+    TimerEntity(final String id, final long initialExpiration, final long intervalDuration, final long nextExpiration, final long previousRun,
+            final Serializable info, final ScheduleExpression schedule, final String timeoutMethodName, final boolean timeoutMethodTakesTimer) {
+        this.id = id;
+        this.initialExpiration = initialExpiration;
+        this.intervalDuration = intervalDuration;
+        this.nextExpiration = nextExpiration;
+        this.previousRun = previousRun;
+        this.info = info;
+        this.schedule = schedule;
+        this.timeoutMethodName = timeoutMethodName;
+        this.timeoutMethodTakesTimer = timeoutMethodTakesTimer;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    long getInitialExpiration() {
+        return initialExpiration;
+    }
+
+    long getIntervalDuration() {
+        return intervalDuration;
+    }
+
+    long getNextExpiration() {
+        return nextExpiration;
+    }
+
+    long getPreviousRun() {
+        return previousRun;
+    }
+
+    Serializable getInfo() {
+        return info;
+    }
+
+    ScheduleExpression getSchedule() {
+        return schedule;
+    }
+
+    String getTimeoutMethodName() {
+        return timeoutMethodName;
+    }
+
+    boolean isTimeoutMethodTakesTimer() {
+        return timeoutMethodTakesTimer;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import javax.ejb.EJBException;
+import javax.ejb.NoSuchObjectLocalException;
+import javax.ejb.Timer;
+import javax.ejb.TimerHandle;
+import javax.ejb.TimerService;
+
+import org.jboss.ejb3.context.CurrentInvocationContext;
+
+/**
+ * The handle of a persistent timer. It can only be resolved by the bean which created the timer.
+ */
+final class TimerHandleImpl implements TimerHandle {
+
+    private static final long serialVersionUID = -6185698394372781734L;
+
+    private final String id;
+    private final String timedObjectId;
+
+    TimerHandleImpl(final String id, final String timedObjectId) {
+        this.id = id;
+        this.timedObjectId = timedObjectId;
+    }
+
+    @Override
+    public Timer getTimer() throws IllegalStateException, NoSuchObjectLocalException, EJBException {
+        final TimerService timerService = CurrentInvocationContext.get().getEJBContext().getTimerService();
+        if (!(timerService instanceof TimerServiceImpl) || !timedObjectId.equals(((TimerServiceImpl) timerService).getTimedObjectId())) {
+            throw new IllegalStateException("Timer " + id + " does not belong to the invoking bean");
+        }
+        final Timer timer = ((TimerServiceImpl) timerService).getTimer(id);
+        if (timer == null) {
+            throw new NoSuchObjectLocalException("Timer " + id + " does not exist");
+        }
+        return timer;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!(obj instanceof TimerHandleImpl)) {
+            return false;
+        }
+        final TimerHandleImpl other = (TimerHandleImpl) obj;
+        return id.equals(other.id) && timedObjectId.equals(other.timedObjectId);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Date;
+
+import javax.ejb.EJBException;
+import javax.ejb.NoMoreTimeoutsException;
+import javax.ejb.NoSuchObjectLocalException;
+import javax.ejb.ScheduleExpression;
+import javax.ejb.Timer;
+import javax.ejb.TimerHandle;
+
+/**
+ * A timer of a {@link TimerServiceImpl}. The mutable state is guarded by the timer itself.
+ */
+final class TimerImpl implements Timer {
+
+    private final TimerServiceImpl timerService;
+    private final String id;
+    private final long initialExpiration;
+    /** The interval of an interval timer, 0 for single action and calendar timers */
+    private final long intervalDuration;
+    private final Serializable info;
+    private final boolean persistent;
+    private final CalendarBasedTimeout calendarTimeout;
+    private final Method timeoutMethod;
+    private final boolean autoTimer;
+
+    private TimerState state = TimerState.ACTIVE;
+    /** The next expiration, 0 if there is none */
+    private long nextExpiration;
+    private long previousRun;
+    private TimerScheduler.Expiration scheduled;
+
+    TimerImpl(final TimerServiceImpl timerService, final String id, final long initialExpiration, final long intervalDuration, final Serializable info,
+            final boolean persistent, final CalendarBasedTimeout calendarTimeout, final Method timeoutMethod, final boolean autoTimer) {
+        this.timerService = timerService;
+        this.id = id;
+        this.initialExpiration = initialExpiration;
+        this.intervalDuration = intervalDuration;
+        this.info = info;
+        this.persistent = persistent;
+        this.calendarTimeout = calendarTimeout;
+        this.timeoutMethod = timeoutMethod;
+        this.autoTimer = autoTimer;
+        this.nextExpiration = initialExpiration;
+    }
+
+    @Override
+    public void cancel() throws IllegalStateException, NoSuchObjectLocalException, EJBException {
+        timerService.cancel(this);
+    }
+
+    @Override
+    public long getTimeRemaining() throws IllegalStateException, NoSuchObjectLocalException, NoMoreTimeoutsException, EJBException {
+        return Math.max(0, getNextExpiration() - System.currentTimeMillis());
+    }
+
+    @Override
+    public Date getNextTimeout() throws IllegalStateException, NoSuchObjectLocalException, NoMoreTimeoutsException, EJBException {
+        return new Date(getNextExpiration());
+    }
+
+    private synchronized long getNextExpiration() {
+        assertExists();
+        if (nextExpiration == 0) {
+            throw new NoMoreTimeoutsException("Timer " + id + " has no future timeouts");
+        }
+        return nextExpiration;
+    }
+
+    @Override
+    public ScheduleExpression getSchedule() throws IllegalStateException, NoSuchObjectLocalException, EJBException {
+        assertExists();
+        if (calendarTimeout == null) {
+            throw new IllegalStateException("Timer " + id + " is not a calendar based timer");
+        }
+        return calendarTimeout.getScheduleExpression();
+    }
+
+    @Override
+    public boolean isPersistent() throws IllegalStateException, NoSuchObjectLocalException, EJBException {
+        assertExists();
+        return persistent;
+    }
+
+    @Override
+    public boolean isCalendarTimer() throws IllegalStateException, NoSuchObjectLocalException, EJBException {
+        assertExists();
+        return calendarTimeout != null;
+    }
+
+    @Override
+    public Serializable getInfo() throws IllegalStateException, NoSuchObjectLocalException, EJBException {
+        assertExists();
+        return info;
+    }
+
+    @Override
+    public TimerHandle getHandle() throws IllegalStateException, NoSuchObjectLocalException, EJBException {
+        assertExists();
+        if (!persistent) {
+            throw new IllegalStateException("Timer " + id + " is not persistent");
+        }
+        return new TimerHandleImpl(id, timerService.getTimedObjectId());
+    }
+
+    private synchronized void assertExists() {
+        if (state == TimerState.CANCELED || state == TimerState.EXPIRED) {
+            throw new NoSuchObjectLocalException("Timer " + id + " has been " + (state == TimerState.CANCELED ? "cancelled" : "expired"));
+        }
+    }
+
+    String getId() {
+        return id;
+    }
+
+    boolean isPersistentTimer() {
+        return persistent;
+    }
+
+    CalendarBasedTimeout getCalendarTimeout() {
+        return calendarTimeout;
+    }
+
+    long getIntervalDuration() {
+        return intervalDuration;
+    }
+
+    Method getTimeoutMethod() {
+        return timeoutMethod;
+    }
+
+    boolean isAutoTimer() {
+        return autoTimer;
+    }
+
+    TimerState getState() {
+        assert Thread.holdsLock(this);
+        return state;
+    }
+
+    void setState(final TimerState state) {
+        assert Thread.holdsLock(this);
+        this.state = state;
+    }
+
+    long getNextExpirationTime() {
+        assert Thread.holdsLock(this);
+        return nextExpiration;
+    }
+
+    void setNextExpiration(final long nextExpiration) {
+        assert Thread.holdsLock(this);
+        this.nextExpiration = nextExpiration;
+    }
+
+    void setPreviousRun(final long previousRun) {
+        assert Thread.holdsLock(this);
+        this.previousRun = previousRun;
+    }
+
+    TimerScheduler.Expiration getScheduled() {
+        assert Thread.holdsLock(this);
+        return scheduled;
+    }
+
+    void setScheduled(final TimerScheduler.Expiration scheduled) {
+        assert Thread.holdsLock(this);
+        this.scheduled = scheduled;
+    }
+
+    TimerEntity toEntity() {
+        assert Thread.holdsLock(this);
+        final ScheduleExpression schedule = calendarTimeout == null ? null : calendarTimeout.getScheduleExpression();
+        return new TimerEntity(id, initialExpiration, intervalDuration, nextExpiration, previousRun, info, schedule,
+                autoTimer ? timeoutMethod.getName() : null, autoTimer && timeoutMethod.getParameterTypes().length == 1);
+    }
+
+    @Override
+    public String toString() {
+        return "Timer " + id + " of " + timerService.getTimedObjectId();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.util.Iterator;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Schedules the expirations of all timers of the server on a single thread. Pending expirations are kept in one
+ * {@link DelayQueue}; when one is due the thread hands it to the executor which runs the timeout callbacks, so
+ * the number of threads does not depend on the number of timers.
+ * <p>
+ * An expiration the executor rejects, for example because its queue is full, is scheduled again after a delay which
+ * doubles with every attempt, so it is late rather than lost. Cancelling an expiration only marks it; the scheduler
+ * thread skips it when it becomes due, and the queue is purged of cancelled expirations once they make up half of it.
+ */
+final class TimerScheduler implements Runnable {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.ejb3");
+
+    static final long MIN_RETRY_DELAY = 10L;
+    static final long MAX_RETRY_DELAY = 5000L;
+
+    /** Cancelled expirations are only purged from a queue holding at least this many */
+    private static final int PURGE_THRESHOLD = 64;
+
+    private static final int QUEUED = 0;
+    private static final int TAKEN = 1;
+    private static final int CANCELLED = 2;
+    private static final int PURGED = 3;
+
+    private final DelayQueue<Expiration> queue = new DelayQueue<Expiration>();
+    private final AtomicLong sequence = new AtomicLong();
+    /** The number of cancelled expirations still in the queue */
+    private final AtomicInteger cancelledCount = new AtomicInteger();
+    private final Executor executor;
+    private volatile Thread thread;
+
+    TimerScheduler(final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is null");
+        }
+        this.executor = executor;
+    }
+
+    void start() {
+        final Thread thread = new Thread(this, "EJB3 timer scheduler");
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    void stop() {
+        final Thread thread = this.thread;
+        this.thread = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        queue.clear();
+        cancelledCount.set(0);
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param task the task
+     * @param time the time to run the task at, in milliseconds since the epoch
+     * @return the scheduled expiration, which can be cancelled
+     */
+    Expiration schedule(final Runnable task, final long time) {
+        final Expiration expiration = new Expiration(task, time, sequence.getAndIncrement());
+        queue.add(expiration);
+        return expiration;
+    }
+
+    void cancel(final Expiration expiration) {
+        if (expiration != null && expiration.state.getAndSet(CANCELLED) == QUEUED) {
+            final int cancelled = cancelledCount.incrementAndGet();
+            if (cancelled >= PURGE_THRESHOLD && cancelled > queue.size() / 2) {
+                purge();
+            }
+        }
+    }
+
+    /**
+     * Remove the cancelled expirations from the queue.
+     */
+    void purge() {
+        final Iterator<Expiration> i = queue.iterator();
+        while (i.hasNext()) {
+            final Expiration expiration = i.next();
+            if (expiration.state.compareAndSet(CANCELLED, PURGED)) {
+                i.remove();
+                cancelledCount.decrementAndGet();
+            }
+        }
+    }
+
+    int getScheduledCount() {
+        return Math.max(0, queue.size() - cancelledCount.get());
+    }
+
+    @Override
+    public void run() {
+        while (thread == Thread.currentThread()) {
+            final Expiration expiration;
+            try {
+                expiration = queue.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (!expiration.state.compareAndSet(QUEUED, TAKEN)) {
+                if (expiration.state.compareAndSet(CANCELLED, PURGED)) {
+                    cancelledCount.decrementAndGet();
+                }
+                continue;
+            }
+            try {
+                executor.execute(expiration.task);
+            } catch (RejectedExecutionException e) {
+                retry(expiration, e);
+            }
+        }
+    }
+
+    private void retry(final Expiration expiration, final RejectedExecutionException e) {
+        final long delay = Math.min(MAX_RETRY_DELAY, MIN_RETRY_DELAY << Math.min(expiration.attempts, 20));
+        if (expiration.attempts == 0) {
+            log.warnf(e, "Timer expiration %s was rejected, retrying in %d ms", expiration.task, delay);
+        } else {
+            log.debugf("Timer expiration %s was rejected again, retrying in %d ms", expiration.task, delay);
+        }
+        expiration.attempts++;
+        expiration.time = System.currentTimeMillis() + delay;
+        // the timer may have been cancelled while the expiration was out of the queue
+        if (expiration.state.compareAndSet(TAKEN, QUEUED)) {
+            queue.add(expiration);
+        }
+    }
+
+    static final class Expiration implements Delayed {
+        private final Runnable task;
+        private final long sequence;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        /** Only changed while the expiration is not in the queue */
+        private volatile long time;
+        private int attempts;
+
+        Expiration(final Runnable task, final long time, final long sequence) {
+            this.task = task;
+            this.time = time;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(time - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed o) {
+            final Expiration other = (Expiration) o;
+            if (time != other.time) {
+                return time < other.time ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+        }
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ejb.EJBException;
+import javax.ejb.NoSuchObjectLocalException;
+import javax.ejb.ScheduleExpression;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+
+import org.jboss.logging.Logger;
+
+/**
+ * The timer service of a bean.
+ * <p/>
+ * Persistent timers are kept in a {@link FileTimerStore}. When the bean starts the store is loaded once and every
+ * timer whose expiration was missed while the server was down expires right away, once; later expirations follow
+ * the regular schedule. Expirations are scheduled by the shared {@link TimerScheduler}.
+ * <p/>
+ * Creating and cancelling timers takes effect immediately, it is not part of the transaction of the caller.
+ */
+public final class TimerServiceImpl implements TimerService {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.ejb3");
+
+    private final String timedObjectId;
+    private final TimedObjectInvoker invoker;
+    private final ClassLoader classLoader;
+    private final Method timeoutMethod;
+    private final Map<Method, List<AutoTimer>> autoTimers;
+    private final TimerScheduler scheduler;
+    private final FileTimerStore store;
+    private final ConcurrentMap<String, TimerImpl> timers = new ConcurrentHashMap<String, TimerImpl>();
+    private volatile boolean started;
+
+    TimerServiceImpl(final String timedObjectId, final TimedObjectInvoker invoker, final ClassLoader classLoader, final Method timeoutMethod,
+            final Map<Method, List<AutoTimer>> autoTimers, final TimerScheduler scheduler, final FileTimerStore store) {
+        this.timedObjectId = timedObjectId;
+        this.invoker = invoker;
+        this.classLoader = classLoader;
+        this.timeoutMethod = timeoutMethod;
+        this.autoTimers = autoTimers == null ? Collections.<Method, List<AutoTimer>>emptyMap() : autoTimers;
+        this.scheduler = scheduler;
+        this.store = store;
+    }
+
+    String getTimedObjectId() {
+        return timedObjectId;
+    }
+
+    @Override
+    public Timer createTimer(final long duration, final Serializable info) throws IllegalArgumentException, IllegalStateException, EJBException {
+        return createSingleActionTimer(duration, new TimerConfig(info, true));
+    }
+
+    @Override
+    public Timer createTimer(final long initialDuration, final long intervalDuration, final Serializable info) throws IllegalArgumentException, IllegalStateException, EJBException {
+        return createIntervalTimer(initialDuration, intervalDuration, new TimerConfig(info, true));
+    }
+
+    @Override
+    public Timer createTimer(final Date expiration, final Serializable info) throws IllegalArgumentException, IllegalStateException, EJBException {
+        return createSingleActionTimer(expiration, new TimerConfig(info, true));
+    }
+
+    @Override
+    public Timer createTimer(final Date initialExpiration, final long intervalDuration, final Serializable info) throws IllegalArgumentException, IllegalStateException, EJBException {
+        return createIntervalTimer(initialExpiration, intervalDuration, new TimerConfig(info, true));
+    }
+
+    @Override
+    public Timer createSingleActionTimer(final long duration, final TimerConfig timerConfig) throws IllegalArgumentException, IllegalStateException, EJBException {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration is negative");
+        }
+        return createTimer(System.currentTimeMillis() + duration, 0, timerConfig);
+    }
+
+    @Override
+    public Timer createSingleActionTimer(final Date expiration, final TimerConfig timerConfig) throws IllegalArgumentException, IllegalStateException, EJBException {
+        checkDate("expiration", expiration);
+        return createTimer(expiration.getTime(), 0, timerConfig);
+    }
+
+    @Override
+    public Timer createIntervalTimer(final long initialDuration, final long intervalDuration, final TimerConfig timerConfig) throws IllegalArgumentException, IllegalStateException, EJBException {
+        if (initialDuration < 0) {
+            throw new IllegalArgumentException("initialDuration is negative");
+        }
+        checkInterval(intervalDuration);
+        return createTimer(System.currentTimeMillis() + initialDuration, intervalDuration, timerConfig);
+    }
+
+    @Override
+    public Timer createIntervalTimer(final Date initialExpiration, final long intervalDuration, final TimerConfig timerConfig) throws IllegalArgumentException, IllegalStateException, EJBException {
+        checkDate("initialExpiration", initialExpiration);
+        checkInterval(intervalDuration);
+        return createTimer(initialExpiration.getTime(), intervalDuration, timerConfig);
+    }
+
+    @Override
+    public Timer createCalendarTimer(final ScheduleExpression schedule) throws IllegalArgumentException, IllegalStateException, EJBException {
+        return createCalendarTimer(schedule, null);
+    }
+
+    @Override
+    public Timer createCalendarTimer(final ScheduleExpression schedule, final TimerConfig timerConfig) throws IllegalArgumentException, IllegalStateException, EJBException {
+        if (schedule == null) {
+            throw new IllegalArgumentException("schedule is null");
+        }
+        return createCalendarTimer(schedule, timerConfig, getTimeoutMethod(), false);
+    }
+
+    @Override
+    public Collection<Timer> getTimers() throws IllegalStateException, EJBException {
+        final List<Timer> result = new ArrayList<Timer>(timers.size());
+        for (TimerImpl timer : timers.values()) {
+            synchronized (timer) {
+                if (timer.getState() == TimerState.ACTIVE || timer.getState() == TimerState.IN_TIMEOUT) {
+                    result.add(timer);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param id the timer id
+     * @return the timer, or {@code null} if it does not exist anymore
+     */
+    Timer getTimer(final String id) {
+        return timers.get(id);
+    }
+
+    /**
+     * Load the persistent timers, create the automatic timers and start scheduling. Timers which expired while the
+     * bean was stopped expire immediately.
+     */
+    public synchronized void start() {
+        Map<String, TimerEntity> entities;
+        try {
+            entities = store.load();
+        } catch (IOException e) {
+            log.errorf(e, "Failed to load the persistent timers of %s", timedObjectId);
+            entities = Collections.emptyMap();
+        }
+        final Set<String> declaredAutoTimers = new HashSet<String>();
+        for (Map.Entry<Method, List<AutoTimer>> entry : autoTimers.entrySet()) {
+            for (AutoTimer autoTimer : entry.getValue()) {
+                declaredAutoTimers.add(autoTimerKey(entry.getKey(), autoTimer.getSchedule(), autoTimer.getTimerConfig().getInfo()));
+            }
+        }
+        final Set<String> existingAutoTimers = new HashSet<String>();
+        for (TimerEntity entity : entities.values()) {
+            final TimerImpl timer = restore(entity);
+            if (timer == null) {
+                continue;
+            }
+            if (timer.isAutoTimer()) {
+                final String key = autoTimerKey(timer.getTimeoutMethod(), entity.getSchedule(), entity.getInfo());
+                if (!declaredAutoTimers.contains(key) || !existingAutoTimers.add(key)) {
+                    // the schedule was changed or removed since the timer was created
+                    removeFromStore(entity.getId());
+                    continue;
+                }
+            }
+            timers.put(timer.getId(), timer);
+        }
+        for (Map.Entry<Method, List<AutoTimer>> entry : autoTimers.entrySet()) {
+            for (AutoTimer autoTimer : entry.getValue()) {
+                final TimerConfig config = autoTimer.getTimerConfig();
+                if (config.isPersistent() && existingAutoTimers.contains(autoTimerKey(entry.getKey(), autoTimer.getSchedule(), config.getInfo()))) {
+                    continue;
+                }
+                try {
+                    createCalendarTimer(autoTimer.getSchedule(), config, entry.getKey(), true);
+                } catch (IllegalArgumentException e) {
+                    log.warnf("Not creating automatic timer for %s of %s: %s", entry.getKey().getName(), timedObjectId, e.getMessage());
+                }
+            }
+        }
+        started = true;
+        for (TimerImpl timer : timers.values()) {
+            schedule(timer);
+        }
+        if (!entities.isEmpty()) {
+            log.debugf("Restored %d persistent timers of %s", entities.size(), timedObjectId);
+        }
+    }
+
+    /**
+     * Stop scheduling. Persistent timers remain in the store, other timers are discarded.
+     */
+    public synchronized void stop() {
+        started = false;
+        for (TimerImpl timer : timers.values()) {
+            synchronized (timer) {
+                scheduler.cancel(timer.getScheduled());
+                timer.setScheduled(null);
+            }
+        }
+        timers.clear();
+        store.close();
+    }
+
+    void cancel(final TimerImpl timer) {
+        synchronized (timer) {
+            final TimerState state = timer.getState();
+            if (state == TimerState.CANCELED || state == TimerState.EXPIRED) {
+                throw new NoSuchObjectLocalException("Timer " + timer.getId() + " has already been " + (state == TimerState.CANCELED ? "cancelled" : "expired"));
+            }
+            timer.setState(TimerState.CANCELED);
+            scheduler.cancel(timer.getScheduled());
+            timer.setScheduled(null);
+            timers.remove(timer.getId(), timer);
+            if (timer.isPersistentTimer()) {
+                try {
+                    store.remove(timer.getId());
+                } catch (IOException e) {
+                    throw new EJBException("Failed to remove timer " + timer.getId() + " of " + timedObjectId, e);
+                }
+            }
+        }
+    }
+
+    private Timer createTimer(final long initialExpiration, final long intervalDuration, final TimerConfig timerConfig) {
+        final TimerConfig config = timerConfig == null ? new TimerConfig() : timerConfig;
+        final TimerImpl timer = new TimerImpl(this, UUID.randomUUID().toString(), initialExpiration, intervalDuration, config.getInfo(),
+                config.isPersistent(), null, getTimeoutMethod(), false);
+        add(timer);
+        return timer;
+    }
+
+    private Timer createCalendarTimer(final ScheduleExpression schedule, final TimerConfig timerConfig, final Method method, final boolean autoTimer) {
+        final TimerConfig config = timerConfig == null ? new TimerConfig() : timerConfig;
+        final CalendarBasedTimeout calendarTimeout = new CalendarBasedTimeout(schedule);
+        final Date first = calendarTimeout.getNextTimeout(new Date());
+        if (first == null) {
+            throw new IllegalArgumentException("Schedule " + schedule + " has no future expiration");
+        }
+        final TimerImpl timer = new TimerImpl(this, UUID.randomUUID().toString(), first.getTime(), 0, config.getInfo(), config.isPersistent(),
+                calendarTimeout, method, autoTimer);
+        add(timer);
+        return timer;
+    }
+
+    private void add(final TimerImpl timer) {
+        synchronized (timer) {
+            if (timer.isPersistentTimer()) {
+                persist(timer);
+            }
+            timers.put(timer.getId(), timer);
+            if (started) {
+                schedule(timer);
+            }
+        }
+    }
+
+    private TimerImpl restore(final TimerEntity entity) {
+        final Method method;
+        if (entity.getTimeoutMethodName() == null) {
+            method = timeoutMethod;
+        } else {
+            method = findAutoTimerMethod(entity.getTimeoutMethodName(), entity.isTimeoutMethodTakesTimer());
+        }
+        if (method == null) {
+            log.warnf("Removing timer %s of %s, the bean does not have its timeout method anymore", entity.getId(), timedObjectId);
+            removeFromStore(entity.getId());
+            return null;
+        }
+        CalendarBasedTimeout calendarTimeout = null;
+        if (entity.getSchedule() != null) {
+            try {
+                calendarTimeout = new CalendarBasedTimeout(entity.getSchedule());
+            } catch (IllegalArgumentException e) {
+                log.warnf("Removing timer %s of %s with invalid schedule: %s", entity.getId(), timedObjectId, e.getMessage());
+                removeFromStore(entity.getId());
+                return null;
+            }
+        }
+        final TimerImpl timer = new TimerImpl(this, entity.getId(), entity.getInitialExpiration(), entity.getIntervalDuration(), entity.getInfo(), true,
+                calendarTimeout, method, entity.getTimeoutMethodName() != null);
+        synchronized (timer) {
+            timer.setNextExpiration(entity.getNextExpiration());
+            timer.setPreviousRun(entity.getPreviousRun());
+        }
+        return timer;
+    }
+
+    private Method findAutoTimerMethod(final String name, final boolean takesTimer) {
+        for (Method method : autoTimers.keySet()) {
+            if (method.getName().equals(name) && (method.getParameterTypes().length == 1) == takesTimer) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private void schedule(final TimerImpl timer) {
+        synchronized (timer) {
+            if (timer.getState() != TimerState.ACTIVE || timer.getScheduled() != null || timer.getNextExpirationTime() == 0) {
+                return;
+            }
+            timer.setScheduled(scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    expire(timer);
+                }
+
+                @Override
+                public String toString() {
+                    return timer.toString();
+                }
+            }, timer.getNextExpirationTime()));
+        }
+    }
+
+    /**
+     * Run the timeout callback of an expired timer and schedule its next expiration. Runs on the executor.
+     */
+    private void expire(final TimerImpl timer) {
+        synchronized (timer) {
+            if (!started || timer.getState() != TimerState.ACTIVE) {
+                return;
+            }
+            timer.setState(TimerState.IN_TIMEOUT);
+            timer.setScheduled(null);
+        }
+        final ClassLoader previous = setContextClassLoader(classLoader);
+        try {
+            invoker.callTimeout(timer, timer.getTimeoutMethod());
+        } catch (Throwable t) {
+            // EJB 3.1 FR 18.4.3, retry a failed timeout once
+            log.warnf(t, "Timeout callback of %s failed, retrying", timer);
+            try {
+                invoker.callTimeout(timer, timer.getTimeoutMethod());
+            } catch (Throwable retry) {
+                log.errorf(retry, "Timeout callback of %s failed again", timer);
+            }
+        } finally {
+            setContextClassLoader(previous);
+        }
+        final long now = System.currentTimeMillis();
+        synchronized (timer) {
+            if (timer.getState() != TimerState.IN_TIMEOUT) {
+                // cancelled by the callback
+                return;
+            }
+            final long expiration = timer.getNextExpirationTime();
+            timer.setPreviousRun(expiration);
+            final long next = getNextExpiration(timer, expiration, now);
+            timer.setNextExpiration(next);
+            if (next == 0) {
+                timer.setState(TimerState.EXPIRED);
+                timers.remove(timer.getId(), timer);
+                if (timer.isPersistentTimer()) {
+                    removeFromStore(timer.getId());
+                }
+                return;
+            }
+            timer.setState(TimerState.ACTIVE);
+            if (timer.isPersistentTimer()) {
+                try {
+                    persist(timer);
+                } catch (EJBException e) {
+                    log.errorf(e, "Failed to persist the next expiration of %s", timer);
+                }
+            }
+            if (started) {
+                schedule(timer);
+            }
+        }
+    }
+
+    /**
+     * The expiration after the given one. Expirations missed in the meantime, for example because the server was
+     * down, are skipped; the expiration that just ran stands in for them.
+     */
+    private static long getNextExpiration(final TimerImpl timer, final long expiration, final long now) {
+        final CalendarBasedTimeout calendarTimeout = timer.getCalendarTimeout();
+        if (calendarTimeout != null) {
+            final Date next = calendarTimeout.getNextTimeout(new Date(Math.max(expiration, now)));
+            return next == null ? 0 : next.getTime();
+        }
+        final long interval = timer.getIntervalDuration();
+        if (interval <= 0) {
+            return 0;
+        }
+        long next = expiration + interval;
+        if (next <= now) {
+            next += ((now - next) / interval + 1) * interval;
+        }
+        return next;
+    }
+
+    private void persist(final TimerImpl timer) {
+        try {
+            store.put(timer.toEntity());
+        } catch (IOException e) {
+            throw new EJBException("Failed to persist timer " + timer.getId() + " of " + timedObjectId, e);
+        }
+    }
+
+    private void removeFromStore(final String id) {
+        try {
+            store.remove(id);
+        } catch (IOException e) {
+            log.errorf(e, "Failed to remove timer %s of %s", id, timedObjectId);
+        }
+    }
+
+    private Method getTimeoutMethod() {
+        if (timeoutMethod == null) {
+            throw new IllegalStateException("Bean " + timedObjectId + " does not have a timeout method");
+        }
+        return timeoutMethod;
+    }
+
+    private static void checkDate(final String name, final Date date) {
+        if (date == null) {
+            throw new IllegalArgumentException(name + " is null");
+        }
+        if (date.getTime() < 0) {
+            throw new IllegalArgumentException(name + " is negative");
+        }
+    }
+
+    private static void checkInterval(final long intervalDuration) {
+        if (intervalDuration <= 0) {
+            throw new IllegalArgumentException("intervalDuration must be positive");
+        }
+    }
+
+    /**
+     * Identifies an automatic timer by its method, schedule and info, as {@link ScheduleExpression} does not
+     * implement equals.
+     */
+    private static String autoTimerKey(final Method method, final ScheduleExpression schedule, final Serializable info) {
+        final StringBuilder b = new StringBuilder(method.getName());
+        b.append('(').append(method.getParameterTypes().length).append(')');
+        for (Object value : new Object[] {schedule.getSecond(), schedule.getMinute(), schedule.getHour(), schedule.getDayOfMonth(),
+                schedule.getMonth(), schedule.getDayOfWeek(), schedule.getYear(), schedule.getTimezone(),
+                schedule.getStart() == null ? null : schedule.getStart().getTime(), schedule.getEnd() == null ? null : schedule.getEnd().getTime(), info}) {
+            b.append('|').append(value);
+        }
+        return b.toString();
+    }
+
+    private static ClassLoader setContextClassLoader(final ClassLoader classLoader) {
+        final PrivilegedAction<ClassLoader> action = new PrivilegedAction<ClassLoader>() {
+            @Override
+            public ClassLoader run() {
+                final Thread thread = Thread.currentThread();
+                final ClassLoader previous = thread.getContextClassLoader();
+                thread.setContextClassLoader(classLoader);
+                return previous;
+            }
+        };
+        return System.getSecurityManager() == null ? action.run() : AccessController.doPrivileged(action);
+    }
+}
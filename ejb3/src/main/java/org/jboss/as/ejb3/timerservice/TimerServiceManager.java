@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Creates the timer services of the beans. All timers share one scheduler thread and run their timeout callbacks
+ * on the configured executor; persistent timers are stored in one journal file per bean below the data directory.
+ */
+public class TimerServiceManager implements Service<TimerServiceManager> {
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "timer-service");
+
+    public static final String DEFAULT_THREAD_POOL_NAME = "ejb3-timer";
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    private final InjectedValue<String> dataPath = new InjectedValue<String>();
+    private final InjectedValue<Executor> executor = new InjectedValue<Executor>();
+    private volatile TimerScheduler scheduler;
+
+    public Injector<String> getDataPathInjector() {
+        return dataPath;
+    }
+
+    public Injector<Executor> getExecutorInjector() {
+        return executor;
+    }
+
+    /**
+     * Create the timer service of a bean.
+     *
+     * @param moduleName the name of the module containing the bean
+     * @param beanName the name of the bean
+     * @param invoker the invoker of the timeout callbacks
+     * @param classLoader the class loader of the bean
+     * @param timeoutMethod the timeout method of the bean, or {@code null} if it does not have one
+     * @param autoTimers the automatic timers of the bean, keyed by timeout method
+     * @return the timer service, not yet started
+     */
+    public TimerServiceImpl createTimerService(final String moduleName, final String beanName, final TimedObjectInvoker invoker,
+            final ClassLoader classLoader, final Method timeoutMethod, final Map<Method, List<AutoTimer>> autoTimers) {
+        final TimerScheduler scheduler = this.scheduler;
+        if (scheduler == null) {
+            throw new IllegalStateException("Timer service is not started");
+        }
+        final File journal = new File(new File(dataPath.getValue(), toFileName(moduleName)), toFileName(beanName) + JOURNAL_SUFFIX);
+        return new TimerServiceImpl(moduleName + "/" + beanName, invoker, classLoader, timeoutMethod, autoTimers, scheduler,
+                new FileTimerStore(journal, classLoader));
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+        final TimerScheduler scheduler = new TimerScheduler(executor.getValue());
+        scheduler.start();
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        scheduler.stop();
+        scheduler = null;
+    }
+
+    @Override
+    public TimerServiceManager getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    private static String toFileName(final String name) {
+        return name == null ? "_" : name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
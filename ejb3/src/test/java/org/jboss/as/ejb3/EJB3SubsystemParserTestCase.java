@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.ejb3.CommonAttributes.BEAN_INSTANCE_POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_MDB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.DEFAULT_SLSB_INSTANCE_POOL;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_ACQUISITION_TIMEOUT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_ACQUISITION_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.CommonAttributes.INSTANCE_POOLS;
+import static org.jboss.as.ejb3.CommonAttributes.MAX_POOL_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.Test;
+
+/**
+ * Unit tests of the parsing and marshalling of the EJB3 subsystem configuration.
+ */
+public class EJB3SubsystemParserTestCase {
+
+    private static final String SUBSYSTEM_XML =
+            "<subsystem xmlns=\"" + EJB3Extension.NAMESPACE + "\">" +
+            "    <instance-pools default-slsb-instance-pool=\"slsb\" default-mdb-instance-pool=\"mdb\">" +
+            "        <strict-max-pool name=\"slsb\" max-pool-size=\"15\" instance-acquisition-timeout=\"5\" instance-acquisition-timeout-unit=\"MINUTES\"/>" +
+            "        <thread-local-pool name=\"mdb\"/>" +
+            "        <striped-pool name=\"striped\" max-pool-size=\"64\"/>" +
+            "    </instance-pools>" +
+            "    <bean-instance-pools>" +
+            "        <bean name=\"app/Calculator\" instance-pool=\"striped\"/>" +
+            "    </bean-instance-pools>" +
+            "</subsystem>";
+
+    private final EJB3Extension.EJB3SubsystemParser parser = new EJB3Extension.EJB3SubsystemParser();
+
+    @Test
+    public void testParseInstancePools() throws Exception {
+        final ModelNode operation = parse(SUBSYSTEM_XML);
+        assertEquals("slsb", operation.get(DEFAULT_SLSB_INSTANCE_POOL).asString());
+        assertEquals("mdb", operation.get(DEFAULT_MDB_INSTANCE_POOL).asString());
+        final ModelNode strictMax = operation.get(INSTANCE_POOLS, "strict-max-pool", "slsb");
+        assertEquals(15, strictMax.get(MAX_POOL_SIZE).asInt());
+        assertEquals(5, strictMax.get(INSTANCE_ACQUISITION_TIMEOUT).asLong());
+        assertEquals("MINUTES", strictMax.get(INSTANCE_ACQUISITION_TIMEOUT_UNIT).asString());
+        assertFalse(operation.get(INSTANCE_POOLS, "thread-local-pool", "mdb").hasDefined(MAX_POOL_SIZE));
+        assertEquals(64, operation.get(INSTANCE_POOLS, "striped-pool", "striped", MAX_POOL_SIZE).asInt());
+        assertEquals("striped", operation.get(BEAN_INSTANCE_POOLS, "app/Calculator").asString());
+        // the parsed configuration is consistent
+        Ejb3SubsystemAdd.createInstancePoolRegistry(operation);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final ModelNode operation = parse(SUBSYSTEM_XML);
+        // the writer only looks at the subsystem attributes, which the add operation carries
+        assertEquals(operation, parse(marshal(operation)));
+    }
+
+    @Test
+    public void testRoundTripOfEmptySubsystem() throws Exception {
+        final ModelNode operation = parse("<subsystem xmlns=\"" + EJB3Extension.NAMESPACE + "\"/>");
+        assertEquals(operation, parse(marshal(operation)));
+    }
+
+    private ModelNode parse(final String xml) throws XMLStreamException {
+        final XMLMapper mapper = XMLMapper.Factory.create();
+        mapper.registerRootElement(new QName(EJB3Extension.NAMESPACE, "subsystem"), parser);
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        mapper.parseDocument(operations, XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)));
+        assertEquals(1, operations.size());
+        return operations.get(0);
+    }
+
+    private String marshal(final ModelNode model) throws XMLStreamException {
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+        XMLMapper.Factory.create().deparseDocument(new XMLElementWriter<ModelNode>() {
+            @Override
+            public void writeContent(final XMLExtendedStreamWriter writer, final ModelNode value) throws XMLStreamException {
+                parser.writeContent(writer, new SubsystemMarshallingContext(value, writer));
+            }
+        }, model, streamWriter);
+        streamWriter.close();
+        return out.toString();
+    }
+}
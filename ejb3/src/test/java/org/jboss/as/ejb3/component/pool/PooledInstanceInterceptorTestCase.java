@@ -23,7 +23,6 @@ package org.jboss.as.ejb3.component.pool;
 
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstance;
-import org.jboss.ejb3.pool.Pool;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.junit.Test;
@@ -60,7 +59,7 @@ public class PooledInstanceInterceptorTestCase {
         final PooledInstanceInterceptor interceptor = PooledInstanceInterceptor.INSTANCE;
         final InterceptorContext context = new InterceptorContext();
         final PooledComponent<ComponentInstance> component = mock(PooledComponent.class);
-        final Pool<ComponentInstance> pool = mock(Pool.class);
+        final InstancePool<ComponentInstance> pool = mock(InstancePool.class);
         when(component.getPool()).thenReturn(pool);
         context.putPrivateData(Component.class, component);
         chain(interceptor, noop()).processInvocation(context);
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.EJBException;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link StrictMaxInstancePool}.
+ */
+public class StrictMaxInstancePoolTestCase {
+
+    private static StatelessObjectFactory<Object> factory() {
+        return new StatelessObjectFactory<Object>() {
+            @Override
+            public Object create() {
+                return new Object();
+            }
+
+            @Override
+            public void destroy(final Object obj) {
+            }
+        };
+    }
+
+    @Test
+    public void testReleasedInstanceIsReused() {
+        final StrictMaxInstancePool<Object> pool = new StrictMaxInstancePool<Object>(factory(), 2, 1, TimeUnit.SECONDS);
+        final Object instance = pool.get();
+        assertEquals(1, pool.getInUseCount());
+        pool.release(instance);
+        assertSame(instance, pool.get());
+        assertEquals(1, pool.getCreateCount());
+        assertEquals(2, pool.getAcquisitionCount());
+        assertEquals(1, pool.getPeakInUseCount());
+    }
+
+    @Test
+    public void testGetTimesOutWhenExhausted() {
+        final StrictMaxInstancePool<Object> pool = new StrictMaxInstancePool<Object>(factory(), 1, 10, TimeUnit.MILLISECONDS);
+        final Object instance = pool.get();
+        try {
+            pool.get();
+            fail("Expected EJBException");
+        } catch (EJBException expected) {
+        }
+        pool.discard(instance);
+        assertEquals(1, pool.getRemoveCount());
+        assertEquals(0, pool.getInUseCount());
+        pool.release(pool.get());
+        pool.stop();
+        assertEquals(2, pool.getRemoveCount());
+        assertEquals(0, pool.getAvailableCount());
+    }
+
+    @Test
+    public void testOnlyBlockedAcquisitionsAreTimed() throws Exception {
+        final StrictMaxInstancePool<Object> pool = new StrictMaxInstancePool<Object>(factory(), 1, 10, TimeUnit.SECONDS);
+        final Object instance = pool.get();
+        pool.release(instance);
+        pool.release(pool.get());
+        assertEquals(0, pool.getTotalWaitTime());
+        assertEquals(0, pool.getMaxWaitTime());
+
+        final Object held = pool.get();
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final Thread releaser = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    waiting.await();
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                pool.release(held);
+            }
+        });
+        releaser.start();
+        waiting.countDown();
+        pool.release(pool.get());
+        releaser.join();
+        assertEquals(4, pool.getAcquisitionCount());
+        assertTrue(pool.getMaxWaitTime() > 0);
+        assertEquals(pool.getMaxWaitTime(), pool.getTotalWaitTime());
+    }
+
+    @Test
+    public void testReleaseAfterStopDestroysInstance() {
+        final StrictMaxInstancePool<Object> pool = new StrictMaxInstancePool<Object>(factory(), 2, 1, TimeUnit.SECONDS);
+        final Object instance = pool.get();
+        pool.stop();
+        pool.release(instance);
+        assertEquals(1, pool.getRemoveCount());
+        assertEquals(0, pool.getAvailableCount());
+        assertEquals(0, pool.getInUseCount());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ThreadLocalInstancePool}.
+ */
+public class ThreadLocalInstancePoolTestCase {
+
+    private final Set<Object> destroyed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+
+    private StatelessObjectFactory<Object> factory() {
+        return new StatelessObjectFactory<Object>() {
+            @Override
+            public Object create() {
+                return new Object();
+            }
+
+            @Override
+            public void destroy(final Object obj) {
+                destroyed.add(obj);
+            }
+        };
+    }
+
+    @Test
+    public void testInstanceIsReusedByTheSameThread() {
+        final ThreadLocalInstancePool<Object> pool = new ThreadLocalInstancePool<Object>(factory());
+        final Object instance = pool.get();
+        final Object nested = pool.get();
+        assertNotSame(instance, nested);
+        pool.release(nested);
+        // the thread already keeps an instance, so the second one is destroyed
+        pool.release(instance);
+        assertEquals(1, destroyed.size());
+        assertSame(nested, pool.get());
+        assertEquals(2, pool.getCreateCount());
+    }
+
+    @Test
+    public void testStopDestroysTheInstancesOfAllThreads() throws Exception {
+        final ThreadLocalInstancePool<Object> pool = new ThreadLocalInstancePool<Object>(factory());
+        final Object[] others = new Object[3];
+        for (int i = 0; i < others.length; i++) {
+            final int index = i;
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    others[index] = pool.get();
+                    pool.release(others[index]);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        pool.release(pool.get());
+        assertEquals(4, pool.getAvailableCount());
+
+        pool.stop();
+        assertEquals(4, destroyed.size());
+        for (Object other : others) {
+            assertEquals(true, destroyed.contains(other));
+        }
+        assertEquals(0, pool.getAvailableCount());
+
+        // an instance released after the pool stopped is not kept either
+        final Object late = pool.get();
+        pool.release(late);
+        assertEquals(true, destroyed.contains(late));
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.NoSuchEJBException;
+
+import org.jboss.ejb3.cache.Identifiable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link PassivatingStatefulSessionCache}.
+ */
+public class PassivatingStatefulSessionCacheTestCase {
+
+    static class Bean implements Identifiable {
+        final String id;
+        final StringBuilder state;
+        /** Included in the passivated state, which cannot be stored unless it is serializable */
+        Object attachment;
+        boolean passive;
+
+        Bean(final String id, final StringBuilder state) {
+            this.id = id;
+            this.state = state;
+        }
+
+        @Override
+        public Object getId() {
+            return id;
+        }
+    }
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final List<Bean> destroyed = new ArrayList<Bean>();
+
+    private final PassivatingObjectFactory<Bean> factory = new PassivatingObjectFactory<Bean>() {
+        @Override
+        public Bean createInstance() {
+            return new Bean("bean:" + nextId.incrementAndGet(), new StringBuilder());
+        }
+
+        @Override
+        public void destroyInstance(final Bean instance) {
+            destroyed.add(instance);
+        }
+
+        @Override
+        public Object passivateInstance(final Bean instance) {
+            instance.passive = true;
+            return new Object[] {instance.id, instance.state, instance.attachment};
+        }
+
+        @Override
+        public void passivationFailed(final Bean instance) {
+            instance.passive = false;
+        }
+
+        @Override
+        public Bean activateInstance(final Object state) {
+            final Object[] values = (Object[]) state;
+            return new Bean((String) values[0], (StringBuilder) values[1]);
+        }
+    };
+
+    private File dir;
+
+    @Before
+    public void createDir() throws Exception {
+        dir = File.createTempFile("passivation", "");
+        dir.delete();
+    }
+
+    @After
+    public void deleteDir() {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedInstancesArePassivated() {
+        final PassivatingStatefulSessionCache<Bean> cache = new PassivatingStatefulSessionCache<Bean>(factory, new FilePassivationStore(dir, null), 2, 0, TimeUnit.SECONDS);
+        final Bean first = cache.get(cache.create().getId());
+        first.state.append("first");
+        cache.release(first);
+        cache.create();
+        cache.create();
+        assertEquals(2, cache.getCacheSize());
+        assertEquals(1, cache.getPassivatedCount());
+
+        final Bean activated = cache.get(first.getId());
+        assertNotSame(first, activated);
+        assertEquals("first", activated.state.toString());
+        assertEquals(1, cache.getActivationCount());
+        cache.release(activated);
+        assertEquals(2, cache.getCacheSize());
+        assertEquals(2, cache.getPassivationCount());
+    }
+
+    @Test
+    public void testIdleInstancesArePassivated() throws Exception {
+        final PassivatingStatefulSessionCache<Bean> cache = new PassivatingStatefulSessionCache<Bean>(factory, new FilePassivationStore(dir, null), 10, 1, TimeUnit.MILLISECONDS);
+        final Object idle = cache.create().getId();
+        final Bean inUse = cache.get(cache.create().getId());
+        Thread.sleep(10);
+        cache.passivateIdle();
+        assertEquals(1, cache.getPassivatedCount());
+        cache.release(inUse);
+
+        cache.discard(idle);
+        try {
+            cache.get(idle);
+            fail("Expected NoSuchEJBException");
+        } catch (NoSuchEJBException expected) {
+        }
+        cache.stop();
+        assertEquals(0, dir.listFiles().length);
+    }
+
+    @Test
+    public void testInstanceIsNotPassivatedUntilLastUseIsReleased() throws Exception {
+        final PassivatingStatefulSessionCache<Bean> cache = new PassivatingStatefulSessionCache<Bean>(factory, new FilePassivationStore(dir, null), 10, 1, TimeUnit.MILLISECONDS);
+        final Object key = cache.create().getId();
+        final Bean outer = cache.get(key);
+        final Bean nested = cache.get(key);
+        assertSame(outer, nested);
+        cache.release(nested);
+        Thread.sleep(10);
+        cache.passivateIdle();
+        assertEquals(0, cache.getPassivatedCount());
+
+        cache.release(outer);
+        Thread.sleep(10);
+        cache.passivateIdle();
+        assertEquals(1, cache.getPassivatedCount());
+
+        // an activated instance is in use by the caller which activated it
+        final Bean activated = cache.get(key);
+        Thread.sleep(10);
+        cache.passivateIdle();
+        assertEquals(0, cache.getPassivatedCount());
+        cache.release(activated);
+        cache.stop();
+    }
+
+    @Test
+    public void testInstanceIsReactivatedWhenItsStateCannotBeStored() throws Exception {
+        final PassivatingStatefulSessionCache<Bean> cache = new PassivatingStatefulSessionCache<Bean>(factory, new FilePassivationStore(dir, null), 10, 1, TimeUnit.MILLISECONDS);
+        final Bean bean = cache.create();
+        bean.attachment = new Object();
+        Thread.sleep(10);
+        cache.passivateIdle();
+        assertEquals(0, cache.getPassivatedCount());
+        assertEquals(1, cache.getPassivationFailureCount());
+        assertFalse(bean.passive);
+        assertSame(bean, cache.get(bean.getId()));
+        cache.release(bean);
+    }
+
+    @Test
+    public void testStopDestroysInstancesInMemory() throws Exception {
+        final PassivatingStatefulSessionCache<Bean> cache = new PassivatingStatefulSessionCache<Bean>(factory, new FilePassivationStore(dir, null), 1, 0, TimeUnit.SECONDS);
+        final Bean passivated = cache.create();
+        final Bean inMemory = cache.create();
+        assertEquals(1, cache.getPassivatedCount());
+        cache.stop();
+        assertEquals(1, destroyed.size());
+        assertSame(inMemory, destroyed.get(0));
+        assertFalse(destroyed.contains(passivated));
+        assertEquals(0, cache.getCacheSize());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+import javax.ejb.ScheduleExpression;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link CalendarBasedTimeout}.
+ */
+public class CalendarBasedTimeoutTestCase {
+
+    private static Date date(final String date) throws ParseException {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.parse(date);
+    }
+
+    private static CalendarBasedTimeout timeout(final ScheduleExpression expression) {
+        return new CalendarBasedTimeout(expression.timezone("UTC"));
+    }
+
+    @Test
+    public void testIncrement() throws Exception {
+        final CalendarBasedTimeout timeout = timeout(new ScheduleExpression().second("0").minute("*/15").hour("*"));
+        assertEquals(date("2011-03-01 10:15:00"), timeout.getNextTimeout(date("2011-03-01 10:07:30")));
+        assertEquals(date("2011-03-01 10:30:00"), timeout.getNextTimeout(date("2011-03-01 10:15:00")));
+        assertEquals(date("2011-03-02 00:00:00"), timeout.getNextTimeout(date("2011-03-01 23:45:00")));
+    }
+
+    @Test
+    public void testLastDayOfMonth() throws Exception {
+        final CalendarBasedTimeout timeout = timeout(new ScheduleExpression().second("0").minute("0").hour("12").dayOfMonth("Last"));
+        assertEquals(date("2011-02-28 12:00:00"), timeout.getNextTimeout(date("2011-02-10 00:00:00")));
+        assertEquals(date("2011-03-31 12:00:00"), timeout.getNextTimeout(date("2011-02-28 12:00:00")));
+    }
+
+    @Test
+    public void testNthDayOfWeek() throws Exception {
+        final CalendarBasedTimeout timeout = timeout(new ScheduleExpression().second("0").minute("0").hour("0").dayOfMonth("2nd Tue"));
+        assertEquals(date("2011-03-08 00:00:00"), timeout.getNextTimeout(date("2011-03-01 00:00:00")));
+        assertEquals(date("2011-04-12 00:00:00"), timeout.getNextTimeout(date("2011-03-08 00:00:00")));
+    }
+
+    @Test
+    public void testDayOfMonthOrDayOfWeek() throws Exception {
+        // EJB 3.1 FR 18.2.1.1.2, either of the two attributes may match
+        final CalendarBasedTimeout timeout = timeout(new ScheduleExpression().second("0").minute("0").hour("0").dayOfMonth("13").dayOfWeek("Fri"));
+        assertEquals(date("2011-01-07 00:00:00"), timeout.getNextTimeout(date("2011-01-01 00:00:00")));
+        assertEquals(date("2011-01-13 00:00:00"), timeout.getNextTimeout(date("2011-01-07 00:00:00")));
+    }
+
+    @Test
+    public void testRangeWrapsAround() throws Exception {
+        final CalendarBasedTimeout timeout = timeout(new ScheduleExpression().second("0").minute("0").hour("22-2"));
+        assertEquals(date("2011-01-01 23:00:00"), timeout.getNextTimeout(date("2011-01-01 22:00:00")));
+        assertEquals(date("2011-01-02 00:00:00"), timeout.getNextTimeout(date("2011-01-01 23:00:00")));
+        assertEquals(date("2011-01-02 22:00:00"), timeout.getNextTimeout(date("2011-01-02 02:00:00")));
+    }
+
+    @Test
+    public void testNoFurtherTimeout() throws Exception {
+        final CalendarBasedTimeout timeout = timeout(new ScheduleExpression().second("0").minute("0").hour("0").dayOfMonth("29").month("Feb").year("2011-2013"));
+        assertEquals(date("2012-02-29 00:00:00"), timeout.getNextTimeout(date("2011-01-01 00:00:00")));
+        assertNull(timeout.getNextTimeout(date("2012-02-29 00:00:00")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidExpression() {
+        timeout(new ScheduleExpression().hour("24"));
+    }
+}
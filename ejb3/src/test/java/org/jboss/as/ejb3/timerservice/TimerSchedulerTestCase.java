@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link TimerScheduler}.
+ */
+public class TimerSchedulerTestCase {
+
+    private static final Executor DIRECT = new Executor() {
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private TimerScheduler scheduler;
+
+    @After
+    public void stopScheduler() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testRejectedExpirationIsRetried() throws Exception {
+        final AtomicInteger rejections = new AtomicInteger(3);
+        scheduler = new TimerScheduler(new Executor() {
+            public void execute(final Runnable command) {
+                if (rejections.getAndDecrement() > 0) {
+                    throw new RejectedExecutionException("full");
+                }
+                command.run();
+            }
+        });
+        scheduler.start();
+        final CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(new Runnable() {
+            public void run() {
+                latch.countDown();
+            }
+        }, System.currentTimeMillis());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(-1, rejections.get());
+    }
+
+    @Test
+    public void testExpirationCancelledWhileRetryingDoesNotRun() throws Exception {
+        final CountDownLatch rejected = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger();
+        scheduler = new TimerScheduler(new Executor() {
+            public void execute(final Runnable command) {
+                rejected.countDown();
+                throw new RejectedExecutionException("full");
+            }
+        });
+        scheduler.start();
+        final TimerScheduler.Expiration expiration = scheduler.schedule(new Runnable() {
+            public void run() {
+                runs.incrementAndGet();
+            }
+        }, System.currentTimeMillis());
+        assertTrue(rejected.await(5, TimeUnit.SECONDS));
+        scheduler.cancel(expiration);
+        Thread.sleep(TimerScheduler.MIN_RETRY_DELAY * 4);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testCancelledExpirationDoesNotRun() throws Exception {
+        scheduler = new TimerScheduler(DIRECT);
+        scheduler.start();
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final TimerScheduler.Expiration cancelled = scheduler.schedule(new Runnable() {
+            public void run() {
+                runs.incrementAndGet();
+            }
+        }, System.currentTimeMillis() + 50);
+        scheduler.schedule(new Runnable() {
+            public void run() {
+                latch.countDown();
+            }
+        }, System.currentTimeMillis() + 100);
+        scheduler.cancel(cancelled);
+        assertEquals(1, scheduler.getScheduledCount());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testCancelledExpirationsArePurged() {
+        // not started, so nothing is taken from the queue
+        scheduler = new TimerScheduler(DIRECT);
+        final long later = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        final TimerScheduler.Expiration[] expirations = new TimerScheduler.Expiration[200];
+        for (int i = 0; i < expirations.length; i++) {
+            expirations[i] = scheduler.schedule(new Runnable() {
+                public void run() {
+                }
+            }, later);
+        }
+        for (int i = 0; i < 150; i++) {
+            scheduler.cancel(expirations[i]);
+            // cancelling twice is harmless
+            scheduler.cancel(expirations[i]);
+        }
+        assertEquals(50, scheduler.getScheduledCount());
+        scheduler.purge();
+        assertEquals(50, scheduler.getScheduledCount());
+        assertFalse(scheduler.getScheduledCount() < 0);
+    }
+}
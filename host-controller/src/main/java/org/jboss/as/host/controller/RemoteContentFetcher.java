@@ -0,0 +1,286 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.net.SocketFactory;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.client.ModelControllerClientProtocol;
+import org.jboss.as.controller.remote.TransactionalModelControllerOperationHandler;
+import org.jboss.as.host.controller.mgmt.ContentChunks;
+import org.jboss.as.host.controller.mgmt.ContentManifest;
+import org.jboss.as.host.controller.mgmt.GetContentChunkRequest;
+import org.jboss.as.host.controller.mgmt.GetContentManifestRequest;
+import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.ProtocolClient;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.ManagementRequest;
+import org.jboss.as.protocol.mgmt.ManagementRequestConnectionStrategy;
+import org.jboss.logging.Logger;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Fetches deployment content from the domain controller in chunks.
+ * <p>
+ * Each chunk is checked against the hash listed in the manifest sent by the domain controller before it is written to
+ * a partial file next to its final location, so a transfer which was interrupted resumes from the last complete chunk,
+ * whether the connection to the domain controller was lost or the host controller was restarted.  Chunks are fetched
+ * from the other host controllers named in the manifest where they hold the same content, falling back to the domain
+ * controller.
+ */
+abstract class RemoteContentFetcher {
+
+    /**
+     * System property which, if set to {@code false}, stops the content from being sent compressed.
+     */
+    static final String COMPRESSION_PROPERTY = "jboss.domain.content.compression";
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.domain.controller");
+
+    private static final String PART_SUFFIX = ".part";
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_DELAY = 3000;
+    private static final int PEER_CONNECTION_TIMEOUT = 5000;
+
+    private final String hostName;
+    private final boolean compress;
+
+    RemoteContentFetcher(final String hostName) {
+        this.hostName = hostName;
+        this.compress = !"false".equalsIgnoreCase(System.getProperty(COMPRESSION_PROPERTY));
+    }
+
+    /**
+     * Get the strategy used to send a request to the domain controller.  It is obtained again when a request is
+     * retried, so a connection re-established in the meantime is used.
+     *
+     * @return the connection strategy
+     */
+    protected abstract ManagementRequestConnectionStrategy getMasterConnectionStrategy();
+
+    /**
+     * Fetch the content of a deployment which is not complete in the local repository.
+     *
+     * @param hash the hash of the deployment
+     * @param root the local deployment root
+     * @return the local deployment root, which does not exist if the domain controller does not hold the deployment
+     * @throws IOException if the content cannot be fetched
+     */
+    synchronized File fetch(final byte[] hash, final File root) throws IOException {
+        final String hex = HashUtil.bytesToHexString(hash);
+        final ContentManifest manifest = executeOnMaster(new RequestFactory<ContentManifest>() {
+            public ManagementRequest<ContentManifest> create() {
+                return new GetContentManifestRequest(hostName, hex);
+            }
+        });
+        if (manifest == null) {
+            log.debugf("Deployment %s not found on the domain controller", hex);
+            return root;
+        }
+        if (manifest.getEntries().isEmpty()) {
+            if (!root.isDirectory() && !root.mkdirs()) {
+                throw new IOException("Unable to create local directory: " + root);
+            }
+            return root;
+        }
+        final List<Peer> peers = new ArrayList<Peer>();
+        ExecutorService executor = null;
+        if (!manifest.getPeers().isEmpty()) {
+            final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("RemoteContentFetcher-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+            executor = Executors.newCachedThreadPool(threadFactory);
+            for (InetSocketAddress address : manifest.getPeers()) {
+                peers.add(new Peer(address, executor, threadFactory));
+            }
+            // spread the load over the peers
+            Collections.shuffle(peers);
+        }
+        try {
+            for (ContentManifest.Entry entry : manifest.getEntries()) {
+                fetchFile(hex, root, entry, peers);
+            }
+        } finally {
+            for (Peer peer : peers) {
+                peer.close();
+            }
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        return root;
+    }
+
+    private void fetchFile(final String hash, final File root, final ContentManifest.Entry entry, final List<Peer> peers) throws IOException {
+        final File target = ContentChunks.resolve(root, entry.getPath());
+        if (target == null) {
+            throw new IOException("Invalid path " + entry.getPath() + " in deployment " + hash);
+        }
+        if (target.isFile() && target.length() == entry.getLength()) {
+            // content is never modified in place, so a file which was completed earlier is still valid
+            return;
+        }
+        final File parent = target.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create local directory " + parent);
+        }
+        final File part = new File(target.getPath() + PART_SUFFIX);
+        final byte[][] hashes = entry.getHashes();
+        final int valid = ContentChunks.countValidChunks(part, entry.getLength(), hashes);
+        if (valid > 0) {
+            log.infof("Resuming transfer of %s at chunk %d of %d", target, valid + 1, hashes.length);
+        }
+        final RandomAccessFile raf = new RandomAccessFile(part, "rw");
+        try {
+            for (int i = valid; i < hashes.length; i++) {
+                final long offset = (long) i * ContentChunks.CHUNK_SIZE;
+                final int length = ContentChunks.getChunkLength(entry.getLength(), i);
+                final byte[] chunk = fetchChunk(hash, entry.getPath(), offset, length, hashes[i], peers);
+                raf.seek(offset);
+                raf.write(chunk, 0, length);
+            }
+            raf.setLength(entry.getLength());
+        } finally {
+            StreamUtils.safeClose(raf);
+        }
+        if (target.exists() && !target.delete()) {
+            throw new IOException("Unable to replace " + target);
+        }
+        if (!part.renameTo(target)) {
+            throw new IOException("Unable to rename " + part + " to " + target);
+        }
+        log.debugf("Received file %s of length %d", target, entry.getLength());
+    }
+
+    private byte[] fetchChunk(final String hash, final String path, final long offset, final int length, final byte[] chunkHash, final List<Peer> peers) throws IOException {
+        for (Iterator<Peer> i = peers.iterator(); i.hasNext();) {
+            final Peer peer = i.next();
+            byte[] chunk = null;
+            try {
+                chunk = new GetContentChunkRequest(TransactionalModelControllerOperationHandler.HANDLER_ID, hash, path, offset, length, compress).executeForResult(peer);
+            } catch (Exception e) {
+                log.debugf(e, "Failed to fetch content from %s", peer.address);
+            }
+            if (chunk != null && chunk.length == length && ContentChunks.verify(chunk, length, chunkHash)) {
+                return chunk;
+            }
+            // the peer does not hold the content, do not ask it again
+            i.remove();
+            peer.close();
+        }
+        return executeOnMaster(new RequestFactory<byte[]>() {
+            public ManagementRequest<byte[]> create() {
+                return new GetContentChunkRequest((byte) ModelControllerClientProtocol.HANDLER_ID, hash, path, offset, length, compress) {
+                    @Override
+                    protected byte[] receiveResponse(final InputStream input) throws IOException {
+                        final byte[] chunk = super.receiveResponse(input);
+                        if (chunk == null) {
+                            throw new IOException("Content " + path + " of deployment " + hash + " not found on the domain controller");
+                        }
+                        if (chunk.length != length || !ContentChunks.verify(chunk, length, chunkHash)) {
+                            throw new IOException("Received corrupt chunk at offset " + offset + " of " + path + " of deployment " + hash);
+                        }
+                        return chunk;
+                    }
+                };
+            }
+        });
+    }
+
+    private <T> T executeOnMaster(final RequestFactory<T> factory) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return factory.create().executeForResult(getMasterConnectionStrategy());
+            } catch (Exception e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    final IOException ioe = new IOException("Failed to fetch content from the domain controller: " + e.getMessage());
+                    ioe.initCause(e);
+                    throw ioe;
+                }
+                log.debugf(e, "Failed to fetch content from the domain controller, retrying");
+            }
+            try {
+                Thread.sleep(RETRY_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    private interface RequestFactory<T> {
+        ManagementRequest<T> create();
+    }
+
+    /**
+     * Connection strategy keeping a connection to a peer open for all the chunks fetched from it.
+     */
+    private static final class Peer implements ManagementRequestConnectionStrategy {
+        private final InetSocketAddress address;
+        private final ExecutorService executor;
+        private final ThreadFactory threadFactory;
+        private Connection connection;
+
+        Peer(final InetSocketAddress address, final ExecutorService executor, final ThreadFactory threadFactory) {
+            this.address = address;
+            this.executor = executor;
+            this.threadFactory = threadFactory;
+        }
+
+        public synchronized Connection getConnection() throws IOException {
+            if (connection == null) {
+                final ProtocolClient.Configuration config = new ProtocolClient.Configuration();
+                config.setMessageHandler(MessageHandler.NULL);
+                config.setConnectTimeout(PEER_CONNECTION_TIMEOUT);
+                config.setReadExecutor(executor);
+                config.setSocketFactory(SocketFactory.getDefault());
+                config.setServerAddress(address);
+                config.setThreadFactory(threadFactory);
+                connection = new ProtocolClient(config).connect();
+            }
+            return connection;
+        }
+
+        public void complete() {
+        }
+
+        synchronized void close() {
+            StreamUtils.safeClose(connection);
+            connection = null;
+        }
+    }
+}
@@ -56,6 +56,7 @@ import org.jboss.as.domain.controller.DomainControllerSlave;
 import org.jboss.as.domain.controller.FileRepository;
 import org.jboss.as.domain.controller.MasterDomainControllerClient;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
+import org.jboss.as.host.controller.mgmt.GetContentChunkOperation;
 import org.jboss.as.host.controller.mgmt.ManagementCommunicationService;
 import org.jboss.as.protocol.ByteDataInput;
 import org.jboss.as.protocol.ByteDataOutput;
@@ -91,6 +92,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final int port;
     private final String name;
     private final RemoteFileRepository remoteFileRepository;
+    private final RemoteContentFetcher contentFetcher;
 
     private volatile Connection connection;
     /** Used to invoke ModelController ops on the master */
@@ -108,6 +110,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         this.host = host;
         this.port = port;
         this.remoteFileRepository = new RemoteFileRepository(localRepository);
+        this.contentFetcher = new RemoteContentFetcher(name) {
+            @Override
+            protected ManagementRequestConnectionStrategy getMasterConnectionStrategy() {
+                return new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection);
+            }
+        };
     }
 
     /** {@inheritDoc} */
@@ -148,17 +156,58 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
 
         try {
-            ModelNode node = new RegisterModelControllerRequest(callbackAddress, ourPort).executeForResult(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection));
-            if (reconnectInfo == null) {
-                //TODO update the domain model from the reconnected host
-                slave.setInitialDomainModel(node);
-            }
+            synchronizeDomainModel(slave, new MasterRegistration() {
+                @Override
+                public ModelNode register(final ModelNode revision) throws Exception {
+                    return new RegisterModelControllerRequest(callbackAddress, ourPort, revision).executeForResult(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection));
+                }
+
+                @Override
+                public void unregister() throws Exception {
+                    log.infof("Requesting the full domain model from remote domain controller %s:%d", host.getHostAddress(), port);
+                    new UnregisterModelControllerRequest().executeForResult(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection));
+                }
+            });
         } catch (Exception e) {
             log.warnf("Error retrieving domain model from remote domain controller %s:%d: %s", host.getHostAddress(), port, e.getMessage());
             throw new IllegalStateException(e);
         }
     }
 
+    /**
+     * Register with the master and apply the domain model update it sends.  If replaying the operations the slave
+     * missed fails, register again without a revision to be sent the full model.
+     *
+     * @param slave the slave domain controller
+     * @param registration the requests used to register with the master
+     * @throws Exception if a request to the master fails
+     */
+    static void synchronizeDomainModel(final DomainControllerSlave slave, final MasterRegistration registration) throws Exception {
+        ModelNode update = registration.register(slave.getDomainModelRevision());
+        if (!slave.applyDomainModelUpdate(update)) {
+            registration.unregister();
+            update = registration.register(new ModelNode());
+            slave.applyDomainModelUpdate(update);
+        }
+    }
+
+    /** The requests a slave sends to register with the master */
+    interface MasterRegistration {
+
+        /**
+         * Register with the master.
+         *
+         * @param revision the revision of the domain model the slave is synchronized with, or an undefined node
+         * @return the domain model update sent by the master
+         */
+        ModelNode register(ModelNode revision) throws Exception;
+
+        /**
+         * Unregister from the master.
+         */
+        void unregister() throws Exception;
+    }
+
     private InetAddress getCallbackAddress(InetAddress ourAddress, InetAddress master) {
         InetAddress callbackAddress = ourAddress;
         if (ourAddress.isAnyLocalAddress()) {
@@ -282,10 +331,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
         private final InetAddress localManagementAddress;
         private final int localManagementPort;
+        private final ModelNode revision;
 
-        RegisterModelControllerRequest(final InetAddress localManagementAddress, final int localManagementPort) {
+        RegisterModelControllerRequest(final InetAddress localManagementAddress, final int localManagementPort, final ModelNode revision) {
             this.localManagementAddress = localManagementAddress;
             this.localManagementPort = localManagementPort;
+            this.revision = revision;
         }
 
         @Override
@@ -312,6 +363,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 output.write(address);
                 output.writeByte(DomainControllerProtocol.PARAM_HOST_CONTROLLER_PORT);
                 output.writeInt(localManagementPort);
+                output.writeByte(DomainControllerProtocol.PARAM_MODEL_REVISION);
+                revision.writeExternal(output);
                 output.close();
             } finally {
                 StreamUtils.safeClose(output);
@@ -321,13 +374,14 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         /** {@inheritDoc} */
         @Override
         protected ModelNode receiveResponse(InputStream input) throws IOException {
-            expectHeader(input, DomainControllerProtocol.PARAM_MODEL);
+            expectHeader(input, DomainControllerProtocol.PARAM_MODEL_UPDATE);
             ModelNode node = new ModelNode();
             node.readExternal(input);
 
             if (node.hasDefined("protocol-error")){
                 log.error(node.get("protocol-error").asString());
                 log.error("Exiting");
+                throw new IOException(node.get("protocol-error").asString());
             }
             return node;
         }
@@ -491,14 +545,19 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
         @Override
         public final File[] getDeploymentFiles(byte[] deploymentHash) {
-            String hex = deploymentHash == null ? "" : HashUtil.bytesToHexString(deploymentHash);
-            return getFile(hex, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT).listFiles();
+            return getDeploymentRoot(deploymentHash).listFiles();
         }
 
         @Override
         public File getDeploymentRoot(byte[] deploymentHash) {
-            String hex = deploymentHash == null ? "" : HashUtil.bytesToHexString(deploymentHash);
-            return getFile(hex, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            if (deploymentHash == null || deploymentHash.length == 0) {
+                return getFile("", DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            }
+            try {
+                return contentFetcher.fetch(deploymentHash, localFileRepository.getDeploymentRoot(deploymentHash));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to get file from remote repository", e);
+            }
         }
 
         private File getFile(final String relativePath, final byte repoId) {
@@ -522,6 +581,10 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
             if (commandByte == DomainControllerProtocol.IS_ACTIVE_REQUEST) {
                 return new IsActiveOperation();
             }
+            else if (commandByte == DomainControllerProtocol.GET_CONTENT_CHUNK_REQUEST) {
+                // serve deployment content this host already holds to other hosts
+                return new GetContentChunkOperation(remoteFileRepository.localFileRepository, MessageHandler.NULL);
+            }
             else {
                 return super.operationFor(commandByte);
             }
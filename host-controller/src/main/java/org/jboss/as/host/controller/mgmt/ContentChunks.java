@@ -0,0 +1,369 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.jboss.as.protocol.StreamUtils;
+
+/**
+ * Utilities for transferring deployment content between host controllers in fixed size chunks.
+ * <p>
+ * Every chunk of a file is identified by its SHA-1 hash, which the receiver checks before it writes the chunk, so a
+ * transfer can be resumed from the last complete chunk and chunks can be fetched from any host that holds the same
+ * content.  Chunks are sent with {@link FileChannel#transferTo(long, long, WritableByteChannel)}, or deflated if the
+ * receiver accepts compression and deflating actually reduces the size of the file's chunks.
+ */
+public final class ContentChunks {
+
+    /** The size of a chunk; the last chunk of a file may be shorter */
+    public static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final int HASH_CACHE_SIZE = 64;
+
+    /** Compressed chunks at least this fraction of the original size are sent uncompressed instead */
+    private static final double MAX_COMPRESSION_RATIO = 0.9;
+
+    private static final byte UNCOMPRESSED = 0;
+    private static final byte COMPRESSED = 1;
+
+    private static final Map<String, FileInfo> fileInfos = new LinkedHashMap<String, FileInfo>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, FileInfo> eldest) {
+            return size() > HASH_CACHE_SIZE;
+        }
+    };
+
+    private ContentChunks() {
+    }
+
+    /**
+     * Get the number of chunks of a file.
+     *
+     * @param length the length of the file
+     * @return the number of chunks
+     */
+    public static int getChunkCount(final long length) {
+        return (int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    /**
+     * Get the length of a chunk of a file.
+     *
+     * @param length the length of the file
+     * @param chunk the index of the chunk
+     * @return the length of the chunk
+     */
+    public static int getChunkLength(final long length, final int chunk) {
+        return (int) Math.min(CHUNK_SIZE, length - (long) chunk * CHUNK_SIZE);
+    }
+
+    /**
+     * Get the hashes of the chunks of a file.  The hashes are cached for as long as the file is not modified.
+     *
+     * @param file the file
+     * @return the SHA-1 hash of each chunk
+     * @throws IOException if the file cannot be read
+     */
+    public static byte[][] getChunkHashes(final File file) throws IOException {
+        final FileInfo info = getFileInfo(file);
+        byte[][] hashes = info.hashes;
+        if (hashes == null) {
+            final long length = info.length;
+            hashes = new byte[getChunkCount(length)][];
+            final RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                final FileChannel channel = raf.getChannel();
+                final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+                final MessageDigest digest = createDigest();
+                for (int i = 0; i < hashes.length; i++) {
+                    readFully(channel, buffer, (long) i * CHUNK_SIZE, getChunkLength(length, i));
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    hashes[i] = digest.digest();
+                }
+            } finally {
+                StreamUtils.safeClose(raf);
+            }
+            info.hashes = hashes;
+        }
+        return hashes;
+    }
+
+    /**
+     * Write a chunk of a file, or an indication that it is not available if the file does not hold the range.
+     *
+     * @param file the file, or {@code null} if it does not exist
+     * @param offset the offset of the chunk
+     * @param length the length of the chunk
+     * @param compress whether the receiver accepts a compressed chunk
+     * @param outputStream the stream to write to
+     * @throws IOException if the chunk cannot be written
+     */
+    public static void writeChunk(final File file, final long offset, final int length, final boolean compress, final OutputStream outputStream) throws IOException {
+        final DataOutputStream output = new DataOutputStream(outputStream);
+        if (file == null || !file.isFile() || offset < 0 || length <= 0 || length > CHUNK_SIZE || offset + length > file.length()) {
+            output.writeByte(DomainControllerProtocol.PARAM_LENGTH);
+            output.writeInt(-1);
+            output.flush();
+            return;
+        }
+        final FileInfo info = getFileInfo(file);
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            if (compress && info.compressible != Boolean.FALSE) {
+                final ByteBuffer buffer = ByteBuffer.allocate(length);
+                readFully(channel, buffer, offset, length);
+                final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                final byte[] compressed = new byte[length];
+                final int compressedLength;
+                try {
+                    deflater.setInput(buffer.array(), 0, length);
+                    deflater.finish();
+                    compressedLength = deflater.deflate(compressed);
+                    info.compressible = Boolean.valueOf(deflater.finished() && compressedLength < length * MAX_COMPRESSION_RATIO);
+                } finally {
+                    deflater.end();
+                }
+                if (info.compressible == Boolean.TRUE) {
+                    output.writeByte(DomainControllerProtocol.PARAM_COMPRESSION);
+                    output.writeByte(COMPRESSED);
+                    output.writeByte(DomainControllerProtocol.PARAM_LENGTH);
+                    output.writeInt(compressedLength);
+                    output.write(compressed, 0, compressedLength);
+                } else {
+                    output.writeByte(DomainControllerProtocol.PARAM_COMPRESSION);
+                    output.writeByte(UNCOMPRESSED);
+                    output.writeByte(DomainControllerProtocol.PARAM_LENGTH);
+                    output.writeInt(length);
+                    output.write(buffer.array(), 0, length);
+                }
+                output.flush();
+                return;
+            }
+            output.writeByte(DomainControllerProtocol.PARAM_COMPRESSION);
+            output.writeByte(UNCOMPRESSED);
+            output.writeByte(DomainControllerProtocol.PARAM_LENGTH);
+            output.writeInt(length);
+            output.flush();
+            final WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = offset;
+            final long end = offset + length;
+            while (position < end) {
+                final long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("Unexpected end of file " + file);
+                }
+                position += transferred;
+            }
+        } finally {
+            StreamUtils.safeClose(raf);
+        }
+    }
+
+    /**
+     * Read a chunk written by {@link #writeChunk(File, long, int, boolean, OutputStream)}.
+     *
+     * @param inputStream the stream to read from
+     * @param length the expected length of the chunk
+     * @return the content of the chunk, or {@code null} if the sender does not hold it
+     * @throws IOException if the chunk cannot be read
+     */
+    public static byte[] readChunk(final InputStream inputStream, final int length) throws IOException {
+        final DataInput input = new DataInputStream(inputStream);
+        byte header = input.readByte();
+        boolean compressed = false;
+        if (header == DomainControllerProtocol.PARAM_COMPRESSION) {
+            compressed = input.readByte() == COMPRESSED;
+            header = input.readByte();
+        }
+        if (header != DomainControllerProtocol.PARAM_LENGTH) {
+            throw new IOException("Invalid byte token.  Expecting '" + DomainControllerProtocol.PARAM_LENGTH + "' received '" + header + "'");
+        }
+        final int received = input.readInt();
+        if (received < 0) {
+            return null;
+        }
+        if (received > CHUNK_SIZE) {
+            throw new IOException("Chunk too large: " + received);
+        }
+        final byte[] data = new byte[received];
+        input.readFully(data);
+        if (!compressed) {
+            return data;
+        }
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            final byte[] chunk = new byte[length];
+            final int inflated = inflater.inflate(chunk);
+            if (inflated != length || !inflater.finished()) {
+                throw new IOException("Compressed chunk does not have the expected length " + length);
+            }
+            return chunk;
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed chunk: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Check a chunk against its expected hash.
+     *
+     * @param chunk the content of the chunk
+     * @param length the length of the content
+     * @param hash the expected SHA-1 hash
+     * @return {@code true} if the chunk matches
+     */
+    public static boolean verify(final byte[] chunk, final int length, final byte[] hash) {
+        final MessageDigest digest = createDigest();
+        digest.update(chunk, 0, length);
+        return Arrays.equals(digest.digest(), hash);
+    }
+
+    /**
+     * Resolve a path relative to a content root, refusing paths which lead outside of it.
+     *
+     * @param root the content root
+     * @param relativePath the relative path
+     * @return the file, or {@code null} if the path leads outside of the root
+     * @throws IOException if the path cannot be resolved
+     */
+    public static File resolve(final File root, final String relativePath) throws IOException {
+        final File file = new File(root, relativePath);
+        final String rootPath = root.getCanonicalPath();
+        final String path = file.getCanonicalPath();
+        return path.startsWith(rootPath + File.separator) ? file : null;
+    }
+
+    /**
+     * Count the chunks at the start of a partially transferred file which are complete and valid.
+     *
+     * @param file the partial file
+     * @param length the length of the complete file
+     * @param hashes the hashes of the chunks of the complete file
+     * @return the number of valid chunks
+     * @throws IOException if the file cannot be read
+     */
+    public static int countValidChunks(final File file, final long length, final byte[][] hashes) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        final InputStream input = new FileInputStream(file);
+        try {
+            final long available = file.length();
+            final byte[] buffer = new byte[CHUNK_SIZE];
+            int chunk = 0;
+            while (chunk < hashes.length) {
+                final int chunkLength = getChunkLength(length, chunk);
+                if ((long) chunk * CHUNK_SIZE + chunkLength > available) {
+                    break;
+                }
+                int read = 0;
+                while (read < chunkLength) {
+                    final int count = input.read(buffer, read, chunkLength - read);
+                    if (count == -1) {
+                        return chunk;
+                    }
+                    read += count;
+                }
+                if (!verify(buffer, chunkLength, hashes[chunk])) {
+                    break;
+                }
+                chunk++;
+            }
+            return chunk;
+        } finally {
+            StreamUtils.safeClose(input);
+        }
+    }
+
+    private static FileInfo getFileInfo(final File file) throws IOException {
+        final String key = file.getCanonicalPath();
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        synchronized (fileInfos) {
+            FileInfo info = fileInfos.get(key);
+            if (info == null || info.length != length || info.lastModified != lastModified) {
+                info = new FileInfo(length, lastModified);
+                fileInfos.put(key, info);
+            }
+            return info;
+        }
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long offset, final int length) throws IOException {
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) == -1) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+    }
+
+    private static final class FileInfo {
+        final long length;
+        final long lastModified;
+        volatile byte[][] hashes;
+        /** Whether deflating the file's chunks is worth it, or {@code null} if not known yet */
+        volatile Boolean compressible;
+
+        FileInfo(final long length, final long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+}
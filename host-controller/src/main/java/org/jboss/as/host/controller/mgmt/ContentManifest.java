@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Description of the content of a deployment held by the domain controller: the files it consists of with the hashes
+ * of their chunks, and the other host controllers which may hold the same content.
+ */
+public final class ContentManifest {
+
+    private final List<Entry> entries;
+    private final List<InetSocketAddress> peers;
+
+    public ContentManifest(final List<Entry> entries, final List<InetSocketAddress> peers) {
+        if (entries == null) {
+            throw new IllegalArgumentException("entries is null");
+        }
+        if (peers == null) {
+            throw new IllegalArgumentException("peers is null");
+        }
+        this.entries = Collections.unmodifiableList(entries);
+        this.peers = Collections.unmodifiableList(peers);
+    }
+
+    /**
+     * Get the files of the deployment.
+     *
+     * @return the files
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get the management addresses of host controllers which may hold the content.
+     *
+     * @return the addresses
+     */
+    public List<InetSocketAddress> getPeers() {
+        return peers;
+    }
+
+    /**
+     * Write a manifest.
+     *
+     * @param manifest the manifest, or {@code null} if the content does not exist
+     * @param output the output
+     * @throws IOException if the manifest cannot be written
+     */
+    public static void write(final ContentManifest manifest, final DataOutput output) throws IOException {
+        output.writeByte(DomainControllerProtocol.PARAM_NUM_FILES);
+        if (manifest == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(manifest.entries.size());
+        for (Entry entry : manifest.entries) {
+            output.writeByte(DomainControllerProtocol.FILE_START);
+            output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+            output.writeUTF(entry.path);
+            output.writeByte(DomainControllerProtocol.PARAM_FILE_SIZE);
+            output.writeLong(entry.length);
+            output.writeByte(DomainControllerProtocol.PARAM_CHUNK_HASHES);
+            output.writeInt(entry.hashes.length);
+            for (byte[] hash : entry.hashes) {
+                output.writeInt(hash.length);
+                output.write(hash);
+            }
+            output.writeByte(DomainControllerProtocol.FILE_END);
+        }
+        output.writeByte(DomainControllerProtocol.PARAM_NUM_PEERS);
+        output.writeInt(manifest.peers.size());
+        for (InetSocketAddress peer : manifest.peers) {
+            output.writeByte(DomainControllerProtocol.PARAM_PEER);
+            final byte[] address = peer.getAddress().getAddress();
+            output.writeInt(address.length);
+            output.write(address);
+            output.writeInt(peer.getPort());
+        }
+    }
+
+    /**
+     * Read a manifest written by {@link #write(ContentManifest, DataOutput)}.
+     *
+     * @param input the input
+     * @return the manifest, or {@code null} if the content does not exist
+     * @throws IOException if the manifest cannot be read
+     */
+    public static ContentManifest read(final DataInput input) throws IOException {
+        expectHeader(input, DomainControllerProtocol.PARAM_NUM_FILES);
+        final int numFiles = input.readInt();
+        if (numFiles < 0) {
+            return null;
+        }
+        final List<Entry> entries = new ArrayList<Entry>(numFiles);
+        for (int i = 0; i < numFiles; i++) {
+            expectHeader(input, DomainControllerProtocol.FILE_START);
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+            final String path = input.readUTF();
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_SIZE);
+            final long length = input.readLong();
+            expectHeader(input, DomainControllerProtocol.PARAM_CHUNK_HASHES);
+            final byte[][] hashes = new byte[input.readInt()][];
+            if (hashes.length != ContentChunks.getChunkCount(length)) {
+                throw new IOException("Invalid number of chunks " + hashes.length + " for a file of length " + length);
+            }
+            for (int j = 0; j < hashes.length; j++) {
+                hashes[j] = new byte[input.readInt()];
+                input.readFully(hashes[j]);
+            }
+            expectHeader(input, DomainControllerProtocol.FILE_END);
+            entries.add(new Entry(path, length, hashes));
+        }
+        expectHeader(input, DomainControllerProtocol.PARAM_NUM_PEERS);
+        final int numPeers = input.readInt();
+        final List<InetSocketAddress> peers = new ArrayList<InetSocketAddress>(numPeers);
+        for (int i = 0; i < numPeers; i++) {
+            expectHeader(input, DomainControllerProtocol.PARAM_PEER);
+            final byte[] address = new byte[input.readInt()];
+            input.readFully(address);
+            peers.add(new InetSocketAddress(InetAddress.getByAddress(address), input.readInt()));
+        }
+        return new ContentManifest(entries, peers);
+    }
+
+    /**
+     * A file of a deployment.
+     */
+    public static final class Entry {
+        private final String path;
+        private final long length;
+        private final byte[][] hashes;
+
+        public Entry(final String path, final long length, final byte[][] hashes) {
+            this.path = path;
+            this.length = length;
+            this.hashes = hashes;
+        }
+
+        /**
+         * Get the path of the file relative to the deployment root.
+         *
+         * @return the path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Get the length of the file.
+         *
+         * @return the length
+         */
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * Get the SHA-1 hashes of the chunks of the file.
+         *
+         * @return the hashes
+         */
+        public byte[][] getHashes() {
+            return hashes;
+        }
+    }
+}
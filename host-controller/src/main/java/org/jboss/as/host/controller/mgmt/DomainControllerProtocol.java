@@ -37,6 +37,10 @@ public interface DomainControllerProtocol extends ModelControllerClientProtocol{
     byte GET_FILE_RESPONSE = 0x56;
     byte IS_ACTIVE_REQUEST = 0x57;
     byte IS_ACTIVE_RESPONSE = 0x58;
+    byte GET_CONTENT_MANIFEST_REQUEST = 0x59;
+    byte GET_CONTENT_MANIFEST_RESPONSE = 0x5A;
+    byte GET_CONTENT_CHUNK_REQUEST = 0x5B;
+    byte GET_CONTENT_CHUNK_RESPONSE = 0x5C;
 
     byte PARAM_HOST_ID = 0x20;
     byte PARAM_HOST_CONTROLLER_HOST = 0x21;
@@ -51,4 +55,12 @@ public interface DomainControllerProtocol extends ModelControllerClientProtocol{
     byte FILE_START = 0x30;
     byte PARAM_FILE_SIZE = 0x31;
     byte FILE_END = 0x32;
+    byte PARAM_CHUNK_HASHES = 0x33;
+    byte PARAM_OFFSET = 0x34;
+    byte PARAM_LENGTH = 0x35;
+    byte PARAM_COMPRESSION = 0x36;
+    byte PARAM_NUM_PEERS = 0x37;
+    byte PARAM_PEER = 0x38;
+    byte PARAM_MODEL_REVISION = 0x39;
+    byte PARAM_MODEL_UPDATE = 0x3A;
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.domain.controller.FileRepository;
+import org.jboss.as.protocol.ByteDataInput;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.SimpleByteDataInput;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.ManagementResponse;
+
+/**
+ * Sends a chunk of a file of deployment content held in a {@link FileRepository}.  Used by the domain controller,
+ * and by host controllers serving content they already hold to other host controllers.
+ */
+public class GetContentChunkOperation extends ManagementResponse {
+
+    private final FileRepository repository;
+    private File file;
+    private long offset;
+    private int length;
+    private boolean compress;
+
+    public GetContentChunkOperation(final FileRepository repository, final MessageHandler finalMessageHandler) {
+        super(finalMessageHandler);
+        if (repository == null) {
+            throw new IllegalArgumentException("repository is null");
+        }
+        this.repository = repository;
+    }
+
+    @Override
+    protected final byte getResponseCode() {
+        return DomainControllerProtocol.GET_CONTENT_CHUNK_RESPONSE;
+    }
+
+    @Override
+    protected void readRequest(final InputStream inputStream) throws IOException {
+        ByteDataInput input = null;
+        try {
+            input = new SimpleByteDataInput(inputStream);
+            expectHeader(input, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            final String hash = input.readUTF();
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+            final String path = input.readUTF();
+            expectHeader(input, DomainControllerProtocol.PARAM_OFFSET);
+            offset = input.readLong();
+            expectHeader(input, DomainControllerProtocol.PARAM_LENGTH);
+            length = input.readInt();
+            expectHeader(input, DomainControllerProtocol.PARAM_COMPRESSION);
+            compress = input.readBoolean();
+            input.close();
+            final File root = repository.getDeploymentRoot(HashUtil.hexStringToByteArray(hash));
+            file = root == null ? null : ContentChunks.resolve(root, path);
+        } finally {
+            StreamUtils.safeClose(input);
+        }
+    }
+
+    @Override
+    protected void sendResponse(final OutputStream outputStream) throws IOException {
+        ContentChunks.writeChunk(file, offset, length, compress, outputStream);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.jboss.as.protocol.ByteDataOutput;
+import org.jboss.as.protocol.SimpleByteDataOutput;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.ManagementRequest;
+
+/**
+ * Requests a chunk of a file of deployment content.  The result is the content of the chunk, or {@code null} if the
+ * host does not hold it.
+ */
+public class GetContentChunkRequest extends ManagementRequest<byte[]> {
+
+    private final byte handlerId;
+    private final String hash;
+    private final String path;
+    private final long offset;
+    private final int length;
+    private final boolean compress;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param handlerId the id of the handler serving content on the target host
+     * @param hash the hash of the deployment, in hex
+     * @param path the path of the file relative to the deployment root
+     * @param offset the offset of the chunk
+     * @param length the length of the chunk
+     * @param compress whether to accept a compressed chunk
+     */
+    public GetContentChunkRequest(final byte handlerId, final String hash, final String path, final long offset, final int length, final boolean compress) {
+        this.handlerId = handlerId;
+        this.hash = hash;
+        this.path = path;
+        this.offset = offset;
+        this.length = length;
+        this.compress = compress;
+    }
+
+    @Override
+    protected byte getHandlerId() {
+        return handlerId;
+    }
+
+    @Override
+    protected byte getRequestCode() {
+        return DomainControllerProtocol.GET_CONTENT_CHUNK_REQUEST;
+    }
+
+    @Override
+    protected byte getResponseCode() {
+        return DomainControllerProtocol.GET_CONTENT_CHUNK_RESPONSE;
+    }
+
+    @Override
+    protected void sendRequest(final int protocolVersion, final OutputStream outputStream) throws IOException {
+        ByteDataOutput output = null;
+        try {
+            output = new SimpleByteDataOutput(outputStream);
+            output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            output.writeUTF(hash);
+            output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+            output.writeUTF(path);
+            output.writeByte(DomainControllerProtocol.PARAM_OFFSET);
+            output.writeLong(offset);
+            output.writeByte(DomainControllerProtocol.PARAM_LENGTH);
+            output.writeInt(length);
+            output.writeByte(DomainControllerProtocol.PARAM_COMPRESSION);
+            output.writeBoolean(compress);
+            output.close();
+        } finally {
+            StreamUtils.safeClose(output);
+        }
+    }
+
+    @Override
+    protected byte[] receiveResponse(final InputStream input) throws IOException {
+        return ContentChunks.readChunk(input, length);
+    }
+}
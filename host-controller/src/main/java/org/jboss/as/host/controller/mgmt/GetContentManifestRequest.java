@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.jboss.as.controller.client.ModelControllerClientProtocol;
+import org.jboss.as.protocol.ByteDataInput;
+import org.jboss.as.protocol.ByteDataOutput;
+import org.jboss.as.protocol.SimpleByteDataInput;
+import org.jboss.as.protocol.SimpleByteDataOutput;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.ManagementRequest;
+
+/**
+ * Requests the {@link ContentManifest} of a deployment from the domain controller.  The result is {@code null} if the
+ * domain controller does not hold the deployment.
+ */
+public class GetContentManifestRequest extends ManagementRequest<ContentManifest> {
+
+    private final String hostId;
+    private final String hash;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param hostId the name of the requesting host, which is left out of the peers
+     * @param hash the hash of the deployment, in hex
+     */
+    public GetContentManifestRequest(final String hostId, final String hash) {
+        this.hostId = hostId;
+        this.hash = hash;
+    }
+
+    @Override
+    protected byte getHandlerId() {
+        return ModelControllerClientProtocol.HANDLER_ID;
+    }
+
+    @Override
+    protected byte getRequestCode() {
+        return DomainControllerProtocol.GET_CONTENT_MANIFEST_REQUEST;
+    }
+
+    @Override
+    protected byte getResponseCode() {
+        return DomainControllerProtocol.GET_CONTENT_MANIFEST_RESPONSE;
+    }
+
+    @Override
+    protected void sendRequest(final int protocolVersion, final OutputStream outputStream) throws IOException {
+        ByteDataOutput output = null;
+        try {
+            output = new SimpleByteDataOutput(outputStream);
+            output.writeByte(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(hostId);
+            output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+            output.writeUTF(hash);
+            output.close();
+        } finally {
+            StreamUtils.safeClose(output);
+        }
+    }
+
+    @Override
+    protected ContentManifest receiveResponse(final InputStream inputStream) throws IOException {
+        ByteDataInput input = null;
+        try {
+            input = new SimpleByteDataInput(inputStream);
+            final ContentManifest manifest = ContentManifest.read(input);
+            input.close();
+            return manifest;
+        } finally {
+            StreamUtils.safeClose(input);
+        }
+    }
+}
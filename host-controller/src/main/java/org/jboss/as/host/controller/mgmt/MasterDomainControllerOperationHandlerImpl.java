@@ -30,8 +30,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.remote.ModelControllerOperationHandlerImpl;
@@ -56,6 +59,9 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
 
     private static final Logger log = Logger.getLogger("org.jboss.as.host.controller");
 
+    /** The management addresses of the registered host controllers, which can serve deployment content to each other */
+    private final Map<String, InetSocketAddress> hostAddresses = new ConcurrentHashMap<String, InetSocketAddress>();
+
     public MasterDomainControllerOperationHandlerImpl(DomainController modelController, MessageHandler initiatingHandler) {
         super(modelController, initiatingHandler);
     }
@@ -74,6 +80,10 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
             return new UnregisterOperation();
         case DomainControllerProtocol.GET_FILE_REQUEST:
             return new GetFileOperation();
+        case DomainControllerProtocol.GET_CONTENT_MANIFEST_REQUEST:
+            return new GetContentManifestOperation();
+        case DomainControllerProtocol.GET_CONTENT_CHUNK_REQUEST:
+            return new GetContentChunkOperation(getController().getFileRepository(), getInitiatingHandler());
         default:
             return super.operationFor(commandByte);
         }
@@ -98,6 +108,7 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
 //        Connection connection;
         InetAddress slaveAddress;
         int slavePort;
+        ModelNode revision;
 
         @Override
         protected final byte getResponseCode() {
@@ -124,6 +135,9 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
                 expectHeader(input, DomainControllerProtocol.PARAM_HOST_CONTROLLER_PORT);
                 slavePort = input.readInt();
                 slaveAddress = InetAddress.getByAddress(addressBytes);
+                expectHeader(input, DomainControllerProtocol.PARAM_MODEL_REVISION);
+                revision = new ModelNode();
+                revision.readExternal(input);
                 input.close();
             } finally {
                 StreamUtils.safeClose(input);
@@ -137,14 +151,14 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
 
             ModelNode node;
             try {
-                getController().addClient(new RemoteDomainControllerSlaveClient(hostId, slaveAddress, slavePort));
-                node = getController().getDomainModel();
+                node = getController().addClient(new RemoteDomainControllerSlaveClient(hostId, slaveAddress, slavePort), revision);
+                hostAddresses.put(hostId, new InetSocketAddress(slaveAddress, slavePort));
             } catch (IllegalArgumentException e){
                 log.error(e);
                 node = new ModelNode();
                 node.get("protocol-error").set(e.getMessage());
             }
-            outputStream.write(DomainControllerProtocol.PARAM_MODEL);
+            outputStream.write(DomainControllerProtocol.PARAM_MODEL_UPDATE);
             node.writeExternal(outputStream);
         }
     }
@@ -157,6 +171,7 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
 
         @Override
         protected void sendResponse(final OutputStream outputStream) throws IOException {
+            hostAddresses.remove(hostId);
             getController().removeClient(hostId);
         }
     }
@@ -274,4 +289,64 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
             output.writeByte(DomainControllerProtocol.FILE_END);
         }
     }
+
+    private class GetContentManifestOperation extends RegistryOperation {
+        private File root;
+
+        @Override
+        protected final byte getResponseCode() {
+            return DomainControllerProtocol.GET_CONTENT_MANIFEST_RESPONSE;
+        }
+
+        @Override
+        protected void readRequest(final InputStream inputStream) throws IOException {
+            ByteDataInput input = null;
+            try {
+                input = new SimpleByteDataInput(inputStream);
+                expectHeader(input, DomainControllerProtocol.PARAM_HOST_ID);
+                hostId = input.readUTF();
+                expectHeader(input, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+                final byte[] hash = HashUtil.hexStringToByteArray(input.readUTF());
+                input.close();
+                root = getController().getFileRepository().getDeploymentRoot(hash);
+            } finally {
+                StreamUtils.safeClose(input);
+            }
+        }
+
+        @Override
+        protected void sendResponse(final OutputStream outputStream) throws IOException {
+            ContentManifest manifest = null;
+            if (root != null && root.isDirectory()) {
+                final List<ContentManifest.Entry> entries = new ArrayList<ContentManifest.Entry>();
+                addEntries(root, "", entries);
+                final List<InetSocketAddress> peers = new ArrayList<InetSocketAddress>();
+                for (Map.Entry<String, InetSocketAddress> entry : hostAddresses.entrySet()) {
+                    if (!entry.getKey().equals(hostId)) {
+                        peers.add(entry.getValue());
+                    }
+                }
+                manifest = new ContentManifest(entries, peers);
+            }
+            ByteDataOutput output = null;
+            try {
+                output = new SimpleByteDataOutput(outputStream);
+                ContentManifest.write(manifest, output);
+                output.close();
+            } finally {
+                StreamUtils.safeClose(output);
+            }
+        }
+
+        private void addEntries(final File dir, final String prefix, final List<ContentManifest.Entry> entries) throws IOException {
+            for (File child : dir.listFiles()) {
+                final String path = prefix + child.getName();
+                if (child.isFile()) {
+                    entries.add(new ContentManifest.Entry(path, child.length(), ContentChunks.getChunkHashes(child)));
+                } else {
+                    addEntries(child, path + "/", entries);
+                }
+            }
+        }
+    }
 }
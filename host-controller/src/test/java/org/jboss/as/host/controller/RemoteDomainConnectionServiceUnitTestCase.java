@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.jboss.as.domain.controller.DomainControllerSlave;
+import org.jboss.as.domain.controller.DomainModelJournal;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of the domain model synchronization of {@link RemoteDomainConnectionService}.
+ */
+public class RemoteDomainConnectionServiceUnitTestCase {
+
+    @Test
+    public void testIncrementalUpdate() throws Exception {
+        final TestSlave slave = new TestSlave(revision(3), true);
+        final TestRegistration registration = new TestRegistration(operationsUpdate(5));
+
+        RemoteDomainConnectionService.synchronizeDomainModel(slave.proxy(), registration);
+
+        assertEquals(1, registration.revisions.size());
+        assertEquals(3, registration.revisions.get(0).get(DomainModelJournal.REVISION).asLong());
+        assertEquals(0, registration.unregistered);
+        assertEquals(1, slave.applied.size());
+        assertEquals(5, slave.applied.get(0).get(DomainModelJournal.REVISION).asLong());
+    }
+
+    @Test
+    public void testRegisterAgainAfterReplayFailure() throws Exception {
+        final TestSlave slave = new TestSlave(revision(3), false, true);
+        final TestRegistration registration = new TestRegistration(operationsUpdate(5), modelUpdate(5));
+
+        RemoteDomainConnectionService.synchronizeDomainModel(slave.proxy(), registration);
+
+        assertEquals(2, registration.revisions.size());
+        assertEquals(3, registration.revisions.get(0).get(DomainModelJournal.REVISION).asLong());
+        // the second registration asks for the full model
+        assertFalse(registration.revisions.get(1).isDefined());
+        assertEquals(1, registration.unregistered);
+        assertEquals(2, slave.applied.size());
+        assertFalse(slave.applied.get(0).hasDefined(DomainModelJournal.MODEL));
+        assertTrue(slave.applied.get(1).hasDefined(DomainModelJournal.MODEL));
+    }
+
+    private static ModelNode revision(final long revision) {
+        final ModelNode node = new ModelNode();
+        node.get(DomainModelJournal.ID).set("master");
+        node.get(DomainModelJournal.REVISION).set(revision);
+        return node;
+    }
+
+    private static ModelNode operationsUpdate(final long revision) {
+        final ModelNode update = revision(revision);
+        update.get(DomainModelJournal.OPERATIONS).setEmptyList();
+        return update;
+    }
+
+    private static ModelNode modelUpdate(final long revision) {
+        final ModelNode update = revision(revision);
+        update.get(DomainModelJournal.MODEL).get("profile").setEmptyObject();
+        return update;
+    }
+
+    private static class TestRegistration implements RemoteDomainConnectionService.MasterRegistration {
+
+        private final LinkedList<ModelNode> updates = new LinkedList<ModelNode>();
+        private final List<ModelNode> revisions = new ArrayList<ModelNode>();
+        private int unregistered;
+
+        TestRegistration(final ModelNode... updates) {
+            for (ModelNode update : updates) {
+                this.updates.add(update);
+            }
+        }
+
+        @Override
+        public ModelNode register(final ModelNode revision) {
+            revisions.add(revision);
+            return updates.removeFirst();
+        }
+
+        @Override
+        public void unregister() {
+            unregistered++;
+        }
+    }
+
+    /** Implements the parts of {@link DomainControllerSlave} used when registering */
+    private static class TestSlave implements InvocationHandler {
+
+        private final ModelNode revision;
+        private final LinkedList<Boolean> results = new LinkedList<Boolean>();
+        private final List<ModelNode> applied = new ArrayList<ModelNode>();
+
+        TestSlave(final ModelNode revision, final Boolean... results) {
+            this.revision = revision;
+            for (Boolean result : results) {
+                this.results.add(result);
+            }
+        }
+
+        DomainControllerSlave proxy() {
+            return (DomainControllerSlave) Proxy.newProxyInstance(DomainControllerSlave.class.getClassLoader(),
+                    new Class<?>[] { DomainControllerSlave.class }, this);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            if ("getDomainModelRevision".equals(method.getName())) {
+                return revision;
+            }
+            if ("applyDomainModelUpdate".equals(method.getName())) {
+                applied.add((ModelNode) args[0]);
+                return results.removeFirst();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ContentChunks}.
+ */
+public class ContentChunksUnitTestCase {
+
+    private File file;
+    private File part;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("content", ".bin");
+        part = File.createTempFile("content", ".part");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        part.delete();
+    }
+
+    @Test
+    public void testCompressibleChunks() throws IOException {
+        final byte[] data = new byte[ContentChunks.CHUNK_SIZE * 2 + 1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + i % 7);
+        }
+        testTransfer(data);
+    }
+
+    @Test
+    public void testIncompressibleChunks() throws IOException {
+        final byte[] data = new byte[ContentChunks.CHUNK_SIZE * 2 + 1000];
+        new Random(1).nextBytes(data);
+        testTransfer(data);
+    }
+
+    @Test
+    public void testMissingRange() throws IOException {
+        write(new byte[100]);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ContentChunks.writeChunk(file, 50, 100, true, output);
+        assertNull(ContentChunks.readChunk(new ByteArrayInputStream(output.toByteArray()), 100));
+    }
+
+    @Test
+    public void testResolveOutsideRoot() throws IOException {
+        final File root = file.getParentFile();
+        assertNull(ContentChunks.resolve(root, "../" + root.getName() + "x/file"));
+        assertEquals(new File(root, "a/b").getCanonicalPath(), ContentChunks.resolve(root, "a/b").getCanonicalPath());
+    }
+
+    private void testTransfer(final byte[] data) throws IOException {
+        write(data);
+        final byte[][] hashes = ContentChunks.getChunkHashes(file);
+        assertEquals(3, hashes.length);
+
+        final RandomAccessFile raf = new RandomAccessFile(part, "rw");
+        try {
+            for (int i = 0; i < hashes.length; i++) {
+                final long offset = (long) i * ContentChunks.CHUNK_SIZE;
+                final int length = ContentChunks.getChunkLength(data.length, i);
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                ContentChunks.writeChunk(file, offset, length, true, output);
+                final byte[] chunk = ContentChunks.readChunk(new ByteArrayInputStream(output.toByteArray()), length);
+                assertEquals(length, chunk.length);
+                assertTrue(ContentChunks.verify(chunk, length, hashes[i]));
+                // leave the last chunk out, as if the transfer had been interrupted
+                if (i < hashes.length - 1) {
+                    raf.seek(offset);
+                    raf.write(chunk);
+                }
+            }
+            // a partially written chunk is not counted
+            raf.write(data, 2 * ContentChunks.CHUNK_SIZE, 10);
+        } finally {
+            raf.close();
+        }
+        assertEquals(2, ContentChunks.countValidChunks(part, data.length, hashes));
+
+        part.delete();
+        assertEquals(0, ContentChunks.countValidChunks(part, data.length, hashes));
+        assertArrayEquals(hashes[0], ContentChunks.getChunkHashes(file)[0]);
+    }
+
+    private void write(final byte[] data) throws IOException {
+        final FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.write(data);
+        } finally {
+            output.close();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.jboss.jandex.AnnotationInstance;
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
+import org.jboss.logging.Logger;
 import org.jboss.vfs.VFS;
 import org.jboss.vfs.VirtualFile;
 
@@ -50,6 +51,10 @@ import java.util.Set;
  */
 public class HibernateAnnotationScanner implements Scanner {
 
+    private static final Logger log = Logger.getLogger("org.jboss.jpa");
+
+    private static final String PACKAGE_INFO = ".package-info";
+
     private static ThreadLocal<PersistenceUnitMetadata> persistenceUnitMetadataTLS = new ThreadLocal() {
         protected Object initialValue() {
             return null;
@@ -68,44 +73,53 @@ public class HibernateAnnotationScanner implements Scanner {
     @Override
     public Set<Package> getPackagesInJar(URL jartoScan, Set<Class<? extends Annotation>> annotationsToLookFor) {
 
-        Set<Class<?>> resultClasses = new HashSet<Class<?>>();
-
         if (annotationsToLookFor.size() > 0) {  // Hibernate doesn't pass any annotations currently
-            resultClasses = getClassesInJar(jartoScan, annotationsToLookFor);
-        } else {
-            PersistenceUnitMetadata pu = persistenceUnitMetadataTLS.get();
-            if (pu == null) {
-                throw new RuntimeException("Missing PersistenceUnitMetadata (thread local wasn't set)");
-            }
-            Index index = pu.getAnnotationIndex();
-            if (index == null) {
-                throw new RuntimeException("Missing annotation index to scan entity classes");
-            }
-            if (jartoScan == null) {
-                throw new IllegalArgumentException("Null jar to scan url");
-            }
-            Collection<ClassInfo> allClasses = index.getKnownClasses();
-            for (ClassInfo classInfo : allClasses) {
-                String className = classInfo.name().toString();
-                try {
-                    resultClasses.add(pu.getClassLoader().loadClass(className));
-                    // TODO:  fix temp classloader (get CFNE on entity class)
-                    //result.add(pu.getNewTempClassLoader().loadClass(className));
-                } catch (ClassNotFoundException e) {
-                    throw new RuntimeException("could not load entity class '" +
-                        className + "' with PersistenceUnitInfo.getNewTempClassLoader()", e);
+            Map<String, Package> uniquePackages = new HashMap<String, Package>();
+            for (Class<?> classWithAnnotation : getClassesInJar(jartoScan, annotationsToLookFor)) {
+                Package classPackage = classWithAnnotation.getPackage();
+                if (classPackage != null) {
+                    uniquePackages.put(classPackage.getName(), classPackage);
                 }
             }
+            return new HashSet<Package>(uniquePackages.values());
         }
 
-        Map<String, Package> uniquePackages = new HashMap<String, Package>();
-        for (Class classWithAnnotation : resultClasses) {
-            Package classPackage = classWithAnnotation.getPackage();
-            if (classPackage != null) {
-                uniquePackages.put(classPackage.getName(), classPackage);
+        PersistenceUnitMetadata pu = persistenceUnitMetadataTLS.get();
+        if (pu == null) {
+            throw new RuntimeException("Missing PersistenceUnitMetadata (thread local wasn't set)");
+        }
+        Index index = pu.getAnnotationIndex();
+        if (index == null) {
+            throw new RuntimeException("Missing annotation index to scan entity classes");
+        }
+        if (jartoScan == null) {
+            throw new IllegalArgumentException("Null jar to scan url");
+        }
+
+        // Hibernate only reads the package level annotations, which live on package-info.  The index already tells
+        // us which packages have one, so only those classes are loaded instead of every class in the jar.
+        Set<Package> result = new HashSet<Package>();
+        Collection<ClassInfo> allClasses = index.getKnownClasses();
+        for (ClassInfo classInfo : allClasses) {
+            String className = classInfo.name().toString();
+            if (!className.endsWith(PACKAGE_INFO)) {
+                continue;
             }
+            try {
+                Package classPackage = pu.getClassLoader().loadClass(className).getPackage();
+                if (classPackage != null) {
+                    result.add(classPackage);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("could not load package class '" +
+                    className + "' with PersistenceUnitInfo.getClassLoader()", e);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debugf("Found %d annotated packages among %d indexed classes of %s", result.size(), allClasses.size(),
+                pu.getScopedPersistenceUnitName());
         }
-        return new HashSet<Package>(uniquePackages.values());
+        return result;
     }
 
     @Override
@@ -128,23 +142,30 @@ public class HibernateAnnotationScanner implements Scanner {
             throw new IllegalArgumentException("Zero annotations to look for");
         }
 
-        Set<Class<?>> result = new HashSet<Class<?>>();
-
+        // resolve the names from the index first, so each class is loaded once however many annotations it carries
+        Set<String> classNames = new HashSet<String>();
         for (Class<? extends Annotation> annClass : annotationsToLookFor) {
             DotName annotation = DotName.createSimple(annClass.getName());
             List<AnnotationInstance> classesWithAnnotation = index.getAnnotations(annotation);
             for (AnnotationInstance annotationInstance : classesWithAnnotation) {
-                String className = annotationInstance.target().toString();
-                try {
-                    result.add(pu.getClassLoader().loadClass(className));
-                    // TODO:  fix temp classloader (get CFNE on entity class)
-                    //result.add(pu.getNewTempClassLoader().loadClass(className));
-                } catch (ClassNotFoundException e) {
-                    throw new RuntimeException("could not load entity class '" +
-                        className + "' with PersistenceUnitInfo.getNewTempClassLoader()", e);
+                // only class level annotations identify entities, mapped superclasses and embeddables
+                if (annotationInstance.target() instanceof ClassInfo) {
+                    classNames.add(((ClassInfo) annotationInstance.target()).name().toString());
                 }
             }
         }
+
+        Set<Class<?>> result = new HashSet<Class<?>>();
+        for (String className : classNames) {
+            try {
+                result.add(pu.getClassLoader().loadClass(className));
+                // TODO:  fix temp classloader (get CFNE on entity class)
+                //result.add(pu.getNewTempClassLoader().loadClass(className));
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("could not load entity class '" +
+                    className + "' with PersistenceUnitInfo.getNewTempClassLoader()", e);
+            }
+        }
         return result;
     }
 
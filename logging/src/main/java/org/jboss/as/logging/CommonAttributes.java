@@ -49,6 +49,7 @@ interface CommonAttributes {
     String LEVEL ="level";
     String LEVEL_RANGE ="level-range";
     String LOGGER ="logger";
+    String MAPPED_FILE_HANDLER ="mapped-file-handler";
     String MATCH ="match";
     String MAX_BACKUP_INDEX ="max-backup-index";
     String MAX_INCLUSIVE ="max-inclusive";
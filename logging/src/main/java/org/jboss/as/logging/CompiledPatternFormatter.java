@@ -0,0 +1,289 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jboss.logmanager.ExtFormatter;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.formatters.FormatStep;
+import org.jboss.logmanager.formatters.FormatStringParser;
+
+/**
+ * A formatter which renders the same output as the LogManager's {@code PatternFormatter}, with the pattern compiled
+ * once into a sequence of steps.
+ * <p>
+ * Literal text, {@code %n}, {@code %%} and the conversions used by the default server patterns ({@code %d} with a date
+ * format, {@code %p}, {@code %c}, {@code %t} and {@code %s}, optionally with a minimum width) are rendered by
+ * specialized steps; a formatted date is cached per thread and reused for records logged in the same millisecond.
+ * Any other conversion, or one with a maximum width, is rendered by the LogManager's own step for it.  Records are
+ * rendered into a buffer reused by the current thread, so the only allocation for most records is the resulting
+ * string.
+ */
+public final class CompiledPatternFormatter extends ExtFormatter {
+
+    // the same syntax as the LogManager's FormatStringParser
+    private static final Pattern PATTERN = Pattern.compile("([^%]++)|(?:%(?:(-)?(\\d+))?(?:\\.(\\d+))?(.)(?:\\{([^}]*)\\})?)");
+
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    /** Buffers larger than this are not kept for the next record */
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+
+    private static final ThreadLocal<Buffer> buffer = new ThreadLocal<Buffer>() {
+        @Override
+        protected Buffer initialValue() {
+            return new Buffer();
+        }
+    };
+
+    private final String pattern;
+    private final Step[] steps;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param pattern the pattern
+     * @throws IllegalArgumentException if the pattern is not valid
+     */
+    public CompiledPatternFormatter(final String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("pattern is null");
+        }
+        this.pattern = pattern;
+        this.steps = compile(pattern);
+    }
+
+    /**
+     * Get the pattern of this formatter.
+     *
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String format(final ExtLogRecord record) {
+        final Buffer buffer = CompiledPatternFormatter.buffer.get();
+        // a step may cause a record to be logged on this thread, which must not use the same builder
+        final StringBuilder builder = buffer.inUse ? new StringBuilder() : buffer.builder;
+        buffer.inUse = true;
+        try {
+            for (Step step : steps) {
+                step.render(builder, record);
+            }
+            return builder.toString();
+        } finally {
+            if (builder == buffer.builder) {
+                if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+                    buffer.builder = new StringBuilder(256);
+                } else {
+                    builder.setLength(0);
+                }
+                buffer.inUse = false;
+            }
+        }
+    }
+
+    private static Step[] compile(final String pattern) {
+        final List<Step> steps = new ArrayList<Step>();
+        final Matcher matcher = PATTERN.matcher(pattern);
+        int position = 0;
+        while (matcher.find()) {
+            if (matcher.start() != position) {
+                throw new IllegalArgumentException("Invalid format string: " + pattern);
+            }
+            position = matcher.end();
+            final String literal = matcher.group(1);
+            if (literal != null) {
+                steps.add(new LiteralStep(literal));
+                continue;
+            }
+            final boolean leftJustify = matcher.group(2) != null;
+            final int minimumWidth = matcher.group(3) == null ? 0 : Integer.parseInt(matcher.group(3));
+            final boolean truncated = matcher.group(4) != null;
+            final char conversion = matcher.group(5).charAt(0);
+            final String argument = matcher.group(6);
+            Step step = truncated ? null : createStep(conversion, argument);
+            if (step == null) {
+                for (FormatStep formatStep : FormatStringParser.getSteps(matcher.group())) {
+                    steps.add(new DelegatingStep(formatStep));
+                }
+                continue;
+            }
+            if (minimumWidth > 0) {
+                step = new PaddingStep(step, leftJustify, minimumWidth);
+            }
+            steps.add(step);
+        }
+        if (position != pattern.length()) {
+            throw new IllegalArgumentException("Invalid format string: " + pattern);
+        }
+        return steps.toArray(new Step[steps.size()]);
+    }
+
+    private static Step createStep(final char conversion, final String argument) {
+        if (conversion == 'd') {
+            return argument == null || argument.length() == 0 ? null : new DateStep(argument);
+        }
+        if (argument != null) {
+            return null;
+        }
+        switch (conversion) {
+            case 'c': return CATEGORY;
+            case 'n': return new LiteralStep(LINE_SEPARATOR);
+            case 'p': return LEVEL;
+            case 's': return MESSAGE;
+            case 't': return THREAD;
+            case '%': return new LiteralStep("%");
+            default: return null;
+        }
+    }
+
+    private static final class Buffer {
+        StringBuilder builder = new StringBuilder(256);
+        boolean inUse;
+    }
+
+    private abstract static class Step {
+        abstract void render(StringBuilder builder, ExtLogRecord record);
+    }
+
+    private static final Step CATEGORY = new Step() {
+        void render(final StringBuilder builder, final ExtLogRecord record) {
+            builder.append(record.getLoggerName());
+        }
+    };
+
+    private static final Step LEVEL = new Step() {
+        void render(final StringBuilder builder, final ExtLogRecord record) {
+            builder.append(record.getLevel().getName());
+        }
+    };
+
+    private static final Step MESSAGE = new Step() {
+        void render(final StringBuilder builder, final ExtLogRecord record) {
+            builder.append(record.getFormattedMessage());
+        }
+    };
+
+    private static final Step THREAD = new Step() {
+        void render(final StringBuilder builder, final ExtLogRecord record) {
+            builder.append(record.getThreadName());
+        }
+    };
+
+    private static final class LiteralStep extends Step {
+        private final String text;
+
+        LiteralStep(final String text) {
+            this.text = text;
+        }
+
+        void render(final StringBuilder builder, final ExtLogRecord record) {
+            builder.append(text);
+        }
+    }
+
+    private static final class DateStep extends Step {
+        private final ThreadLocal<DateCache> cache;
+
+        DateStep(final String format) {
+            // fail on an invalid format now rather than for each record
+            new SimpleDateFormat(format);
+            cache = new ThreadLocal<DateCache>() {
+                @Override
+                protected DateCache initialValue() {
+                    return new DateCache(new SimpleDateFormat(format));
+                }
+            };
+        }
+
+        void render(final StringBuilder builder, final ExtLogRecord record) {
+            final DateCache cache = this.cache.get();
+            final long millis = record.getMillis();
+            if (cache.formatted == null || cache.date.getTime() != millis) {
+                cache.date.setTime(millis);
+                cache.formatted = cache.format.format(cache.date);
+            }
+            builder.append(cache.formatted);
+        }
+    }
+
+    private static final class DateCache {
+        final SimpleDateFormat format;
+        final Date date = new Date();
+        String formatted;
+
+        DateCache(final SimpleDateFormat format) {
+            this.format = format;
+        }
+    }
+
+    private static final class PaddingStep extends Step {
+        private static final char[] SPACES = "                                ".toCharArray();
+
+        private final Step step;
+        private final boolean leftJustify;
+        private final int minimumWidth;
+
+        PaddingStep(final Step step, final boolean leftJustify, final int minimumWidth) {
+            this.step = step;
+            this.leftJustify = leftJustify;
+            this.minimumWidth = minimumWidth;
+        }
+
+        void render(final StringBuilder builder, final ExtLogRecord record) {
+            final int start = builder.length();
+            step.render(builder, record);
+            int spaces = minimumWidth - (builder.length() - start);
+            while (spaces > 0) {
+                final int count = Math.min(spaces, SPACES.length);
+                if (leftJustify) {
+                    builder.append(SPACES, 0, count);
+                } else {
+                    builder.insert(start, SPACES, 0, count);
+                }
+                spaces -= count;
+            }
+        }
+    }
+
+    private static final class DelegatingStep extends Step {
+        private final FormatStep step;
+
+        DelegatingStep(final FormatStep step) {
+            this.step = step;
+        }
+
+        void render(final StringBuilder builder, final ExtLogRecord record) {
+            step.render(builder, record);
+        }
+    }
+}
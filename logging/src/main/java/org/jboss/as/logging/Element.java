@@ -50,6 +50,7 @@ public enum Element {
     LEVEL(CommonAttributes.LEVEL),
     LEVEL_RANGE(CommonAttributes.LEVEL_RANGE),
     LOGGER(CommonAttributes.LOGGER),
+    MAPPED_FILE_HANDLER(CommonAttributes.MAPPED_FILE_HANDLER),
     MATCH(CommonAttributes.MATCH),
     MAX_BACKUP_INDEX(CommonAttributes.MAX_BACKUP_INDEX),
     NOT(CommonAttributes.NOT),
@@ -51,6 +51,8 @@ class LoggerHandlerAdd implements ModelAddOperationHandler {
                 return ConsoleHandlerAdd.INSTANCE.execute(context, operation, resultHandler);
             } case FILE_HANDLER: {
                 return FileHandlerAdd.INSTANCE.execute(context, operation, resultHandler);
+            } case MAPPED_FILE_HANDLER: {
+                return MappedFileHandlerAdd.INSTANCE.execute(context, operation, resultHandler);
             }case PERIODIC_ROTATING_FILE_HANDLER: {
                 return PeriodicRotatingFileHandlerAdd.INSTANCE.execute(context, operation, resultHandler);
             }case SIZE_ROTATING_FILE_HANDLER: {
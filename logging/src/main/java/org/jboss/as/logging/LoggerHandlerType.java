@@ -36,6 +36,7 @@ enum LoggerHandlerType {
     CONSOLE_HANDLER(CommonAttributes.CONSOLE_HANDLER),
     FILE_HANDLER(CommonAttributes.FILE_HANDLER),
     HANDLER(CommonAttributes.HANDLER),
+    MAPPED_FILE_HANDLER(CommonAttributes.MAPPED_FILE_HANDLER),
     PERIODIC_ROTATING_FILE_HANDLER(CommonAttributes.PERIODIC_ROTATING_FILE_HANDLER),
     SIZE_ROTATING_FILE_HANDLER(CommonAttributes.SIZE_ROTATING_FILE_HANDLER),
     ;
@@ -22,6 +22,7 @@ import org.jboss.as.controller.BasicOperationResult;
 import org.jboss.as.controller.OperationResult;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.logging.CommonAttributes.APPEND;
 import static org.jboss.as.logging.CommonAttributes.AUTOFLUSH;
 import static org.jboss.as.logging.CommonAttributes.ENCODING;
 import static org.jboss.as.logging.CommonAttributes.FILE;
@@ -97,6 +98,9 @@ public class LoggingDescribeHandler implements ModelQueryOperationHandler, Descr
                 case FILE_HANDLER:
                     result.add(defineFileHandler(name, handler, rootAddress));
                     break;
+                case MAPPED_FILE_HANDLER:
+                    result.add(defineMappedFileHandler(name, handler, rootAddress));
+                    break;
                 case PERIODIC_ROTATING_FILE_HANDLER:
                     result.add(definePeriodicRotatingFileHandler(name, handler, rootAddress));
                     break;
@@ -242,6 +246,40 @@ public class LoggingDescribeHandler implements ModelQueryOperationHandler, Descr
         return add;
     }
 
+    private ModelNode defineMappedFileHandler(final String name, final ModelNode handler, final PathAddress rootAddress) {
+        ModelNode add = Util.getEmptyOperation(MappedFileHandlerAdd.OPERATION_NAME, rootAddress.append(PathElement.pathElement(HANDLER, name)).toModelNode());
+
+        if (handler.hasDefined(APPEND)) {
+            add.get(APPEND).set(handler.get(APPEND));
+        }
+        if (handler.hasDefined(ENCODING)) {
+            add.get(ENCODING).set(handler.get(ENCODING));
+        }
+        if (handler.hasDefined(FORMATTER)) {
+            add.get(FORMATTER).set(handler.get(FORMATTER));
+        }
+        if (handler.hasDefined(HANDLER_TYPE)) {
+            add.get(HANDLER_TYPE).set(handler.get(HANDLER_TYPE));
+        }
+        if (handler.hasDefined(LEVEL)) {
+            add.get(LEVEL).set(handler.get(LEVEL));
+        }
+        if (handler.hasDefined(FILE)) {
+            add.get(FILE).set(handler.get(FILE));
+        }
+        if (handler.hasDefined(MAX_BACKUP_INDEX)) {
+            add.get(MAX_BACKUP_INDEX).set(handler.get(MAX_BACKUP_INDEX));
+        }
+        if (handler.hasDefined(ROTATE_SIZE)) {
+            add.get(ROTATE_SIZE).set(handler.get(ROTATE_SIZE));
+        }
+        if (handler.hasDefined(SUFFIX)) {
+            add.get(SUFFIX).set(handler.get(SUFFIX));
+        }
+
+        return add;
+    }
+
     @Override
     public ModelNode getModelDescription(Locale locale) {
         return CommonDescriptions.getSubsystemDescribeOperation(locale);
@@ -134,6 +134,10 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                             parseFileHandlerElement(reader, address, list, handlerNames);
                             break;
                         }
+                        case MAPPED_FILE_HANDLER: {
+                            parseMappedFileHandlerElement(reader, address, list, handlerNames);
+                            break;
+                        }
                         case PERIODIC_ROTATING_FILE_HANDLER: {
                             parsePeriodicRotatingFileHandlerElement(reader, address, list, handlerNames);
                             break;
@@ -717,6 +721,111 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         list.add(node);
     }
 
+    static void parseMappedFileHandlerElement(final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> list, final Set<String> names) throws XMLStreamException {
+        // Attributes
+        String name = null;
+        final EnumSet<Attribute> required = EnumSet.of(Attribute.NAME);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (!required.isEmpty()) {
+            throw missingRequired(reader, required);
+        }
+        if (! names.add(name)) {
+            throw duplicateNamedElement(reader, name);
+        }
+        // Elements
+        String levelName = null;
+        String encoding = null;
+        ModelNode fileSpec = null;
+        boolean append = true;
+        long rotateSize = 0L;
+        int maxBackupIndex = 1;
+        String suffix = null;
+        String formatterSpec = null;
+
+        final EnumSet<Element> requiredElem = EnumSet.of(Element.FILE);
+        final EnumSet<Element> encountered = EnumSet.noneOf(Element.class);
+        while (reader.nextTag() != END_ELEMENT) {
+            final Element element = Element.forName(reader.getLocalName());
+            if (!encountered.add(element)) {
+                throw unexpectedElement(reader);
+            }
+            requiredElem.remove(element);
+            switch (element) {
+                case LEVEL: {
+                    levelName = readStringAttributeElement(reader, "name");
+                    break;
+                }
+                case ENCODING: {
+                    encoding = readStringAttributeElement(reader, "value");
+                    break;
+                }
+                case FORMATTER: {
+                    formatterSpec = parseFormatterElement(reader);
+                    break;
+                }
+                case FILE: {
+                    fileSpec = parseFileElement(reader);
+                    break;
+                }
+                case APPEND: {
+                    append = Boolean.parseBoolean(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case ROTATE_SIZE: {
+                    rotateSize = parseSize(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case MAX_BACKUP_INDEX: {
+                    try {
+                        maxBackupIndex = Integer.parseInt(readStringAttributeElement(reader, "value"));
+                    } catch (NumberFormatException e) {
+                        throw new XMLStreamException(e.getMessage(), reader.getLocation(), e);
+                    }
+                    break;
+                }
+                case SUFFIX: {
+                    suffix = readStringAttributeElement(reader, "value");
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+        if (!requiredElem.isEmpty()) {
+            throw missingRequired(reader, requiredElem);
+        }
+        final ModelNode node = new ModelNode();
+        node.get(OP).set(ADD);
+        node.get(OP_ADDR).set(address).add(HANDLER, name);
+        node.get(HANDLER_TYPE).set(LoggerHandlerType.MAPPED_FILE_HANDLER.toString());
+        node.get(LEVEL).set(levelName);
+        if(encoding != null) node.get(ENCODING).set(encoding);
+        if(formatterSpec != null) node.get(FORMATTER).set(formatterSpec);
+        node.get(FILE).set(fileSpec);
+        node.get(APPEND).set(append);
+        if (rotateSize > 0L) {
+            node.get(ROTATE_SIZE).set(rotateSize);
+        }
+        node.get(MAX_BACKUP_INDEX).set(maxBackupIndex);
+        if(suffix != null) node.get(SUFFIX).set(suffix);
+        list.add(node);
+    }
+
     private static final Pattern SIZE_PATTERN = Pattern.compile("(\\d+)([kKmMgGbBtT])?");
 
     private static long parseSize(final String value) {
@@ -905,6 +1014,9 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     case FILE_HANDLER:
                         writeFileHandler(writer, handler, name);
                         break;
+                    case MAPPED_FILE_HANDLER:
+                        writeMappedFileHandler(writer, handler, name);
+                        break;
                     case PERIODIC_ROTATING_FILE_HANDLER:
                         writePeriodicRotatingFileHandler(writer, handler, name);
                         break;
@@ -1012,6 +1124,35 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         writer.writeEndElement();
     }
 
+    private void writeMappedFileHandler(final XMLExtendedStreamWriter writer, final ModelNode node, final String name) throws XMLStreamException {
+        writer.writeStartElement(Element.MAPPED_FILE_HANDLER.getLocalName());
+        writer.writeAttribute(Attribute.NAME.getLocalName(), name);
+        writeLevel(writer, node);
+        writeEncoding(writer, node);
+        writeFilter(writer, node);
+        writeFormatter(writer, node);
+        writeProperties(writer, node);
+        writeFile(writer, node);
+        if (node.hasDefined(ROTATE_SIZE)) {
+            writer.writeStartElement(Element.ROTATE_SIZE.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(ROTATE_SIZE));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(MAX_BACKUP_INDEX)) {
+            writer.writeStartElement(Element.MAX_BACKUP_INDEX.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(MAX_BACKUP_INDEX));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(SUFFIX)) {
+            writer.writeStartElement(Element.SUFFIX.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(SUFFIX));
+            writer.writeEndElement();
+        }
+        writeAppend(writer, node);
+
+        writer.writeEndElement();
+    }
+
     private void writeAsynchHandler(final XMLExtendedStreamWriter writer, final ModelNode node, final String name) throws XMLStreamException {
         writer.writeStartElement(Element.ASYNC_HANDLER.getLocalName());
         writer.writeAttribute(Attribute.NAME.getLocalName(), name);
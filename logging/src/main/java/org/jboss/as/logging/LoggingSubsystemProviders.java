@@ -250,6 +250,16 @@ class LoggingSubsystemProviders {
         }
     };
 
+    static final DescriptionProvider MAPPED_FILE_HANDLER_ADD = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode node = new ModelNode();
+            node.get(DESCRIPTION).set(bundle.getString("mapped.file.handler"));
+            return node;
+        }
+    };
+
     static final DescriptionProvider PERIODIC_HANDLER_ADD = new DescriptionProvider() {
         @Override
         public ModelNode getModelDescription(Locale locale) {
@@ -288,6 +298,7 @@ class LoggingSubsystemProviders {
         System.out.println(LOGGER.getModelDescription(null));
         System.out.println(LOGGER_ADD.getModelDescription(null));
         System.out.println(LOGGER_REMOVE.getModelDescription(null));
+        System.out.println(MAPPED_FILE_HANDLER_ADD.getModelDescription(null));
         System.out.println(PERIODIC_HANDLER_ADD.getModelDescription(null));
         System.out.println(REMOVE_ROOT_LOGGER.getModelDescription(null));
         System.out.println(SET_ROOT_LOGGER.getModelDescription(null));
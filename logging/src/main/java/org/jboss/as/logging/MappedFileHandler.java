@@ -0,0 +1,569 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * A handler which writes to a file through a memory-mapped window rather than an output stream.
+ * <p>
+ * The file is mapped in segments of {@link #MAP_SIZE} bytes and formatted records are encoded straight into the
+ * mapping, so writing a record needs neither a system call nor an intermediate byte array.  A segment is filled up to
+ * its last byte before the next one is mapped, and each mapping is released as soon as it is replaced rather than
+ * when it happens to be garbage collected, since the file cannot be truncated or renamed on some platforms while it
+ * is mapped.  While the handler is open the
+ * file is therefore longer than the data written to it; it is truncated to the written length when the handler is
+ * closed or the file is rotated, and trailing zero bytes left by a handler which was not closed are skipped when the
+ * file is appended to.  The file can be rotated once it grows beyond a given size, keeping a fixed number of numbered
+ * backups, and when the period derived from a {@link SimpleDateFormat} suffix ends.
+ * <p>
+ * Since a record is in the page cache as soon as it is written, {@link #flush()} has nothing to do.
+ */
+public final class MappedFileHandler extends Handler {
+
+    static final int MAP_SIZE = 1024 * 1024;
+
+    private static final int SCAN_SIZE = 8192;
+
+    private static final Method CLEANER;
+    private static final Method CLEAN;
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Method cleaner = null;
+        Method clean = null;
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            cleaner = ByteBuffer.allocateDirect(1).getClass().getMethod("cleaner");
+            cleaner.setAccessible(true);
+            clean = cleaner.getReturnType().getMethod("clean");
+            clean.setAccessible(true);
+        } catch (Throwable t) {
+            cleaner = null;
+            clean = null;
+            // newer JVMs hide the cleaner, but let it be run through Unsafe
+            try {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (Throwable ignored) {
+                unsafe = null;
+                invokeCleaner = null;
+            }
+        }
+        CLEANER = cleaner;
+        CLEAN = clean;
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private File file;
+    private boolean append;
+    private long rotateSize;
+    private int maxBackupIndex = 1;
+
+    private SimpleDateFormat suffixFormat;
+    private int period;
+    private String currentSuffix;
+    private long nextRollover = Long.MAX_VALUE;
+
+    private CharsetEncoder encoder;
+    private char[] chars = new char[512];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+    /** Holds the bytes of a character which straddles the end of a segment */
+    private final ByteBuffer spill = ByteBuffer.allocate(32);
+
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    /** The file position of the start of the current mapping */
+    private long mappedBase;
+    /** The length of the data written to the file */
+    private long position;
+
+    public MappedFileHandler() {
+        setFormatter(new SimpleFormatter());
+    }
+
+    /**
+     * Set the file to write to, closing the previous file.  The file is opened immediately, so the other properties
+     * of the handler should be set first.
+     *
+     * @param file the file, or {@code null} to just close the previous file
+     * @throws IOException if the file cannot be opened
+     */
+    public synchronized void setFile(final File file) throws IOException {
+        if (channel != null) {
+            writeTail();
+            closeFile();
+        }
+        this.file = file;
+        if (file != null) {
+            final File parent = file.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+                throw new IOException("Cannot create directory " + parent);
+            }
+            final boolean existing = append && file.exists();
+            if (suffixFormat != null) {
+                updateRollover(existing ? file.lastModified() : System.currentTimeMillis());
+            }
+            openFile(append);
+            if (!existing) {
+                writeHead();
+            }
+        }
+    }
+
+    /**
+     * Set whether an existing file is appended to rather than replaced.  Takes effect when the next file is opened.
+     *
+     * @param append {@code true} to append
+     */
+    public synchronized void setAppend(final boolean append) {
+        this.append = append;
+    }
+
+    /**
+     * Set the size beyond which the file is rotated.
+     *
+     * @param rotateSize the size in bytes, or {@code 0} to never rotate on size
+     */
+    public synchronized void setRotateSize(final long rotateSize) {
+        if (rotateSize < 0L) {
+            throw new IllegalArgumentException("rotateSize is negative");
+        }
+        this.rotateSize = rotateSize;
+    }
+
+    /**
+     * Set the number of backups kept when the file is rotated on size.
+     *
+     * @param maxBackupIndex the number of backups
+     */
+    public synchronized void setMaxBackupIndex(final int maxBackupIndex) {
+        if (maxBackupIndex < 0) {
+            throw new IllegalArgumentException("maxBackupIndex is negative");
+        }
+        this.maxBackupIndex = maxBackupIndex;
+    }
+
+    /**
+     * Set the suffix appended to the name of the file when it is rotated on time.  The rotation period is the
+     * smallest unit in the suffix.
+     *
+     * @param suffix a {@link SimpleDateFormat} pattern, or {@code null} to never rotate on time
+     */
+    public synchronized void setSuffix(final String suffix) {
+        if (suffix == null) {
+            suffixFormat = null;
+            currentSuffix = null;
+            nextRollover = Long.MAX_VALUE;
+            return;
+        }
+        period = getPeriod(suffix);
+        suffixFormat = new SimpleDateFormat(suffix);
+        updateRollover(System.currentTimeMillis());
+    }
+
+    @Override
+    public synchronized void setEncoding(final String encoding) throws UnsupportedEncodingException {
+        super.setEncoding(encoding);
+        this.encoder = null;
+    }
+
+    @Override
+    public void publish(final LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        final String message;
+        try {
+            message = getFormatter().format(record);
+        } catch (Exception e) {
+            reportError(null, e, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        synchronized (this) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                if (record.getMillis() >= nextRollover) {
+                    rotateOnTime(record.getMillis());
+                } else if (rotateSize > 0L && position >= rotateSize) {
+                    rotateOnSize();
+                }
+                write(message);
+            } catch (Exception e) {
+                reportError(null, e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        writeTail();
+        closeFile();
+    }
+
+    private void write(final String s) throws IOException {
+        final int length = s.length();
+        if (length == 0) {
+            return;
+        }
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length << 1)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        s.getChars(0, length, chars, 0);
+        final CharBuffer in = charBuffer;
+        in.clear();
+        in.limit(length);
+        final CharsetEncoder encoder = getEncoder();
+        encoder.reset();
+        for (;;) {
+            final CoderResult result = encoder.encode(in, mapped, true);
+            if (!result.isOverflow()) {
+                break;
+            }
+            if (!mapped.hasRemaining()) {
+                nextSegment();
+                continue;
+            }
+            // the next character does not fit in what is left of the segment, so it is split across segments
+            final int limit = in.limit();
+            final int start = in.position();
+            in.limit(start + (Character.isHighSurrogate(chars[start]) && limit - start > 1 ? 2 : 1));
+            spill.clear();
+            encoder.encode(in, spill, true);
+            in.limit(limit);
+            spill.flip();
+            putSplit(spill);
+        }
+        for (;;) {
+            spill.clear();
+            final CoderResult result = encoder.flush(spill);
+            spill.flip();
+            putSplit(spill);
+            if (!result.isOverflow()) {
+                break;
+            }
+        }
+        position = mappedBase + mapped.position();
+    }
+
+    private void writeHead() {
+        try {
+            final Formatter formatter = getFormatter();
+            write(formatter.getHead(this));
+        } catch (Exception e) {
+            reportError(null, e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private void writeTail() {
+        try {
+            final Formatter formatter = getFormatter();
+            write(formatter.getTail(this));
+        } catch (Exception e) {
+            reportError(null, e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private CharsetEncoder getEncoder() {
+        CharsetEncoder encoder = this.encoder;
+        if (encoder == null) {
+            final String encoding = getEncoding();
+            final Charset charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+            encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.encoder = encoder;
+        }
+        return encoder;
+    }
+
+    /**
+     * Write bytes to the mapping, moving on to the next segment when the current one is full.
+     */
+    private void putSplit(final ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            if (!mapped.hasRemaining()) {
+                nextSegment();
+            }
+            final int count = Math.min(bytes.remaining(), mapped.remaining());
+            final int limit = bytes.limit();
+            bytes.limit(bytes.position() + count);
+            mapped.put(bytes);
+            bytes.limit(limit);
+        }
+    }
+
+    private void nextSegment() throws IOException {
+        map(mappedBase + MAP_SIZE);
+    }
+
+    /**
+     * Map the segment containing a file position, releasing the previous mapping.
+     */
+    private void map(final long position) throws IOException {
+        final long base = position - position % MAP_SIZE;
+        unmap(mapped);
+        mapped = null;
+        final MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, base, MAP_SIZE);
+        segment.position((int) (position - base));
+        mapped = segment;
+        mappedBase = base;
+    }
+
+    /**
+     * Release a mapping now rather than when the buffer is garbage collected.  The buffer must not be used afterwards.
+     * If the JVM offers no way to do so the mapping is left to the garbage collector.
+     */
+    static void unmap(final MappedByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            if (CLEAN != null) {
+                final Object cleaner = CLEANER.invoke(buffer);
+                if (cleaner != null) {
+                    CLEAN.invoke(cleaner);
+                }
+            } else if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            }
+        } catch (Throwable ignored) {
+        }
+    }
+
+    private void openFile(final boolean append) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        boolean ok = false;
+        try {
+            final FileChannel channel = raf.getChannel();
+            final long length;
+            if (append) {
+                length = getDataLength(channel);
+            } else {
+                channel.truncate(0L);
+                length = 0L;
+            }
+            this.raf = raf;
+            this.channel = channel;
+            map(length);
+            position = length;
+            ok = true;
+        } finally {
+            if (!ok) {
+                this.raf = null;
+                this.channel = null;
+                safeClose(raf);
+            }
+        }
+    }
+
+    private void closeFile() {
+        // the file cannot be truncated or renamed on some platforms while it is mapped
+        unmap(mapped);
+        mapped = null;
+        try {
+            channel.truncate(position);
+        } catch (IOException e) {
+            reportError(null, e, ErrorManager.CLOSE_FAILURE);
+        } finally {
+            safeClose(raf);
+            raf = null;
+            channel = null;
+        }
+    }
+
+    private void rotateOnSize() throws IOException {
+        writeTail();
+        closeFile();
+        boolean rotated = true;
+        if (maxBackupIndex > 0) {
+            final String name = file.getPath();
+            final File last = new File(name + "." + maxBackupIndex);
+            if (last.exists() && !last.delete()) {
+                reportError("Cannot delete " + last, null, ErrorManager.GENERIC_FAILURE);
+            }
+            for (int i = maxBackupIndex - 1; i >= 1; i--) {
+                final File backup = new File(name + "." + i);
+                if (backup.exists()) {
+                    rename(backup, new File(name + "." + (i + 1)));
+                }
+            }
+            rotated = rename(file, new File(name + ".1"));
+        }
+        reopen(rotated);
+    }
+
+    private void rotateOnTime(final long millis) throws IOException {
+        writeTail();
+        closeFile();
+        final boolean rotated = rename(file, new File(file.getPath() + currentSuffix));
+        updateRollover(millis);
+        reopen(rotated);
+    }
+
+    /**
+     * Open the file again after rotating it.  If the file could not be renamed it is appended to rather than
+     * replaced, so no records are lost.
+     */
+    private void reopen(final boolean rotated) throws IOException {
+        openFile(!rotated);
+        if (rotated) {
+            writeHead();
+        }
+    }
+
+    private boolean rename(final File from, final File to) {
+        if (from.renameTo(to)) {
+            return true;
+        }
+        reportError("Cannot rename " + from + " to " + to, null, ErrorManager.GENERIC_FAILURE);
+        return false;
+    }
+
+    private void updateRollover(final long millis) {
+        currentSuffix = suffixFormat.format(new Date(millis));
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(millis);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.set(Calendar.SECOND, 0);
+        if (period != Calendar.MINUTE) {
+            calendar.set(Calendar.MINUTE, 0);
+            if (period != Calendar.HOUR_OF_DAY) {
+                calendar.set(Calendar.HOUR_OF_DAY, 0);
+                if (period == Calendar.WEEK_OF_YEAR) {
+                    calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+                } else if (period == Calendar.MONTH) {
+                    calendar.set(Calendar.DAY_OF_MONTH, 1);
+                } else if (period == Calendar.YEAR) {
+                    calendar.set(Calendar.DAY_OF_YEAR, 1);
+                }
+            }
+        }
+        calendar.add(period, 1);
+        nextRollover = calendar.getTimeInMillis();
+    }
+
+    /**
+     * Get the rotation period of a suffix, which is the smallest unit it contains.
+     */
+    static int getPeriod(final String suffix) {
+        final int[] order = { Calendar.YEAR, Calendar.MONTH, Calendar.WEEK_OF_YEAR, Calendar.DAY_OF_MONTH, Calendar.HOUR_OF_DAY, Calendar.MINUTE };
+        int rank = -1;
+        boolean quoted = false;
+        for (int i = 0; i < suffix.length(); i++) {
+            final char c = suffix.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                continue;
+            }
+            if (quoted) {
+                continue;
+            }
+            final int r;
+            switch (c) {
+                case 'y': r = 0; break;
+                case 'M': r = 1; break;
+                case 'w': case 'W': r = 2; break;
+                case 'D': case 'd': case 'F': case 'E': r = 3; break;
+                case 'H': case 'k': case 'K': case 'h': r = 4; break;
+                case 'm': r = 5; break;
+                case 's': case 'S': throw new IllegalArgumentException("Rotating more than once a minute is not supported: " + suffix);
+                default: continue;
+            }
+            rank = Math.max(rank, r);
+        }
+        if (rank == -1) {
+            throw new IllegalArgumentException("Suffix does not contain a date or time field: " + suffix);
+        }
+        return order[rank];
+    }
+
+    /**
+     * Get the length of the data in a file, ignoring the zero bytes at the end of the last window mapped by a handler
+     * which was not closed.
+     */
+    private static long getDataLength(final FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+        long end = channel.size();
+        while (end > 0L) {
+            final long start = Math.max(0L, end - SCAN_SIZE);
+            buffer.clear();
+            buffer.limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) == -1) {
+                    break;
+                }
+            }
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) != 0) {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0L;
+    }
+
+    private static void safeClose(final RandomAccessFile raf) {
+        try {
+            raf.close();
+        } catch (Throwable ignored) {
+        }
+    }
+}
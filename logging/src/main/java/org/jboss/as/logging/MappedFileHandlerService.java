@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service for a {@link MappedFileHandler}.
+ */
+public final class MappedFileHandlerService implements Service<Handler> {
+
+    private final InjectedValue<String> relativeTo = new InjectedValue<String>();
+
+    private AbstractFormatterSpec formatterSpec;
+
+    private Level level;
+
+    private String encoding;
+
+    private boolean append = true;
+
+    private String path;
+
+    private long rotateSize;
+
+    private int maxBackupIndex = 1;
+
+    private String suffix;
+
+    private MappedFileHandler value;
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final MappedFileHandler handler = new MappedFileHandler();
+        if (formatterSpec != null) formatterSpec.apply(handler);
+        if (level != null) handler.setLevel(level);
+        try {
+            handler.setEncoding(encoding);
+        } catch (UnsupportedEncodingException e) {
+            throw new StartException(e);
+        }
+        handler.setAppend(append);
+        handler.setRotateSize(rotateSize);
+        handler.setMaxBackupIndex(maxBackupIndex);
+        try {
+            handler.setSuffix(suffix);
+        } catch (IllegalArgumentException e) {
+            throw new StartException(e);
+        }
+        try {
+            handler.setFile(new File(getFileName()));
+        } catch (IOException e) {
+            throw new StartException(e);
+        }
+        value = handler;
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final MappedFileHandler handler = value;
+        handler.close();
+        value = null;
+    }
+
+    public synchronized Handler getValue() throws IllegalStateException {
+        return value;
+    }
+
+    public synchronized Level getLevel() {
+        return level;
+    }
+
+    public synchronized void setLevel(final Level level) {
+        this.level = level;
+        final MappedFileHandler handler = value;
+        if (handler != null) handler.setLevel(level);
+    }
+
+    public synchronized AbstractFormatterSpec getFormatterSpec() {
+        return formatterSpec;
+    }
+
+    public synchronized void setFormatterSpec(final AbstractFormatterSpec formatterSpec) {
+        this.formatterSpec = formatterSpec;
+        final MappedFileHandler handler = value;
+        if (handler != null) formatterSpec.apply(handler);
+    }
+
+    public synchronized String getEncoding() {
+        return encoding;
+    }
+
+    public synchronized void setEncoding(final String encoding) throws UnsupportedEncodingException {
+        final MappedFileHandler handler = value;
+        if (handler != null) handler.setEncoding(encoding);
+        this.encoding = encoding;
+    }
+
+    public synchronized boolean isAppend() {
+        return append;
+    }
+
+    public synchronized void setAppend(final boolean append) {
+        this.append = append;
+        final MappedFileHandler handler = value;
+        if (handler != null) handler.setAppend(append);
+    }
+
+    private String getFileName() {
+        final String value = relativeTo.getOptionalValue();
+        return value != null ? value + "/" + path : path;
+    }
+
+    public synchronized void setPath(final String path) throws IOException {
+        this.path = path;
+        final MappedFileHandler handler = value;
+        if (handler != null) handler.setFile(new File(getFileName()));
+    }
+
+    public synchronized long getRotateSize() {
+        return rotateSize;
+    }
+
+    public synchronized void setRotateSize(final long rotateSize) {
+        this.rotateSize = rotateSize;
+        final MappedFileHandler handler = value;
+        if (handler != null) handler.setRotateSize(rotateSize);
+    }
+
+    public synchronized int getMaxBackupIndex() {
+        return maxBackupIndex;
+    }
+
+    public synchronized void setMaxBackupIndex(final int maxBackupIndex) {
+        this.maxBackupIndex = maxBackupIndex;
+        final MappedFileHandler handler = value;
+        if (handler != null) handler.setMaxBackupIndex(maxBackupIndex);
+    }
+
+    public synchronized String getSuffix() {
+        return suffix;
+    }
+
+    public synchronized void setSuffix(final String suffix) {
+        this.suffix = suffix;
+        final MappedFileHandler handler = value;
+        if (handler != null) handler.setSuffix(suffix);
+    }
+
+    public Injector<String> getRelativeToInjector() {
+        return relativeTo;
+    }
+}
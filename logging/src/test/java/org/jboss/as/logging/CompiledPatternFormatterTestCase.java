@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.Level;
+import org.jboss.logmanager.formatters.PatternFormatter;
+import org.junit.Test;
+
+/**
+ * Checks that {@link CompiledPatternFormatter} renders exactly what the LogManager's {@link PatternFormatter} does.
+ */
+public class CompiledPatternFormatterTestCase {
+
+    private static final String[] PATTERNS = {
+        // the console and file patterns of the default configurations
+        "%d{HH:mm:ss,SSS} %-5p [%c] (%t) %s%E%n",
+        "%d{HH:mm:ss,SSS} %-5p [%c] (%t) %s%e%n",
+        "%d{HH:mm:ss,SSS} %-5p [%c] %s%E%n",
+        "%-5p",
+        "%5p",
+        "%.10c",
+        "%-10.10c|",
+        "%20.30t",
+        "%-20.30t|",
+        "%.3t",
+        "%30c %-30s|",
+        "%d{yyyy-MM-dd'T'HH:mm:ss.SSS} %%%n",
+        "plain text",
+        "",
+    };
+
+    private static final long MILLIS = 1234567890123L;
+
+    @Test
+    public void testSameOutputAsPatternFormatter() throws Exception {
+        final List<ExtLogRecord> records = new ArrayList<ExtLogRecord>();
+        records.add(createRecord(Level.INFO, "org.jboss.as", "main", "Starting", MILLIS));
+        records.add(createRecord(Level.DEBUG, "org.jboss.as.server.deployment.module.ModuleSpecProcessor", "MSC service thread 1-3",
+                "Adding dependency {0} to {1}", MILLIS, "org.jboss.logging", "deployment.test.war"));
+        // the same millisecond as the previous records, and the next one
+        records.add(createRecord(Level.WARN, "a", "a very long thread name which is wider than thirty characters", "", MILLIS));
+        records.add(createRecord(Level.ERROR, "org.jboss.as.controller", "x", "Operation failed", MILLIS + 1));
+        records.get(3).setThrown(new IllegalStateException("failure", new RuntimeException("cause")));
+        records.add(createRecord(java.util.logging.Level.FINEST, "", "Thread-0", "message with a % sign", MILLIS + 86400000L));
+
+        for (String pattern : PATTERNS) {
+            final PatternFormatter expected = new PatternFormatter(pattern);
+            final CompiledPatternFormatter actual = new CompiledPatternFormatter(pattern);
+            for (ExtLogRecord record : records) {
+                final String formatted = expected.format(record);
+                assertEquals(pattern, formatted, actual.format(record));
+                // the second time the date comes from the cache
+                assertEquals(pattern, formatted, actual.format(record));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDateFormat() {
+        new CompiledPatternFormatter("%d{qq}");
+    }
+
+    /**
+     * Create a record on a thread with the given name, as records take the name of the thread which creates them.
+     */
+    private static ExtLogRecord createRecord(final java.util.logging.Level level, final String category, final String threadName,
+            final String message, final long millis, final Object... parameters) throws InterruptedException {
+        final ExtLogRecord[] record = new ExtLogRecord[1];
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                record[0] = new ExtLogRecord(level, message, CompiledPatternFormatterTestCase.class.getName());
+            }
+        }, threadName);
+        thread.start();
+        thread.join();
+        record[0].setLoggerName(category);
+        record[0].setMillis(millis);
+        if (parameters.length > 0) {
+            record[0].setParameters(parameters);
+        }
+        return record[0];
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link MappedFileHandler}.
+ */
+public class MappedFileHandlerTestCase {
+
+    private static final long DAY = 24L * 60L * 60L * 1000L;
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void createDir() throws Exception {
+        dir = File.createTempFile("mapped", "");
+        dir.delete();
+        dir.mkdir();
+        file = new File(dir, "server.log");
+    }
+
+    @After
+    public void deleteDir() {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+        MappedFileHandler handler = createHandler();
+        handler.setFile(file);
+        publish(handler, "first\n");
+        handler.close();
+        assertEquals("first\n", read(file));
+
+        handler = createHandler();
+        handler.setAppend(true);
+        handler.setFile(file);
+        publish(handler, "second\n");
+        handler.close();
+        assertEquals("first\nsecond\n", read(file));
+
+        // without append the file is replaced
+        handler = createHandler();
+        handler.setFile(file);
+        publish(handler, "third\n");
+        handler.close();
+        assertEquals("third\n", read(file));
+    }
+
+    @Test
+    public void testRecordsSpanSegments() throws Exception {
+        final MappedFileHandler handler = createHandler();
+        handler.setFile(file);
+        // the records are 26 bytes long in UTF-8, so after the 10 byte lead the first segment ends within the four
+        // byte character and the second within the three byte one
+        final String lead = "lead line\n";
+        final String record = "caf\u00e9 \u20ac \ud83d\ude00 0123456789\n";
+        final StringBuilder expected = new StringBuilder(lead);
+        publish(handler, lead);
+        for (int size = lead.length(); size < MappedFileHandler.MAP_SIZE * 5 / 2; size += 26) {
+            publish(handler, record);
+            expected.append(record);
+        }
+        handler.close();
+        assertEquals(expected.toString().getBytes("UTF-8").length, file.length());
+        assertEquals(expected.toString(), read(file));
+    }
+
+    @Test
+    public void testRotateOnSize() throws Exception {
+        final MappedFileHandler handler = createHandler();
+        handler.setRotateSize(10);
+        handler.setMaxBackupIndex(2);
+        handler.setFile(file);
+        for (int i = 0; i < 4; i++) {
+            publish(handler, "record " + i + "\n");
+            publish(handler, "more " + i + "\n");
+        }
+        handler.close();
+        assertEquals("record 3\nmore 3\n", read(file));
+        assertEquals("record 2\nmore 2\n", read(new File(file.getPath() + ".1")));
+        assertEquals("record 1\nmore 1\n", read(new File(file.getPath() + ".2")));
+        assertFalse(new File(file.getPath() + ".3").exists());
+    }
+
+    @Test
+    public void testRotateOnTime() throws Exception {
+        final MappedFileHandler handler = createHandler();
+        final long now = System.currentTimeMillis();
+        handler.setSuffix(".yyyy-MM-dd");
+        handler.setFile(file);
+        publish(handler, "today\n", now);
+        publish(handler, "tomorrow\n", now + DAY);
+        handler.close();
+        final File rotated = new File(file.getPath() + new SimpleDateFormat(".yyyy-MM-dd").format(new Date(now)));
+        assertEquals("today\n", read(rotated));
+        assertEquals("tomorrow\n", read(file));
+    }
+
+    @Test
+    public void testTrailingZerosAreIgnoredOnAppend() throws Exception {
+        // a handler which was not closed leaves the rest of its last segment zeroed
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write("unclean\n".getBytes("UTF-8"));
+            out.write(new byte[MappedFileHandler.MAP_SIZE + 100]);
+        } finally {
+            out.close();
+        }
+        final MappedFileHandler handler = createHandler();
+        handler.setAppend(true);
+        handler.setFile(file);
+        publish(handler, "appended\n");
+        handler.close();
+        assertEquals("unclean\nappended\n", read(file));
+    }
+
+    @Test
+    public void testFileIsTruncatedOnClose() throws Exception {
+        final MappedFileHandler handler = createHandler();
+        handler.setFile(file);
+        publish(handler, "record\n");
+        assertTrue(file.length() >= MappedFileHandler.MAP_SIZE);
+        handler.close();
+        assertEquals(7, file.length());
+    }
+
+    private static MappedFileHandler createHandler() throws Exception {
+        final MappedFileHandler handler = new MappedFileHandler();
+        handler.setEncoding("UTF-8");
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(final LogRecord record) {
+                return record.getMessage();
+            }
+        });
+        return handler;
+    }
+
+    private static void publish(final MappedFileHandler handler, final String message) {
+        publish(handler, message, System.currentTimeMillis());
+    }
+
+    private static void publish(final MappedFileHandler handler, final String message, final long millis) {
+        final LogRecord record = new LogRecord(Level.INFO, message);
+        record.setMillis(millis);
+        handler.publish(record);
+    }
+
+    private static String read(final File file) throws IOException {
+        final InputStream in = new FileInputStream(file);
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -22,6 +22,8 @@
 
 package org.jboss.as.naming;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -35,6 +37,7 @@ import javax.naming.Reference;
 import javax.naming.event.EventContext;
 import javax.naming.event.NamingEvent;
 import javax.naming.event.NamingListener;
+import javax.naming.spi.ObjectFactory;
 import javax.naming.spi.ResolveResult;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -56,6 +59,11 @@ import static org.jboss.as.naming.util.NamingUtils.notAContextException;
  * In-memory implementation of the NamingStore.  The backing for the entries is a basic tree structure with either context
  * nodes or binding nodes.  The context nodes are allowed to have children and can be represented by a NamingContext.  A
  * binding node is only allowed to have a normal object binding.
+ * <p>
+ * Lookups do not lock.  The results of successful lookups are cached by name, together with the object factory
+ * {@link NamingContext} resolves them with, so repeated lookups of the same name skip both the tree traversal and the
+ * creation of the object factory.  Every change to the tree swaps in a new, empty cache at the point the change's
+ * naming event is fired, so a lookup racing with a change can at worst populate a cache which is no longer in use.
  *
  * @author John E. Bailey
  */
@@ -69,6 +77,9 @@ public class InMemoryNamingStore implements NamingStore {
 
     private final ReentrantLock writeLock = new ReentrantLock();
 
+    /* Lookup results for the current state of the tree */
+    private volatile ConcurrentMap<Name, CachedLookup> lookupCache = new ConcurrentHashMap<Name, CachedLookup>();
+
     /**
      * Construct instance with no event support.
      */
@@ -101,6 +112,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new BindVisitor(true, name, object, bindType.getName()));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -121,6 +133,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new RebindVisitor(name, object, bindType.getName()));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -141,6 +154,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new UnbindVisitor(name));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -159,7 +173,58 @@ public class InMemoryNamingStore implements NamingStore {
             return new NamingContext(emptyName, this, new Hashtable<String, Object>());
         }
         checkPermissions(name, JndiPermission.Action.LOOKUP);
-        return root.accept(new LookupVisitor(name));
+        final ConcurrentMap<Name, CachedLookup> cache = lookupCache;
+        final CachedLookup cached = cache.get(name);
+        if (cached != null) {
+            return cached.value;
+        }
+        final Object result = root.accept(new LookupVisitor(name));
+        // a ResolveResult is mutable and specific to the remaining name, so it is never cached
+        if (result != null && !(result instanceof ResolveResult)) {
+            cache.putIfAbsent((Name) name.clone(), new CachedLookup(result));
+        }
+        return result;
+    }
+
+    /**
+     * Get the object factory cached for an object returned by {@link #lookup(Name)}.
+     *
+     * @param name The name the object was looked up with
+     * @param object The object
+     * @param classLoader The class loader the factory was created with
+     * @param objectFactories The {@link javax.naming.Context#OBJECT_FACTORIES} of the environment the factory was
+     *            created with, or {@code null}
+     * @return The object factory, or {@code null} if none is cached
+     */
+    ObjectFactory getCachedObjectFactory(final Name name, final Object object, final ClassLoader classLoader, final String objectFactories) {
+        final CachedLookup cached = lookupCache.get(name);
+        if (cached == null || cached.value != object) {
+            return null;
+        }
+        final CachedFactory factory = cached.factory;
+        return factory != null && factory.matches(classLoader, objectFactories) ? factory.objectFactory : null;
+    }
+
+    /**
+     * Cache the object factory for an object returned by {@link #lookup(Name)}.  The factory is only cached if the
+     * name is still bound to the object.
+     *
+     * @param name The name the object was looked up with
+     * @param object The object
+     * @param classLoader The class loader the factory was created with
+     * @param objectFactories The {@link javax.naming.Context#OBJECT_FACTORIES} of the environment the factory was
+     *            created with, or {@code null}
+     * @param objectFactory The object factory
+     */
+    void cacheObjectFactory(final Name name, final Object object, final ClassLoader classLoader, final String objectFactories, final ObjectFactory objectFactory) {
+        final CachedLookup cached = lookupCache.get(name);
+        if (cached != null && cached.value == object) {
+            cached.factory = new CachedFactory(classLoader, objectFactories, objectFactory);
+        }
+    }
+
+    private void invalidateLookupCache() {
+        lookupCache = new ConcurrentHashMap<Name, CachedLookup>();
     }
 
     /**
@@ -198,6 +263,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.clear();
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -253,6 +319,31 @@ public class InMemoryNamingStore implements NamingStore {
         }
     }
 
+    private static final class CachedLookup {
+        private final Object value;
+        private volatile CachedFactory factory;
+
+        private CachedLookup(final Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class CachedFactory {
+        private final ClassLoader classLoader;
+        private final String objectFactories;
+        private final ObjectFactory objectFactory;
+
+        private CachedFactory(final ClassLoader classLoader, final String objectFactories, final ObjectFactory objectFactory) {
+            this.classLoader = classLoader;
+            this.objectFactories = objectFactories;
+            this.objectFactory = objectFactory;
+        }
+
+        private boolean matches(final ClassLoader classLoader, final String objectFactories) {
+            return this.classLoader == classLoader && (this.objectFactories == null ? objectFactories == null : this.objectFactories.equals(objectFactories));
+        }
+    }
+
     private abstract class TreeNode {
         protected final Name fullName;
         protected final Binding binding;
@@ -414,8 +414,7 @@ public class NamingContext implements EventContext {
 
     private Object getObjectInstance(final Object object, final Name name, final Hashtable<?, ?> environment) throws NamingException {
         try {
-            final ObjectFactoryBuilder factoryBuilder = ObjectFactoryBuilder.INSTANCE;
-            final ObjectFactory objectFactory = factoryBuilder.createObjectFactory(object, environment);
+            final ObjectFactory objectFactory = getObjectFactory(object, name, environment);
             return objectFactory.getObjectInstance(object, name, this, environment);
         } catch(NamingException e) {
             throw e;
@@ -424,6 +423,24 @@ public class NamingContext implements EventContext {
         }
     }
 
+    private ObjectFactory getObjectFactory(final Object object, final Name name, final Hashtable<?, ?> environment) throws NamingException {
+        final ObjectFactoryBuilder factoryBuilder = ObjectFactoryBuilder.INSTANCE;
+        if (!(namingStore instanceof InMemoryNamingStore)) {
+            return factoryBuilder.createObjectFactory(object, environment);
+        }
+        // the factory class of a plain reference is loaded with the TCCL, and the factories to use may be listed in the
+        // environment, so the cached factory is only valid for that loader and that list
+        final InMemoryNamingStore store = (InMemoryNamingStore) namingStore;
+        final ClassLoader classLoader = SecurityActions.getContextClassLoader();
+        final String objectFactories = environment == null ? null : (String) environment.get(Context.OBJECT_FACTORIES);
+        ObjectFactory objectFactory = store.getCachedObjectFactory(name, object, classLoader, objectFactories);
+        if (objectFactory == null) {
+            objectFactory = factoryBuilder.createObjectFactory(object, environment);
+            store.cacheObjectFactory(name, object, classLoader, objectFactories, objectFactory);
+        }
+        return objectFactory;
+    }
+
     private Object resolveLink(Object result) throws NamingException {
         final Object linkResult;
         try {
@@ -34,13 +34,17 @@ import javax.naming.Name;
 import javax.naming.NameClassPair;
 import javax.naming.NameNotFoundException;
 import javax.naming.Reference;
+import javax.naming.spi.ObjectFactory;
 import javax.naming.spi.ResolveResult;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -265,4 +269,47 @@ public class InMemoryNamingStoreTestCase {
             fail("Should have throw name not found exception");
         } catch (NameNotFoundException expected){}
     }
+
+    @Test
+    public void testCachedLookupSeesChanges() throws Exception {
+        final Name name = new CompositeName("test");
+        final Object object = new Object();
+        nameStore.bind(name, object, Object.class);
+        assertEquals(object, nameStore.lookup(name));
+        assertEquals(object, nameStore.lookup(new CompositeName("test")));
+
+        final Object newObject = new Object();
+        nameStore.rebind(name, newObject, Object.class);
+        assertEquals(newObject, nameStore.lookup(name));
+
+        nameStore.unbind(name);
+        try {
+            nameStore.lookup(name);
+            fail("Should have thrown and NameNotFoundException");
+        } catch(NameNotFoundException expected) {}
+    }
+
+    @Test
+    public void testCachedObjectFactoryIsKeyedByObjectFactories() throws Exception {
+        final Name name = new CompositeName("test");
+        final Object object = new Object();
+        nameStore.bind(name, object, Object.class);
+        assertEquals(object, nameStore.lookup(name));
+
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final ObjectFactory factory = new ObjectFactory() {
+            public Object getObjectInstance(Object obj, Name name, Context nameCtx, Hashtable<?, ?> environment) {
+                return obj;
+            }
+        };
+        nameStore.cacheObjectFactory(name, object, classLoader, "org.example.FactoryOne", factory);
+        assertSame(factory, nameStore.getCachedObjectFactory(name, object, classLoader, "org.example.FactoryOne"));
+        // a different list of factories in the environment may resolve the object differently
+        assertNull(nameStore.getCachedObjectFactory(name, object, classLoader, "org.example.FactoryTwo"));
+        assertNull(nameStore.getCachedObjectFactory(name, object, classLoader, null));
+
+        nameStore.cacheObjectFactory(name, object, classLoader, null, factory);
+        assertSame(factory, nameStore.getCachedObjectFactory(name, object, classLoader, null));
+        assertNull(nameStore.getCachedObjectFactory(name, object, classLoader, "org.example.FactoryOne"));
+    }
 }
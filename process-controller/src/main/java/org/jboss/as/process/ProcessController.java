@@ -66,6 +66,7 @@ public final class ProcessController {
 
     private final PrintStream stdout;
     private final PrintStream stderr;
+    private final ProcessOutputPump outputPump = ProcessOutputPump.create();
 
     public ProcessController(final ProtocolServer.Configuration configuration, final PrintStream stdout, final PrintStream stderr) throws IOException {
         this.stdout = stdout;
@@ -310,6 +311,10 @@ public final class ProcessController {
         return stderr;
     }
 
+    ProcessOutputPump getOutputPump() {
+        return outputPump;
+    }
+
     private static final class Key {
         private final byte[] authKey;
         private final int hashCode;
@@ -0,0 +1,357 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.logging.Logger;
+
+/**
+ * Copies the output of the managed processes to the process controller's own output, prefixing each line with the
+ * name of the process.
+ * <p>
+ * Instead of two blocking reader threads per process, a small fixed set of threads polls the output streams of all
+ * processes and only reads what is available, so no thread blocks on an idle process.  Output is read in large
+ * chunks and the complete lines of a chunk are written to the target in one batch.  Each process may only produce
+ * output at a limited rate; beyond that its output is left in the pipe, which eventually blocks the process itself
+ * rather than delaying the output of the others.  The threads also notice when a process exits, drain the rest of its
+ * output and then run its exit task on a thread of its own.
+ */
+final class ProcessOutputPump {
+
+    /**
+     * System property which sets the number of threads pumping process output.
+     */
+    static final String THREADS_PROPERTY = "jboss.process.output.threads";
+
+    /**
+     * System property which sets the maximum rate, in bytes per second, at which the output of a single process is
+     * copied, or {@code 0} for no limit.
+     */
+    static final String RATE_PROPERTY = "jboss.process.output.rate";
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.process");
+
+    private static final int DEFAULT_THREADS = 2;
+    private static final long DEFAULT_RATE = 4 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Longer lines are split, so a process writing without line breaks cannot use up memory */
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+    private static final long EXIT_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final long MAX_IDLE_SLEEP = 50;
+
+    private final Worker[] workers;
+    private final long rate;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ProcessOutputPump(final int threads, final long rate) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads is less than 1");
+        }
+        if (rate < 0) {
+            throw new IllegalArgumentException("rate is negative");
+        }
+        this.rate = rate;
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker();
+            final Thread thread = new Thread(workers[i]);
+            thread.setName(String.format("process output pump %d", Integer.valueOf(i + 1)));
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Creates a pump configured by the {@link #THREADS_PROPERTY} and {@link #RATE_PROPERTY} system properties.
+     *
+     * @return the pump
+     */
+    static ProcessOutputPump create() {
+        return new ProcessOutputPump(Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS).intValue(), Long.getLong(RATE_PROPERTY, DEFAULT_RATE).longValue());
+    }
+
+    /**
+     * Start pumping the output of a process.
+     *
+     * @param processName the name of the process, used as line prefix
+     * @param process the process
+     * @param stdout the target of the standard output of the process
+     * @param stderr the target of the error output of the process
+     * @param exitTask the task to run once the process has exited and its output has been copied
+     */
+    void register(final String processName, final Process process, final PrintStream stdout, final PrintStream stderr, final Runnable exitTask) {
+        final byte[] prefix = ("[" + processName + "] ").getBytes();
+        final PumpedProcess pumped = new PumpedProcess(processName, process, exitTask);
+        pumped.stdout = new PumpedStream(pumped, process.getInputStream(), stdout, prefix);
+        pumped.stderr = new PumpedStream(pumped, process.getErrorStream(), stderr, prefix);
+        workers[(next.getAndIncrement() & Integer.MAX_VALUE) % workers.length].added.add(pumped);
+    }
+
+    private static boolean hasExited(final Process process) {
+        try {
+            process.exitValue();
+            return true;
+        } catch (IllegalThreadStateException e) {
+            return false;
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        private final BlockingQueue<PumpedProcess> added = new LinkedBlockingQueue<PumpedProcess>();
+        private final List<PumpedProcess> processes = new ArrayList<PumpedProcess>();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final Batch batch = new Batch();
+
+        public void run() {
+            long sleep = 1;
+            for (;;) {
+                try {
+                    if (processes.isEmpty()) {
+                        processes.add(added.take());
+                    }
+                    added.drainTo(processes);
+                    boolean progress = false;
+                    for (Iterator<PumpedProcess> i = processes.iterator(); i.hasNext();) {
+                        final PumpedProcess process = i.next();
+                        try {
+                            progress |= process.pump(buffer, batch);
+                        } catch (RuntimeException e) {
+                            log.errorf(e, "Stream processing failed for process '%s'", process.processName);
+                            process.finish(batch);
+                        }
+                        if (process.finished) {
+                            i.remove();
+                        }
+                    }
+                    if (progress) {
+                        sleep = 1;
+                    } else {
+                        Thread.sleep(sleep);
+                        sleep = Math.min(sleep * 2, MAX_IDLE_SLEEP);
+                    }
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private final class PumpedProcess {
+        private final String processName;
+        private final Process process;
+        private final Runnable exitTask;
+        private PumpedStream stdout;
+        private PumpedStream stderr;
+        private long tokens = rate;
+        private long lastRefill = System.nanoTime();
+        private long lastExitCheck = System.nanoTime();
+        private boolean finished;
+
+        private PumpedProcess(final String processName, final Process process, final Runnable exitTask) {
+            this.processName = processName;
+            this.process = process;
+            this.exitTask = exitTask;
+        }
+
+        boolean pump(final byte[] buffer, final Batch batch) {
+            final long now = System.nanoTime();
+            boolean exited = false;
+            if (now - lastExitCheck >= EXIT_CHECK_INTERVAL) {
+                lastExitCheck = now;
+                exited = hasExited(process);
+            }
+            if (rate > 0) {
+                // allow bursts of up to one second's worth of output
+                tokens = Math.min(rate, tokens + (now - lastRefill) * rate / TimeUnit.SECONDS.toNanos(1));
+                lastRefill = now;
+            }
+            boolean progress = stdout.pump(buffer, batch, exited);
+            progress |= stderr.pump(buffer, batch, exited);
+            if (exited || (stdout.eof && stderr.eof)) {
+                finish(batch);
+            }
+            return progress;
+        }
+
+        int allowance(final int length, final boolean drain) {
+            return drain || rate == 0 ? length : (int) Math.min(length, tokens);
+        }
+
+        void consume(final int length) {
+            tokens -= length;
+        }
+
+        void finish(final Batch batch) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            stdout.close(batch);
+            stderr.close(batch);
+            final Thread thread = new Thread(exitTask);
+            thread.setName(String.format("reaper for %s", processName));
+            thread.start();
+        }
+    }
+
+    private static final class PumpedStream {
+        private final PumpedProcess owner;
+        private final InputStream source;
+        private final PrintStream target;
+        private final byte[] prefix;
+        private final byte[] line = new byte[MAX_LINE_LENGTH];
+        private int lineLength;
+        private boolean eof;
+
+        private PumpedStream(final PumpedProcess owner, final InputStream source, final PrintStream target, final byte[] prefix) {
+            this.owner = owner;
+            this.source = source;
+            this.target = target;
+            this.prefix = prefix;
+        }
+
+        /**
+         * Copy the output which is available without blocking.  Unless draining, at most one buffer is read, so the
+         * streams of all processes take turns.
+         */
+        boolean pump(final byte[] buffer, final Batch batch, final boolean drain) {
+            if (eof) {
+                return false;
+            }
+            boolean progress = false;
+            try {
+                int available;
+                while ((available = source.available()) > 0) {
+                    final int length = owner.allowance(Math.min(available, buffer.length), drain);
+                    if (length == 0) {
+                        break;
+                    }
+                    final int read = source.read(buffer, 0, length);
+                    if (read == -1) {
+                        eof = true;
+                        break;
+                    }
+                    owner.consume(read);
+                    append(buffer, read, batch);
+                    progress = true;
+                    if (!drain) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                log.errorf("Stream processing failed for process '%s': %s", owner.processName, e);
+                eof = true;
+            }
+            batch.writeTo(target);
+            return progress;
+        }
+
+        private void append(final byte[] buffer, final int length, final Batch batch) {
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    appendToLine(buffer, start, i - start, batch);
+                    endLine(batch);
+                    start = i + 1;
+                }
+            }
+            appendToLine(buffer, start, length - start, batch);
+        }
+
+        private void appendToLine(final byte[] buffer, int offset, int length, final Batch batch) {
+            while (length > 0) {
+                final int count = Math.min(length, line.length - lineLength);
+                System.arraycopy(buffer, offset, line, lineLength, count);
+                lineLength += count;
+                offset += count;
+                length -= count;
+                if (lineLength == line.length) {
+                    endLine(batch);
+                }
+            }
+        }
+
+        private void endLine(final Batch batch) {
+            int length = lineLength;
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            batch.append(prefix, 0, prefix.length);
+            batch.append(line, 0, length);
+            batch.append(NEWLINE, 0, 1);
+            lineLength = 0;
+        }
+
+        void close(final Batch batch) {
+            if (lineLength > 0) {
+                endLine(batch);
+                batch.writeTo(target);
+            }
+            eof = true;
+            StreamUtils.safeClose(source);
+        }
+    }
+
+    private static final byte[] NEWLINE = { '\n' };
+
+    /**
+     * A reusable buffer collecting the lines to write to a target.
+     */
+    private static final class Batch {
+        private byte[] bytes = new byte[BUFFER_SIZE * 2];
+        private int length;
+
+        void append(final byte[] b, final int offset, final int count) {
+            if (length + count > bytes.length) {
+                final byte[] grown = new byte[Math.max(bytes.length * 2, length + count)];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+            }
+            System.arraycopy(b, offset, bytes, length, count);
+            length += count;
+        }
+
+        void writeTo(final PrintStream target) {
+            if (length == 0) {
+                return;
+            }
+            synchronized (target) {
+                target.write(bytes, 0, length);
+                target.flush();
+            }
+            length = 0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ProcessOutputPump}.
+ */
+public class ProcessOutputPumpUnitTestCase {
+
+    @Test
+    public void testLinesArePrefixed() throws Exception {
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final CountDownLatch exited = new CountDownLatch(1);
+
+        final ProcessOutputPump pump = new ProcessOutputPump(1, 0);
+        pump.register("test", new ExitedProcess("one\r\ntwo\nthree", "error\n"), new PrintStream(stdout), new PrintStream(stderr), new Runnable() {
+            public void run() {
+                exited.countDown();
+            }
+        });
+
+        assertTrue(exited.await(10, TimeUnit.SECONDS));
+        assertEquals("[test] one\n[test] two\n[test] three\n", stdout.toString());
+        assertEquals("[test] error\n", stderr.toString());
+    }
+
+    @Test
+    public void testOutputOfExitedProcessIsNotLimited() throws Exception {
+        final StringBuilder output = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            output.append("line ").append(i).append('\n');
+        }
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final CountDownLatch exited = new CountDownLatch(1);
+
+        final ProcessOutputPump pump = new ProcessOutputPump(1, 1);
+        pump.register("test", new ExitedProcess(output.toString(), ""), new PrintStream(stdout), new PrintStream(new ByteArrayOutputStream()), new Runnable() {
+            public void run() {
+                exited.countDown();
+            }
+        });
+
+        assertTrue(exited.await(10, TimeUnit.SECONDS));
+        final String[] lines = stdout.toString().split("\n");
+        assertEquals(1000, lines.length);
+        assertEquals("[test] line 999", lines[999]);
+    }
+
+    private static final class ExitedProcess extends Process {
+        private final InputStream stdout;
+        private final InputStream stderr;
+
+        private ExitedProcess(final String stdout, final String stderr) {
+            this.stdout = new ByteArrayInputStream(stdout.getBytes());
+            this.stderr = new ByteArrayInputStream(stderr.getBytes());
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return stdout;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return stderr;
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
@@ -90,6 +90,43 @@ public interface Connection extends Closeable {
      */
     void restoreMessageHandler();
 
+    /**
+     * Open a new channel on this connection. A channel is a lightweight connection of its own which shares the
+     * underlying socket; messages written to it are split into chunks tagged with the channel id, so they
+     * can be interleaved with the messages of the connection and of other channels, and are passed to the
+     * message handler of the matching channel on the other side in the order they were sent. Channels opened by
+     * the peer use the handler set with {@link #setChannelMessageHandler(MessageHandler)}.
+     * <p>
+     * Only peers which understand channel framing can receive messages on a channel, so this should only be used
+     * once the higher level protocol has established that the peer supports it.
+     *
+     * @return the channel
+     * @throws IOException if writes on the connection are already shut down
+     */
+    Connection openChannel() throws IOException;
+
+    /**
+     * Set the message handler used for the channels the peer opens on this connection.  Initially this is the
+     * message handler the connection was set up with.  Unlike {@link #setMessageHandler(MessageHandler)} this is not
+     * changed by the handlers which take over the connection temporarily while waiting for a response.
+     *
+     * @param messageHandler the message handler
+     */
+    void setChannelMessageHandler(MessageHandler messageHandler);
+
+    /**
+     * Get the version of the higher level protocol negotiated on this connection.
+     *
+     * @return the version, or {@code 0} if no version has been negotiated yet
+     */
+    int getNegotiatedVersion();
+
+    /**
+     * Record the version of the higher level protocol negotiated on this connection.
+     *
+     * @param version the version
+     */
+    void setNegotiatedVersion(int version);
 
     /**
      * A callback that will be triggered once the connection is closed
@@ -22,10 +22,14 @@
 
 package org.jboss.as.protocol;
 
+import static org.jboss.as.protocol.ProtocolConstants.CHANNEL_CHUNK_END;
+import static org.jboss.as.protocol.ProtocolConstants.CHANNEL_CHUNK_START;
+import static org.jboss.as.protocol.ProtocolConstants.CHANNEL_CLOSE;
 import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
 import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
@@ -35,7 +39,15 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.logging.Logger;
 
@@ -67,9 +79,46 @@ final class ConnectionImpl implements Connection {
 
     private final ClosedCallback callback;
 
+    /**
+     * The open channels. Channels opened locally have a positive key, channels opened by the peer have the
+     * negated id the peer uses for them.
+     */
+    private final ConcurrentMap<Integer, ChannelImpl> channels = new ConcurrentHashMap<Integer, ChannelImpl>();
+
+    private final AtomicInteger nextChannelId = new AtomicInteger();
+
+    private volatile MessageHandler channelHandler;
+
+    private volatile int negotiatedVersion;
+
+    /** The selector registration if the connection is read by a {@link SelectorPool}, {@code null} otherwise */
+    private final SelectorPool.Registration registration;
+
+    /** Runs the handling of messages in order when the connection is read by a {@link SelectorPool} */
+    private final OrderedExecutor messageExecutor = new OrderedExecutor();
+
+    /** The largest message a selector thread collects before failing the connection */
+    private final int maxMessageSize;
+
+    /** Buffers of handled messages, ready to collect the next ones */
+    private final Queue<MessageBuffer> freeBuffers = new ConcurrentLinkedQueue<MessageBuffer>();
+
+    private final AtomicInteger freeBufferCount = new AtomicInteger();
+
     ConnectionImpl(final Socket socket, final MessageHandler handler, final Executor readExecutor, final ClosedCallback callback) {
+        this(socket, null, handler, readExecutor, callback, 0);
+    }
+
+    ConnectionImpl(final SelectorPool.Registration registration, final MessageHandler handler, final Executor readExecutor, final ClosedCallback callback, final int maxMessageSize) {
+        this(registration.getSocket(), registration, handler, readExecutor, callback, maxMessageSize);
+    }
+
+    private ConnectionImpl(final Socket socket, final SelectorPool.Registration registration, final MessageHandler handler, final Executor readExecutor, final ClosedCallback callback, final int maxMessageSize) {
         this.socket = socket;
+        this.registration = registration;
+        this.maxMessageSize = maxMessageSize;
         messageHandler = handler;
+        channelHandler = handler;
         this.readExecutor = readExecutor;
         this.callback = callback;
     }
@@ -133,7 +182,11 @@ final class ConnectionImpl implements Connection {
             sender = null;
             readDone = true;
             writeDone = true;
-            socket.close();
+            if (registration != null) {
+                registration.close();
+            } else {
+                socket.close();
+            }
             lock.notifyAll();
         }
     }
@@ -179,6 +232,91 @@ final class ConnectionImpl implements Connection {
         setMessageHandler(handler == null ? MessageHandler.NULL : handler);
     }
 
+    @Override
+    public Connection openChannel() throws IOException {
+        synchronized (lock) {
+            if (writeDone) {
+                throw new IOException("Writes are already shut down");
+            }
+        }
+        for (;;) {
+            final int id = nextChannelId.incrementAndGet() & Integer.MAX_VALUE;
+            if (id == 0) {
+                continue;
+            }
+            final ChannelImpl channel = new ChannelImpl(id, MessageHandler.NULL);
+            if (channels.putIfAbsent(Integer.valueOf(id), channel) == null) {
+                return channel;
+            }
+        }
+    }
+
+    @Override
+    public void setChannelMessageHandler(final MessageHandler channelHandler) {
+        if (channelHandler == null) {
+            throw new IllegalArgumentException("channelHandler is null");
+        }
+        this.channelHandler = channelHandler;
+    }
+
+    @Override
+    public int getNegotiatedVersion() {
+        return negotiatedVersion;
+    }
+
+    @Override
+    public void setNegotiatedVersion(final int version) {
+        negotiatedVersion = version;
+    }
+
+    /**
+     * Gets the channel a frame received from the peer belongs to.
+     *
+     * @param frameId the channel id as sent by the peer
+     * @param data {@code true} if the frame carries message data
+     * @return the channel, or {@code null} if the channel is closed
+     */
+    private ChannelImpl getChannel(final int frameId, final boolean data) {
+        final Integer key = Integer.valueOf(-frameId);
+        ChannelImpl channel = channels.get(key);
+        if (channel == null && data && frameId > 0) {
+            // the first message on a channel opened by the peer
+            channel = new ChannelImpl(-frameId, channelHandler);
+            final ChannelImpl existing = channels.putIfAbsent(key, channel);
+            if (existing != null) {
+                channel = existing;
+            }
+        }
+        return channel;
+    }
+
+    private void skip(final InputStream is, int cnt) throws IOException {
+        while (cnt > 0) {
+            final long sc = is.skip(cnt);
+            if (sc <= 0) {
+                if (is.read() == -1) {
+                    throw new EOFException("Unexpected end of stream");
+                }
+                cnt--;
+            } else {
+                cnt -= sc;
+            }
+        }
+    }
+
+    private OutputStream getSocketOutput() throws IOException {
+        return registration == null ? socket.getOutputStream() : registration.getOutputStream();
+    }
+
+    /**
+     * Get the listener which decodes the data read from the connection by a {@link SelectorPool}.
+     *
+     * @return the listener
+     */
+    SelectorPool.ReadListener getReadListener() {
+        return new FrameDecoder();
+    }
+
     Runnable getReadTask() {
         return new Runnable() {
             @Override
@@ -198,6 +336,9 @@ final class ConnectionImpl implements Connection {
                                 log.trace("Received end of stream");
                                 // end of stream
                                 safeHandleShutdown();
+                                for (ChannelImpl channel : new ArrayList<ChannelImpl>(channels.values())) {
+                                    channel.peerShutdown();
+                                }
                                 boolean done;
                                 if (mos != null) {
                                     mos.close();
@@ -252,6 +393,40 @@ final class ConnectionImpl implements Connection {
                                 }
                                 break;
                             }
+                            case CHANNEL_CHUNK_START: {
+                                final ChannelImpl channel = getChannel(StreamUtils.readInt(is), true);
+                                int cnt = StreamUtils.readInt(is);
+                                if (channel == null) {
+                                    log.tracef("Discarding data chunk of size %d for a closed channel", Integer.valueOf(cnt));
+                                    skip(is, cnt);
+                                    break;
+                                }
+                                log.tracef("Received data chunk of size %d for channel %d", Integer.valueOf(cnt), Integer.valueOf(channel.id));
+                                final OutputStream cos = channel.startMessage();
+                                while (cnt > 0) {
+                                    int sc = is.read(buffer, 0, Math.min(cnt, bufferSize));
+                                    if (sc == -1) {
+                                        throw new EOFException("Unexpected end of stream");
+                                    }
+                                    cos.write(buffer, 0, sc);
+                                    cnt -= sc;
+                                }
+                                break;
+                            }
+                            case CHANNEL_CHUNK_END: {
+                                final ChannelImpl channel = getChannel(StreamUtils.readInt(is), false);
+                                if (channel != null) {
+                                    channel.endMessage();
+                                }
+                                break;
+                            }
+                            case CHANNEL_CLOSE: {
+                                final ChannelImpl channel = getChannel(StreamUtils.readInt(is), false);
+                                if (channel != null) {
+                                    channel.peerClosed();
+                                }
+                                break;
+                            }
                             default: {
                                 throw new IOException("Invalid command byte read: " + cmd);
                             }
@@ -259,6 +434,9 @@ final class ConnectionImpl implements Connection {
                     }
                 } catch (IOException e) {
                     safeHandlerFailure(e);
+                    for (ChannelImpl channel : new ArrayList<ChannelImpl>(channels.values())) {
+                        channel.peerFailure(e);
+                    }
                 } finally {
                     StreamUtils.safeClose(mos);
                     if (!closed) {
@@ -331,7 +509,7 @@ final class ConnectionImpl implements Connection {
         private final byte[] hdr = new byte[5];
 
         MessageOutputStream() throws IOException {
-            super(socket.getOutputStream());
+            super(getSocketOutput());
         }
 
         @Override
@@ -397,6 +575,648 @@ final class ConnectionImpl implements Connection {
         }
     }
 
+    /**
+     * A channel multiplexed over this connection. Messages received on the channel are handled one at a time in the
+     * order they arrived, but without holding up the read thread of the connection.
+     */
+    final class ChannelImpl implements Connection {
+
+        private final int id;
+
+        private volatile MessageHandler messageHandler;
+
+        private volatile MessageHandler backupHandler;
+
+        private volatile Object attachment;
+
+        // protected by this
+        private OutputStream sender;
+        // protected by this
+        private boolean writeDone;
+
+        // only used by the read thread
+        private Pipe pipe;
+        // only used by the read thread
+        private MessageBuffer message;
+
+        private final OrderedExecutor executor = new OrderedExecutor();
+
+        ChannelImpl(final int id, final MessageHandler messageHandler) {
+            this.id = id;
+            this.messageHandler = messageHandler;
+        }
+
+        @Override
+        public OutputStream writeMessage() throws IOException {
+            synchronized (this) {
+                if (writeDone) {
+                    throw new IOException("Writes are already shut down");
+                }
+                while (sender != null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                final ChannelOutputStream sender = new ChannelOutputStream();
+                this.sender = sender;
+                return new BufferedOutputStream(sender);
+            }
+        }
+
+        @Override
+        public void shutdownWrites() throws IOException {
+            synchronized (this) {
+                writeDone = true;
+                notifyAll();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (this) {
+                writeDone = true;
+                sender = null;
+                notifyAll();
+            }
+            if (channels.remove(Integer.valueOf(id)) != null) {
+                synchronized (lock) {
+                    if (!ConnectionImpl.this.writeDone) {
+                        final OutputStream out = getSocketOutput();
+                        out.write(CHANNEL_CLOSE);
+                        StreamUtils.writeInt(out, id);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void setMessageHandler(final MessageHandler messageHandler) {
+            if (messageHandler == null) {
+                throw new IllegalArgumentException("messageHandler is null");
+            }
+            this.messageHandler = messageHandler;
+        }
+
+        @Override
+        public InetAddress getPeerAddress() {
+            return ConnectionImpl.this.getPeerAddress();
+        }
+
+        @Override
+        public void attach(final Object attachment) {
+            this.attachment = attachment;
+        }
+
+        @Override
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        @Override
+        public void backupMessageHandler() {
+            backupHandler = messageHandler;
+        }
+
+        @Override
+        public void restoreMessageHandler() {
+            MessageHandler handler = backupHandler;
+            setMessageHandler(handler == null ? MessageHandler.NULL : handler);
+        }
+
+        @Override
+        public Connection openChannel() throws IOException {
+            return ConnectionImpl.this.openChannel();
+        }
+
+        @Override
+        public void setChannelMessageHandler(final MessageHandler messageHandler) {
+            ConnectionImpl.this.setChannelMessageHandler(messageHandler);
+        }
+
+        @Override
+        public int getNegotiatedVersion() {
+            return ConnectionImpl.this.getNegotiatedVersion();
+        }
+
+        @Override
+        public void setNegotiatedVersion(final int version) {
+            ConnectionImpl.this.setNegotiatedVersion(version);
+        }
+
+        /**
+         * Called by the read thread for each data chunk received on the channel.
+         */
+        OutputStream startMessage() {
+            if (pipe == null) {
+                // new message, handled once the messages before it are done
+                pipe = new Pipe(65536);
+                final InputStream pis = pipe.getIn();
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        safeHandleMessage(new MessageInputStream(pis));
+                    }
+                });
+            }
+            return pipe.getOut();
+        }
+
+        /**
+         * Called by a selector thread for each data chunk received on the channel. The message is only handled once
+         * it is complete.
+         */
+        OutputStream startBufferedMessage() {
+            if (message == null) {
+                message = getMessageBuffer();
+            }
+            return message;
+        }
+
+        /**
+         * Called by the read thread when the end of a message is received. Unlike messages on the connection
+         * itself, this does not wait for the message to be handled.
+         */
+        void endMessage() throws IOException {
+            if (pipe != null) {
+                final Pipe pipe = this.pipe;
+                this.pipe = null;
+                pipe.getOut().close();
+            }
+            if (message != null) {
+                final MessageBuffer message = this.message;
+                this.message = null;
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            safeHandleMessage(message.getInputStream());
+                        } finally {
+                            releaseMessageBuffer(message);
+                        }
+                    }
+                });
+            }
+        }
+
+        void peerClosed() throws IOException {
+            endMessage();
+            channels.remove(Integer.valueOf(id));
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    safeHandleShutdown();
+                    safeHandleFinished();
+                }
+            });
+        }
+
+        void peerShutdown() throws IOException {
+            endMessage();
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    safeHandleShutdown();
+                    safeHandleFinished();
+                }
+            });
+        }
+
+        void peerFailure(final IOException failure) {
+            StreamUtils.safeClose(pipe == null ? null : pipe.getOut());
+            pipe = null;
+            message = null;
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    safeHandlerFailure(failure);
+                }
+            });
+        }
+
+        private void execute(final Runnable task) {
+            executor.execute(task);
+        }
+
+        private void safeHandleMessage(final InputStream pis) {
+            try {
+                messageHandler.handleMessage(this, pis);
+            } catch (RuntimeException e) {
+                log.errorf(e, "Failed to read a message");
+            } catch (IOException e) {
+                log.errorf(e, "Failed to read a message");
+            } catch (NoClassDefFoundError e) {
+                log.errorf(e, "Failed to read a message");
+            } catch (Error e) {
+                log.errorf(e, "Failed to read a message");
+                throw e;
+            } finally {
+                StreamUtils.safeClose(pis);
+            }
+        }
+
+        private void safeHandleShutdown() {
+            try {
+                messageHandler.handleShutdown(this);
+            } catch (IOException e) {
+                log.errorf(e, "Failed to handle channel shut down condition");
+            }
+        }
+
+        private void safeHandleFinished() {
+            try {
+                messageHandler.handleFinished(this);
+            } catch (IOException e) {
+                log.errorf(e, "Failed to handle channel finished condition");
+            }
+        }
+
+        private void safeHandlerFailure(IOException e) {
+            try {
+                messageHandler.handleFailure(this, e);
+            } catch (IOException e1) {
+                log.errorf(e1, "Failed to handle channel failure condition");
+            }
+        }
+
+        final class ChannelOutputStream extends OutputStream {
+
+            private final byte[] hdr = new byte[9];
+
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                if (len == 0) {
+                    return;
+                }
+                final byte[] hdr = this.hdr;
+                hdr[0] = (byte) CHANNEL_CHUNK_START;
+                hdr[1] = (byte) (id >> 24);
+                hdr[2] = (byte) (id >> 16);
+                hdr[3] = (byte) (id >> 8);
+                hdr[4] = (byte) (id >> 0);
+                hdr[5] = (byte) (len >> 24);
+                hdr[6] = (byte) (len >> 16);
+                hdr[7] = (byte) (len >> 8);
+                hdr[8] = (byte) (len >> 0);
+                synchronized (ChannelImpl.this) {
+                    if (sender != this || writeDone) {
+                        if (sender == this) sender = null;
+                        ChannelImpl.this.notifyAll();
+                        throw new IOException("Write channel closed");
+                    }
+                }
+                synchronized (lock) {
+                    if (ConnectionImpl.this.writeDone) {
+                        throw new IOException("Write channel closed");
+                    }
+                    log.tracef("Sending data chunk of size %d for channel %d", Integer.valueOf(len), Integer.valueOf(id));
+                    final OutputStream out = getSocketOutput();
+                    out.write(hdr);
+                    out.write(b, off, len);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                synchronized (ChannelImpl.this) {
+                    if (sender != this) {
+                        return;
+                    }
+                    sender = null;
+                    ChannelImpl.this.notify();
+                    if (writeDone) throw new IOException("Write channel closed");
+                }
+                synchronized (lock) {
+                    if (ConnectionImpl.this.writeDone) {
+                        throw new IOException("Write channel closed");
+                    }
+                    log.tracef("Sending end of message for channel %d", Integer.valueOf(id));
+                    final OutputStream out = getSocketOutput();
+                    out.write(CHANNEL_CHUNK_END);
+                    StreamUtils.writeInt(out, id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs tasks one at a time, in the order they were submitted, using the read executor.
+     */
+    final class OrderedExecutor implements Executor {
+
+        // protected by tasks
+        private final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+        // protected by tasks
+        private boolean running;
+
+        private final Runnable runTasks = new Runnable() {
+            @Override
+            public void run() {
+                for (;;) {
+                    final Runnable task;
+                    synchronized (tasks) {
+                        task = tasks.poll();
+                        if (task == null) {
+                            running = false;
+                            return;
+                        }
+                    }
+                    task.run();
+                }
+            }
+        };
+
+        @Override
+        public void execute(final Runnable task) {
+            synchronized (tasks) {
+                tasks.add(task);
+                if (running) {
+                    return;
+                }
+                running = true;
+            }
+            readExecutor.execute(runTasks);
+        }
+    }
+
+    private MessageBuffer getMessageBuffer() {
+        final MessageBuffer buffer = freeBuffers.poll();
+        if (buffer == null) {
+            return new MessageBuffer();
+        }
+        freeBufferCount.decrementAndGet();
+        return buffer;
+    }
+
+    private void releaseMessageBuffer(final MessageBuffer buffer) {
+        // keep a few buffers of a moderate size; the memory of large messages is given back
+        if (buffer.buf.length > MessageBuffer.MAX_RETAINED_SIZE) {
+            return;
+        }
+        if (freeBufferCount.incrementAndGet() > MessageBuffer.MAX_RETAINED_BUFFERS) {
+            freeBufferCount.decrementAndGet();
+            return;
+        }
+        buffer.count = 0;
+        freeBuffers.add(buffer);
+    }
+
+    /**
+     * Collects a complete message received by a selector thread, up to the maximum message size. Once the
+     * message has been handled the buffer is {@link #releaseMessageBuffer(MessageBuffer) released} and reused
+     * for a later message.
+     */
+    final class MessageBuffer extends OutputStream {
+
+        static final int MAX_RETAINED_SIZE = 65536;
+        static final int MAX_RETAINED_BUFFERS = 4;
+
+        private byte[] buf = new byte[512];
+        private int count;
+
+        @Override
+        public void write(final int b) throws IOException {
+            ensureCapacity(1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            ensureCapacity(len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private void ensureCapacity(final int len) throws IOException {
+            final int required = count + len;
+            if (required < 0 || required > maxMessageSize) {
+                throw new IOException("Message exceeds the maximum size of " + maxMessageSize + " bytes");
+            }
+            if (required > buf.length) {
+                final byte[] newBuf = new byte[(int) Math.min(Math.max(buf.length * 2L, required), maxMessageSize)];
+                System.arraycopy(buf, 0, newBuf, 0, count);
+                buf = newBuf;
+            }
+        }
+
+        /**
+         * Get a stream reading the message; the buffer must not be written to afterwards.
+         *
+         * @return the stream
+         */
+        InputStream getInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+
+    /**
+     * Decodes the data read by a selector thread. This is the non-blocking counterpart of the {@link #getReadTask() read task};
+     * instead of streaming each message to its handler, it collects the message and hands it to the read executor once
+     * the end of message marker has arrived, so a selector thread never waits for a message handler.
+     */
+    final class FrameDecoder implements SelectorPool.ReadListener {
+
+        private static final int COMMAND = 0;
+        private static final int INT = 1;
+        private static final int DATA = 2;
+
+        private int state = COMMAND;
+        private int command;
+        private int intBytes;
+        private int intValue;
+        private boolean haveChannelId;
+        private int channelId;
+        private int remaining;
+        private OutputStream target;
+        private MessageBuffer message;
+
+        @Override
+        public void handleRead(final ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                switch (state) {
+                    case COMMAND: {
+                        command = buffer.get() & 0xff;
+                        switch (command) {
+                            case CHUNK_START:
+                            case CHANNEL_CHUNK_START:
+                            case CHANNEL_CHUNK_END:
+                            case CHANNEL_CLOSE: {
+                                state = INT;
+                                break;
+                            }
+                            case CHUNK_END: {
+                                log.trace("Received end data marker");
+                                endMessage();
+                                break;
+                            }
+                            default: {
+                                throw new IOException("Invalid command byte read: " + command);
+                            }
+                        }
+                        break;
+                    }
+                    case INT: {
+                        intValue = (intValue << 8) | (buffer.get() & 0xff);
+                        if (++intBytes == 4) {
+                            final int value = intValue;
+                            intBytes = 0;
+                            intValue = 0;
+                            state = COMMAND;
+                            handleInt(value);
+                        }
+                        break;
+                    }
+                    case DATA: {
+                        final int cnt = Math.min(remaining, buffer.remaining());
+                        if (target != null) {
+                            target.write(buffer.array(), buffer.arrayOffset() + buffer.position(), cnt);
+                        }
+                        buffer.position(buffer.position() + cnt);
+                        remaining -= cnt;
+                        if (remaining == 0) {
+                            target = null;
+                            state = COMMAND;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void handleInt(final int value) throws IOException {
+            switch (command) {
+                case CHUNK_START: {
+                    log.tracef("Received data chunk of size %d", Integer.valueOf(value));
+                    if (message == null) {
+                        message = getMessageBuffer();
+                    }
+                    startData(message, value);
+                    break;
+                }
+                case CHANNEL_CHUNK_START: {
+                    if (!haveChannelId) {
+                        haveChannelId = true;
+                        channelId = value;
+                        state = INT;
+                        break;
+                    }
+                    haveChannelId = false;
+                    final ChannelImpl channel = getChannel(channelId, true);
+                    if (channel == null) {
+                        log.tracef("Discarding data chunk of size %d for a closed channel", Integer.valueOf(value));
+                    } else {
+                        log.tracef("Received data chunk of size %d for channel %d", Integer.valueOf(value), Integer.valueOf(channel.id));
+                    }
+                    startData(channel == null ? null : channel.startBufferedMessage(), value);
+                    break;
+                }
+                case CHANNEL_CHUNK_END: {
+                    final ChannelImpl channel = getChannel(value, false);
+                    if (channel != null) {
+                        channel.endMessage();
+                    }
+                    break;
+                }
+                case CHANNEL_CLOSE: {
+                    final ChannelImpl channel = getChannel(value, false);
+                    if (channel != null) {
+                        channel.peerClosed();
+                    }
+                    break;
+                }
+            }
+        }
+
+        private void startData(final OutputStream target, final int length) throws IOException {
+            if (length < 0) {
+                throw new IOException("Invalid chunk length " + length);
+            }
+            if (length > 0) {
+                this.target = target;
+                remaining = length;
+                state = DATA;
+            }
+        }
+
+        private void endMessage() {
+            final MessageBuffer message = this.message;
+            if (message != null) {
+                this.message = null;
+                messageExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            safeHandleMessage(message.getInputStream());
+                        } finally {
+                            releaseMessageBuffer(message);
+                        }
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void handleEndOfStream() {
+            log.trace("Received end of stream");
+            endMessage();
+            messageExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    safeHandleShutdown();
+                }
+            });
+            for (ChannelImpl channel : new ArrayList<ChannelImpl>(channels.values())) {
+                try {
+                    channel.peerShutdown();
+                } catch (IOException e) {
+                    log.errorf(e, "Failed to handle channel shut down condition");
+                }
+            }
+            messageExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    boolean done;
+                    synchronized (lock) {
+                        readDone = true;
+                        done = writeDone;
+                    }
+                    if (done) {
+                        StreamUtils.safeClose(socket);
+                        safeHandleFinished();
+                    }
+                    closed();
+                }
+            });
+        }
+
+        @Override
+        public void handleFailure(final IOException e) {
+            message = null;
+            messageExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    safeHandlerFailure(e);
+                }
+            });
+            for (ChannelImpl channel : new ArrayList<ChannelImpl>(channels.values())) {
+                channel.peerFailure(e);
+            }
+            messageExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    closed();
+                }
+            });
+        }
+    }
+
     private void closed() {
         ClosedCallback callback = this.callback;
         if (callback != null) {
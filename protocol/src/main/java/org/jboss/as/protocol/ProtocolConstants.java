@@ -28,6 +28,12 @@ package org.jboss.as.protocol;
 public final class ProtocolConstants {
     public static final int CHUNK_START = 0x98;
     public static final int CHUNK_END = 0x99;
+    /** A chunk of a message on a channel: channel id, length, data */
+    public static final int CHANNEL_CHUNK_START = 0x9A;
+    /** The end of a message on a channel: channel id */
+    public static final int CHANNEL_CHUNK_END = 0x9B;
+    /** The sender will not use the channel again: channel id */
+    public static final int CHANNEL_CLOSE = 0x9C;
 
     private ProtocolConstants() {
     }
@@ -27,6 +27,7 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.ServerSocketChannel;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 
@@ -40,6 +41,20 @@ import org.jboss.logging.Logger;
  */
 public final class ProtocolServer {
 
+    /**
+     * System property giving the default number of selector threads. With a value of {@code 0}, the default, each
+     * connection is read by a thread of its own.
+     */
+    public static final String SELECTOR_THREADS_PROPERTY = "jboss.protocol.selector.threads";
+
+    /**
+     * System property giving the default maximum size in bytes of a message received by a selector thread. Such
+     * messages are held in memory until they are complete, so a connection sending a larger message is failed.
+     */
+    public static final String MAX_MESSAGE_SIZE_PROPERTY = "jboss.protocol.selector.max-message-size";
+
+    private static final int DEFAULT_MAX_MESSAGE_SIZE = 64 * 1024 * 1024;
+
     private static final Logger log = Logger.getLogger("org.jboss.as.protocol.server");
 
     private final ThreadFactory threadFactory;
@@ -54,6 +69,9 @@ public final class ProtocolServer {
     private volatile ServerSocket serverSocket;
     private volatile InetSocketAddress boundAddress;
     private final ClosedCallback callback;
+    private final int selectorThreads;
+    private final int maxMessageSize;
+    private volatile SelectorPool selectorPool;
 
     public ProtocolServer(final Configuration configuration) throws IOException {
         threadFactory = configuration.getThreadFactory();
@@ -64,18 +82,32 @@ public final class ProtocolServer {
         readTimeout = configuration.getReadTimeout();
         readExecutor = configuration.getReadExecutor();
         callback = configuration.getClosedCallback();
+        selectorThreads = configuration.getSelectorThreads();
+        maxMessageSize = configuration.getMaxMessageSize();
         if (bindAddress == null) {
             throw new IllegalArgumentException("bindAddress is null");
         }
         if (connectionHandler == null) {
             throw new IllegalArgumentException("connectionHandler is null");
         }
+        if (selectorThreads > 0 && maxMessageSize <= 0) {
+            throw new IllegalArgumentException("maxMessageSize must be positive");
+        }
     }
 
     public void start() throws IOException {
         stop = false;
 
-        final ServerSocket serverSocket = socketFactory.createServerSocket();
+        final ServerSocket serverSocket;
+        if (selectorThreads > 0) {
+            // the socket factory cannot create channels, so a non-blocking server always uses plain sockets
+            serverSocket = ServerSocketChannel.open().socket();
+            final SelectorPool selectorPool = new SelectorPool(selectorThreads, threadFactory, readTimeout);
+            selectorPool.start();
+            this.selectorPool = selectorPool;
+        } else {
+            serverSocket = socketFactory.createServerSocket();
+        }
         this.serverSocket = serverSocket;
         thread = threadFactory.newThread(new Runnable() {
             public void run() {
@@ -132,13 +164,31 @@ public final class ProtocolServer {
             thread.interrupt();
         }
         StreamUtils.safeClose(serverSocket);
+        final SelectorPool selectorPool = this.selectorPool;
+        this.selectorPool = null;
+        if (selectorPool != null) {
+            selectorPool.stop();
+        }
     }
 
     private void safeHandleConnection(final Socket socket) {
         boolean ok = false;
         try {
+            final SelectorPool selectorPool = this.selectorPool;
+            if (selectorPool != null) {
+                final SelectorPool.Registration registration = selectorPool.prepare(socket.getChannel());
+                final ConnectionImpl connection = new ConnectionImpl(registration, MessageHandler.NULL, readExecutor, callback, maxMessageSize);
+                final MessageHandler handler = connectionHandler.handleConnected(connection);
+                connection.setMessageHandler(handler);
+                connection.setChannelMessageHandler(handler);
+                registration.start(connection.getReadListener());
+                ok = true;
+                return;
+            }
             final ConnectionImpl connection = new ConnectionImpl(socket, MessageHandler.NULL, readExecutor, callback);
-            connection.setMessageHandler(connectionHandler.handleConnected(connection));
+            final MessageHandler handler = connectionHandler.handleConnected(connection);
+            connection.setMessageHandler(handler);
+            connection.setChannelMessageHandler(handler);
             final Thread thread = threadFactory.newThread(connection.getReadTask());
             if (thread == null) {
                 throw new IllegalStateException("Thread creation was refused");
@@ -173,6 +223,8 @@ public final class ProtocolServer {
         private int readTimeout;
         private Executor readExecutor;
         private ClosedCallback closedCallback;
+        private int selectorThreads = Integer.getInteger(SELECTOR_THREADS_PROPERTY, 0).intValue();
+        private int maxMessageSize = Integer.getInteger(MAX_MESSAGE_SIZE_PROPERTY, DEFAULT_MAX_MESSAGE_SIZE).intValue();
 
         public ThreadFactory getThreadFactory() {
             return threadFactory;
@@ -226,6 +278,12 @@ public final class ProtocolServer {
             return readTimeout;
         }
 
+        /**
+         * Set the read timeout in milliseconds, or {@code 0} to wait forever. With {@link #setSelectorThreads(int)
+         * selector threads} this is the time after which a connection from which nothing was read is closed.
+         *
+         * @param readTimeout the read timeout
+         */
         public void setReadTimeout(final int readTimeout) {
             this.readTimeout = readTimeout;
         }
@@ -246,5 +304,34 @@ public final class ProtocolServer {
         public void setCallback(ClosedCallback closedCallback) {
             this.closedCallback = closedCallback;
         }
+
+        public int getSelectorThreads() {
+            return selectorThreads;
+        }
+
+        /**
+         * Set the number of selector threads reading the connections. If greater than {@code 0} connections are read
+         * without blocking by this many threads, instead of by a thread per connection, and the socket factory is not
+         * used.
+         *
+         * @param selectorThreads the number of selector threads
+         */
+        public void setSelectorThreads(final int selectorThreads) {
+            this.selectorThreads = selectorThreads;
+        }
+
+        public int getMaxMessageSize() {
+            return maxMessageSize;
+        }
+
+        /**
+         * Set the maximum size in bytes of a message received by a selector thread. Has no effect unless
+         * {@link #setSelectorThreads(int) selector threads} are used.
+         *
+         * @param maxMessageSize the maximum message size
+         */
+        public void setMaxMessageSize(final int maxMessageSize) {
+            this.maxMessageSize = maxMessageSize;
+        }
     }
 }
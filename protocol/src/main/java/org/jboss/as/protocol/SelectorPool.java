@@ -0,0 +1,484 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A small pool of selector threads which read from non-blocking socket channels on behalf of many connections.
+ * <p>
+ * Each selector thread owns a single read buffer which is reused for every connection registered with it; the bytes
+ * read are passed to the {@link ReadListener} of the connection, which is expected to copy what it needs and return
+ * without blocking. Writes are done by the threads writing the messages; when the socket send buffer is full they
+ * wait for the selector thread to report that the channel is writable again.
+ * <p>
+ * A failure while serving one channel, including an unchecked exception thrown by its listener, only closes that
+ * channel. When an idle timeout is given, a channel from which nothing was read for that long is closed as if a
+ * blocking read had timed out; the timeout is checked a few times per period, so a channel may stay open for up to a
+ * quarter of the timeout longer.
+ */
+final class SelectorPool {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.selector");
+
+    private static final int READ_BUFFER_SIZE = 65536;
+
+    private final SelectorThread[] threads;
+    private final AtomicInteger next = new AtomicInteger();
+    private final long idleTimeout;
+    private final long idleCheckInterval;
+
+    /**
+     * Create a new pool.
+     *
+     * @param size the number of selector threads
+     * @param threadFactory the factory of the selector threads
+     * @param idleTimeout the time in milliseconds after which a channel from which nothing was read is closed, or
+     *        {@code 0} to keep idle channels open
+     * @throws IOException if a selector cannot be opened
+     */
+    SelectorPool(final int size, final ThreadFactory threadFactory, final int idleTimeout) throws IOException {
+        if (size < 1) {
+            throw new IllegalArgumentException("size is less than 1");
+        }
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("threadFactory is null");
+        }
+        if (idleTimeout < 0) {
+            throw new IllegalArgumentException("idleTimeout is negative");
+        }
+        this.idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        idleCheckInterval = idleTimeout == 0 ? 0 : Math.max(1, idleTimeout / 4);
+        threads = new SelectorThread[size];
+        boolean ok = false;
+        try {
+            for (int i = 0; i < size; i++) {
+                threads[i] = new SelectorThread(threadFactory, i + 1);
+            }
+            ok = true;
+        } finally {
+            if (!ok) {
+                stop();
+            }
+        }
+    }
+
+    void start() {
+        for (SelectorThread thread : threads) {
+            thread.thread.start();
+        }
+    }
+
+    void stop() {
+        for (SelectorThread thread : threads) {
+            if (thread != null) {
+                thread.stop();
+            }
+        }
+    }
+
+    /**
+     * Prepare a channel for use with this pool. The channel is switched to non-blocking mode and assigned to one of
+     * the selector threads; reads only start once {@link Registration#start(ReadListener)} is called.
+     *
+     * @param channel the connected channel
+     * @return the registration
+     * @throws IOException if the channel cannot be switched to non-blocking mode
+     */
+    Registration prepare(final SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        final SelectorThread thread = threads[(next.getAndIncrement() & Integer.MAX_VALUE) % threads.length];
+        return new Registration(channel, thread);
+    }
+
+    /**
+     * Receives the data read from a channel. The methods are called by the selector thread and must not block.
+     */
+    interface ReadListener {
+
+        /**
+         * Handle data read from the channel. The buffer is reused once the method returns.
+         *
+         * @param buffer the buffer, positioned at the data read
+         * @throws IOException if the data is invalid; the channel is then closed and {@link #handleFailure(IOException)} called
+         */
+        void handleRead(ByteBuffer buffer) throws IOException;
+
+        /**
+         * Handle the end of the stream.
+         */
+        void handleEndOfStream();
+
+        /**
+         * Handle a read failure.
+         *
+         * @param e the failure
+         */
+        void handleFailure(IOException e);
+    }
+
+    /**
+     * A channel served by one of the selector threads.
+     */
+    final class Registration {
+
+        private final SocketChannel channel;
+        private final SelectorThread thread;
+        private final OutputStream outputStream = new RegistrationOutputStream();
+        private volatile ReadListener listener;
+        private volatile SelectionKey key;
+        // accessed by the selector thread only
+        private long lastRead;
+        // protected by this
+        private boolean writeWaiting;
+        // protected by this
+        private boolean closed;
+        // protected by this
+        private boolean notified;
+
+        Registration(final SocketChannel channel, final SelectorThread thread) {
+            this.channel = channel;
+            this.thread = thread;
+        }
+
+        Socket getSocket() {
+            return channel.socket();
+        }
+
+        /**
+         * Get a blocking output stream writing to the channel. The stream is not thread safe; writers must coordinate.
+         *
+         * @return the output stream
+         */
+        OutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        void start(final ReadListener listener) {
+            this.listener = listener;
+            thread.execute(this, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        lastRead = System.nanoTime();
+                        key = channel.register(thread.selector, SelectionKey.OP_READ, Registration.this);
+                    } catch (ClosedChannelException e) {
+                        closed(null);
+                    }
+                }
+            });
+        }
+
+        private void awaitWritable() throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    throw new SocketException("Socket closed");
+                }
+                writeWaiting = true;
+            }
+            thread.execute(this, new Runnable() {
+                @Override
+                public void run() {
+                    final SelectionKey key = Registration.this.key;
+                    try {
+                        if (key != null) {
+                            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        }
+                    } catch (CancelledKeyException e) {
+                        closed(null);
+                    }
+                }
+            });
+            boolean intr = false;
+            try {
+                synchronized (this) {
+                    while (writeWaiting && !closed) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            intr = true;
+                        }
+                    }
+                    if (closed) {
+                        throw new SocketException("Socket closed");
+                    }
+                }
+            } finally {
+                if (intr) Thread.currentThread().interrupt();
+            }
+        }
+
+        void writable() {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            synchronized (this) {
+                writeWaiting = false;
+                notifyAll();
+            }
+        }
+
+        /**
+         * Close the channel. The listener sees this as a read failure, as it would when closing a socket which is
+         * being read by a blocking thread.
+         */
+        void close() {
+            StreamUtils.safeClose(channel);
+            closed(new SocketException("Socket closed"));
+        }
+
+        /**
+         * Close the channel after an unexpected failure while serving it.
+         *
+         * @param cause the failure
+         */
+        void failed(final RuntimeException cause) {
+            log.errorf(cause, "Failed to serve %s", channel);
+            StreamUtils.safeClose(channel);
+            closed(new IOException("Failed to serve the channel", cause));
+        }
+
+        /**
+         * Close the channel if nothing was read from it for longer than the idle timeout.
+         *
+         * @param now the current {@link System#nanoTime() time}
+         */
+        void checkIdle(final long now) {
+            final SelectionKey key = this.key;
+            // once the end of the stream is reached there is nothing left to wait for
+            if (key != null && key.isValid() && (key.interestOps() & SelectionKey.OP_READ) != 0 && now - lastRead >= idleTimeout) {
+                log.tracef("Closing idle channel %s", channel);
+                StreamUtils.safeClose(channel);
+                closed(new SocketTimeoutException("Read timed out"));
+            }
+        }
+
+        /**
+         * Called once the channel can no longer be used.
+         *
+         * @param failure the failure, or {@code null} if the end of the stream was reached
+         */
+        void closed(final IOException failure) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                notifyAll();
+            }
+            final SelectionKey key = this.key;
+            if (key != null) {
+                key.cancel();
+            }
+            notifyListener(failure);
+        }
+
+        void endOfStream() {
+            // no more reads, but the write side stays usable until the connection is closed
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            notifyListener(null);
+        }
+
+        private void notifyListener(final IOException failure) {
+            final ReadListener listener = this.listener;
+            synchronized (this) {
+                if (notified || listener == null) {
+                    return;
+                }
+                notified = true;
+            }
+            try {
+                if (failure == null) {
+                    listener.handleEndOfStream();
+                } else {
+                    listener.handleFailure(failure);
+                }
+            } catch (RuntimeException e) {
+                log.errorf(e, "Failed to notify the listener of %s", channel);
+            }
+        }
+
+        final class RegistrationOutputStream extends OutputStream {
+
+            private final byte[] single = new byte[1];
+
+            @Override
+            public void write(final int b) throws IOException {
+                single[0] = (byte) b;
+                write(single, 0, 1);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                while (buffer.hasRemaining()) {
+                    if (channel.write(buffer) == 0) {
+                        awaitWritable();
+                    }
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                Registration.this.close();
+            }
+        }
+    }
+
+    final class SelectorThread implements Runnable {
+
+        private final Selector selector;
+        private final Thread thread;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<Task>();
+        private volatile boolean stop;
+
+        SelectorThread(final ThreadFactory threadFactory, final int index) throws IOException {
+            selector = Selector.open();
+            thread = threadFactory.newThread(this);
+            if (thread == null) {
+                selector.close();
+                throw new IllegalStateException("Thread creation was refused");
+            }
+            thread.setName("Protocol selector thread " + index);
+        }
+
+        /**
+         * Run a task for a registration on the selector thread.
+         *
+         * @param registration the registration which is closed if the task fails
+         * @param task the task
+         */
+        void execute(final Registration registration, final Runnable task) {
+            tasks.add(new Task(registration, task));
+            selector.wakeup();
+        }
+
+        void stop() {
+            stop = true;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                long nextIdleCheck = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(idleCheckInterval);
+                while (!stop) {
+                    selector.select(idleCheckInterval);
+                    Task task;
+                    while ((task = tasks.poll()) != null) {
+                        try {
+                            task.task.run();
+                        } catch (RuntimeException e) {
+                            task.registration.failed(e);
+                        }
+                    }
+                    final Iterator<SelectionKey> i = selector.selectedKeys().iterator();
+                    while (i.hasNext()) {
+                        final SelectionKey key = i.next();
+                        i.remove();
+                        final Registration registration = (Registration) key.attachment();
+                        try {
+                            if (key.isWritable()) {
+                                registration.writable();
+                            }
+                            if (key.isReadable()) {
+                                read(registration);
+                            }
+                        } catch (CancelledKeyException e) {
+                            registration.closed(null);
+                        } catch (IOException e) {
+                            StreamUtils.safeClose(registration.channel);
+                            registration.closed(e);
+                        } catch (RuntimeException e) {
+                            registration.failed(e);
+                        }
+                    }
+                    if (idleTimeout > 0) {
+                        final long now = System.nanoTime();
+                        if (now - nextIdleCheck >= 0) {
+                            for (SelectionKey key : selector.keys()) {
+                                ((Registration) key.attachment()).checkIdle(now);
+                            }
+                            nextIdleCheck = now + TimeUnit.MILLISECONDS.toNanos(idleCheckInterval);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.errorf(e, "Selector failed");
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((Registration) key.attachment()).close();
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    log.errorf(e, "Failed to close selector");
+                }
+            }
+        }
+
+        private void read(final Registration registration) throws IOException {
+            final ByteBuffer buffer = readBuffer;
+            buffer.clear();
+            final int cnt = registration.channel.read(buffer);
+            if (cnt == -1) {
+                log.trace("Received end of stream");
+                registration.endOfStream();
+                return;
+            }
+            if (cnt > 0) {
+                registration.lastRead = System.nanoTime();
+                buffer.flip();
+                registration.listener.handleRead(buffer);
+            }
+        }
+    }
+
+    private static final class Task {
+
+        private final Registration registration;
+        private final Runnable task;
+
+        Task(final Registration registration, final Runnable task) {
+            this.registration = registration;
+            this.task = task;
+        }
+    }
+}
@@ -29,7 +29,8 @@ public interface ManagementProtocol {
     // Headers
     byte[] SIGNATURE = {Byte.MAX_VALUE, Byte.MIN_VALUE, Byte.MAX_VALUE, Byte.MIN_VALUE};
     int VERSION_FIELD = 0x00; // The version field header
-    int VERSION = 1; // The current protocol version
+    int VERSION = 2; // The current protocol version
+    int MULTIPLEXED_VERSION = 2; // The first version where requests can be sent on their own channel of a connection
 
     int REQUEST_START = 0x01;
     int REQUEST_OPERATION = 0x02;
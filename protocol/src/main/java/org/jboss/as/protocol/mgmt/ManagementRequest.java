@@ -34,6 +34,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.protocol.ByteDataInput;
 import org.jboss.as.protocol.ByteDataOutput;
@@ -46,13 +47,24 @@ import org.jboss.as.protocol.StreamUtils;
 /**
  * Base management request used for remote requests.  Provides the basic mechanism for connecting to a remote host controller
  * for performing a task.  It will manage connecting and retrieving the correct response.
+ * <p>
+ * Once the header exchange on a connection has shown that the peer supports {@link ManagementProtocol#MULTIPLEXED_VERSION},
+ * further requests on that connection are each sent on a channel of their own. The request then follows the header
+ * without waiting for the response header, and any number of requests can be outstanding on the connection, with
+ * responses arriving in whatever order the peer completes them.
  *
  * @author John Bailey
  */
 public abstract class ManagementRequest<T> extends AbstractMessageHandler {
-    private int requestId = 0;
+    private static final AtomicInteger nextRequestId = new AtomicInteger();
+
+    private final int requestId = nextRequestId.incrementAndGet();
     private final ResponseFuture<T> future = new ResponseFuture<T>();
     private ManagementRequestConnectionStrategy connectionStrategy;
+    /** The connection obtained from the connection strategy */
+    private volatile Connection physicalConnection;
+    /** The channel the request is sent on, or {@code null} if it uses the connection itself */
+    private volatile Connection channel;
     // @GuardedBy(resultLock)
     private T result;
     /**
@@ -78,10 +90,20 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
      */
     public Future<T> execute(final ManagementRequestConnectionStrategy connectionStrategy) throws IOException {
         this.connectionStrategy = connectionStrategy;
+        final Connection physicalConnection = connectionStrategy.getConnection();
+        this.physicalConnection = physicalConnection;
+        final int version = physicalConnection.getNegotiatedVersion();
+        final Connection connection;
+        if (version >= ManagementProtocol.MULTIPLEXED_VERSION) {
+            connection = physicalConnection.openChannel();
+            channel = connection;
+        } else {
+            connection = physicalConnection;
+        }
         OutputStream dataOutput = null;
         ByteDataOutput output = null;
+        boolean ok = false;
         try {
-            final Connection connection = connectionStrategy.getConnection();
             connection.backupMessageHandler();
 
             connection.setMessageHandler(initiatingMessageHandler);
@@ -93,9 +115,17 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
             connection.setMessageHandler(initiatingMessageHandler);
             output.close();
             dataOutput.close();
+            if (channel != null) {
+                // The peer handles the messages on a channel in order, so there is no need to wait for the response header
+                sendRequest(version, connection);
+            }
+            ok = true;
         } finally {
             safeClose(output);
             safeClose(dataOutput);
+            if (!ok && channel != null) {
+                safeClose(channel);
+            }
         }
         return future;
     }
@@ -138,7 +168,10 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
                     throw new IOException("Invalid request ID expecting " + requestId + " received " + responseHeader.getResponseId());
                 }
                 connection.setMessageHandler(ManagementRequest.this);
-                sendRequest(responseHeader.getVersion(), connection);
+                if (channel == null) {
+                    physicalConnection.setNegotiatedVersion(responseHeader.getVersion());
+                    sendRequest(responseHeader.getVersion(), connection);
+                }
             } catch (Exception e) {
                 future.setException(e);
             } finally {
@@ -147,7 +180,7 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
                     // We must have failed above and set the exception.
                     // If we fail sending we shouldn't expect a response,
                     // so consider the connection complete
-                    connectionStrategy.complete();
+                    complete();
                 }
             }
         }
@@ -247,7 +280,7 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
                 future.setException(e);
             }
             finally {
-                connectionStrategy.complete();
+                complete();
             }
         }
 
@@ -265,6 +298,14 @@ public abstract class ManagementRequest<T> extends AbstractMessageHandler {
         }
     };
 
+    private void complete() {
+        final Connection channel = this.channel;
+        if (channel != null) {
+            safeClose(channel);
+        }
+        connectionStrategy.complete();
+    }
+
     protected T receiveResponse(final InputStream input) throws IOException {
         return null;
     }
@@ -0,0 +1,230 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of the non-blocking transport of {@link SelectorPool}.
+ */
+public final class SelectorPoolTest {
+
+    private static final Object END_OF_STREAM = new Object();
+
+    private final List<Socket> clients = new ArrayList<Socket>();
+    private SelectorPool pool;
+    private ServerSocketChannel server;
+
+    @After
+    public void cleanUp() throws IOException {
+        for (Socket client : clients) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+        if (pool != null) {
+            pool.stop();
+        }
+    }
+
+    @Test
+    public void testReadAndWrite() throws Exception {
+        start(0);
+        final RecordingListener listener = new RecordingListener();
+        final SelectorPool.Registration registration = connect(listener);
+        final Socket client = clients.get(0);
+
+        client.getOutputStream().write(new byte[] { 1, 2, 3 });
+        assertEquals(3, listener.readBytes(3).length);
+
+        // larger than the socket buffers, so the writer has to wait for the channel to become writable
+        final int size = 8 * 1024 * 1024;
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Integer> received = executor.submit(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    final InputStream in = client.getInputStream();
+                    final byte[] buffer = new byte[8192];
+                    int total = 0;
+                    while (total < size) {
+                        final int cnt = in.read(buffer);
+                        if (cnt == -1) {
+                            break;
+                        }
+                        total += cnt;
+                    }
+                    return Integer.valueOf(total);
+                }
+            });
+            final OutputStream out = registration.getOutputStream();
+            final byte[] chunk = new byte[64 * 1024];
+            for (int i = 0; i < size / chunk.length; i++) {
+                out.write(chunk);
+            }
+            assertEquals(size, received.get(10, TimeUnit.SECONDS).intValue());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        client.shutdownOutput();
+        assertTrue(listener.next() == END_OF_STREAM);
+    }
+
+    @Test
+    public void testListenerFailureOnlyClosesItsChannel() throws Exception {
+        start(0);
+        final RecordingListener failing = new RecordingListener() {
+            @Override
+            public void handleRead(final ByteBuffer buffer) throws IOException {
+                throw new IllegalStateException("Broken listener");
+            }
+        };
+        final RecordingListener healthy = new RecordingListener();
+        connect(failing);
+        connect(healthy);
+
+        clients.get(0).getOutputStream().write(1);
+        final Object failure = failing.next();
+        assertTrue(failure instanceof IOException);
+        assertTrue(((IOException) failure).getCause() instanceof IllegalStateException);
+        // the peer sees the channel closed
+        assertEquals(-1, clients.get(0).getInputStream().read());
+
+        // the selector thread keeps serving the other channel
+        clients.get(1).getOutputStream().write(new byte[] { 4, 5 });
+        assertEquals(2, healthy.readBytes(2).length);
+    }
+
+    @Test
+    public void testIdleChannelIsClosed() throws Exception {
+        start(200);
+        final RecordingListener idle = new RecordingListener();
+        final RecordingListener busy = new RecordingListener();
+        connect(idle);
+        connect(busy);
+
+        final OutputStream out = clients.get(1).getOutputStream();
+        final long start = System.nanoTime();
+        Object event = null;
+        while (event == null) {
+            out.write(1);
+            assertEquals(1, busy.readBytes(1).length);
+            event = idle.events.poll(50, TimeUnit.MILLISECONDS);
+        }
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(event instanceof SocketTimeoutException);
+        assertTrue("Closed after " + elapsed + "ms", elapsed >= 150);
+
+        // the channel which kept receiving data is still open
+        out.write(new byte[] { 1, 2 });
+        assertEquals(2, busy.readBytes(2).length);
+    }
+
+    @Test
+    public void testIdleChannelIsKeptWithoutTimeout() throws Exception {
+        start(0);
+        final RecordingListener listener = new RecordingListener();
+        connect(listener);
+
+        assertTrue(listener.events.poll(500, TimeUnit.MILLISECONDS) == null);
+        clients.get(0).getOutputStream().write(1);
+        assertEquals(1, listener.readBytes(1).length);
+    }
+
+    private void start(final int idleTimeout) throws IOException {
+        pool = new SelectorPool(1, Executors.defaultThreadFactory(), idleTimeout);
+        pool.start();
+        server = ServerSocketChannel.open();
+        server.socket().bind(new InetSocketAddress(InetAddress.getByName("localhost"), 0));
+    }
+
+    private SelectorPool.Registration connect(final SelectorPool.ReadListener listener) throws IOException {
+        final Socket client = new Socket(server.socket().getInetAddress(), server.socket().getLocalPort());
+        clients.add(client);
+        final SocketChannel channel = server.accept();
+        final SelectorPool.Registration registration = pool.prepare(channel);
+        registration.start(listener);
+        return registration;
+    }
+
+    static class RecordingListener implements SelectorPool.ReadListener {
+
+        final BlockingQueue<Object> events = new LinkedBlockingQueue<Object>();
+
+        public void handleRead(final ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                events.add(Byte.valueOf(buffer.get()));
+            }
+        }
+
+        public void handleEndOfStream() {
+            events.add(END_OF_STREAM);
+        }
+
+        public void handleFailure(final IOException e) {
+            events.add(e);
+        }
+
+        Object next() throws InterruptedException {
+            final Object event = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull("No event received", event);
+            return event;
+        }
+
+        byte[] readBytes(final int count) throws InterruptedException {
+            final byte[] bytes = new byte[count];
+            for (int i = 0; i < count; i++) {
+                final Object event = next();
+                assertTrue("Unexpected event " + event, event instanceof Byte);
+                bytes[i] = ((Byte) event).byteValue();
+            }
+            return bytes;
+        }
+    }
+}
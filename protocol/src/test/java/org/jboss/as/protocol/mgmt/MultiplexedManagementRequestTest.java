@@ -0,0 +1,233 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+
+import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.ConnectionHandler;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.ProtocolClient;
+import org.jboss.as.protocol.ProtocolServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
+import static org.jboss.as.protocol.StreamUtils.readByte;
+import static org.jboss.as.protocol.StreamUtils.readInt;
+import static org.jboss.as.protocol.StreamUtils.safeClose;
+import static org.jboss.as.protocol.StreamUtils.writeInt;
+import static org.junit.Assert.*;
+
+/**
+ * Sends management requests in both directions over one multiplexed connection.
+ */
+public final class MultiplexedManagementRequestTest {
+
+    private static final byte HANDLER_ID = 0x55;
+    private static final byte ECHO_REQUEST = 0x01;
+    private static final byte ECHO_RESPONSE = 0x02;
+    private static final int REQUESTS = 20;
+
+    private final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+    private ExecutorService executor;
+    private ProtocolServer server;
+    private Connection clientConnection;
+    private Connection serverConnection;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool(threadFactory);
+        final AtomicReference<Connection> accepted = new AtomicReference<Connection>();
+
+        final ProtocolServer.Configuration serverConfig = new ProtocolServer.Configuration();
+        serverConfig.setThreadFactory(threadFactory);
+        serverConfig.setSocketFactory(ServerSocketFactory.getDefault());
+        serverConfig.setReadExecutor(executor);
+        serverConfig.setBindAddress(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0));
+        serverConfig.setConnectionHandler(new ConnectionHandler() {
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                synchronized (accepted) {
+                    accepted.set(connection);
+                    accepted.notifyAll();
+                }
+                return new EchoHeaderMessageHandler();
+            }
+        });
+        server = new ProtocolServer(serverConfig);
+        server.start();
+
+        final ProtocolClient.Configuration clientConfig = new ProtocolClient.Configuration();
+        clientConfig.setThreadFactory(threadFactory);
+        clientConfig.setSocketFactory(SocketFactory.getDefault());
+        clientConfig.setReadExecutor(executor);
+        clientConfig.setServerAddress(server.getBoundAddress());
+        clientConfig.setMessageHandler(MessageHandler.NULL);
+        clientConnection = new ProtocolClient(clientConfig).connect();
+        // set up the handlers after connecting, like the server does for its host controller connection
+        final MessageHandler clientHandler = new EchoHeaderMessageHandler();
+        clientConnection.setMessageHandler(clientHandler);
+        clientConnection.setChannelMessageHandler(clientHandler);
+
+        synchronized (accepted) {
+            final long deadline = System.currentTimeMillis() + 10000L;
+            while (accepted.get() == null && System.currentTimeMillis() < deadline) {
+                accepted.wait(100L);
+            }
+        }
+        serverConnection = accepted.get();
+        assertNotNull("Connection was not accepted", serverConnection);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        safeClose(clientConnection);
+        safeClose(serverConnection);
+        if (server != null) {
+            server.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRequestsInBothDirections() throws Exception {
+        // the first request on each side negotiates the version on the connection itself
+        assertEquals(Integer.valueOf(-1), new EchoRequest(-1).execute(strategy(clientConnection)).get());
+        assertEquals(ManagementProtocol.MULTIPLEXED_VERSION, clientConnection.getNegotiatedVersion());
+        assertEquals(Integer.valueOf(-2), new EchoRequest(-2).execute(strategy(serverConnection)).get());
+        assertEquals(ManagementProtocol.MULTIPLEXED_VERSION, serverConnection.getNegotiatedVersion());
+
+        final List<Future<Integer>> clientRequests = new ArrayList<Future<Integer>>();
+        final List<Future<Integer>> serverRequests = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < REQUESTS; i++) {
+            clientRequests.add(new EchoRequest(i).execute(strategy(clientConnection)));
+            serverRequests.add(new EchoRequest(1000 + i).execute(strategy(serverConnection)));
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals(Integer.valueOf(i), clientRequests.get(i).get());
+            assertEquals(Integer.valueOf(1000 + i), serverRequests.get(i).get());
+        }
+    }
+
+    private static ManagementRequestConnectionStrategy strategy(final Connection connection) {
+        return new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection);
+    }
+
+    private static final class EchoRequest extends ManagementRequest<Integer> {
+        private final int value;
+
+        EchoRequest(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        protected byte getHandlerId() {
+            return HANDLER_ID;
+        }
+
+        @Override
+        protected byte getRequestCode() {
+            return ECHO_REQUEST;
+        }
+
+        @Override
+        protected byte getResponseCode() {
+            return ECHO_RESPONSE;
+        }
+
+        @Override
+        protected void sendRequest(final int protocolVersion, final OutputStream output) throws IOException {
+            writeInt(output, value);
+        }
+
+        @Override
+        protected Integer receiveResponse(final InputStream input) throws IOException {
+            return Integer.valueOf(readInt(input));
+        }
+    }
+
+    private static final class EchoHeaderMessageHandler extends ManagementHeaderMessageHandler {
+        @Override
+        protected MessageHandler getHandlerForId(final byte handlerId) {
+            return handlerId == HANDLER_ID ? new EchoOperationHandler(this) : null;
+        }
+    }
+
+    private static final class EchoOperationHandler extends AbstractMessageHandler implements ManagementOperationHandler {
+        private final MessageHandler headerHandler;
+
+        EchoOperationHandler(final MessageHandler headerHandler) {
+            this.headerHandler = headerHandler;
+        }
+
+        public byte getIdentifier() {
+            return HANDLER_ID;
+        }
+
+        public void handle(final Connection connection, final InputStream input) throws IOException {
+            expectHeader(input, ManagementProtocol.REQUEST_OPERATION);
+            final byte commandCode = readByte(input);
+            if (commandCode != ECHO_REQUEST) {
+                throw new IOException("Invalid command code " + commandCode + " received");
+            }
+            new EchoResponse(headerHandler).handle(connection, input);
+        }
+    }
+
+    private static final class EchoResponse extends ManagementResponse {
+        private int value;
+
+        EchoResponse(final MessageHandler finalMessageHandler) {
+            super(finalMessageHandler);
+        }
+
+        @Override
+        protected byte getResponseCode() {
+            return ECHO_RESPONSE;
+        }
+
+        @Override
+        protected void readRequest(final InputStream input) throws IOException {
+            value = readInt(input);
+        }
+
+        @Override
+        protected void sendResponse(final OutputStream output) throws IOException {
+            writeInt(output, value);
+        }
+    }
+}
@@ -45,6 +45,7 @@ public enum Attribute {
     DEFAULT_CALLBACK_HANDLER_CLASS_NAME("default-callback-handler-class-name"),
     EXTENDS("extends"),
     FLAG("flag"),
+    IDLE_TIMEOUT("idle-timeout"),
     IDENTITY_TRUST_MANAGER_CLASS_NAME("identity-trust-manager-class-name"),
     KEY_MANAGER_FACTORY_ALGORITHM("key-manager-factory-algorithm"),
     KEY_MANAGER_FACTORY_PROVIDER("key-manager-factory-provider"),
@@ -55,6 +56,7 @@ public enum Attribute {
     KEYSTORE_URL("keystore-url"),
     LOGIN_MODULE_STACK_REF("login-module-stack-ref"),
     MAPPING_MANAGER_CLASS_NAME("mapping-manager-class-name"),
+    MAX_ENTRIES("max-entries"),
     NAME("name"),
     PROTOCOLS("protocols"),
     SERVER_ALIAS("server-alias"),
@@ -67,6 +69,7 @@ public enum Attribute {
     TRUSTSTORE_PROVIDER_ARGUMENT("truststore-provider-argument"),
     TRUSTSTORE_TYPE("truststore-type"),
     TRUSTSTORE_URL("truststore-url"),
+    TTL("ttl"),
     TYPE("type"),
     VALUE("value");
 
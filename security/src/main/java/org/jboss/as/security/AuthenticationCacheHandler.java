@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.security.Constants.EVICTION_COUNT;
+import static org.jboss.as.security.Constants.HIT_COUNT;
+import static org.jboss.as.security.Constants.MAX_ENTRIES;
+import static org.jboss.as.security.Constants.MISS_COUNT;
+import static org.jboss.as.security.Constants.PRINCIPAL;
+import static org.jboss.as.security.Constants.SIZE;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.security.plugins.AuthenticationCache;
+import org.jboss.as.security.plugins.JNDIBasedSecurityManagement;
+import org.jboss.as.security.service.SecurityManagementService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Runtime operations on the authentication cache of a security domain.
+ */
+class AuthenticationCacheHandler implements ModelQueryOperationHandler {
+
+    /** Removes the cached authentications of one principal, or of all principals if none is given */
+    static final AuthenticationCacheHandler FLUSH_CACHE = new AuthenticationCacheHandler(true);
+
+    /** Reads the hit, miss and eviction counters of the cache */
+    static final AuthenticationCacheHandler READ_CACHE_STATISTICS = new AuthenticationCacheHandler(false);
+
+    private final boolean flush;
+
+    private AuthenticationCacheHandler(boolean flush) {
+        this.flush = flush;
+    }
+
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler)
+            throws OperationFailedException {
+        final String securityDomain = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    AuthenticationCache cache = null;
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(SecurityManagementService.SERVICE_NAME);
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final JNDIBasedSecurityManagement securityManagement = (JNDIBasedSecurityManagement) controller.getValue();
+                        cache = securityManagement.getAuthenticationCache(securityDomain);
+                    }
+                    final ModelNode result = new ModelNode();
+                    if (flush) {
+                        if (cache != null) {
+                            if (operation.hasDefined(PRINCIPAL))
+                                cache.flush(operation.get(PRINCIPAL).asString());
+                            else
+                                cache.flush();
+                        }
+                    } else if (cache != null) {
+                        result.get(MAX_ENTRIES).set(cache.getMaxEntries());
+                        result.get(SIZE).set(cache.size());
+                        result.get(HIT_COUNT).set(cache.getHitCount());
+                        result.get(MISS_COUNT).set(cache.getMissCount());
+                        result.get(EVICTION_COUNT).set(cache.getEvictionCount());
+                    }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode());
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
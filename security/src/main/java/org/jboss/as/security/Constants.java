@@ -35,6 +35,7 @@ public interface Constants {
     String AUDIT_MANAGER_CLASS_NAME = "audit-manager-class-name";
     String AUTH_MODULE = "auth-module";
     String AUTHENTICATION = "authentication";
+    String AUTHENTICATION_CACHE = "authentication-cache";
     String AUTHENTICATION_JASPI = "authentication-jaspi";
     String AUTHENTICATION_MANAGER_CLASS_NAME = "authentication-manager-class-name";
     String AUTHORIZATION = "authorization";
@@ -45,8 +46,12 @@ public interface Constants {
     String CODE = "code";
     String DEEP_COPY_SUBJECT_MODE = "deep-copy-subject-mode";
     String DEFAULT_CALLBACK_HANDLER_CLASS_NAME = "default-callback-handler-class-name";
+    String EVICTION_COUNT = "eviction-count";
     String EXTENDS = "extends";
     String FLAG = "flag";
+    String FLUSH_CACHE = "flush-cache";
+    String HIT_COUNT = "hit-count";
+    String IDLE_TIMEOUT = "idle-timeout";
     String IDENTITY_TRUST = "identity-trust";
     String IDENTITY_TRUST_MANAGER_CLASS_NAME = "identity-trust-manager-class-name";
     String JSSE = "jsse";
@@ -61,13 +66,18 @@ public interface Constants {
     String LOGIN_MODULE_STACK_REF = "login-module-stack-ref";
     String MAPPING = "mapping";
     String MAPPING_MANAGER_CLASS_NAME = "mapping-manager-class-name";
+    String MAX_ENTRIES = "max-entries";
+    String MISS_COUNT = "miss-count";
     String MODULE_OPTIONS = "module-options";
     String NAME = "name";
+    String PRINCIPAL = "principal";
     String PROTOCOLS = "protocols";
+    String READ_CACHE_STATISTICS = "read-cache-statistics";
     String SECURITY_MANAGEMENT = "security-management";
     String SECURITY_DOMAIN = "security-domain";
     String SERVER_ALIAS = "server-alias";
     String SERVICE_AUTH_TOKEN = "service-auth-token";
+    String SIZE = "size";
     String SUBJECT_FACTORY = "subject-factory";
     String SUBJECT_FACTORY_CLASS_NAME = "subject-factory-class-name";
     String TRUST_MANAGER_FACTORY_ALGORITHM = "trust-manager-factory-algorithm";
@@ -77,6 +87,7 @@ public interface Constants {
     String TRUSTSTORE_PROVIDER_ARGUMENT = "truststore-provider-argument";
     String TRUSTSTORE_TYPE = "truststore-type";
     String TRUSTSTORE_URL = "truststore-url";
+    String TTL = "ttl";
     String TYPE = "type";
     String VALUE = "value";
 }
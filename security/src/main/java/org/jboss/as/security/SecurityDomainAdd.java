@@ -28,6 +28,7 @@ import static org.jboss.as.security.Constants.ACL;
 import static org.jboss.as.security.Constants.ADDITIONAL_PROPERTIES;
 import static org.jboss.as.security.Constants.AUDIT;
 import static org.jboss.as.security.Constants.AUTHENTICATION;
+import static org.jboss.as.security.Constants.AUTHENTICATION_CACHE;
 import static org.jboss.as.security.Constants.AUTHENTICATION_JASPI;
 import static org.jboss.as.security.Constants.AUTHORIZATION;
 import static org.jboss.as.security.Constants.AUTH_MODULE;
@@ -37,6 +38,7 @@ import static org.jboss.as.security.Constants.CLIENT_AUTH;
 import static org.jboss.as.security.Constants.CODE;
 import static org.jboss.as.security.Constants.FLAG;
 import static org.jboss.as.security.Constants.IDENTITY_TRUST;
+import static org.jboss.as.security.Constants.IDLE_TIMEOUT;
 import static org.jboss.as.security.Constants.JSSE;
 import static org.jboss.as.security.Constants.KEYSTORE_PASSWORD;
 import static org.jboss.as.security.Constants.KEYSTORE_PROVIDER;
@@ -48,6 +50,7 @@ import static org.jboss.as.security.Constants.KEY_MANAGER_FACTORY_PROVIDER;
 import static org.jboss.as.security.Constants.LOGIN_MODULE_STACK;
 import static org.jboss.as.security.Constants.LOGIN_MODULE_STACK_REF;
 import static org.jboss.as.security.Constants.MAPPING;
+import static org.jboss.as.security.Constants.MAX_ENTRIES;
 import static org.jboss.as.security.Constants.MODULE_OPTIONS;
 import static org.jboss.as.security.Constants.NAME;
 import static org.jboss.as.security.Constants.PROTOCOLS;
@@ -60,6 +63,7 @@ import static org.jboss.as.security.Constants.TRUSTSTORE_TYPE;
 import static org.jboss.as.security.Constants.TRUSTSTORE_URL;
 import static org.jboss.as.security.Constants.TRUST_MANAGER_FACTORY_ALGORITHM;
 import static org.jboss.as.security.Constants.TRUST_MANAGER_FACTORY_PROVIDER;
+import static org.jboss.as.security.Constants.TTL;
 import static org.jboss.as.security.Constants.TYPE;
 
 import java.io.IOException;
@@ -68,6 +72,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import javax.security.auth.login.AppConfigurationEntry;
 import javax.security.auth.login.AppConfigurationEntry.LoginModuleControlFlag;
@@ -83,6 +88,7 @@ import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.RuntimeTask;
 import org.jboss.as.controller.RuntimeTaskContext;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.security.plugins.AuthenticationCache;
 import org.jboss.as.security.service.JaasConfigurationService;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.as.security.service.SecurityManagementService;
@@ -132,7 +138,8 @@ class SecurityDomainAdd implements ModelAddOperationHandler {
     }
 
     @Override
-    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) {
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler)
+            throws OperationFailedException {
         ModelNode opAddr = operation.require(OP_ADDR);
         PathAddress address = PathAddress.pathAddress(opAddr);
         final String securityDomain = address.getLastElement().getValue();
@@ -141,13 +148,14 @@ class SecurityDomainAdd implements ModelAddOperationHandler {
 
         final ApplicationPolicy applicationPolicy = createApplicationPolicy(securityDomain, operation);
         final JSSESecurityDomain jsseSecurityDomain = createJSSESecurityDomain(securityDomain, operation);
+        final AuthenticationCache authenticationCache = createAuthenticationCache(operation);
 
         if (context.getRuntimeContext() != null) {
             context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
                 @Override
                 public void execute(RuntimeTaskContext context) throws OperationFailedException {
                     final SecurityDomainService securityDomainService = new SecurityDomainService(securityDomain,
-                            applicationPolicy, jsseSecurityDomain);
+                            applicationPolicy, jsseSecurityDomain, authenticationCache);
                     final ServiceTarget target = context.getServiceTarget();
                     target.addService(SecurityDomainService.SERVICE_NAME.append(securityDomain), securityDomainService)
                             .addDependency(SecurityManagementService.SERVICE_NAME, ISecurityManagement.class,
@@ -167,6 +175,20 @@ class SecurityDomainAdd implements ModelAddOperationHandler {
         return new BasicOperationResult(compensatingOperation);
     }
 
+    private AuthenticationCache createAuthenticationCache(ModelNode operation) throws OperationFailedException {
+        ModelNode node = operation.get(AUTHENTICATION_CACHE);
+        if (!node.isDefined())
+            return null;
+        int maxEntries = node.hasDefined(MAX_ENTRIES) ? node.get(MAX_ENTRIES).asInt() : AuthenticationCache.DEFAULT_MAX_ENTRIES;
+        long ttl = node.hasDefined(TTL) ? node.get(TTL).asLong() : AuthenticationCache.DEFAULT_TTL;
+        long idleTimeout = node.hasDefined(IDLE_TIMEOUT) ? node.get(IDLE_TIMEOUT).asLong() : AuthenticationCache.DEFAULT_IDLE_TIMEOUT;
+        try {
+            return new AuthenticationCache(maxEntries, ttl, idleTimeout, TimeUnit.SECONDS);
+        } catch (IllegalArgumentException e) {
+            throw new OperationFailedException(new ModelNode().set("Invalid " + AUTHENTICATION_CACHE + ": " + e.getMessage()));
+        }
+    }
+
     private ApplicationPolicy createApplicationPolicy(String securityDomain, ModelNode operation) {
         ApplicationPolicy applicationPolicy = null;
         ModelNode node = null;
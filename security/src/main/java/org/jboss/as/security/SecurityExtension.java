@@ -89,6 +89,10 @@ public class SecurityExtension implements Extension {
                 SecuritySubsystemDescriptions.SECURITY_DOMAIN_ADD, false);
         securityDomain.registerOperationHandler(SecurityDomainRemove.OPERATION_NAME, SecurityDomainRemove.INSTANCE,
                 SecuritySubsystemDescriptions.SECURITY_DOMAIN_REMOVE, false);
+        securityDomain.registerOperationHandler(Constants.FLUSH_CACHE, AuthenticationCacheHandler.FLUSH_CACHE,
+                SecuritySubsystemDescriptions.FLUSH_CACHE, false);
+        securityDomain.registerOperationHandler(Constants.READ_CACHE_STATISTICS, AuthenticationCacheHandler.READ_CACHE_STATISTICS,
+                SecuritySubsystemDescriptions.READ_CACHE_STATISTICS, false);
 
         subsystem.registerXMLElementWriter(PARSER);
     }
@@ -39,11 +39,13 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
 import static org.jboss.as.security.Constants.ACL;
 import static org.jboss.as.security.Constants.ADDITIONAL_PROPERTIES;
 import static org.jboss.as.security.Constants.AUDIT;
 import static org.jboss.as.security.Constants.AUDIT_MANAGER_CLASS_NAME;
 import static org.jboss.as.security.Constants.AUTHENTICATION;
+import static org.jboss.as.security.Constants.AUTHENTICATION_CACHE;
 import static org.jboss.as.security.Constants.AUTHENTICATION_JASPI;
 import static org.jboss.as.security.Constants.AUTHENTICATION_MANAGER_CLASS_NAME;
 import static org.jboss.as.security.Constants.AUTHORIZATION;
@@ -55,10 +57,13 @@ import static org.jboss.as.security.Constants.CLIENT_AUTH;
 import static org.jboss.as.security.Constants.CODE;
 import static org.jboss.as.security.Constants.DEEP_COPY_SUBJECT_MODE;
 import static org.jboss.as.security.Constants.DEFAULT_CALLBACK_HANDLER_CLASS_NAME;
+import static org.jboss.as.security.Constants.EVICTION_COUNT;
 import static org.jboss.as.security.Constants.EXTENDS;
 import static org.jboss.as.security.Constants.FLAG;
+import static org.jboss.as.security.Constants.HIT_COUNT;
 import static org.jboss.as.security.Constants.IDENTITY_TRUST;
 import static org.jboss.as.security.Constants.IDENTITY_TRUST_MANAGER_CLASS_NAME;
+import static org.jboss.as.security.Constants.IDLE_TIMEOUT;
 import static org.jboss.as.security.Constants.JSSE;
 import static org.jboss.as.security.Constants.KEYSTORE_PASSWORD;
 import static org.jboss.as.security.Constants.KEYSTORE_PROVIDER;
@@ -71,11 +76,15 @@ import static org.jboss.as.security.Constants.LOGIN_MODULE_STACK;
 import static org.jboss.as.security.Constants.LOGIN_MODULE_STACK_REF;
 import static org.jboss.as.security.Constants.MAPPING;
 import static org.jboss.as.security.Constants.MAPPING_MANAGER_CLASS_NAME;
+import static org.jboss.as.security.Constants.MAX_ENTRIES;
+import static org.jboss.as.security.Constants.MISS_COUNT;
 import static org.jboss.as.security.Constants.MODULE_OPTIONS;
 import static org.jboss.as.security.Constants.NAME;
+import static org.jboss.as.security.Constants.PRINCIPAL;
 import static org.jboss.as.security.Constants.PROTOCOLS;
 import static org.jboss.as.security.Constants.SERVER_ALIAS;
 import static org.jboss.as.security.Constants.SERVICE_AUTH_TOKEN;
+import static org.jboss.as.security.Constants.SIZE;
 import static org.jboss.as.security.Constants.SUBJECT_FACTORY_CLASS_NAME;
 import static org.jboss.as.security.Constants.TRUSTSTORE_PASSWORD;
 import static org.jboss.as.security.Constants.TRUSTSTORE_PROVIDER;
@@ -84,6 +93,7 @@ import static org.jboss.as.security.Constants.TRUSTSTORE_TYPE;
 import static org.jboss.as.security.Constants.TRUSTSTORE_URL;
 import static org.jboss.as.security.Constants.TRUST_MANAGER_FACTORY_ALGORITHM;
 import static org.jboss.as.security.Constants.TRUST_MANAGER_FACTORY_PROVIDER;
+import static org.jboss.as.security.Constants.TTL;
 import static org.jboss.as.security.Constants.VALUE;
 
 import java.util.Locale;
@@ -91,6 +101,7 @@ import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
+import org.jboss.as.security.plugins.AuthenticationCache;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -147,6 +158,20 @@ class SecuritySubsystemDescriptions {
         }
     };
 
+    static final DescriptionProvider FLUSH_CACHE = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(Locale locale) {
+            return Descriptions.getFlushCache(locale);
+        }
+    };
+
+    static final DescriptionProvider READ_CACHE_STATISTICS = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(Locale locale) {
+            return Descriptions.getReadCacheStatistics(locale);
+        }
+    };
+
     private static ResourceBundle getResourceBundle(Locale locale) {
         if (locale == null) {
             locale = Locale.getDefault();
@@ -295,6 +320,7 @@ class SecuritySubsystemDescriptions {
             op.get(CHILDREN, IDENTITY_TRUST).set(getIdentityTrust(locale));
             op.get(CHILDREN, MAPPING).set(getMapping(locale));
             op.get(CHILDREN, JSSE).set(getJSSE(locale));
+            op.get(CHILDREN, AUTHENTICATION_CACHE).set(getAuthenticationCache(locale, ATTRIBUTES));
 
             return op;
         }
@@ -316,6 +342,7 @@ class SecuritySubsystemDescriptions {
             op.get(CHILDREN, IDENTITY_TRUST).set(getIdentityTrustAdd(locale));
             op.get(CHILDREN, MAPPING).set(getMappingAdd(locale));
             op.get(CHILDREN, JSSE).set(getJSSEAdd(locale));
+            op.get(CHILDREN, AUTHENTICATION_CACHE).set(getAuthenticationCache(locale, REQUEST_PROPERTIES));
             return op;
         }
 
@@ -836,5 +863,58 @@ class SecuritySubsystemDescriptions {
 
             return node;
         }
+
+        static ModelNode getAuthenticationCache(Locale locale, String attributes) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode node = new ModelNode();
+            node.get(TYPE).set(ModelType.OBJECT);
+            node.get(DESCRIPTION).set(bundle.getString("authentication-cache"));
+            node.get(REQUIRED).set(false);
+            node.get(attributes, MAX_ENTRIES, DESCRIPTION).set(bundle.getString("authentication-cache.max-entries"));
+            node.get(attributes, MAX_ENTRIES, TYPE).set(ModelType.INT);
+            node.get(attributes, MAX_ENTRIES, REQUIRED).set(false);
+            node.get(attributes, MAX_ENTRIES, DEFAULT).set(AuthenticationCache.DEFAULT_MAX_ENTRIES);
+            node.get(attributes, TTL, DESCRIPTION).set(bundle.getString("authentication-cache.ttl"));
+            node.get(attributes, TTL, TYPE).set(ModelType.LONG);
+            node.get(attributes, TTL, REQUIRED).set(false);
+            node.get(attributes, TTL, DEFAULT).set(AuthenticationCache.DEFAULT_TTL);
+            node.get(attributes, IDLE_TIMEOUT, DESCRIPTION).set(bundle.getString("authentication-cache.idle-timeout"));
+            node.get(attributes, IDLE_TIMEOUT, TYPE).set(ModelType.LONG);
+            node.get(attributes, IDLE_TIMEOUT, REQUIRED).set(false);
+            node.get(attributes, IDLE_TIMEOUT, DEFAULT).set(AuthenticationCache.DEFAULT_IDLE_TIMEOUT);
+
+            return node;
+        }
+
+        static ModelNode getFlushCache(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode op = new ModelNode();
+            op.get(OPERATION_NAME).set(Constants.FLUSH_CACHE);
+            op.get(DESCRIPTION).set(bundle.getString("flush-cache"));
+            op.get(REQUEST_PROPERTIES, PRINCIPAL, DESCRIPTION).set(bundle.getString("flush-cache.principal"));
+            op.get(REQUEST_PROPERTIES, PRINCIPAL, TYPE).set(ModelType.STRING);
+            op.get(REQUEST_PROPERTIES, PRINCIPAL, REQUIRED).set(false);
+            op.get(REPLY_PROPERTIES).setEmptyObject();
+
+            return op;
+        }
+
+        static ModelNode getReadCacheStatistics(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode op = new ModelNode();
+            op.get(OPERATION_NAME).set(Constants.READ_CACHE_STATISTICS);
+            op.get(DESCRIPTION).set(bundle.getString("read-cache-statistics"));
+            op.get(REQUEST_PROPERTIES).setEmptyObject();
+            op.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString("read-cache-statistics.reply"));
+            op.get(REPLY_PROPERTIES, TYPE).set(ModelType.OBJECT);
+            for (String counter : new String[] { MAX_ENTRIES, SIZE, HIT_COUNT, MISS_COUNT, EVICTION_COUNT }) {
+                op.get(REPLY_PROPERTIES, VALUE_TYPE, counter, TYPE).set(MAX_ENTRIES.equals(counter) || SIZE.equals(counter) ? ModelType.INT : ModelType.LONG);
+            }
+
+            return op;
+        }
     }
 }
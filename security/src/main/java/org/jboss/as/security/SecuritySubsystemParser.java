@@ -38,6 +38,7 @@ import static org.jboss.as.security.Constants.ADDITIONAL_PROPERTIES;
 import static org.jboss.as.security.Constants.AUDIT;
 import static org.jboss.as.security.Constants.AUDIT_MANAGER_CLASS_NAME;
 import static org.jboss.as.security.Constants.AUTHENTICATION;
+import static org.jboss.as.security.Constants.AUTHENTICATION_CACHE;
 import static org.jboss.as.security.Constants.AUTHENTICATION_JASPI;
 import static org.jboss.as.security.Constants.AUTHENTICATION_MANAGER_CLASS_NAME;
 import static org.jboss.as.security.Constants.AUTHORIZATION;
@@ -52,6 +53,7 @@ import static org.jboss.as.security.Constants.DEFAULT_CALLBACK_HANDLER_CLASS_NAM
 import static org.jboss.as.security.Constants.EXTENDS;
 import static org.jboss.as.security.Constants.FLAG;
 import static org.jboss.as.security.Constants.IDENTITY_TRUST;
+import static org.jboss.as.security.Constants.IDLE_TIMEOUT;
 import static org.jboss.as.security.Constants.IDENTITY_TRUST_MANAGER_CLASS_NAME;
 import static org.jboss.as.security.Constants.JSSE;
 import static org.jboss.as.security.Constants.KEYSTORE_PASSWORD;
@@ -65,6 +67,7 @@ import static org.jboss.as.security.Constants.LOGIN_MODULE_STACK;
 import static org.jboss.as.security.Constants.LOGIN_MODULE_STACK_REF;
 import static org.jboss.as.security.Constants.MAPPING;
 import static org.jboss.as.security.Constants.MAPPING_MANAGER_CLASS_NAME;
+import static org.jboss.as.security.Constants.MAX_ENTRIES;
 import static org.jboss.as.security.Constants.MODULE_OPTIONS;
 import static org.jboss.as.security.Constants.NAME;
 import static org.jboss.as.security.Constants.PROTOCOLS;
@@ -79,6 +82,7 @@ import static org.jboss.as.security.Constants.TRUSTSTORE_TYPE;
 import static org.jboss.as.security.Constants.TRUSTSTORE_URL;
 import static org.jboss.as.security.Constants.TRUST_MANAGER_FACTORY_ALGORITHM;
 import static org.jboss.as.security.Constants.TRUST_MANAGER_FACTORY_PROVIDER;
+import static org.jboss.as.security.Constants.TTL;
 import static org.jboss.as.security.Constants.TYPE;
 
 import java.util.ArrayList;
@@ -267,6 +271,10 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                     writeJSSE(writer, policyDetails.get(JSSE));
                     break;
                 }
+                case AUTHENTICATION_CACHE: {
+                    writeAuthenticationCache(writer, policyDetails.get(AUTHENTICATION_CACHE));
+                    break;
+                }
                 default:
                     throw new IllegalStateException("Unexpected field " + element.getLocalName());
             }
@@ -457,6 +465,18 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
         }
     }
 
+    private void writeAuthenticationCache(XMLExtendedStreamWriter writer, ModelNode modelNode) throws XMLStreamException {
+        if (modelNode.isDefined()) {
+            writer.writeEmptyElement(Element.AUTHENTICATION_CACHE.getLocalName());
+            if (modelNode.hasDefined(MAX_ENTRIES))
+                writeAttribute(writer, Attribute.MAX_ENTRIES, modelNode.get(MAX_ENTRIES));
+            if (modelNode.hasDefined(TTL))
+                writeAttribute(writer, Attribute.TTL, modelNode.get(TTL));
+            if (modelNode.hasDefined(IDLE_TIMEOUT))
+                writeAttribute(writer, Attribute.IDLE_TIMEOUT, modelNode.get(IDLE_TIMEOUT));
+        }
+    }
+
     private boolean isNonStandard(ModelNode node, String attribute) {
         return node.hasDefined(attribute) && !"default".equals(node.get(attribute).asString());
     }
@@ -669,6 +689,10 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                             parseJSSE(reader, op.get(JSSE));
                             break;
                         }
+                        case AUTHENTICATION_CACHE: {
+                            parseAuthenticationCache(reader, op.get(AUTHENTICATION_CACHE));
+                            break;
+                        }
                         default: {
                             throw unexpectedElement(reader);
                         }
@@ -1043,6 +1067,46 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
         requireNoContent(reader);
     }
 
+    private void parseAuthenticationCache(XMLExtendedStreamReader reader, ModelNode op) throws XMLStreamException {
+        op.setEmptyObject();
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            try {
+                switch (attribute) {
+                    case MAX_ENTRIES: {
+                        final int maxEntries = Integer.parseInt(value);
+                        if (maxEntries < 1)
+                            throw invalidAttributeValue(reader, i);
+                        op.get(MAX_ENTRIES).set(maxEntries);
+                        break;
+                    }
+                    case TTL: {
+                        final long ttl = Long.parseLong(value);
+                        if (ttl < 0)
+                            throw invalidAttributeValue(reader, i);
+                        op.get(TTL).set(ttl);
+                        break;
+                    }
+                    case IDLE_TIMEOUT: {
+                        final long idleTimeout = Long.parseLong(value);
+                        if (idleTimeout < 0)
+                            throw invalidAttributeValue(reader, i);
+                        op.get(IDLE_TIMEOUT).set(idleTimeout);
+                        break;
+                    }
+                    default:
+                        throw unexpectedAttribute(reader, i);
+                }
+            } catch (NumberFormatException e) {
+                throw invalidAttributeValue(reader, i);
+            }
+        }
+        requireNoContent(reader);
+    }
+
     private void parseJSSE(XMLExtendedStreamReader reader, ModelNode op) throws XMLStreamException {
         EnumSet<Attribute> visited = EnumSet.noneOf(Attribute.class);
         final int count = reader.getAttributeCount();
@@ -0,0 +1,326 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.plugins;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.security.auth.Subject;
+
+/**
+ * Cache of successful authentications of a security domain.
+ * <p>
+ * The cache is split into stripes selected by the hash of the principal, each holding at most its share of the
+ * maximum number of entries in access order, so concurrent logins of different users rarely contend for the same
+ * lock. An entry is discarded once it is older than the time to live, once it has not been used for the idle
+ * timeout, or when its stripe is full and it is the least recently used entry of the stripe. Expired entries are
+ * removed when they are looked up and whenever an entry is added to their stripe, no background thread is needed.
+ */
+public final class AuthenticationCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_TTL = 300;
+    public static final long DEFAULT_IDLE_TIMEOUT = 60;
+
+    private static final int MAX_STRIPES = 16;
+
+    /**
+     * The source of the time stamps entries are aged by, replaced by tests.
+     */
+    interface Clock {
+        long nanoTime();
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private final int maxEntries;
+    private final long ttl;
+    private final long idleTimeout;
+    private final Stripe[] stripes;
+    private final Clock clock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param maxEntries the maximum number of cached authentications
+     * @param ttl the time an authentication is cached for, or 0 to cache it until it is evicted
+     * @param idleTimeout the time an unused authentication is cached for, or 0 to keep unused authentications
+     * @param unit the unit of {@code ttl} and {@code idleTimeout}
+     */
+    public AuthenticationCache(final int maxEntries, final long ttl, final long idleTimeout, final TimeUnit unit) {
+        this(maxEntries, ttl, idleTimeout, unit, SYSTEM_CLOCK);
+    }
+
+    AuthenticationCache(final int maxEntries, final long ttl, final long idleTimeout, final TimeUnit unit, final Clock clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        if (ttl < 0 || idleTimeout < 0) {
+            throw new IllegalArgumentException("ttl and idleTimeout cannot be negative");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit is null");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("clock is null");
+        }
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+        this.ttl = unit.toNanos(ttl);
+        this.idleTimeout = unit.toNanos(idleTimeout);
+        int count = 1;
+        while (count < MAX_STRIPES && count * 2 <= maxEntries) {
+            count *= 2;
+        }
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            // spread the remainder over the first stripes so the capacities add up to maxEntries
+            stripes[i] = new Stripe(maxEntries / count + (i < maxEntries % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Checks whether a principal has been authenticated with the given credential before, and if so copies the
+     * principals and credentials of the authenticated subject into {@code activeSubject}.
+     *
+     * @param principal the principal
+     * @param credential the credential
+     * @param activeSubject the subject to populate, or {@code null}
+     * @return {@code true} if the authentication was found in the cache
+     */
+    public boolean isValid(final Principal principal, final Object credential, final Subject activeSubject) {
+        if (principal == null || credential == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        final Entry entry = stripeFor(principal).get(principal, clock.nanoTime());
+        if (entry == null || !credentialEquals(entry.credential, credential) || (activeSubject != null && entry.subject == null)) {
+            misses.incrementAndGet();
+            return false;
+        }
+        if (activeSubject != null) {
+            synchronized (activeSubject) {
+                activeSubject.getPrincipals().addAll(entry.subject.getPrincipals());
+                activeSubject.getPublicCredentials().addAll(entry.subject.getPublicCredentials());
+                activeSubject.getPrivateCredentials().addAll(entry.subject.getPrivateCredentials());
+            }
+        }
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Caches a successful authentication.
+     *
+     * @param principal the principal
+     * @param credential the credential
+     * @param subject the authenticated subject, or {@code null} if it is not known
+     */
+    public void put(final Principal principal, final Object credential, final Subject subject) {
+        if (principal == null || credential == null) {
+            return;
+        }
+        Subject copy = null;
+        if (subject != null) {
+            synchronized (subject) {
+                copy = new Subject(false, subject.getPrincipals(), subject.getPublicCredentials(), subject.getPrivateCredentials());
+            }
+        }
+        final long now = clock.nanoTime();
+        stripeFor(principal).put(principal, new Entry(copyCredential(credential), copy, now), now);
+    }
+
+    /**
+     * Removes the cached authentications of every principal with the given name.
+     *
+     * @param name the principal name
+     */
+    public void flush(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+        for (Stripe stripe : stripes) {
+            stripe.remove(name);
+        }
+    }
+
+    /**
+     * Removes all cached authentications.
+     */
+    public void flush() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of authentications discarded because they expired or to make room for others.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private Stripe stripeFor(final Principal principal) {
+        int h = principal.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    private boolean isExpired(final Entry entry, final long now) {
+        return (ttl > 0 && now - entry.created > ttl) || (idleTimeout > 0 && now - entry.lastAccess > idleTimeout);
+    }
+
+    private static Object copyCredential(final Object credential) {
+        // the caller may clear its password array once the login is done
+        if (credential instanceof char[]) {
+            return ((char[]) credential).clone();
+        }
+        if (credential instanceof byte[]) {
+            return ((byte[]) credential).clone();
+        }
+        return credential;
+    }
+
+    private static boolean credentialEquals(final Object cached, final Object credential) {
+        if (cached instanceof char[] && credential instanceof char[]) {
+            return Arrays.equals((char[]) cached, (char[]) credential);
+        }
+        if (cached instanceof byte[] && credential instanceof byte[]) {
+            return Arrays.equals((byte[]) cached, (byte[]) credential);
+        }
+        if (cached instanceof Object[] && credential instanceof Object[]) {
+            return Arrays.deepEquals((Object[]) cached, (Object[]) credential);
+        }
+        return cached.equals(credential);
+    }
+
+    private static final class Entry {
+        final Object credential;
+        final Subject subject;
+        final long created;
+        volatile long lastAccess;
+
+        Entry(final Object credential, final Subject subject, final long created) {
+            this.credential = credential;
+            this.subject = subject;
+            this.created = created;
+            this.lastAccess = created;
+        }
+    }
+
+    private final class Stripe {
+        private final int capacity;
+        private final LinkedHashMap<Principal, Entry> entries = new LinkedHashMap<Principal, Entry>(16, 0.75f, true);
+
+        Stripe(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized Entry get(final Principal principal, final long now) {
+            final Entry entry = entries.get(principal);
+            if (entry == null) {
+                return null;
+            }
+            if (isExpired(entry, now)) {
+                entries.remove(principal);
+                evictions.incrementAndGet();
+                return null;
+            }
+            entry.lastAccess = now;
+            return entry;
+        }
+
+        synchronized void put(final Principal principal, final Entry entry, final long now) {
+            entries.put(principal, entry);
+            // the least recently used entries come first, so idle entries are found without a full scan
+            final Iterator<Entry> i = entries.values().iterator();
+            int size = entries.size();
+            while (i.hasNext()) {
+                final Entry eldest = i.next();
+                if (eldest == entry) {
+                    break;
+                }
+                if (size > capacity || isExpired(eldest, now)) {
+                    i.remove();
+                    size--;
+                    evictions.incrementAndGet();
+                } else {
+                    break;
+                }
+            }
+        }
+
+        synchronized void remove(final String name) {
+            final Iterator<Principal> i = entries.keySet().iterator();
+            while (i.hasNext()) {
+                if (name.equals(i.next().getName())) {
+                    i.remove();
+                }
+            }
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
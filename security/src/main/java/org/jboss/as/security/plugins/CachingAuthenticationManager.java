@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.security.plugins;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.security.Principal;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.security.auth.Subject;
+
+import org.jboss.security.AuthenticationManager;
+
+/**
+ * Puts an {@link AuthenticationCache} in front of an {@code AuthenticationManager}.
+ * <p>
+ * Only the username/credential variants of {@code isValid} are cached, every other call is passed on to the
+ * authentication manager. The returned proxy implements all interfaces of the authentication manager, so callers
+ * which check for optional interfaces such as {@code RealmMapping} still find them.
+ */
+final class CachingAuthenticationManager implements InvocationHandler {
+
+    private final AuthenticationManager delegate;
+    private final AuthenticationCache cache;
+
+    private CachingAuthenticationManager(final AuthenticationManager delegate, final AuthenticationCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    static AuthenticationManager create(final AuthenticationManager delegate, final AuthenticationCache cache) {
+        final Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+        for (Class<?> c = delegate.getClass(); c != null; c = c.getSuperclass()) {
+            for (Class<?> i : c.getInterfaces()) {
+                interfaces.add(i);
+            }
+        }
+        interfaces.add(AuthenticationManager.class);
+        return (AuthenticationManager) Proxy.newProxyInstance(delegate.getClass().getClassLoader(),
+                interfaces.toArray(new Class<?>[interfaces.size()]), new CachingAuthenticationManager(delegate, cache));
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if ("isValid".equals(method.getName()) && args != null && args.length >= 2 && args.length <= 3
+                && (args[0] == null || args[0] instanceof Principal)) {
+            final Principal principal = (Principal) args[0];
+            final Object credential = args[1];
+            final Subject activeSubject = args.length == 3 ? (Subject) args[2] : null;
+            if (cache.isValid(principal, credential, activeSubject)) {
+                return Boolean.TRUE;
+            }
+            final Boolean valid = (Boolean) invokeDelegate(method, args);
+            if (valid.booleanValue()) {
+                cache.put(principal, credential, activeSubject);
+            }
+            return valid;
+        }
+        if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+            return Boolean.valueOf(proxy == args[0]);
+        }
+        if ("hashCode".equals(method.getName()) && args == null) {
+            return Integer.valueOf(System.identityHashCode(proxy));
+        }
+        return invokeDelegate(method, args);
+    }
+
+    private Object invokeDelegate(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -61,6 +61,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
     private transient ConcurrentHashMap<String, IdentityTrustManager> idmMgrMap = new ConcurrentHashMap<String, IdentityTrustManager>();
     private transient ConcurrentHashMap<String, MappingManager> mappingMgrMap = new ConcurrentHashMap<String, MappingManager>();
     private transient ConcurrentHashMap<String, JSSESecurityDomain> jsseMap = new ConcurrentHashMap<String, JSSESecurityDomain>();
+    private transient ConcurrentHashMap<String, AuthenticationCache> authCacheMap = new ConcurrentHashMap<String, AuthenticationCache>();
 
     private String authenticationManagerClassName;
     private boolean deepCopySubjectMode;
@@ -228,11 +229,35 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
         this.mappingManagerClassName = mappingManagerClassName;
     }
 
+    /**
+     * Sets the authentication cache of a security domain. Must be called before the {@code SecurityDomainContext}
+     * of the domain is created.
+     *
+     * @param securityDomain name of the security domain
+     * @param authenticationCache the cache
+     */
+    public void setAuthenticationCache(String securityDomain, AuthenticationCache authenticationCache) {
+        authCacheMap.put(securityDomain, authenticationCache);
+    }
+
+    /**
+     * Gets the authentication cache of a security domain
+     *
+     * @param securityDomain name of the security domain
+     * @return the cache, or {@code null} if authentications of the domain are not cached
+     */
+    public AuthenticationCache getAuthenticationCache(String securityDomain) {
+        return authCacheMap.get(securityDomain);
+    }
+
     /**
      * Removes one security domain from the maps
      * @param securityDomain name of the security domain
      */
     public void removeSecurityDomain(String securityDomain) {
+        AuthenticationCache authenticationCache = authCacheMap.remove(securityDomain);
+        if (authenticationCache != null)
+            authenticationCache.flush();
         securityMgrMap.remove(securityDomain);
         auditMgrMap.remove(securityDomain);
         authMgrMap.remove(securityDomain);
@@ -273,15 +298,17 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
     public SecurityDomainContext createSecurityDomainContext(String securityDomain) throws Exception {
         log.debug("Creating SDC for domain=" + securityDomain);
         AuthenticationManager am = createAuthenticationManager(securityDomain);
-        // TODO create auth cache and set it in am
 
         // set DeepCopySubject option if supported
         if (deepCopySubjectMode) {
             setDeepCopySubjectMode(am);
         }
 
-        // TODO set auth cache
-        SecurityDomainContext securityDomainContext = new SecurityDomainContext(am, null);
+        AuthenticationCache authenticationCache = authCacheMap.get(securityDomain);
+        if (authenticationCache != null) {
+            am = CachingAuthenticationManager.create(am, authenticationCache);
+        }
+        SecurityDomainContext securityDomainContext = new SecurityDomainContext(am, authenticationCache);
 
         securityDomainContext.setAuthorizationManager(createAuthorizationManager(securityDomain));
         securityDomainContext.setAuditMgr(createAuditManager(securityDomain));
@@ -25,6 +25,7 @@ package org.jboss.as.security.service;
 import javax.security.auth.login.Configuration;
 
 import org.jboss.as.security.SecurityExtension;
+import org.jboss.as.security.plugins.AuthenticationCache;
 import org.jboss.as.security.plugins.JNDIBasedSecurityManagement;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.logging.Logger;
@@ -61,12 +62,20 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
 
     private final JSSESecurityDomain jsseSecurityDomain;
 
+    private final AuthenticationCache authenticationCache;
+
     private SecurityDomainContext securityDomainContext;
 
     public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain) {
+        this(name, applicationPolicy, jsseSecurityDomain, null);
+    }
+
+    public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
+            AuthenticationCache authenticationCache) {
         this.name = name;
         this.applicationPolicy = applicationPolicy;
         this.jsseSecurityDomain = jsseSecurityDomain;
+        this.authenticationCache = authenticationCache;
     }
 
     /** {@inheritDoc} */
@@ -79,6 +88,11 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
                     .getValue();
             applicationPolicyRegistration.addApplicationPolicy(applicationPolicy.getName(), applicationPolicy);
         }
+        if (authenticationCache != null) {
+            final JNDIBasedSecurityManagement securityManagement = (JNDIBasedSecurityManagement) securityManagementValue
+                    .getValue();
+            securityManagement.setAuthenticationCache(name, authenticationCache);
+        }
         if (jsseSecurityDomain != null) {
             final JNDIBasedSecurityManagement securityManagement = (JNDIBasedSecurityManagement) securityManagementValue
                     .getValue();
@@ -97,8 +111,8 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
     @Override
     public void stop(StopContext context) {
         final JNDIBasedSecurityManagement securityManagement = (JNDIBasedSecurityManagement) securityManagementValue.getValue();
+        // also flushes the authentication cache
         securityManagement.removeSecurityDomain(name);
-        // TODO clear auth cache?
         final ApplicationPolicyRegistration applicationPolicyRegistration = (ApplicationPolicyRegistration) configurationValue
                 .getValue();
         applicationPolicyRegistration.removeApplicationPolicy(name);
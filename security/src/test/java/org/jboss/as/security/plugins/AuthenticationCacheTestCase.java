@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.Subject;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link AuthenticationCache}.
+ */
+public class AuthenticationCacheTestCase {
+
+    /**
+     * A principal whose hash code is given, so tests can choose the stripe it is cached in.
+     */
+    static final class TestPrincipal implements Principal {
+        private final String name;
+        private final int hash;
+
+        TestPrincipal(final String name, final int hash) {
+            this.name = name;
+            this.hash = hash;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof TestPrincipal && name.equals(((TestPrincipal) obj).name) && hash == ((TestPrincipal) obj).hash;
+        }
+    }
+
+    static final class TestClock implements AuthenticationCache.Clock {
+        private long now;
+
+        public long nanoTime() {
+            return now;
+        }
+
+        void advance(final long duration, final TimeUnit unit) {
+            now += unit.toNanos(duration);
+        }
+    }
+
+    private final TestClock clock = new TestClock();
+
+    @Test
+    public void testEntryExpiresAfterTimeToLive() {
+        final AuthenticationCache cache = new AuthenticationCache(10, 10, 0, TimeUnit.SECONDS, clock);
+        final Principal user = new TestPrincipal("user", 1);
+        cache.put(user, "secret", null);
+        clock.advance(9, TimeUnit.SECONDS);
+        assertTrue(cache.isValid(user, "secret", null));
+        // using the entry does not extend its time to live
+        clock.advance(2, TimeUnit.SECONDS);
+        assertFalse(cache.isValid(user, "secret", null));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testUnusedEntryExpiresAfterIdleTimeout() {
+        final AuthenticationCache cache = new AuthenticationCache(10, 0, 5, TimeUnit.SECONDS, clock);
+        final Principal user = new TestPrincipal("user", 1);
+        cache.put(user, "secret", null);
+        clock.advance(4, TimeUnit.SECONDS);
+        assertTrue(cache.isValid(user, "secret", null));
+        clock.advance(4, TimeUnit.SECONDS);
+        assertTrue(cache.isValid(user, "secret", null));
+        clock.advance(6, TimeUnit.SECONDS);
+        assertFalse(cache.isValid(user, "secret", null));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testExpiredEntriesAreRemovedWhenTheirStripeIsWritten() {
+        final AuthenticationCache cache = new AuthenticationCache(10, 0, 5, TimeUnit.SECONDS, clock);
+        cache.put(new TestPrincipal("idle", 0), "secret", null);
+        clock.advance(6, TimeUnit.SECONDS);
+        cache.put(new TestPrincipal("active", 0), "secret", null);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryOfFullStripeIsEvicted() {
+        // 32 entries are split into 16 stripes of 2
+        final AuthenticationCache cache = new AuthenticationCache(32, 0, 0, TimeUnit.SECONDS, clock);
+        final Principal first = new TestPrincipal("first", 0);
+        final Principal second = new TestPrincipal("second", 0);
+        final Principal third = new TestPrincipal("third", 0);
+        final Principal other = new TestPrincipal("other", 1);
+        cache.put(other, "secret", null);
+        cache.put(first, "secret", null);
+        cache.put(second, "secret", null);
+        assertTrue(cache.isValid(first, "secret", null));
+        cache.put(third, "secret", null);
+
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(3, cache.size());
+        assertFalse(cache.isValid(second, "secret", null));
+        assertTrue(cache.isValid(first, "secret", null));
+        assertTrue(cache.isValid(third, "secret", null));
+        // other stripes are not affected
+        assertTrue(cache.isValid(other, "secret", null));
+    }
+
+    @Test
+    public void testCredentialMustMatch() {
+        final AuthenticationCache cache = new AuthenticationCache(10, 0, 0, TimeUnit.SECONDS, clock);
+        final Principal user = new TestPrincipal("user", 1);
+        final char[] password = "secret".toCharArray();
+        cache.put(user, password, null);
+        // the caller may clear its password once the login is done
+        Arrays.fill(password, '\0');
+        assertFalse(cache.isValid(user, "other".toCharArray(), null));
+        assertFalse(cache.isValid(user, "secret", null));
+        assertFalse(cache.isValid(user, null, null));
+        assertTrue(cache.isValid(user, "secret".toCharArray(), null));
+    }
+
+    @Test
+    public void testAuthenticatedSubjectIsCopied() {
+        final AuthenticationCache cache = new AuthenticationCache(10, 0, 0, TimeUnit.SECONDS, clock);
+        final Principal user = new TestPrincipal("user", 1);
+        final Principal role = new TestPrincipal("role", 2);
+        final Subject subject = new Subject();
+        subject.getPrincipals().add(user);
+        subject.getPrincipals().add(role);
+        subject.getPrivateCredentials().add("secret");
+        cache.put(user, "secret", subject);
+
+        final Subject activeSubject = new Subject();
+        assertTrue(cache.isValid(user, "secret", activeSubject));
+        assertEquals(subject.getPrincipals(), activeSubject.getPrincipals());
+        assertEquals(subject.getPrivateCredentials(), activeSubject.getPrivateCredentials());
+
+        // without the subject the authentication cannot populate one
+        cache.put(user, "secret", null);
+        assertFalse(cache.isValid(user, "secret", new Subject()));
+        assertTrue(cache.isValid(user, "secret", null));
+    }
+
+    @Test
+    public void testFlush() {
+        final AuthenticationCache cache = new AuthenticationCache(10, 0, 0, TimeUnit.SECONDS, clock);
+        final Principal user = new TestPrincipal("user", 1);
+        final Principal sameName = new TestPrincipal("user", 2);
+        final Principal other = new TestPrincipal("other", 3);
+        cache.put(user, "secret", null);
+        cache.put(sameName, "secret", null);
+        cache.put(other, "secret", null);
+        // every principal with the name is flushed, whichever stripe it is in
+        cache.flush("user");
+        assertFalse(cache.isValid(user, "secret", null));
+        assertFalse(cache.isValid(sameName, "secret", null));
+        assertTrue(cache.isValid(other, "secret", null));
+
+        cache.put(user, "secret", null);
+        cache.flush();
+        assertEquals(0, cache.size());
+        assertFalse(cache.isValid(user, "secret", null));
+        assertFalse(cache.isValid(other, "secret", null));
+    }
+
+    @Test
+    public void testHitAndMissCounts() {
+        final AuthenticationCache cache = new AuthenticationCache(10, 10, 0, TimeUnit.SECONDS, clock);
+        final Principal user = new TestPrincipal("user", 1);
+        assertFalse(cache.isValid(user, "secret", null));
+        cache.put(user, "secret", null);
+        assertTrue(cache.isValid(user, "secret", null));
+        assertTrue(cache.isValid(user, "secret", null));
+        assertFalse(cache.isValid(user, "wrong", null));
+        assertFalse(cache.isValid(null, "secret", null));
+        clock.advance(11, TimeUnit.SECONDS);
+        assertFalse(cache.isValid(user, "secret", null));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+}
@@ -83,6 +83,11 @@ public class SubsystemParsingUnitTestCase {
         assertEquals("UsersRoles", code.asString());
         ModelNode flag = modelNode.get("flag");
         assertEquals("required", flag.asString());
+
+        ModelNode cache = node.get("authentication-cache");
+        assertEquals(500, cache.get("max-entries").asInt());
+        assertEquals(120, cache.get("ttl").asLong());
+        assertEquals(30, cache.get("idle-timeout").asLong());
     }
 
     List<ModelNode> parse(final String name) throws XMLStreamException, IOException {
@@ -566,6 +566,26 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
         }
     }
 
+    /**
+     * Combines the runtime tasks set by handlers executed for the same operation, such as the metric handlers
+     * invoked by a read-resource which includes runtime attributes, so each of them runs.
+     */
+    private static RuntimeTask chain(final RuntimeTask first, final RuntimeTask second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return new RuntimeTask() {
+            @Override
+            public void execute(final RuntimeTaskContext context) throws OperationFailedException {
+                first.execute(context);
+                second.execute(context);
+            }
+        };
+    }
+
     private class ServerOperationContextImpl extends OperationContextImpl implements ServerOperationContext, RuntimeOperationContext {
         // -1 as initial value ensures the CAS in revertRestartRequired()
         // will never succeed unless restartRequired() is called
@@ -616,7 +636,7 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
 
         @Override
         public void setRuntimeTask(RuntimeTask runtimeTask) {
-            this.runtimeTask = runtimeTask;
+            this.runtimeTask = chain(this.runtimeTask, runtimeTask);
         }
     }
 
@@ -980,7 +1000,7 @@ class ServerControllerImpl extends BasicModelController implements ServerControl
 
             @Override
             public void setRuntimeTask(RuntimeTask runtimeTask) {
-                runtimeTasks.put(id, runtimeTask);
+                runtimeTasks.put(id, chain(runtimeTasks.get(id), runtimeTask));
             }
 
             @Override
@@ -24,6 +24,8 @@ package org.jboss.as.server;
 
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.persistence.CoalescingConfigurationPersister;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.server.ServerControllerImpl.RegisteredProcessor;
 import org.jboss.as.server.deployment.Attachments;
@@ -35,6 +37,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.server.deployment.ServiceLoaderProcessor;
 import org.jboss.as.server.deployment.SubDeploymentProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndexProcessor;
 import org.jboss.as.server.deployment.api.ServerDeploymentRepository;
@@ -99,6 +102,8 @@ final class ServerControllerService implements Service<ServerController> {
 
     private static final int DEFAULT_POOL_SIZE = 5;
 
+    private static final int ANNOTATION_INDEX_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
     private final Bootstrap.Configuration configuration;
 
     private final InjectedValue<ServerDeploymentRepository> injectedDeploymentRepository = new InjectedValue<ServerDeploymentRepository>();
@@ -108,6 +113,7 @@ final class ServerControllerService implements Service<ServerController> {
 
     // mutable state
     private ServerController serverController;
+    private ExecutorService annotationIndexExecutor;
 
     public ServerControllerService(final Bootstrap.Configuration configuration) {
         this.configuration = configuration;
@@ -189,6 +195,12 @@ final class ServerControllerService implements Service<ServerController> {
 
         final EnumMap<Phase, SortedSet<RegisteredProcessor>> deployers = serverController.finishBoot();
 
+        final ThreadGroup indexThreadGroup = new ThreadGroup("AnnotationIndex-threads");
+        final ThreadFactory indexThreadFactory = new JBossThreadFactory(indexThreadGroup, Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        annotationIndexExecutor = Executors.newFixedThreadPool(ANNOTATION_INDEX_POOL_SIZE, indexThreadFactory);
+        final AnnotationIndexCache annotationIndexCache = new AnnotationIndexCache(new File(serverEnvironment.getServerDataDir(), "annotation-index"));
+        annotationIndexCache.evict();
+
         final File[] extDirs = serverEnvironment.getJavaExtDirs();
         final File[] newExtDirs = Arrays.copyOf(extDirs, extDirs.length + 1);
         newExtDirs[extDirs.length] = new File(serverEnvironment.getServerBaseDir(), "lib/ext");
@@ -215,7 +227,7 @@ final class ServerControllerService implements Service<ServerController> {
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_ADDITIONAL_MANIFEST, new ManifestAttachmentProcessor()));
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_SUB_DEPLOYMENT, new SubDeploymentProcessor()));
         deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_MODULE_IDENTIFIERS, new ModuleIdentifierProcessor()));
-        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_ANNOTATION_INDEX, new AnnotationIndexProcessor()));
+        deployers.get(Phase.STRUCTURE).add(new RegisteredProcessor(Phase.STRUCTURE_ANNOTATION_INDEX, new AnnotationIndexProcessor(annotationIndexExecutor, annotationIndexCache)));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_STRUCTURE_DESCRIPTOR, new DeploymentStructureDescriptorParser()));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_COMPOSITE_ANNOTATION_INDEX, new CompositeIndexProcessor()));
         deployers.get(Phase.PARSE).add(new RegisteredProcessor(Phase.PARSE_ADDITIONAL_MODULES, new AdditionalModuleProcessor()));
@@ -254,6 +266,19 @@ final class ServerControllerService implements Service<ServerController> {
     @Override
     public synchronized void stop(final StopContext context) {
         serverController = null;
+        if (annotationIndexExecutor != null) {
+            annotationIndexExecutor.shutdown();
+            annotationIndexExecutor = null;
+        }
+        final ExtensibleConfigurationPersister persister = configuration.getConfigurationPersister();
+        if (persister instanceof CoalescingConfigurationPersister) {
+            // make sure the last configuration changes reach the disk before the server goes away
+            try {
+                ((CoalescingConfigurationPersister) persister).shutdown();
+            } catch (ConfigurationPersistenceException e) {
+                log.errorf(e, "Failed to persist configuration on shutdown");
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,269 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.logging.Logger;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * On-disk cache of serialized annotation indexes.  Entries are keyed by a fingerprint of the class files of a resource
+ * root, made of the path, size and modification time of each of them.  A library jar which is unchanged therefore
+ * reuses the index written by a previous deployment even if the archive which contains it, such as an EAR, has changed.
+ * <p>
+ * Reading an entry refreshes its modification time, and {@link #evict()} removes the least recently used entries once
+ * the cache holds more than {@value #DEFAULT_MAX_ENTRIES} entries or entries older than
+ * {@value #DEFAULT_MAX_AGE_DAYS} days, unless other limits are set using the {@link #MAX_ENTRIES_PROPERTY} and
+ * {@link #MAX_AGE_PROPERTY} system properties.
+ */
+public class AnnotationIndexCache {
+
+    /**
+     * System property which sets the maximum number of cached indexes.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "jboss.annotation.index.cache.max-entries";
+
+    /**
+     * System property which sets the number of days after which an unused cached index is removed.
+     */
+    public static final String MAX_AGE_PROPERTY = "jboss.annotation.index.cache.max-age";
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment.annotation");
+
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final int DEFAULT_MAX_AGE_DAYS = 30;
+
+    private final File cacheDir;
+    private final int maxEntries;
+    private final long maxAge;
+
+    public AnnotationIndexCache(final File cacheDir) {
+        this(cacheDir, Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES).intValue(),
+                TimeUnit.DAYS.toMillis(Integer.getInteger(MAX_AGE_PROPERTY, DEFAULT_MAX_AGE_DAYS).intValue()));
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param cacheDir the directory holding the cache entries
+     * @param maxEntries the maximum number of entries kept by {@link #evict()}
+     * @param maxAge the time in milliseconds after which {@link #evict()} removes an entry which was not used
+     */
+    public AnnotationIndexCache(final File cacheDir, final int maxEntries, final long maxAge) {
+        if (cacheDir == null) {
+            throw new IllegalArgumentException("cacheDir is null");
+        }
+        this.cacheDir = cacheDir;
+        this.maxEntries = maxEntries;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Computes the cache key for a resource root.
+     *
+     * @param root the resource root
+     * @param classFiles the class files of the resource root which are indexed
+     * @return the key
+     */
+    public String createKey(final VirtualFile root, final List<VirtualFile> classFiles) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+        // sort so the key does not depend on the order in which the files are listed
+        final SortedMap<String, VirtualFile> files = new TreeMap<String, VirtualFile>();
+        for (VirtualFile file : classFiles) {
+            files.put(file.getPathNameRelativeTo(root), file);
+        }
+        final byte[] attributes = new byte[16];
+        for (Map.Entry<String, VirtualFile> entry : files.entrySet()) {
+            digest.update(toBytes(entry.getKey()));
+            putLong(attributes, 0, entry.getValue().getSize());
+            putLong(attributes, 8, entry.getValue().getLastModified());
+            digest.update(attributes);
+        }
+        return bytesToHexString(digest.digest());
+    }
+
+    /**
+     * Removes the entries which have not been used for longer than the maximum age and, if there are still more
+     * entries than allowed, the least recently used ones.
+     */
+    public void evict() {
+        final File[] files = cacheDir.listFiles(new FileFilter() {
+            public boolean accept(final File file) {
+                return file.getName().endsWith(INDEX_SUFFIX);
+            }
+        });
+        if (files == null) {
+            return;
+        }
+        final long[] lastModified = new long[files.length];
+        final Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            lastModified[i] = files[i].lastModified();
+            order[i] = Integer.valueOf(i);
+        }
+        // most recently used first
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(final Integer o1, final Integer o2) {
+                final long m1 = lastModified[o1.intValue()];
+                final long m2 = lastModified[o2.intValue()];
+                return m1 > m2 ? -1 : m1 < m2 ? 1 : 0;
+            }
+        });
+        final long oldest = System.currentTimeMillis() - maxAge;
+        int removed = 0;
+        for (int i = 0; i < order.length; i++) {
+            final int index = order[i].intValue();
+            if ((i >= maxEntries || lastModified[index] < oldest) && files[index].delete()) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debugf("Removed %d entries from annotation index cache %s", Integer.valueOf(removed), cacheDir);
+        }
+    }
+
+    /**
+     * Read a cached index.
+     *
+     * @param key the cache key
+     * @return the index, or {@code null} if there is no usable entry for the key
+     */
+    public Index getIndex(final String key) {
+        final File file = getIndexFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            final Index index = new IndexReader(in).read();
+            // keep entries in use from being evicted
+            file.setLastModified(System.currentTimeMillis());
+            return index;
+        } catch (Exception e) {
+            log.debugf(e, "Discarding unreadable annotation index cache entry %s", file);
+            VFSUtils.safeClose(in);
+            in = null;
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+            return null;
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+
+    /**
+     * Store an index.  The entry is written to a temporary file first and then renamed, so concurrent readers
+     * never observe a partially written entry.
+     *
+     * @param key the cache key
+     * @param index the index to store
+     */
+    public void putIndex(final String key, final Index index) {
+        final File file = getIndexFile(key);
+        if (file.exists()) {
+            return;
+        }
+        if (!cacheDir.exists() && !cacheDir.mkdirs() && !cacheDir.isDirectory()) {
+            log.debugf("Cannot create annotation index cache directory %s", cacheDir);
+            return;
+        }
+        File tmp = null;
+        OutputStream out = null;
+        try {
+            tmp = File.createTempFile(key, ".tmp", cacheDir);
+            out = new BufferedOutputStream(new FileOutputStream(tmp));
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+            if (!tmp.renameTo(file) && !file.exists()) {
+                log.debugf("Failed to store annotation index cache entry %s", file);
+            }
+        } catch (IOException e) {
+            log.debugf(e, "Failed to store annotation index cache entry %s", file);
+        } finally {
+            VFSUtils.safeClose(out);
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    private File getIndexFile(final String key) {
+        return new File(cacheDir, key + INDEX_SUFFIX);
+    }
+
+    private static byte[] toBytes(final String s) {
+        try {
+            return s.getBytes("UTF-8");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void putLong(final byte[] bytes, final int offset, final long value) {
+        for (int i = 0; i < 8; i++) {
+            bytes[offset + i] = (byte) (value >>> (56 - i * 8));
+        }
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static String bytesToHexString(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+}
@@ -22,12 +22,17 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -36,6 +41,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.Indexer;
+import org.jboss.logging.Logger;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
@@ -43,13 +49,40 @@ import org.jboss.vfs.VisitorAttributes;
 import org.jboss.vfs.util.SuffixMatchFilter;
 
 /**
- * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * Deployment unit processor responsible for creating and attaching an annotation index for a resource root.
+ * <p>
+ * If an executor is provided the resource roots of a deployment are indexed concurrently on it, and if an
+ * {@link AnnotationIndexCache} is provided indexes of resource roots whose class files are unchanged are read back from
+ * the cache rather than rebuilt.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment.annotation");
+
+    private final Executor executor;
+    private final AnnotationIndexCache indexCache;
+
+    /**
+     * Construct a processor which indexes every resource root on the deployment thread and does not cache indexes.
+     */
+    public AnnotationIndexProcessor() {
+        this(null, null);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param executor the executor used to index resource roots concurrently, or {@code null} to index serially
+     * @param indexCache the persistent index cache, or {@code null} to always scan
+     */
+    public AnnotationIndexProcessor(final Executor executor, final AnnotationIndexCache indexCache) {
+        this.executor = executor;
+        this.indexCache = indexCache;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -59,12 +92,15 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      *
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         final List<ResourceRoot> allResourceRoots = new ArrayList<ResourceRoot>();
-        final List<ResourceRoot> resourceRoots = phaseContext.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS);
+        final List<ResourceRoot> resourceRoots = deploymentUnit.getAttachment(Attachments.RESOURCE_ROOTS);
         if (resourceRoots != null) {
             allResourceRoots.addAll(resourceRoots);
         }
-        allResourceRoots.add(phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT));
+        allResourceRoots.add(deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT));
+
+        final List<IndexTask> tasks = new ArrayList<IndexTask>(allResourceRoots.size());
         for (ResourceRoot resourceRoot : allResourceRoots) {
             if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
                 continue;
@@ -83,32 +119,81 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
                 indexIgnorePaths = null;
             }
 
-            final VirtualFile virtualFile = resourceRoot.getRoot();
-            final Indexer indexer = new Indexer();
+            tasks.add(new IndexTask(resourceRoot, indexIgnorePaths));
+        }
+
+        if (executor == null || tasks.size() < 2) {
+            for (IndexTask task : tasks) {
+                task.run();
+            }
+        } else {
+            for (IndexTask task : tasks) {
+                executor.execute(task);
+            }
+        }
+
+        for (IndexTask task : tasks) {
+            final Index index;
             try {
-                final VisitorAttributes visitorAttributes = new VisitorAttributes();
-                visitorAttributes.setLeavesOnly(true);
-                visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
-                    public boolean accepts(VirtualFile file) {
-                        return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+                index = task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DeploymentUnitProcessingException("Interrupted while indexing deployment root for annotations", e);
+            } catch (ExecutionException e) {
+                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", e.getCause());
+            }
+            task.resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+        }
+    }
+
+    private static List<VirtualFile> getClassFiles(final VirtualFile virtualFile, final Set<String> indexIgnorePaths) throws IOException {
+        final VisitorAttributes visitorAttributes = new VisitorAttributes();
+        visitorAttributes.setLeavesOnly(true);
+        visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
+            public boolean accepts(VirtualFile file) {
+                return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+            }
+        });
+        return virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+    }
+
+    private static Index index(final List<VirtualFile> classFiles) throws IOException {
+        final Indexer indexer = new Indexer();
+        for (VirtualFile classFile : classFiles) {
+            InputStream inputStream = null;
+            try {
+                inputStream = classFile.openStream();
+                indexer.index(inputStream);
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        }
+        return indexer.complete();
+    }
+
+    private final class IndexTask extends FutureTask<Index> {
+        private final ResourceRoot resourceRoot;
+
+        IndexTask(final ResourceRoot resourceRoot, final Set<String> indexIgnorePaths) {
+            super(new Callable<Index>() {
+                public Index call() throws Exception {
+                    final VirtualFile root = resourceRoot.getRoot();
+                    final List<VirtualFile> classFiles = getClassFiles(root, indexIgnorePaths);
+                    if (indexCache == null) {
+                        return index(classFiles);
                     }
-                });
-
-                final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-                for (VirtualFile classFile : classChildren) {
-                    InputStream inputStream = null;
-                    try {
-                        inputStream = classFile.openStream();
-                        indexer.index(inputStream);
-                    } finally {
-                        VFSUtils.safeClose(inputStream);
+                    final String cacheKey = indexCache.createKey(root, classFiles);
+                    final Index cached = indexCache.getIndex(cacheKey);
+                    if (cached != null) {
+                        log.tracef("Using cached annotation index for %s", resourceRoot);
+                        return cached;
                     }
+                    final Index index = index(classFiles);
+                    indexCache.putIndex(cacheKey, index);
+                    return index;
                 }
-                final Index index = indexer.complete();
-                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-            } catch (Throwable t) {
-                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
-            }
+            });
+            this.resourceRoot = resourceRoot;
         }
     }
 
@@ -77,6 +77,8 @@ public class HostControllerServerClient implements Service<HostControllerServerC
         }
         modelControllerOperationHandler = ModelControllerOperationHandler.Factory.create(controller.getValue(), initialMessageHandler);
         smConnection.setMessageHandler(initialMessageHandler);
+        // requests from the host controller may also arrive on channels of this connection
+        smConnection.setChannelMessageHandler(initialMessageHandler);
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the eviction of {@link AnnotationIndexCache} entries.
+ */
+public class AnnotationIndexCacheUnitTestCase {
+
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = File.createTempFile("annotation-index", "");
+        assertTrue(cacheDir.delete());
+        assertTrue(cacheDir.mkdir());
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        cacheDir.delete();
+    }
+
+    private File createEntry(final String name, final long lastModified) throws IOException {
+        final File file = new File(cacheDir, name);
+        assertTrue(file.createNewFile());
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+        final long now = System.currentTimeMillis();
+        final File oldest = createEntry("a.idx", now - 3000);
+        final File older = createEntry("b.idx", now - 2000);
+        final File newest = createEntry("c.idx", now - 1000);
+        final File other = createEntry("d.tmp", now - 4000);
+
+        new AnnotationIndexCache(cacheDir, 2, TimeUnit.DAYS.toMillis(1)).evict();
+
+        assertFalse(oldest.exists());
+        assertTrue(older.exists());
+        assertTrue(newest.exists());
+        assertTrue(other.exists());
+    }
+
+    @Test
+    public void testExpiredEntriesAreEvicted() throws IOException {
+        final long now = System.currentTimeMillis();
+        final File expired = createEntry("a.idx", now - TimeUnit.DAYS.toMillis(2));
+        final File recent = createEntry("b.idx", now - 1000);
+
+        new AnnotationIndexCache(cacheDir, 10, TimeUnit.DAYS.toMillis(1)).evict();
+
+        assertFalse(expired.exists());
+        assertTrue(recent.exists());
+        assertEquals(1, cacheDir.listFiles().length);
+    }
+}
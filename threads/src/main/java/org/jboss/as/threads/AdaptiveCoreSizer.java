@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adjusts the number of core threads of a pool to the time tasks wait in its queue.
+ * <p>
+ * Wait times are sampled as tasks start.  At most once per interval the average wait since the previous adjustment
+ * is compared with the target: one core thread is added while it is above the target, and one is removed while it
+ * is below a quarter of the target, always staying within the configured bounds.  The check runs on the pool thread
+ * that starts a task, so no extra thread is needed and an idle pool is left alone.
+ */
+abstract class AdaptiveCoreSizer {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final int minCoreThreads;
+    private final int maxCoreThreads;
+    private final long targetWait;
+
+    private final AtomicLong nextCheck;
+    private final AtomicLong windowWait = new AtomicLong();
+    private final AtomicLong windowCount = new AtomicLong();
+    private volatile int coreThreads;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param minCoreThreads the configured number of core threads, which is never undercut
+     * @param maxCoreThreads the number of core threads which is never exceeded
+     * @param targetWait the acceptable average queue wait time
+     */
+    AdaptiveCoreSizer(final int minCoreThreads, final int maxCoreThreads, final TimeSpec targetWait) {
+        this.minCoreThreads = minCoreThreads;
+        this.maxCoreThreads = Math.max(minCoreThreads, maxCoreThreads);
+        this.targetWait = targetWait.getUnit().toNanos(targetWait.getDuration());
+        coreThreads = minCoreThreads;
+        nextCheck = new AtomicLong(System.nanoTime() + INTERVAL);
+    }
+
+    /**
+     * Apply a new number of core threads to the pool.
+     *
+     * @param coreThreads the number of core threads
+     */
+    protected abstract void applyCoreThreads(int coreThreads);
+
+    int getCoreThreads() {
+        return coreThreads;
+    }
+
+    void taskStarted(final long wait) {
+        windowWait.addAndGet(wait);
+        windowCount.incrementAndGet();
+        final long now = System.nanoTime();
+        final long next = nextCheck.get();
+        if (now - next < 0 || !nextCheck.compareAndSet(next, now + INTERVAL)) {
+            return;
+        }
+        final long count = windowCount.getAndSet(0);
+        final long total = windowWait.getAndSet(0);
+        if (count == 0) {
+            return;
+        }
+        final long average = total / count;
+        final int current = coreThreads;
+        final int updated;
+        if (average > targetWait && current < maxCoreThreads) {
+            updated = current + 1;
+        } else if (average < targetWait / 4 && current > minCoreThreads) {
+            updated = current - 1;
+        } else {
+            return;
+        }
+        coreThreads = updated;
+        applyCoreThreads(updated);
+    }
+}
@@ -23,6 +23,7 @@ package org.jboss.as.threads;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
@@ -99,6 +100,9 @@ public class BoundedQueueThreadPoolAdd implements ModelAddOperationHandler, Desc
         if (params.getCoreThreads() != null) {
             model.get(CORE_THREADS).set(operation.get(CORE_THREADS));
         }
+        if (params.getAdaptiveSizing() != null) {
+            model.get(ADAPTIVE_SIZING).set(operation.get(ADAPTIVE_SIZING));
+        }
 
         // Compensating is remove
         final ModelNode compensating = Util.getResourceRemoveOperation(params.getAddress());
@@ -114,7 +118,8 @@ public class BoundedQueueThreadPoolAdd implements ModelAddOperationHandler, Desc
                             params.getQueueLength().getScaledCount(),
                             params.isBlocking(),
                             params.getKeepAliveTime(),
-                            params.isAllowCoreTimeout());
+                            params.isAllowCoreTimeout(),
+                            params.getAdaptiveSizing());
 
                     //TODO add the handoffExceutor injection
 
@@ -23,6 +23,7 @@ package org.jboss.as.threads;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
@@ -96,6 +97,9 @@ public class BoundedQueueThreadPoolRemove implements ModelRemoveOperationHandler
         if (model.hasDefined(HANDOFF_EXECUTOR)) {
             compensating.get(HANDOFF_EXECUTOR).set(model.get(HANDOFF_EXECUTOR));
         }
+        if (model.hasDefined(ADAPTIVE_SIZING)) {
+            compensating.get(ADAPTIVE_SIZING).set(model.get(ADAPTIVE_SIZING));
+        }
 
         if (context.getRuntimeContext() != null) {
             context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
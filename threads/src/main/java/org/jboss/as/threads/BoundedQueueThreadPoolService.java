@@ -34,6 +34,7 @@ import org.jboss.threads.QueueExecutor;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service responsible for creating, starting and stopping a thread pool executor with a bounded queue.
@@ -53,20 +54,47 @@ public class BoundedQueueThreadPoolService implements Service<Executor> {
     private boolean blocking;
     private TimeSpec keepAlive;
     private boolean allowCoreTimeout;
+    private final TimeSpec adaptiveSizing;
 
     public BoundedQueueThreadPoolService(int coreThreads, int maxThreads, int queueLength, boolean blocking, TimeSpec keepAlive, boolean allowCoreTimeout) {
+        this(coreThreads, maxThreads, queueLength, blocking, keepAlive, allowCoreTimeout, null);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param adaptiveSizing the target queue wait time if the number of core threads should be adapted to the load,
+     *            between {@code coreThreads} and {@code maxThreads}, or {@code null} to keep it fixed
+     */
+    public BoundedQueueThreadPoolService(int coreThreads, int maxThreads, int queueLength, boolean blocking, TimeSpec keepAlive, boolean allowCoreTimeout, TimeSpec adaptiveSizing) {
         this.coreThreads = coreThreads;
         this.maxThreads = maxThreads;
         this.queueLength = queueLength;
         this.blocking = blocking;
         this.keepAlive = keepAlive;
         this.allowCoreTimeout = allowCoreTimeout;
+        this.adaptiveSizing = adaptiveSizing;
     }
 
     public synchronized void start(final StartContext context) throws StartException {
-        executor = new QueueExecutor(coreThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), queueLength, threadFactoryValue.getValue(), blocking, handoffExecutorValue.getOptionalValue());
+        final ThreadPoolMetrics metrics;
+        final AtomicReference<QueueExecutor> executorRef = new AtomicReference<QueueExecutor>();
+        if (adaptiveSizing != null) {
+            metrics = new ThreadPoolMetrics(new AdaptiveCoreSizer(coreThreads, maxThreads, adaptiveSizing) {
+                protected void applyCoreThreads(final int coreThreads) {
+                    final QueueExecutor executor = executorRef.get();
+                    if (executor != null) {
+                        executor.setCoreThreads(coreThreads);
+                    }
+                }
+            });
+        } else {
+            metrics = new ThreadPoolMetrics();
+        }
+        executor = new QueueExecutor(coreThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), queueLength, metrics.wrap(threadFactoryValue.getValue()), blocking, handoffExecutorValue.getOptionalValue());
         executor.setAllowCoreThreadTimeout(allowCoreTimeout);
-        value = JBossExecutors.protectedBlockingExecutor(executor);
+        executorRef.set(executor);
+        value = new ManagedExecutor(JBossExecutors.protectedBlockingExecutor(executor), metrics);
     }
 
     public synchronized void stop(final StopContext context) {
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.BlockingExecutor;
+
+/**
+ * The executor exposed by the thread pool services.  It records every task in the pool's {@link ThreadPoolMetrics}
+ * before passing it on to the (protected) pool executor.  Like the protected executors it can not be shut down by
+ * its users.
+ */
+final class ManagedExecutor extends AbstractExecutorService implements BlockingExecutor {
+
+    private final Executor delegate;
+    private final ThreadPoolMetrics metrics;
+
+    ManagedExecutor(final Executor delegate, final ThreadPoolMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    ThreadPoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void execute(final Runnable task) throws RejectedExecutionException {
+        final Runnable wrapped = metrics.wrap(task);
+        try {
+            delegate.execute(wrapped);
+        } catch (RejectedExecutionException e) {
+            metrics.taskRejected();
+            throw e;
+        }
+    }
+
+    public void executeBlocking(final Runnable task) throws RejectedExecutionException, InterruptedException {
+        if (!(delegate instanceof BlockingExecutor)) {
+            execute(task);
+            return;
+        }
+        final Runnable wrapped = metrics.wrap(task);
+        try {
+            ((BlockingExecutor) delegate).executeBlocking(wrapped);
+        } catch (RejectedExecutionException e) {
+            metrics.taskRejected();
+            throw e;
+        } catch (InterruptedException e) {
+            metrics.taskRejected();
+            throw e;
+        }
+    }
+
+    public void executeBlocking(final Runnable task, final long timeout, final TimeUnit unit) throws RejectedExecutionException, InterruptedException {
+        if (!(delegate instanceof BlockingExecutor)) {
+            execute(task);
+            return;
+        }
+        final Runnable wrapped = metrics.wrap(task);
+        try {
+            ((BlockingExecutor) delegate).executeBlocking(wrapped, timeout, unit);
+        } catch (RejectedExecutionException e) {
+            metrics.taskRejected();
+            throw e;
+        } catch (InterruptedException e) {
+            metrics.taskRejected();
+            throw e;
+        }
+    }
+
+    public void executeNonBlocking(final Runnable task) throws RejectedExecutionException {
+        if (!(delegate instanceof BlockingExecutor)) {
+            execute(task);
+            return;
+        }
+        final Runnable wrapped = metrics.wrap(task);
+        try {
+            ((BlockingExecutor) delegate).executeNonBlocking(wrapped);
+        } catch (RejectedExecutionException e) {
+            metrics.taskRejected();
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        throw new SecurityException("shutdown() not allowed on container-managed executor");
+    }
+
+    public List<Runnable> shutdownNow() {
+        throw new SecurityException("shutdownNow() not allowed on container-managed executor");
+    }
+
+    public boolean isShutdown() {
+        return delegate instanceof ExecutorService && ((ExecutorService) delegate).isShutdown();
+    }
+
+    public boolean isTerminated() {
+        return delegate instanceof ExecutorService && ((ExecutorService) delegate).isTerminated();
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (delegate instanceof ExecutorService) {
+            return ((ExecutorService) delegate).awaitTermination(timeout, unit);
+        }
+        unit.sleep(timeout);
+        return false;
+    }
+
+    public String toString() {
+        return "Managed executor for " + delegate;
+    }
+}
@@ -61,10 +61,11 @@ public class QueuelessThreadPoolService implements Service<ExecutorService> {
     public synchronized void start(final StartContext context) throws StartException {
         final TimeSpec keepAliveSpec = keepAlive;
         long keepAlive = keepAliveSpec == null ? Long.MAX_VALUE : keepAliveSpec.getDuration();
-        executor = new QueuelessExecutor(threadFactoryValue.getValue(), JBossExecutors.directExecutor(), handoffExecutorValue.getOptionalValue(), keepAlive);
+        final ThreadPoolMetrics metrics = new ThreadPoolMetrics();
+        executor = new QueuelessExecutor(metrics.wrap(threadFactoryValue.getValue()), JBossExecutors.directExecutor(), handoffExecutorValue.getOptionalValue(), keepAlive);
         executor.setMaxThreads(maxThreads);
         executor.setBlocking(blocking);
-        value = JBossExecutors.protectedExecutorService(executor);
+        value = new ManagedExecutor(JBossExecutors.protectedExecutorService(executor), metrics);
     }
 
     public synchronized void stop(final StopContext context) {
@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor which runs every task on a new thread.  Meant for thread factories which create cheap threads, such as
+ * virtual threads, where pooling would only limit concurrency.
+ */
+final class ThreadPerTaskExecutor extends AbstractExecutorService {
+
+    private final ThreadFactory threadFactory;
+    private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    private final List<Runnable> terminationListeners = new ArrayList<Runnable>();
+    private final Object lock = new Object();
+
+    private boolean shutdown;
+    private int running;
+
+    ThreadPerTaskExecutor(final ThreadFactory threadFactory) {
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("threadFactory is null");
+        }
+        this.threadFactory = threadFactory;
+    }
+
+    public void execute(final Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task is null");
+        }
+        synchronized (lock) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            running++;
+        }
+        final Thread thread;
+        try {
+            thread = threadFactory.newThread(new Runnable() {
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        threads.remove(Thread.currentThread());
+                        taskExited();
+                    }
+                }
+            });
+            if (thread == null) {
+                throw new RejectedExecutionException("Thread factory did not create a thread");
+            }
+            threads.add(thread);
+            thread.start();
+        } catch (RuntimeException e) {
+            taskExited();
+            throw e;
+        } catch (Error e) {
+            taskExited();
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        final List<Runnable> listeners;
+        synchronized (lock) {
+            shutdown = true;
+            listeners = takeTerminationListeners();
+        }
+        runAll(listeners);
+    }
+
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        return Collections.emptyList();
+    }
+
+    public boolean isShutdown() {
+        synchronized (lock) {
+            return shutdown;
+        }
+    }
+
+    public boolean isTerminated() {
+        synchronized (lock) {
+            return shutdown && running == 0;
+        }
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + remaining;
+        synchronized (lock) {
+            while (!(shutdown && running == 0)) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Get the number of tasks which are running.
+     *
+     * @return the number of running tasks
+     */
+    int getRunningCount() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    /**
+     * Register a task to run once the executor is shut down and all tasks have completed.  If the executor has already
+     * terminated, the task is run immediately by the caller.
+     *
+     * @param listener the task
+     */
+    void addTerminationListener(final Runnable listener) {
+        synchronized (lock) {
+            if (!(shutdown && running == 0)) {
+                terminationListeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    private void taskExited() {
+        final List<Runnable> listeners;
+        synchronized (lock) {
+            running--;
+            listeners = takeTerminationListeners();
+        }
+        runAll(listeners);
+    }
+
+    // must be called holding the lock
+    private List<Runnable> takeTerminationListeners() {
+        if (!shutdown || running > 0) {
+            return Collections.emptyList();
+        }
+        lock.notifyAll();
+        final List<Runnable> listeners = new ArrayList<Runnable>(terminationListeners);
+        terminationListeners.clear();
+        return listeners;
+    }
+
+    private static void runAll(final List<Runnable> listeners) {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
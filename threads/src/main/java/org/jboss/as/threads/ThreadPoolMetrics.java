@@ -0,0 +1,185 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runtime statistics of a thread pool.  The pool's thread factory and the tasks submitted to it are wrapped so that
+ * the statistics do not depend on what the underlying executor implementation exposes.
+ */
+public final class ThreadPoolMetrics {
+
+    private final AdaptiveCoreSizer sizer;
+
+    private final AtomicInteger currentThreadCount = new AtomicInteger();
+    private final AtomicInteger largestThreadCount = new AtomicInteger();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong startedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    public ThreadPoolMetrics() {
+        this(null);
+    }
+
+    ThreadPoolMetrics(final AdaptiveCoreSizer sizer) {
+        this.sizer = sizer;
+    }
+
+    /**
+     * Wrap a thread factory so the threads of the pool are counted.
+     *
+     * @param threadFactory the thread factory
+     * @return the wrapped thread factory
+     */
+    public ThreadFactory wrap(final ThreadFactory threadFactory) {
+        return new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                return threadFactory.newThread(new Runnable() {
+                    public void run() {
+                        final int count = currentThreadCount.incrementAndGet();
+                        int largest;
+                        while ((largest = largestThreadCount.get()) < count && !largestThreadCount.compareAndSet(largest, count)) {
+                            // retry
+                        }
+                        try {
+                            r.run();
+                        } finally {
+                            currentThreadCount.decrementAndGet();
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Wrap a task which is about to be submitted to the pool.
+     *
+     * @param task the task
+     * @return the wrapped task
+     */
+    public Runnable wrap(final Runnable task) {
+        submittedCount.incrementAndGet();
+        final long submitted = System.nanoTime();
+        return new Runnable() {
+            public void run() {
+                taskStarted(System.nanoTime() - submitted);
+                activeCount.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    activeCount.decrementAndGet();
+                    completedCount.incrementAndGet();
+                }
+            }
+        };
+    }
+
+    /**
+     * Record that the pool rejected a task returned by {@link #wrap(Runnable)}.
+     */
+    public void taskRejected() {
+        rejectedCount.incrementAndGet();
+    }
+
+    private void taskStarted(final long wait) {
+        startedCount.incrementAndGet();
+        totalWaitTime.addAndGet(wait);
+        long max;
+        while ((max = maxWaitTime.get()) < wait && !maxWaitTime.compareAndSet(max, wait)) {
+            // retry
+        }
+        if (sizer != null) {
+            sizer.taskStarted(wait);
+        }
+    }
+
+    public int getCurrentThreadCount() {
+        return currentThreadCount.get();
+    }
+
+    public int getLargestThreadCount() {
+        return largestThreadCount.get();
+    }
+
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Get the number of accepted tasks which have not started yet.
+     *
+     * @return the queue size
+     */
+    public long getQueueSize() {
+        // read the started count first so a task starting concurrently can not make the result negative
+        final long started = startedCount.get();
+        return Math.max(0, submittedCount.get() - rejectedCount.get() - started);
+    }
+
+    public long getCompletedTaskCount() {
+        return completedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get the average time tasks waited between submission and the start of their execution.
+     *
+     * @param unit the unit of the result
+     * @return the average wait time
+     */
+    public long getAverageWaitTime(final TimeUnit unit) {
+        final long started = startedCount.get();
+        return started == 0 ? 0 : unit.convert(totalWaitTime.get() / started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the longest time a task waited between submission and the start of its execution.
+     *
+     * @param unit the unit of the result
+     * @return the maximum wait time
+     */
+    public long getMaxWaitTime(final TimeUnit unit) {
+        return unit.convert(maxWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the adaptive sizing of the pool's core threads.
+     *
+     * @return the sizer, or {@code null} if the pool is not adaptive
+     */
+    AdaptiveCoreSizer getAdaptiveCoreSizer() {
+        return sizer;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.threads.CommonAttributes.ACTIVE_COUNT;
+import static org.jboss.as.threads.CommonAttributes.AVERAGE_WAIT_TIME;
+import static org.jboss.as.threads.CommonAttributes.COMPLETED_TASK_COUNT;
+import static org.jboss.as.threads.CommonAttributes.CURRENT_CORE_THREADS;
+import static org.jboss.as.threads.CommonAttributes.CURRENT_THREAD_COUNT;
+import static org.jboss.as.threads.CommonAttributes.LARGEST_THREAD_COUNT;
+import static org.jboss.as.threads.CommonAttributes.MAX_WAIT_TIME;
+import static org.jboss.as.threads.CommonAttributes.QUEUE_SIZE;
+import static org.jboss.as.threads.CommonAttributes.REJECTED_COUNT;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the runtime statistics of a thread pool.  Wait times are reported in milliseconds.
+ */
+class ThreadPoolMetricsHandler implements ModelQueryOperationHandler {
+
+    static final ThreadPoolMetricsHandler INSTANCE = new ThreadPoolMetricsHandler();
+
+    static final String[] METRICS = {CURRENT_THREAD_COUNT, LARGEST_THREAD_COUNT, ACTIVE_COUNT, QUEUE_SIZE,
+            COMPLETED_TASK_COUNT, REJECTED_COUNT, AVERAGE_WAIT_TIME, MAX_WAIT_TIME};
+
+    static final String[] BOUNDED_METRICS = {CURRENT_THREAD_COUNT, LARGEST_THREAD_COUNT, ACTIVE_COUNT, QUEUE_SIZE,
+            COMPLETED_TASK_COUNT, REJECTED_COUNT, AVERAGE_WAIT_TIME, MAX_WAIT_TIME, CURRENT_CORE_THREADS};
+
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+                    final String attributeName = operation.require(NAME).asString();
+
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(ThreadsServices.executorName(name));
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP
+                            && controller.getValue() instanceof ManagedExecutor) {
+                        final ThreadPoolMetrics metrics = ((ManagedExecutor) controller.getValue()).getMetrics();
+                        if (CURRENT_THREAD_COUNT.equals(attributeName)) {
+                            result.set(metrics.getCurrentThreadCount());
+                        } else if (LARGEST_THREAD_COUNT.equals(attributeName)) {
+                            result.set(metrics.getLargestThreadCount());
+                        } else if (ACTIVE_COUNT.equals(attributeName)) {
+                            result.set(metrics.getActiveCount());
+                        } else if (QUEUE_SIZE.equals(attributeName)) {
+                            result.set(metrics.getQueueSize());
+                        } else if (COMPLETED_TASK_COUNT.equals(attributeName)) {
+                            result.set(metrics.getCompletedTaskCount());
+                        } else if (REJECTED_COUNT.equals(attributeName)) {
+                            result.set(metrics.getRejectedCount());
+                        } else if (AVERAGE_WAIT_TIME.equals(attributeName)) {
+                            result.set(metrics.getAverageWaitTime(TimeUnit.MILLISECONDS));
+                        } else if (MAX_WAIT_TIME.equals(attributeName)) {
+                            result.set(metrics.getMaxWaitTime(TimeUnit.MILLISECONDS));
+                        } else if (CURRENT_CORE_THREADS.equals(attributeName)) {
+                            final AdaptiveCoreSizer sizer = metrics.getAdaptiveCoreSizer();
+                            if (sizer != null) {
+                                result.set(sizer.getCoreThreads());
+                            }
+                        }
+                    }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode());
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
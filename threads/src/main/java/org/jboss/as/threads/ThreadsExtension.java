@@ -33,6 +33,7 @@ import static org.jboss.as.controller.parsing.ParseUtils.missingRequiredElement;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
@@ -55,12 +56,16 @@ import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.VIRTUAL_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.BOUNDED_QUEUE_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.QUEUELESS_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.SCHEDULED_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.SUBSYSTEM_PROVIDER;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.THREAD_FACTORY_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.UNBOUNDED_QUEUE_THREAD_POOL_DESC;
+import static org.jboss.as.threads.ThreadsSubsystemProviders.VIRTUAL_THREAD_POOL_DESC;
+import static org.jboss.as.threads.ThreadsSubsystemProviders.WORK_STEALING_THREAD_POOL_DESC;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -134,18 +139,41 @@ public class ThreadsExtension implements Extension {
         final ModelNodeRegistration boundedQueueThreadPools = subsystem.registerSubModel(PathElement.pathElement(BOUNDED_QUEUE_THREAD_POOL), BOUNDED_QUEUE_THREAD_POOL_DESC);
         boundedQueueThreadPools.registerOperationHandler(ADD, BoundedQueueThreadPoolAdd.INSTANCE, BoundedQueueThreadPoolAdd.INSTANCE, false);
         boundedQueueThreadPools.registerOperationHandler(REMOVE, BoundedQueueThreadPoolRemove.INSTANCE, BoundedQueueThreadPoolRemove.INSTANCE, false);
+        for (final String metric : ThreadPoolMetricsHandler.BOUNDED_METRICS) {
+            boundedQueueThreadPools.registerMetric(metric, ThreadPoolMetricsHandler.INSTANCE);
+        }
 
         final ModelNodeRegistration unboundedQueueThreadPools = subsystem.registerSubModel(PathElement.pathElement(UNBOUNDED_QUEUE_THREAD_POOL), UNBOUNDED_QUEUE_THREAD_POOL_DESC);
         unboundedQueueThreadPools.registerOperationHandler(ADD, UnboundedQueueThreadPoolAdd.INSTANCE, UnboundedQueueThreadPoolAdd.INSTANCE, false);
         unboundedQueueThreadPools.registerOperationHandler(REMOVE, UnboundedQueueThreadPoolRemove.INSTANCE, UnboundedQueueThreadPoolRemove.INSTANCE, false);
+        for (final String metric : ThreadPoolMetricsHandler.METRICS) {
+            unboundedQueueThreadPools.registerMetric(metric, ThreadPoolMetricsHandler.INSTANCE);
+        }
 
         final ModelNodeRegistration queuelessThreadPools = subsystem.registerSubModel(PathElement.pathElement(QUEUELESS_THREAD_POOL), QUEUELESS_THREAD_POOL_DESC);
         queuelessThreadPools.registerOperationHandler(ADD, QueuelessThreadPoolAdd.INSTANCE, QueuelessThreadPoolAdd.INSTANCE, false);
         queuelessThreadPools.registerOperationHandler(REMOVE, QueuelessThreadPoolRemove.INSTANCE, QueuelessThreadPoolRemove.INSTANCE, false);
+        for (final String metric : ThreadPoolMetricsHandler.METRICS) {
+            queuelessThreadPools.registerMetric(metric, ThreadPoolMetricsHandler.INSTANCE);
+        }
 
         final ModelNodeRegistration scheduledThreadPools = subsystem.registerSubModel(PathElement.pathElement(SCHEDULED_THREAD_POOL), SCHEDULED_THREAD_POOL_DESC);
         scheduledThreadPools.registerOperationHandler(ADD, ScheduledThreadPoolAdd.INSTANCE, ScheduledThreadPoolAdd.INSTANCE, false);
         scheduledThreadPools.registerOperationHandler(REMOVE, ScheduledThreadPoolRemove.INSTANCE, ScheduledThreadPoolRemove.INSTANCE, false);
+
+        final ModelNodeRegistration workStealingThreadPools = subsystem.registerSubModel(PathElement.pathElement(WORK_STEALING_THREAD_POOL), WORK_STEALING_THREAD_POOL_DESC);
+        workStealingThreadPools.registerOperationHandler(ADD, WorkStealingThreadPoolAdd.INSTANCE, WorkStealingThreadPoolAdd.INSTANCE, false);
+        workStealingThreadPools.registerOperationHandler(REMOVE, WorkStealingThreadPoolRemove.INSTANCE, WorkStealingThreadPoolRemove.INSTANCE, false);
+        for (final String metric : ThreadPoolMetricsHandler.METRICS) {
+            workStealingThreadPools.registerMetric(metric, ThreadPoolMetricsHandler.INSTANCE);
+        }
+
+        final ModelNodeRegistration virtualThreadPools = subsystem.registerSubModel(PathElement.pathElement(VIRTUAL_THREAD_POOL), VIRTUAL_THREAD_POOL_DESC);
+        virtualThreadPools.registerOperationHandler(ADD, VirtualThreadPoolAdd.INSTANCE, VirtualThreadPoolAdd.INSTANCE, false);
+        virtualThreadPools.registerOperationHandler(REMOVE, VirtualThreadPoolRemove.INSTANCE, VirtualThreadPoolRemove.INSTANCE, false);
+        for (final String metric : ThreadPoolMetricsHandler.METRICS) {
+            virtualThreadPools.registerMetric(metric, ThreadPoolMetricsHandler.INSTANCE);
+        }
     }
 
     @Override
@@ -197,6 +225,14 @@ public class ThreadsExtension implements Extension {
                             parseUnboundedQueueThreadPool(reader, address, list);
                             break;
                         }
+                        case WORK_STEALING_THREAD_POOL: {
+                            parseWorkStealingThreadPool(reader, address, list);
+                            break;
+                        }
+                        case VIRTUAL_THREAD_POOL: {
+                            parseVirtualThreadPool(reader, address, list);
+                            break;
+                        }
                         default: {
                             throw unexpectedElement(reader);
                         }
@@ -351,6 +387,10 @@ public class ThreadsExtension implements Extension {
                         foundQueueLength = true;
                         break;
                     }
+                    case ADAPTIVE_SIZING: {
+                        op.get(ADAPTIVE_SIZING).set(parseTimeSpec(reader));
+                        break;
+                    }
                     default: {
                         throw unexpectedElement(reader);
                     }
@@ -571,6 +611,100 @@ public class ThreadsExtension implements Extension {
             }
         }
 
+        void parseWorkStealingThreadPool(final XMLExtendedStreamReader reader, final ModelNode parentAddress, final List<ModelNode> list) throws XMLStreamException {
+            final ModelNode op = new ModelNode();
+            list.add(op);
+            op.get(OP).set(ADD);
+
+            final String name = parseNameAttribute(reader);
+            final ModelNode address = parentAddress.clone();
+            address.add(WORK_STEALING_THREAD_POOL, name);
+            address.protect();
+            op.get(OP_ADDR).set(address);
+
+            boolean foundMaxThreads = false;
+            while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+                switch (Element.forName(reader.getLocalName())) {
+                    case MAX_THREADS: {
+                        op.get(MAX_THREADS).set(parseScaledCount(reader));
+                        foundMaxThreads = true;
+                        break;
+                    }
+                    case THREAD_FACTORY: {
+                        op.get(CommonAttributes.THREAD_FACTORY).set(parseRef(reader));
+                        break;
+                    }
+                    case PROPERTIES: {
+                        ModelNode props = parseProperties(reader);
+                        if (props.isDefined()) {
+                            op.get(PROPERTIES).set(props);
+                        }
+                        break;
+                    }
+                    default: {
+                        throw unexpectedElement(reader);
+                    }
+                }
+            }
+            if (!foundMaxThreads) {
+                throw missingRequiredElement(reader, Collections.singleton(Element.MAX_THREADS));
+            }
+        }
+
+        void parseVirtualThreadPool(final XMLExtendedStreamReader reader, final ModelNode parentAddress, final List<ModelNode> list) throws XMLStreamException {
+            final ModelNode op = new ModelNode();
+            list.add(op);
+            op.get(OP).set(ADD);
+
+            final String name = parseNameAttribute(reader);
+            final ModelNode address = parentAddress.clone();
+            address.add(VIRTUAL_THREAD_POOL, name);
+            address.protect();
+            op.get(OP_ADDR).set(address);
+
+            while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+                switch (Element.forName(reader.getLocalName())) {
+                    case THREAD_FACTORY: {
+                        op.get(CommonAttributes.THREAD_FACTORY).set(parseRef(reader));
+                        break;
+                    }
+                    case PROPERTIES: {
+                        ModelNode props = parseProperties(reader);
+                        if (props.isDefined()) {
+                            op.get(PROPERTIES).set(props);
+                        }
+                        break;
+                    }
+                    default: {
+                        throw unexpectedElement(reader);
+                    }
+                }
+            }
+        }
+
+        private String parseNameAttribute(final XMLExtendedStreamReader reader) throws XMLStreamException {
+            String name = null;
+            int count = reader.getAttributeCount();
+            for (int i = 0; i < count; i++) {
+                requireNoNamespaceAttribute(reader, i);
+                final String value = reader.getAttributeValue(i);
+                final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+                switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+                }
+            }
+
+            if (name == null) {
+                throw missingRequired(reader, Collections.singleton(Attribute.NAME));
+            }
+            return name;
+        }
+
         private ModelNode parseScaledCount(final XMLExtendedStreamReader reader) throws XMLStreamException {
             final int attrCount = reader.getAttributeCount();
             BigDecimal count = null;
@@ -787,6 +921,22 @@ public class ThreadsExtension implements Extension {
                     }
                 }
             }
+            if (node.hasDefined(WORK_STEALING_THREAD_POOL)) {
+                for (String name : node.get(WORK_STEALING_THREAD_POOL).keys()) {
+                    final ModelNode child = node.get(WORK_STEALING_THREAD_POOL, name);
+                    if (child.isDefined()) {
+                        writeWorkStealingThreadPool(writer, child);
+                    }
+                }
+            }
+            if (node.hasDefined(VIRTUAL_THREAD_POOL)) {
+                for (String name : node.get(VIRTUAL_THREAD_POOL).keys()) {
+                    final ModelNode child = node.get(VIRTUAL_THREAD_POOL, name);
+                    if (child.isDefined()) {
+                        writeVirtualThreadPool(writer, child);
+                    }
+                }
+            }
 
             writer.writeEndElement();
         }
@@ -830,6 +980,7 @@ public class ThreadsExtension implements Extension {
             writeThreads(writer, node, Element.QUEUE_LENGTH);
             writeThreads(writer, node, Element.MAX_THREADS);
             writeTime(writer, node, Element.KEEPALIVE_TIME);
+            writeTime(writer, node, Element.ADAPTIVE_SIZING);
 
             if (node.hasDefined(PROPERTIES)) {
                 writeProperties(writer, node.get(PROPERTIES));
@@ -897,6 +1048,39 @@ public class ThreadsExtension implements Extension {
             writer.writeEndElement();
         }
 
+        private void writeWorkStealingThreadPool(final XMLExtendedStreamWriter writer, final ModelNode node) throws XMLStreamException {
+            writer.writeStartElement(Element.WORK_STEALING_THREAD_POOL.getLocalName());
+
+            if (node.hasDefined(NAME)) {
+                writeAttribute(writer, Attribute.NAME, node.get(NAME));
+            }
+
+            writeRef(writer, node, Element.THREAD_FACTORY, THREAD_FACTORY);
+            writeThreads(writer, node, Element.MAX_THREADS);
+
+            if (node.hasDefined(PROPERTIES)) {
+                writeProperties(writer, node.get(PROPERTIES));
+            }
+
+            writer.writeEndElement();
+        }
+
+        private void writeVirtualThreadPool(final XMLExtendedStreamWriter writer, final ModelNode node) throws XMLStreamException {
+            writer.writeStartElement(Element.VIRTUAL_THREAD_POOL.getLocalName());
+
+            if (node.hasDefined(NAME)) {
+                writeAttribute(writer, Attribute.NAME, node.get(NAME));
+            }
+
+            writeRef(writer, node, Element.THREAD_FACTORY, THREAD_FACTORY);
+
+            if (node.hasDefined(PROPERTIES)) {
+                writeProperties(writer, node.get(PROPERTIES));
+            }
+
+            writer.writeEndElement();
+        }
+
         private void writeRef(final XMLExtendedStreamWriter writer, final ModelNode node, Element element, String name) throws XMLStreamException {
             if (node.hasDefined(name)) {
                 writer.writeStartElement(element.getLocalName());
@@ -971,6 +1155,8 @@ public class ThreadsExtension implements Extension {
             addScheduledThreadPools(result, model);
             addThreadFactories(result, model);
             addUnboundedQueueThreadPools(result, model);
+            addWorkStealingThreadPools(result, model);
+            addVirtualThreadPools(result, model);
 
             resultHandler.handleResultFragment(Util.NO_LOCATION, result);
             resultHandler.handleResultComplete();
@@ -1017,6 +1203,9 @@ public class ThreadsExtension implements Extension {
                     if (pool.hasDefined(CORE_THREADS)) {
                         operation.get(CORE_THREADS).set(pool.get(CORE_THREADS));
                     }
+                    if (pool.hasDefined(ADAPTIVE_SIZING)) {
+                        operation.get(ADAPTIVE_SIZING).set(pool.get(ADAPTIVE_SIZING));
+                    }
                     result.add(operation);
                 }
             }
@@ -1128,6 +1317,47 @@ public class ThreadsExtension implements Extension {
             }
         }
 
+        private void addWorkStealingThreadPools(final ModelNode result, final ModelNode model) {
+            if (model.hasDefined(WORK_STEALING_THREAD_POOL)) {
+                ModelNode pools = model.get(WORK_STEALING_THREAD_POOL);
+                for (Property poolProp : pools.asPropertyList()) {
+                    final ModelNode operation = Util.getEmptyOperation(ADD, pathAddress(PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME), PathElement.pathElement(WORK_STEALING_THREAD_POOL, poolProp.getName())));
+                    final ModelNode pool = poolProp.getValue();
+
+                    operation.get(NAME).set(pool.require(NAME));
+                    if (pool.hasDefined(THREAD_FACTORY)) {
+                        operation.get(THREAD_FACTORY).set(pool.get(THREAD_FACTORY));
+                    }
+                    if (pool.hasDefined(PROPERTIES)) {
+                        operation.get(PROPERTIES).set(pool.get(PROPERTIES));
+                    }
+                    if (pool.hasDefined(MAX_THREADS)) {
+                        operation.get(MAX_THREADS).set(pool.get(MAX_THREADS));
+                    }
+                    result.add(operation);
+                }
+            }
+        }
+
+        private void addVirtualThreadPools(final ModelNode result, final ModelNode model) {
+            if (model.hasDefined(VIRTUAL_THREAD_POOL)) {
+                ModelNode pools = model.get(VIRTUAL_THREAD_POOL);
+                for (Property poolProp : pools.asPropertyList()) {
+                    final ModelNode operation = Util.getEmptyOperation(ADD, pathAddress(PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME), PathElement.pathElement(VIRTUAL_THREAD_POOL, poolProp.getName())));
+                    final ModelNode pool = poolProp.getValue();
+
+                    operation.get(NAME).set(pool.require(NAME));
+                    if (pool.hasDefined(THREAD_FACTORY)) {
+                        operation.get(THREAD_FACTORY).set(pool.get(THREAD_FACTORY));
+                    }
+                    if (pool.hasDefined(PROPERTIES)) {
+                        operation.get(PROPERTIES).set(pool.get(PROPERTIES));
+                    }
+                    result.add(operation);
+                }
+            }
+        }
+
         private ModelNode pathAddress(PathElement...elements) {
             return PathAddress.pathAddress(elements).toModelNode();
         }
@@ -28,6 +28,8 @@ import static org.jboss.as.threads.CommonAttributes.QUEUELESS_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.SCHEDULED_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.VIRTUAL_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 
 import java.util.Locale;
 
@@ -60,6 +62,8 @@ class ThreadsSubsystemAdd implements ModelAddOperationHandler, DescriptionProvid
         context.getSubModel().get(SCHEDULED_THREAD_POOL).setEmptyObject();
         context.getSubModel().get(THREAD_FACTORY).setEmptyObject();
         context.getSubModel().get(UNBOUNDED_QUEUE_THREAD_POOL).setEmptyObject();
+        context.getSubModel().get(VIRTUAL_THREAD_POOL).setEmptyObject();
+        context.getSubModel().get(WORK_STEALING_THREAD_POOL).setEmptyObject();
 
         // Compensating is remove
         final ModelNode compensating = Util.getResourceRemoveOperation(operation.require(ADDRESS));
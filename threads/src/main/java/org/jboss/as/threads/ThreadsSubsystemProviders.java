@@ -36,6 +36,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
@@ -55,6 +56,8 @@ import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.VIRTUAL_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
 
 import java.util.Locale;
@@ -101,6 +104,12 @@ class ThreadsSubsystemProviders {
             subsystem.get(CHILDREN, SCHEDULED_THREAD_POOL, DESCRIPTION).set(bundle.getString("threadpool.scheduled"));
             subsystem.get(CHILDREN, SCHEDULED_THREAD_POOL, REQUIRED).set(false);
 
+            subsystem.get(CHILDREN, WORK_STEALING_THREAD_POOL, DESCRIPTION).set(bundle.getString("threadpool.workstealing"));
+            subsystem.get(CHILDREN, WORK_STEALING_THREAD_POOL, REQUIRED).set(false);
+
+            subsystem.get(CHILDREN, VIRTUAL_THREAD_POOL, DESCRIPTION).set(bundle.getString("threadpool.virtual"));
+            subsystem.get(CHILDREN, VIRTUAL_THREAD_POOL, REQUIRED).set(false);
+
             return subsystem;
         }
     };
@@ -180,6 +189,16 @@ class ThreadsSubsystemProviders {
             operation.get(ATTRIBUTES, QUEUE_LENGTH, VALUE_TYPE, PER_CPU, TYPE).set(ModelType.BIG_DECIMAL);
             operation.get(ATTRIBUTES, QUEUE_LENGTH, VALUE_TYPE, PER_CPU, REQUIRED).set(true);
 
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, DESCRIPTION).set(bundle.getString("threadpool.bounded.adaptivesizing"));
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, TYPE).set(ModelType.OBJECT);
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, REQUIRED).set(false);
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, VALUE_TYPE, TIME, DESCRIPTION).set(bundle.getString("threadpool.bounded.adaptivesizing.time"));
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, VALUE_TYPE, TIME, TYPE).set(ModelType.LONG);
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, VALUE_TYPE, TIME, REQUIRED).set(true);
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, VALUE_TYPE, UNIT, DESCRIPTION).set(bundle.getString("threadpool.bounded.adaptivesizing.unit"));
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, VALUE_TYPE, UNIT, TYPE).set(ModelType.STRING);
+            operation.get(ATTRIBUTES, ADAPTIVE_SIZING, VALUE_TYPE, UNIT, REQUIRED).set(true);
+
             return operation;
         }
     };
@@ -221,7 +240,36 @@ class ThreadsSubsystemProviders {
         }
     };
 
+    static final DescriptionProvider WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode node = getBaseThreadPool(bundle, bundle.getString("threadpool.workstealing.description"));
+            addMaxThreads(node.get(ATTRIBUTES), bundle);
+            return node;
+        }
+    };
+
+    static final DescriptionProvider VIRTUAL_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode node = getBaseThreadPool(bundle, bundle.getString("threadpool.virtual.description"));
+            node.get(ATTRIBUTES, THREAD_FACTORY, DESCRIPTION).set(bundle.getString("threadpool.virtual.threadfactory"));
+            return node;
+        }
+    };
+
     private static ModelNode getCommonThreadPool(final ResourceBundle bundle, final String description) {
+        final ModelNode node = getBaseThreadPool(bundle, description);
+        addMaxThreads(node.get(ATTRIBUTES), bundle);
+        addKeepAlive(node.get(ATTRIBUTES), bundle);
+        return node;
+    }
+
+    private static ModelNode getBaseThreadPool(final ResourceBundle bundle, final String description) {
         final ModelNode node = new ModelNode();
         node.get(DESCRIPTION).set(description);
         node.get(HEAD_COMMENT_ALLOWED).set(true);
@@ -239,29 +287,33 @@ class ThreadsSubsystemProviders {
         node.get(ATTRIBUTES, PROPERTIES, TYPE).set(ModelType.OBJECT);
         node.get(ATTRIBUTES, PROPERTIES, VALUE_TYPE).set(ModelType.STRING);
         node.get(ATTRIBUTES, PROPERTIES, REQUIRED).set(false);
-
-        node.get(ATTRIBUTES, MAX_THREADS, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads"));
-        node.get(ATTRIBUTES, MAX_THREADS, TYPE).set(ModelType.OBJECT);
-        node.get(ATTRIBUTES, MAX_THREADS, REQUIRED).set(true);
-        node.get(ATTRIBUTES, MAX_THREADS, VALUE_TYPE, COUNT, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads.count"));
-        node.get(ATTRIBUTES, MAX_THREADS, VALUE_TYPE, COUNT, TYPE).set(ModelType.BIG_DECIMAL);
-        node.get(ATTRIBUTES, MAX_THREADS, VALUE_TYPE, COUNT, REQUIRED).set(true);
-        node.get(ATTRIBUTES, MAX_THREADS, VALUE_TYPE, PER_CPU, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads.percpu"));
-        node.get(ATTRIBUTES, MAX_THREADS, VALUE_TYPE, PER_CPU, TYPE).set(ModelType.BIG_DECIMAL);
-        node.get(ATTRIBUTES, MAX_THREADS, VALUE_TYPE, PER_CPU, REQUIRED).set(true);
-
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive"));
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, TYPE).set(ModelType.OBJECT);
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, REQUIRED).set(false);
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, TIME, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive.time"));
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, TIME, TYPE).set(ModelType.LONG);
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, TIME, REQUIRED).set(true);
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive.unit"));
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, TYPE).set(ModelType.STRING);
-        node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, REQUIRED).set(true);
         return node;
     }
 
+    private static void addMaxThreads(final ModelNode attributes, final ResourceBundle bundle) {
+        attributes.get(MAX_THREADS, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads"));
+        attributes.get(MAX_THREADS, TYPE).set(ModelType.OBJECT);
+        attributes.get(MAX_THREADS, REQUIRED).set(true);
+        attributes.get(MAX_THREADS, VALUE_TYPE, COUNT, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads.count"));
+        attributes.get(MAX_THREADS, VALUE_TYPE, COUNT, TYPE).set(ModelType.BIG_DECIMAL);
+        attributes.get(MAX_THREADS, VALUE_TYPE, COUNT, REQUIRED).set(true);
+        attributes.get(MAX_THREADS, VALUE_TYPE, PER_CPU, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads.percpu"));
+        attributes.get(MAX_THREADS, VALUE_TYPE, PER_CPU, TYPE).set(ModelType.BIG_DECIMAL);
+        attributes.get(MAX_THREADS, VALUE_TYPE, PER_CPU, REQUIRED).set(true);
+    }
+
+    private static void addKeepAlive(final ModelNode attributes, final ResourceBundle bundle) {
+        attributes.get(KEEPALIVE_TIME, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive"));
+        attributes.get(KEEPALIVE_TIME, TYPE).set(ModelType.OBJECT);
+        attributes.get(KEEPALIVE_TIME, REQUIRED).set(false);
+        attributes.get(KEEPALIVE_TIME, VALUE_TYPE, TIME, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive.time"));
+        attributes.get(KEEPALIVE_TIME, VALUE_TYPE, TIME, TYPE).set(ModelType.LONG);
+        attributes.get(KEEPALIVE_TIME, VALUE_TYPE, TIME, REQUIRED).set(true);
+        attributes.get(KEEPALIVE_TIME, VALUE_TYPE, UNIT, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive.unit"));
+        attributes.get(KEEPALIVE_TIME, VALUE_TYPE, UNIT, TYPE).set(ModelType.STRING);
+        attributes.get(KEEPALIVE_TIME, VALUE_TYPE, UNIT, REQUIRED).set(true);
+    }
+
     //Operations
     static final DescriptionProvider SUBSYSTEM_ADD_DESC = new DescriptionProvider() {
 
@@ -358,6 +410,16 @@ class ThreadsSubsystemProviders {
             operation.get(REQUEST_PROPERTIES, QUEUE_LENGTH, VALUE_TYPE, PER_CPU, TYPE).set(ModelType.BIG_DECIMAL);
             operation.get(REQUEST_PROPERTIES, QUEUE_LENGTH, VALUE_TYPE, PER_CPU, REQUIRED).set(true);
 
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, DESCRIPTION).set(bundle.getString("threadpool.bounded.adaptivesizing"));
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, TYPE).set(ModelType.OBJECT);
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, REQUIRED).set(false);
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, VALUE_TYPE, TIME, DESCRIPTION).set(bundle.getString("threadpool.bounded.adaptivesizing.time"));
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, VALUE_TYPE, TIME, TYPE).set(ModelType.LONG);
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, VALUE_TYPE, TIME, REQUIRED).set(true);
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, VALUE_TYPE, UNIT, DESCRIPTION).set(bundle.getString("threadpool.bounded.adaptivesizing.unit"));
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, VALUE_TYPE, UNIT, TYPE).set(ModelType.STRING);
+            operation.get(REQUEST_PROPERTIES, ADAPTIVE_SIZING, VALUE_TYPE, UNIT, REQUIRED).set(true);
+
             return operation;
         }
     };
@@ -400,7 +462,36 @@ class ThreadsSubsystemProviders {
         }
     };
 
+    static DescriptionProvider ADD_WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode operation = getBaseAddThreadPool(bundle, ADD, bundle.getString("threadpool.workstealing.add"));
+            addMaxThreads(operation.get(REQUEST_PROPERTIES), bundle);
+            return operation;
+        }
+    };
+
+    static DescriptionProvider ADD_VIRTUAL_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode operation = getBaseAddThreadPool(bundle, ADD, bundle.getString("threadpool.virtual.add"));
+            operation.get(REQUEST_PROPERTIES, THREAD_FACTORY, DESCRIPTION).set(bundle.getString("threadpool.virtual.threadfactory"));
+            return operation;
+        }
+    };
+
     static ModelNode getCommonAddThreadPool(final ResourceBundle bundle, final String operationName, final String description) {
+        final ModelNode operation = getBaseAddThreadPool(bundle, operationName, description);
+        addMaxThreads(operation.get(REQUEST_PROPERTIES), bundle);
+        addKeepAlive(operation.get(REQUEST_PROPERTIES), bundle);
+        return operation;
+    }
+
+    private static ModelNode getBaseAddThreadPool(final ResourceBundle bundle, final String operationName, final String description) {
         final ModelNode operation = new ModelNode();
         operation.get(OPERATION_NAME).set(operationName);
         operation.get(DESCRIPTION).set(description);
@@ -411,27 +502,6 @@ class ThreadsSubsystemProviders {
         operation.get(REQUEST_PROPERTIES, PROPERTIES, TYPE).set(ModelType.OBJECT);
         operation.get(REQUEST_PROPERTIES, PROPERTIES, VALUE_TYPE).set(ModelType.STRING);
         operation.get(REQUEST_PROPERTIES, PROPERTIES, REQUIRED).set(false);
-
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads"));
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, TYPE).set(ModelType.OBJECT);
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, REQUIRED).set(true);
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, VALUE_TYPE, COUNT, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads.count"));
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, VALUE_TYPE, COUNT, TYPE).set(ModelType.BIG_DECIMAL);
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, VALUE_TYPE, COUNT, REQUIRED).set(true);
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, VALUE_TYPE, PER_CPU, DESCRIPTION).set(bundle.getString("threadpool.common.maxthreads.percpu"));
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, VALUE_TYPE, PER_CPU, TYPE).set(ModelType.BIG_DECIMAL);
-        operation.get(REQUEST_PROPERTIES, MAX_THREADS, VALUE_TYPE, PER_CPU, REQUIRED).set(true);
-
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive"));
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, TYPE).set(ModelType.OBJECT);
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, REQUIRED).set(false);
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, VALUE_TYPE, TIME, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive.time"));
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, VALUE_TYPE, TIME, TYPE).set(ModelType.LONG);
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, VALUE_TYPE, TIME, REQUIRED).set(true);
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive.unit"));
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, TYPE).set(ModelType.STRING);
-        operation.get(REQUEST_PROPERTIES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, REQUIRED).set(true);
-
         operation.get(REPLY_PROPERTIES).setEmptyObject();
         return operation;
     }
@@ -472,6 +542,24 @@ class ThreadsSubsystemProviders {
         }
     };
 
+    static DescriptionProvider REMOVE_WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            return getCommonRemoveThreadPool(bundle, REMOVE, bundle.getString("threadpool.workstealing.remove"));
+        }
+    };
+
+    static DescriptionProvider REMOVE_VIRTUAL_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            return getCommonRemoveThreadPool(bundle, REMOVE, bundle.getString("threadpool.virtual.remove"));
+        }
+    };
+
     private static ModelNode getCommonRemoveThreadPool(final ResourceBundle bundle, String operationName, String description) {
         ModelNode operation = new ModelNode();
         operation.get(OPERATION_NAME).set(operationName);
@@ -22,6 +22,7 @@
 package org.jboss.as.threads;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
@@ -79,6 +80,16 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         return parseBaseThreadPoolOperationParameters(operation, params);
     }
 
+    static BaseOperationParameters parseWorkStealingThreadPoolOperationParameters(ModelNode operation) {
+        OperationParametersImpl params = new OperationParametersImpl();
+        return parseBaseThreadPoolOperationParameters(operation, params);
+    }
+
+    static BaseOperationParameters parseVirtualThreadPoolOperationParameters(ModelNode operation) {
+        OperationParametersImpl params = new OperationParametersImpl();
+        return parseCommonThreadPoolOperationParameters(operation, params);
+    }
+
     static QueuelessOperationParameters parseQueuelessThreadPoolOperationParameters(ModelNode operation) {
         OperationParametersImpl params = new OperationParametersImpl();
         parseBaseThreadPoolOperationParameters(operation, params);
@@ -98,12 +109,26 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         params.handoffExecutor = operation.hasDefined(HANDOFF_EXECUTOR) ? operation.get(HANDOFF_EXECUTOR).asString() : null;
         params.coreThreads = getScaledCount(operation, CORE_THREADS);
         params.queueLength = getScaledCount(operation, QUEUE_LENGTH);
+        params.adaptiveSizing = getTimeSpec(operation, ADAPTIVE_SIZING);
 
         return params;
     }
 
 
     private static OperationParametersImpl parseBaseThreadPoolOperationParameters(ModelNode operation, OperationParametersImpl params) {
+        parseCommonThreadPoolOperationParameters(operation, params);
+
+        params.maxThreads = getScaledCount(operation, MAX_THREADS);
+        if (params.maxThreads == null) {
+            throw new IllegalArgumentException(MAX_THREADS + " was not defined");
+        }
+
+        params.keepAliveTime = getTimeSpec(operation, KEEPALIVE_TIME);
+
+        return params;
+    }
+
+    private static OperationParametersImpl parseCommonThreadPoolOperationParameters(ModelNode operation, OperationParametersImpl params) {
         params.address = operation.require(OP_ADDR);
         PathAddress pathAddress = PathAddress.pathAddress(params.address);
         params.name = pathAddress.getLastElement().getValue();
@@ -121,23 +146,21 @@ class ThreadsSubsystemThreadPoolOperationUtils {
                 }
             }
         }
-        params.maxThreads = getScaledCount(operation, MAX_THREADS);
-        if (params.maxThreads == null) {
-            throw new IllegalArgumentException(MAX_THREADS + " was not defined");
-        }
+        return params;
+    }
 
-        if (operation.hasDefined(KEEPALIVE_TIME)) {
-            ModelNode keepaliveTime = operation.get(KEEPALIVE_TIME);
-            if (!keepaliveTime.hasDefined(TIME)) {
-                throw new IllegalArgumentException("Missing '" + TIME + "' for '" + KEEPALIVE_TIME + "'");
+    private static TimeSpec getTimeSpec(ModelNode operation, String paramName) {
+        if (operation.hasDefined(paramName)) {
+            ModelNode time = operation.get(paramName);
+            if (!time.hasDefined(TIME)) {
+                throw new IllegalArgumentException("Missing '" + TIME + "' for '" + paramName + "'");
             }
-            if (!keepaliveTime.hasDefined(UNIT)) {
-                throw new IllegalArgumentException("Missing '" + UNIT + "' for '" + KEEPALIVE_TIME + "'");
+            if (!time.hasDefined(UNIT)) {
+                throw new IllegalArgumentException("Missing '" + UNIT + "' for '" + paramName + "'");
             }
-            params.keepAliveTime = new TimeSpec(Enum.valueOf(TimeUnit.class, keepaliveTime.get(UNIT).asString()), keepaliveTime.get(TIME).asLong());
+            return new TimeSpec(Enum.valueOf(TimeUnit.class, time.get(UNIT).asString()), time.get(TIME).asLong());
         }
-
-        return params;
+        return null;
     }
 
     private static ScaledCount getScaledCount(ModelNode operation, String paramName) {
@@ -178,6 +201,7 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         boolean isAllowCoreTimeout();
         ScaledCount getCoreThreads();
         ScaledCount getQueueLength();
+        TimeSpec getAdaptiveSizing();
     }
 
     private static class OperationParametersImpl implements QueuelessOperationParameters, BoundedOperationParameters {
@@ -192,6 +216,7 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         boolean allowCoreTimeout;
         ScaledCount coreThreads;
         ScaledCount queueLength;
+        TimeSpec adaptiveSizing;
 
         @Override
         public ModelNode getAddress() {
@@ -247,6 +272,11 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         public ScaledCount getQueueLength() {
             return queueLength;
         }
+
+        @Override
+        public TimeSpec getAdaptiveSizing() {
+            return adaptiveSizing;
+        }
     }
 
 }
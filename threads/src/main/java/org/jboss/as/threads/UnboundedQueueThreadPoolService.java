@@ -56,8 +56,9 @@ public class UnboundedQueueThreadPoolService implements Service<ExecutorService>
     }
 
     public synchronized void start(final StartContext context) throws StartException {
-        executor = new JBossThreadPoolExecutor(maxThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), new LinkedBlockingQueue<Runnable>(), threadFactoryValue.getValue());
-        value = JBossExecutors.protectedExecutorService(executor);
+        final ThreadPoolMetrics metrics = new ThreadPoolMetrics();
+        executor = new JBossThreadPoolExecutor(maxThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), new LinkedBlockingQueue<Runnable>(), metrics.wrap(threadFactoryValue.getValue()));
+        value = new ManagedExecutor(JBossExecutors.protectedExecutorService(executor), metrics);
     }
 
     public synchronized void stop(final StopContext context) {
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import org.jboss.logging.Logger;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service responsible for creating, starting and stopping an executor which runs each task on a new virtual thread.
+ * On a JVM without virtual threads each task gets a new thread from the injected thread factory instead.
+ */
+public class VirtualThreadPoolService implements Service<ExecutorService> {
+    private static final Logger log = Logger.getLogger("org.jboss.as.threads");
+
+    private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+
+    private final String name;
+
+    private ThreadPerTaskExecutor executor;
+    private ExecutorService value;
+
+    public VirtualThreadPoolService(final String name) {
+        this.name = name;
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        ThreadFactory threadFactory = VirtualThreads.createThreadFactory(name + "-");
+        if (threadFactory == null) {
+            log.warnf("Virtual threads are not supported by this JVM; %s will run each task on a new platform thread", name);
+            threadFactory = threadFactoryValue.getValue();
+        }
+        final ThreadPoolMetrics metrics = new ThreadPoolMetrics();
+        executor = new ThreadPerTaskExecutor(metrics.wrap(threadFactory));
+        value = new ManagedExecutor(executor, metrics);
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final ThreadPerTaskExecutor executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException();
+        }
+        context.asynchronous();
+        executor.shutdown();
+        executor.addTerminationListener(new Runnable() {
+            public void run() {
+                context.complete();
+            }
+        });
+        this.executor = null;
+        value = null;
+    }
+
+    public synchronized ExecutorService getValue() throws IllegalStateException {
+        final ExecutorService value = this.value;
+        if (value == null) {
+            throw new IllegalStateException();
+        }
+        return value;
+    }
+
+    public Injector<ThreadFactory> getThreadFactoryInjector() {
+        return threadFactoryValue;
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An executor with a fixed number of workers which each own a task deque.
+ * <p>
+ * A task submitted by one of the workers is pushed onto the head of that worker's own deque and is normally run by
+ * the same worker, most recent first, which keeps the data of a fan-out close to the thread that produced it.  Tasks
+ * submitted by other threads are spread over the workers round-robin.  A worker whose deque is empty steals the
+ * oldest task from the tail of another worker's deque, so no worker sits idle while another has a backlog.
+ * <p>
+ * A worker waiting for the result of a task submitted to this executor does not just block: it keeps running queued
+ * tasks, its own first, until the result is available.  A fan-out which joins its subtasks therefore completes even
+ * when every worker is waiting on a join.  Waiting on anything else, such as a latch, still blocks the worker.
+ */
+final class WorkStealingExecutor extends AbstractExecutorService {
+
+    private static final int RUNNING = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP = 2;
+
+    /** How long a worker waiting on a join blocks before looking for queued tasks again */
+    private static final long HELP_INTERVAL = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private final Worker[] workers;
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<Worker>();
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition workAvailable = idleLock.newCondition();
+    private final CountDownLatch terminated;
+    private final List<Runnable> terminationListeners = new ArrayList<Runnable>();
+
+    private volatile int state = RUNNING;
+
+    /**
+     * Construct and start a new instance.
+     *
+     * @param parallelism the number of workers
+     * @param threadFactory the factory used to create the worker threads
+     */
+    WorkStealingExecutor(final int parallelism, final ThreadFactory threadFactory) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("threadFactory is null");
+        }
+        workers = new Worker[parallelism];
+        terminated = new CountDownLatch(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            final Thread thread = threadFactory.newThread(worker);
+            if (thread == null) {
+                throw new IllegalStateException("Thread factory did not create a worker thread");
+            }
+            worker.thread = thread;
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    public void execute(final Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task is null");
+        }
+        if (state != RUNNING) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        final Worker worker = currentWorker.get();
+        final Worker target = worker != null ? worker : workers[(nextWorker.getAndIncrement() & Integer.MAX_VALUE) % workers.length];
+        if (worker != null) {
+            target.deque.addFirst(task);
+        } else {
+            target.deque.addLast(task);
+        }
+        // a shutdown racing with the push may have let the workers exit without seeing the task; take it back unless
+        // a worker already has it, see Worker.awaitWork()
+        if (state != RUNNING && target.deque.removeFirstOccurrence(task)) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        // the task is published before the idle count is read, see Worker.awaitWork()
+        if (idleCount.get() > 0) {
+            idleLock.lock();
+            try {
+                workAvailable.signal();
+            } finally {
+                idleLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(final Runnable runnable, final T value) {
+        return new JoinableTask<T>(runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(final Callable<T> callable) {
+        return new JoinableTask<T>(callable);
+    }
+
+    int getParallelism() {
+        return workers.length;
+    }
+
+    /**
+     * Get the number of tasks waiting in the worker deques.
+     *
+     * @return the number of queued tasks
+     */
+    int getQueuedTaskCount() {
+        int count = 0;
+        for (Worker worker : workers) {
+            count += worker.deque.size();
+        }
+        return count;
+    }
+
+    public void shutdown() {
+        if (state == RUNNING) {
+            state = SHUTDOWN;
+        }
+        wakeAll();
+    }
+
+    public List<Runnable> shutdownNow() {
+        state = STOP;
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (Worker worker : workers) {
+            worker.deque.drainTo(tasks);
+            worker.thread.interrupt();
+        }
+        wakeAll();
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return state != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    /**
+     * Register a task to run once all workers have exited.  If the executor has already terminated, the task is
+     * run immediately by the caller.
+     *
+     * @param listener the task
+     */
+    void addTerminationListener(final Runnable listener) {
+        synchronized (terminationListeners) {
+            if (terminated.getCount() > 0) {
+                terminationListeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    private void wakeAll() {
+        idleLock.lock();
+        try {
+            workAvailable.signalAll();
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    private void workerExited() {
+        final List<Runnable> listeners;
+        synchronized (terminationListeners) {
+            terminated.countDown();
+            if (terminated.getCount() > 0) {
+                return;
+            }
+            listeners = new ArrayList<Runnable>(terminationListeners);
+            terminationListeners.clear();
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final int index;
+        private final LinkedBlockingDeque<Runnable> deque = new LinkedBlockingDeque<Runnable>();
+        private Thread thread;
+
+        Worker(final int index) {
+            this.index = index;
+        }
+
+        public void run() {
+            currentWorker.set(this);
+            try {
+                Runnable task;
+                while ((task = awaitWork()) != null) {
+                    runTask(task);
+                    if (state != STOP) {
+                        // do not let a task's interrupt leak into the next one
+                        Thread.interrupted();
+                    }
+                }
+            } finally {
+                currentWorker.remove();
+                workerExited();
+            }
+        }
+
+        void runTask(final Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                final Thread current = Thread.currentThread();
+                final Thread.UncaughtExceptionHandler handler = current.getUncaughtExceptionHandler();
+                if (handler != null) {
+                    handler.uncaughtException(current, t);
+                }
+            }
+        }
+
+        Runnable findWork() {
+            Runnable task = deque.pollFirst();
+            if (task != null) {
+                return task;
+            }
+            final int length = workers.length;
+            for (int i = 1; i < length; i++) {
+                task = workers[(index + i) % length].deque.pollLast();
+                if (task != null) {
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Get the next task, waiting while there is none.
+         *
+         * @return the task, or {@code null} if the worker should exit
+         */
+        private Runnable awaitWork() {
+            for (;;) {
+                if (state == STOP) {
+                    return null;
+                }
+                Runnable task = findWork();
+                if (task != null) {
+                    return task;
+                }
+                idleLock.lock();
+                try {
+                    // announce the wait before the last look, so a task published after the look is signalled
+                    idleCount.incrementAndGet();
+                    try {
+                        task = findWork();
+                        if (task != null) {
+                            return task;
+                        }
+                        if (state != RUNNING) {
+                            // execute() publishes a task before it checks the state again, so a look taken after the
+                            // shutdown is seen cannot miss a task which was accepted
+                            return findWork();
+                        }
+                        workAvailable.await();
+                    } finally {
+                        idleCount.decrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    // shutdownNow(), the state is checked again
+                } finally {
+                    idleLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * A task submitted through {@link #submit(Runnable)} and the like.  A worker waiting for its result runs queued
+     * tasks meanwhile, instead of blocking while the task it waits for may be queued behind it.
+     */
+    private final class JoinableTask<T> extends FutureTask<T> {
+
+        JoinableTask(final Callable<T> callable) {
+            super(callable);
+        }
+
+        JoinableTask(final Runnable runnable, final T result) {
+            super(runnable, result);
+        }
+
+        public T get() throws InterruptedException, ExecutionException {
+            final Worker worker = currentWorker.get();
+            if (worker != null) {
+                help(worker, false, 0L);
+            }
+            return super.get();
+        }
+
+        public T get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            final Worker worker = currentWorker.get();
+            if (worker == null) {
+                return super.get(timeout, unit);
+            }
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            help(worker, true, deadline);
+            return super.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        private void help(final Worker worker, final boolean timed, final long deadline) throws InterruptedException {
+            while (!isDone()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long wait = HELP_INTERVAL;
+                if (timed) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L) {
+                        return;
+                    }
+                    wait = Math.min(wait, remaining);
+                }
+                final Runnable task = state == STOP ? null : worker.findWork();
+                if (task != null) {
+                    worker.runTask(task);
+                    continue;
+                }
+                // nothing to run, the task is in progress on another thread
+                try {
+                    super.get(wait, TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    return;
+                } catch (TimeoutException e) {
+                    // look for queued tasks again
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ThreadPoolMetrics}.
+ */
+public class ThreadPoolMetricsTestCase {
+
+    @Test
+    public void testCounts() throws Exception {
+        final ThreadPoolMetrics metrics = new ThreadPoolMetrics();
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+                metrics.wrap(Executors.defaultThreadFactory()));
+        final ManagedExecutor executor = new ManagedExecutor(pool, metrics);
+        try {
+            final CountDownLatch running = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            executor.execute(new Runnable() {
+                public void run() {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+            assertEquals(1, metrics.getActiveCount());
+            assertEquals(1, metrics.getCurrentThreadCount());
+            assertEquals(0, metrics.getQueueSize());
+
+            // the only thread is busy and there is no queue
+            try {
+                executor.execute(new Runnable() {
+                    public void run() {
+                    }
+                });
+                fail("Task should have been rejected");
+            } catch (RejectedExecutionException expected) {
+            }
+            assertEquals(1, metrics.getRejectedCount());
+
+            release.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(0, metrics.getActiveCount());
+            assertEquals(1, metrics.getCompletedTaskCount());
+            assertEquals(1, metrics.getLargestThreadCount());
+            assertEquals(0, metrics.getQueueSize());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAdaptiveSizing() throws Exception {
+        final int[] applied = new int[] { -1 };
+        final AdaptiveCoreSizer sizer = new AdaptiveCoreSizer(1, 3, new TimeSpec(TimeUnit.MILLISECONDS, 10)) {
+            protected void applyCoreThreads(final int coreThreads) {
+                applied[0] = coreThreads;
+            }
+        };
+        // waits above the target grow the pool one thread per interval, up to the maximum
+        for (int i = 1; i <= 3; i++) {
+            Thread.sleep(1100);
+            sizer.taskStarted(TimeUnit.MILLISECONDS.toNanos(100));
+            assertEquals(Math.min(i + 1, 3), sizer.getCoreThreads());
+        }
+        assertEquals(3, applied[0]);
+        // waits well below the target shrink it again
+        Thread.sleep(1100);
+        sizer.taskStarted(0);
+        assertEquals(2, sizer.getCoreThreads());
+        assertEquals(2, applied[0]);
+    }
+}
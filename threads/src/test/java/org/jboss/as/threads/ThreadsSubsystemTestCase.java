@@ -22,6 +22,7 @@
 package org.jboss.as.threads;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
@@ -45,6 +46,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
@@ -66,6 +68,8 @@ import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.VIRTUAL_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 
 import java.io.OutputStream;
 import java.io.Reader;
@@ -226,6 +230,17 @@ public class ThreadsSubsystemTestCase {
         assertEquals(ModelType.LONG, boundedQueueThreadPoolDesc.require(ATTRIBUTES).require(KEEPALIVE_TIME).require(VALUE_TYPE).require(TIME).require(TYPE).asType());
         assertEquals(ModelType.STRING, boundedQueueThreadPoolDesc.require(ATTRIBUTES).require(KEEPALIVE_TIME).require(VALUE_TYPE).require(UNIT).require(TYPE).asType());
 
+        ModelNode workStealingThreadPoolDesc = threadsDescription.get(CHILDREN, WORK_STEALING_THREAD_POOL, MODEL_DESCRIPTION, "*");
+        assertEquals(ModelType.STRING, workStealingThreadPoolDesc.require(ATTRIBUTES).require(NAME).require(TYPE).asType());
+        assertEquals(ModelType.STRING, workStealingThreadPoolDesc.require(ATTRIBUTES).require(THREAD_FACTORY).require(TYPE).asType());
+        assertEquals(ModelType.OBJECT, workStealingThreadPoolDesc.require(ATTRIBUTES).require(PROPERTIES).require(TYPE).asType());
+        assertEquals(ModelType.BIG_DECIMAL, workStealingThreadPoolDesc.require(ATTRIBUTES).require(MAX_THREADS).require(VALUE_TYPE).require(COUNT).require(TYPE).asType());
+        assertEquals(ModelType.BIG_DECIMAL, workStealingThreadPoolDesc.require(ATTRIBUTES).require(MAX_THREADS).require(VALUE_TYPE).require(PER_CPU).require(TYPE).asType());
+
+        ModelNode virtualThreadPoolDesc = threadsDescription.get(CHILDREN, VIRTUAL_THREAD_POOL, MODEL_DESCRIPTION, "*");
+        assertEquals(ModelType.STRING, virtualThreadPoolDesc.require(ATTRIBUTES).require(NAME).require(TYPE).asType());
+        assertEquals(ModelType.STRING, virtualThreadPoolDesc.require(ATTRIBUTES).require(THREAD_FACTORY).require(TYPE).asType());
+        assertEquals(ModelType.OBJECT, virtualThreadPoolDesc.require(ATTRIBUTES).require(PROPERTIES).require(TYPE).asType());
     }
 
     @Test
@@ -695,6 +710,7 @@ public class ThreadsSubsystemTestCase {
                 "   <max-threads count=\"100\" per-cpu=\"5\"/>" +
                 "   <queue-length count=\"300\" per-cpu=\"25\"/>" +
                 "   <keepalive-time time=\"1000\" unit=\"MILLISECONDS\"/>" +
+                "   <adaptive-sizing time=\"50\" unit=\"MILLISECONDS\"/>" +
                 "   <thread-factory name=\"test-factory\"/>" +
                 "   <handoff-executor name=\"other\"/>" +
                 "   <properties>" +
@@ -739,6 +755,8 @@ public class ThreadsSubsystemTestCase {
         assertEquals(new BigDecimal(5), threadPool.require("test-pool").require(MAX_THREADS).require(PER_CPU).asBigDecimal());
         assertEquals(1000L, threadPool.require("test-pool").require(KEEPALIVE_TIME).require(TIME).asLong());
         assertEquals("MILLISECONDS", threadPool.require("test-pool").require(KEEPALIVE_TIME).require(UNIT).asString());
+        assertEquals(50L, threadPool.require("test-pool").require(ADAPTIVE_SIZING).require(TIME).asLong());
+        assertEquals("MILLISECONDS", threadPool.require("test-pool").require(ADAPTIVE_SIZING).require(UNIT).asString());
         assertEquals("other", threadPool.require("test-pool").require("handoff-executor").asString());
 
         ModelNode props = threadPool.require("test-pool").require("properties");
@@ -784,6 +802,55 @@ public class ThreadsSubsystemTestCase {
         assertEquals("test-poolB", threadFactory.require("test-poolB").require("name").asString());
     }
 
+    @Test
+    public void testWorkStealingThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem(
+                "<work-stealing-thread-pool name=\"test-pool\">" +
+                "   <max-threads count=\"2\" per-cpu=\"1\"/>" +
+                "   <thread-factory name=\"test-factory\"/>" +
+                "</work-stealing-thread-pool>");
+        assertEquals(2, updates.size());
+        for (ModelNode update : updates) {
+            try {
+                controller.executeForResult(update);
+            } catch (OperationFailedException e) {
+                throw new RuntimeException(e.getFailureDescription().toString());
+            }
+        }
+
+        ModelNode subsystem = model.require("profile").require("test").require("subsystem").require("threads");
+        ModelNode threadPool = subsystem.require("work-stealing-thread-pool");
+        assertEquals(1, threadPool.keys().size());
+        assertEquals("test-pool", threadPool.require("test-pool").require("name").asString());
+        assertEquals(new BigDecimal(2), threadPool.require("test-pool").require(MAX_THREADS).require(COUNT).asBigDecimal());
+        assertEquals(new BigDecimal(1), threadPool.require("test-pool").require(MAX_THREADS).require(PER_CPU).asBigDecimal());
+        assertEquals("test-factory", threadPool.require("test-pool").require(THREAD_FACTORY).asString());
+    }
+
+    @Test
+    public void testVirtualThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem(
+                "<virtual-thread-pool name=\"test-poolA\"/>" +
+                "<virtual-thread-pool name=\"test-poolB\">" +
+                "   <thread-factory name=\"test-factory\"/>" +
+                "</virtual-thread-pool>");
+        assertEquals(3, updates.size());
+        for (ModelNode update : updates) {
+            try {
+                controller.executeForResult(update);
+            } catch (OperationFailedException e) {
+                throw new RuntimeException(e.getFailureDescription().toString());
+            }
+        }
+
+        ModelNode subsystem = model.require("profile").require("test").require("subsystem").require("threads");
+        ModelNode threadPool = subsystem.require("virtual-thread-pool");
+        assertEquals(2, threadPool.keys().size());
+        assertEquals("test-poolA", threadPool.require("test-poolA").require("name").asString());
+        assertFalse(threadPool.require("test-poolA").hasDefined(THREAD_FACTORY));
+        assertEquals("test-factory", threadPool.require("test-poolB").require(THREAD_FACTORY).asString());
+    }
+
     private ModelNode createOperation(String operationName, String...address) {
         ModelNode operation = new ModelNode();
         operation.get(OP).set(operationName);
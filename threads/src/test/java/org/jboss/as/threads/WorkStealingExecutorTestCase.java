@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link WorkStealingExecutor}.
+ */
+public class WorkStealingExecutorTestCase {
+
+    @Test
+    public void testFanOut() throws Exception {
+        final WorkStealingExecutor executor = new WorkStealingExecutor(4, Executors.defaultThreadFactory());
+        try {
+            final int width = 50;
+            final AtomicInteger count = new AtomicInteger();
+            final CountDownLatch done = new CountDownLatch(width * width);
+            for (int i = 0; i < width; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        // tasks submitted by a worker go to its own deque and may be stolen by the others
+                        for (int j = 0; j < width; j++) {
+                            executor.execute(new Runnable() {
+                                public void run() {
+                                    count.incrementAndGet();
+                                    done.countDown();
+                                }
+                            });
+                        }
+                    }
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(width * width, count.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        final WorkStealingExecutor executor = new WorkStealingExecutor(2, Executors.defaultThreadFactory());
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    count.incrementAndGet();
+                }
+            });
+        }
+        final CountDownLatch terminated = new CountDownLatch(1);
+        executor.shutdown();
+        executor.addTerminationListener(new Runnable() {
+            public void run() {
+                terminated.countDown();
+            }
+        });
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail("Task should have been rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertEquals(1, terminated.getCount());
+
+        // tasks accepted before the shutdown still run
+        release.countDown();
+        assertTrue(terminated.await(10, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+        assertEquals(10, count.get());
+    }
+
+    @Test
+    public void testJoinInsideWorker() throws Exception {
+        // far fewer workers than concurrently joining tasks; a worker blocked on a join would starve the pool
+        final WorkStealingExecutor executor = new WorkStealingExecutor(2, Executors.defaultThreadFactory());
+        try {
+            final Future<Integer> result = executor.submit(new Sum(executor, 0, 1024));
+            assertEquals(1024 * 1023 / 2, result.get(10, TimeUnit.SECONDS).intValue());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testExecuteRacingShutdown() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            final WorkStealingExecutor executor = new WorkStealingExecutor(2, Executors.defaultThreadFactory());
+            final AtomicInteger accepted = new AtomicInteger();
+            final AtomicInteger ran = new AtomicInteger();
+            final CountDownLatch started = new CountDownLatch(1);
+            final Thread submitter = new Thread(new Runnable() {
+                public void run() {
+                    started.countDown();
+                    try {
+                        for (;;) {
+                            executor.execute(new Runnable() {
+                                public void run() {
+                                    ran.incrementAndGet();
+                                }
+                            });
+                            accepted.incrementAndGet();
+                        }
+                    } catch (RejectedExecutionException expected) {
+                    }
+                }
+            });
+            submitter.start();
+            started.await();
+            executor.shutdown();
+            submitter.join();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            // every accepted task ran, none was left behind in a deque
+            assertEquals(accepted.get(), ran.get());
+            assertEquals(0, executor.getQueuedTaskCount());
+        }
+    }
+
+    /**
+     * Sums a range by splitting it in two subtasks and joining them.
+     */
+    private static final class Sum implements Callable<Integer> {
+        private final WorkStealingExecutor executor;
+        private final int from;
+        private final int to;
+
+        Sum(final WorkStealingExecutor executor, final int from, final int to) {
+            this.executor = executor;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Integer call() throws Exception {
+            if (to - from <= 8) {
+                int sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += i;
+                }
+                return Integer.valueOf(sum);
+            }
+            final int middle = (from + to) >>> 1;
+            final Future<Integer> left = executor.submit(new Sum(executor, from, middle));
+            final Future<Integer> right = executor.submit(new Sum(executor, middle, to));
+            return Integer.valueOf(left.get().intValue() + right.get().intValue());
+        }
+    }
+}
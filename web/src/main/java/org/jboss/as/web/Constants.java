@@ -38,6 +38,7 @@ interface Constants {
     String CONDITION = "condition";
     String CONNECTOR = "connector";
     String CONTAINER_CONFIG = "configuration";
+    String CONTEXT_REQUEST_LATENCY = "context-request-latency";
     String DEFAULT_VIRTUAL_SERVER = "default-virtual-server";
     String DEFAULT_WEB_MODULE = "default-web-module";
     String DEVELOPMENT = "development";
@@ -78,6 +79,8 @@ interface Constants {
     String RECOMPILE_ON_FAIL = "recompile-on-fail";
     String REDIRECT_PORT = "redirect-por";
     String RELATIVE_TO = "relative-to";
+    String REQUEST_LATENCY = "request-latency";
+    String RESET_REQUEST_LATENCY = "reset-request-latency";
     String RESOLVE_HOSTS = "resolve-hosts";
     String REWRITE = "rewrite";
     String ROTATE = "rotate";
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A request latency histogram with fixed buckets.
+ * <p>
+ * Recording a request is a handful of atomic increments and never blocks, so the histogram can be updated from every
+ * request processing thread.  The buckets grow roughly exponentially from one millisecond to ten seconds, and the
+ * reported percentiles are the upper bound of the bucket they fall into.
+ */
+public final class RequestLatencyHistogram {
+
+    static final String REQUEST_COUNT = "request-count";
+    static final String TOTAL_TIME = "total-time";
+    static final String MAX_TIME = "max-time";
+    static final String MEAN_TIME = "mean-time";
+    static final String P50 = "p50";
+    static final String P90 = "p90";
+    static final String P99 = "p99";
+    static final String BUCKETS = "buckets";
+    static final String UPPER_BOUND = "upper-bound";
+    static final String COUNT = "count";
+
+    /** The upper bounds of the buckets in milliseconds, a last bucket holds everything slower */
+    private static final long[] BOUNDS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(BOUNDS[i]);
+        }
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+    private final AtomicLong totalTime = new AtomicLong();
+    private final AtomicLong maxTime = new AtomicLong();
+
+    /**
+     * Record a request.
+     *
+     * @param nanos the time it took to process the request, in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long time = nanos < 0 ? 0 : nanos;
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && time > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        buckets.incrementAndGet(i);
+        totalTime.addAndGet(time);
+        long max;
+        while ((max = maxTime.get()) < time && !maxTime.compareAndSet(max, time)) {
+            // retry
+        }
+    }
+
+    /**
+     * Clear the histogram.  Requests recorded concurrently with the reset may be partially retained.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        totalTime.set(0);
+        maxTime.set(0);
+    }
+
+    /**
+     * Get a snapshot of the histogram.  Times are in milliseconds.
+     *
+     * @return the snapshot
+     */
+    public ModelNode toModelNode() {
+        final long[] counts = new long[buckets.length()];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        final long total = totalTime.get();
+        final long max = TimeUnit.NANOSECONDS.toMillis(maxTime.get());
+
+        final ModelNode node = new ModelNode();
+        node.get(REQUEST_COUNT).set(count);
+        node.get(TOTAL_TIME).set(TimeUnit.NANOSECONDS.toMillis(total));
+        node.get(MAX_TIME).set(max);
+        node.get(MEAN_TIME).set(count == 0 ? 0.0 : (double) total / count / TimeUnit.MILLISECONDS.toNanos(1));
+        node.get(P50).set(percentile(counts, count, 50, max));
+        node.get(P90).set(percentile(counts, count, 90, max));
+        node.get(P99).set(percentile(counts, count, 99, max));
+        final ModelNode list = node.get(BUCKETS).setEmptyList();
+        for (int i = 0; i < counts.length; i++) {
+            final ModelNode bucket = new ModelNode();
+            if (i < BOUNDS.length) {
+                bucket.get(UPPER_BOUND).set(BOUNDS[i]);
+            }
+            bucket.get(COUNT).set(counts[i]);
+            list.add(bucket);
+        }
+        return node;
+    }
+
+    private static long percentile(final long[] counts, final long count, final int percent, final long max) {
+        if (count == 0) {
+            return 0;
+        }
+        // the rank of the request at the given percentile, rounded up
+        final long rank = (count * percent + 99) / 100;
+        long seen = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(BOUNDS[i], max);
+            }
+        }
+        return max;
+    }
+}
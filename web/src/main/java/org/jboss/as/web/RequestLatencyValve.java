@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.Valve;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+
+/**
+ * A valve recording the time requests spend in the pipeline of the container it is added to.
+ */
+public class RequestLatencyValve extends ValveBase {
+
+    private final RequestLatencyHistogram histogram;
+
+    public RequestLatencyValve() {
+        this(new RequestLatencyHistogram());
+    }
+
+    public RequestLatencyValve(final RequestLatencyHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    /**
+     * Get the histogram of the requests.
+     *
+     * @return the histogram, or {@code null} if requests are recorded elsewhere
+     */
+    public RequestLatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Get the histogram a request is recorded in.
+     *
+     * @param request the request
+     * @return the histogram, or {@code null} if the request is not recorded
+     */
+    protected RequestLatencyHistogram getHistogram(final Request request) {
+        return histogram;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void invoke(final Request request, final Response response) throws IOException, ServletException {
+        final RequestLatencyHistogram histogram = getHistogram(request);
+        if (histogram == null) {
+            getNext().invoke(request, response);
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            getNext().invoke(request, response);
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Find the histogram of the latency valve installed on a container.
+     *
+     * @param container the container
+     * @return the histogram, or {@code null} if the container has no latency valve
+     */
+    public static RequestLatencyHistogram findHistogram(final Container container) {
+        for (Valve valve : container.getPipeline().getValves()) {
+            if (valve instanceof RequestLatencyValve) {
+                return ((RequestLatencyValve) valve).getHistogram();
+            }
+        }
+        return null;
+    }
+}
@@ -53,7 +53,7 @@ class WebConnectorMetrics implements ModelQueryOperationHandler {
     private static final String ERROR_COUNT = "errorCount";
     private static final String MAX_TIME = "maxTime";
     private static final String REQUEST_COUNT = "requestCount";
-    static final String[] ATTRIBUTES = new String[] {BYTES_SENT, BYTES_RECEIVED, PROCESSING_TIME, ERROR_COUNT, MAX_TIME, REQUEST_COUNT};
+    static final String[] ATTRIBUTES = new String[] {BYTES_SENT, BYTES_RECEIVED, PROCESSING_TIME, ERROR_COUNT, MAX_TIME, REQUEST_COUNT, Constants.REQUEST_LATENCY};
 
     /** {@inheritDoc} */
     @Override
@@ -72,20 +72,28 @@ class WebConnectorMetrics implements ModelQueryOperationHandler {
                         try {
                             final Connector connector = (Connector) controller.getValue();
                             final ModelNode result = new ModelNode();
-                            if (connector.getProtocolHandler() != null && connector.getProtocolHandler().getRequestGroupInfo() != null) {
+                            if (Constants.REQUEST_LATENCY.equals(attributeName)) {
+                                final ServiceController<?> server = context.getServiceRegistry()
+                                        .getService(WebSubsystemServices.JBOSS_WEB_SERVER);
+                                final RequestLatencyHistogram histogram = server == null ? null
+                                        : ((WebServer) server.getValue()).getRequestLatency(connector);
+                                if (histogram != null) {
+                                    result.set(histogram.toModelNode());
+                                }
+                            } else if (connector.getProtocolHandler() != null && connector.getProtocolHandler().getRequestGroupInfo() != null) {
                                 RequestGroupInfo info = connector.getProtocolHandler().getRequestGroupInfo();
                                 if (BYTES_SENT.equals(attributeName)) {
-                                    result.set("" + info.getBytesSent());
+                                    result.set((long) info.getBytesSent());
                                 } else if (BYTES_RECEIVED.equals(attributeName)) {
-                                    result.set("" + info.getBytesReceived());
+                                    result.set((long) info.getBytesReceived());
                                 } else if (PROCESSING_TIME.equals(attributeName)) {
-                                    result.set("" + info.getProcessingTime());
+                                    result.set((long) info.getProcessingTime());
                                 } else if (ERROR_COUNT.equals(attributeName)) {
-                                    result.set("" + info.getErrorCount());
+                                    result.set((long) info.getErrorCount());
                                 } else if (MAX_TIME.equals(attributeName)) {
-                                    result.set("" + info.getMaxTime());
+                                    result.set((long) info.getMaxTime());
                                 } else if (REQUEST_COUNT.equals(attributeName)) {
-                                    result.set("" + info.getRequestCount());
+                                    result.set((long) info.getRequestCount());
                                 }
                             }
                             resultHandler.handleResultFragment(new String[0], result);
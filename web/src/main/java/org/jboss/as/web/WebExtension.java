@@ -65,10 +65,15 @@ public class WebExtension implements Extension {
         for(final String attributeName : WebConnectorMetrics.ATTRIBUTES) {
             connectors.registerMetric(attributeName, WebConnectorMetrics.INSTANCE);
         }
+        connectors.registerOperationHandler(Constants.RESET_REQUEST_LATENCY, WebRequestLatencyReset.INSTANCE, WebSubsystemDescriptionProviders.RESET_REQUEST_LATENCY, false);
         //hosts
         final ModelNodeRegistration hosts = registration.registerSubModel(hostPath, WebSubsystemDescriptionProviders.VIRTUAL_SERVER);
         hosts.registerOperationHandler(ADD, WebVirtualHostAdd.INSTANCE, WebVirtualHostAdd.INSTANCE, false);
         hosts.registerOperationHandler(REMOVE, WebVirtualHostRemove.INSTANCE, WebVirtualHostRemove.INSTANCE, false);
+        for(final String attributeName : WebVirtualHostMetrics.ATTRIBUTES) {
+            hosts.registerMetric(attributeName, WebVirtualHostMetrics.INSTANCE);
+        }
+        hosts.registerOperationHandler(Constants.RESET_REQUEST_LATENCY, WebRequestLatencyReset.INSTANCE, WebSubsystemDescriptionProviders.RESET_REQUEST_LATENCY, false);
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.Host;
+import org.apache.catalina.connector.Connector;
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Clears the request latency histograms of a connector, or of a virtual host and the contexts deployed on it.
+ */
+class WebRequestLatencyReset implements ModelQueryOperationHandler {
+
+    static final WebRequestLatencyReset INSTANCE = new WebRequestLatencyReset();
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final PathElement element = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement();
+                    if (Constants.CONNECTOR.equals(element.getKey())) {
+                        final ServiceController<?> connector = context.getServiceRegistry()
+                                .getService(WebSubsystemServices.JBOSS_WEB_CONNECTOR.append(element.getValue()));
+                        final ServiceController<?> server = context.getServiceRegistry()
+                                .getService(WebSubsystemServices.JBOSS_WEB_SERVER);
+                        if (isUp(connector) && isUp(server)) {
+                            final RequestLatencyHistogram histogram = ((WebServer) server.getValue())
+                                    .getRequestLatency((Connector) connector.getValue());
+                            if (histogram != null) {
+                                histogram.reset();
+                            }
+                        }
+                    } else {
+                        final ServiceController<?> controller = context.getServiceRegistry()
+                                .getService(WebSubsystemServices.JBOSS_WEB_HOST.append(element.getValue()));
+                        if (isUp(controller)) {
+                            final Host host = (Host) controller.getValue();
+                            reset(host);
+                            for (Container child : host.findChildren()) {
+                                reset(child);
+                            }
+                        }
+                    }
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+
+    private static boolean isUp(final ServiceController<?> controller) {
+        return controller != null && controller.getState() == ServiceController.State.UP;
+    }
+
+    private static void reset(final Container container) {
+        final RequestLatencyHistogram histogram = RequestLatencyValve.findHistogram(container);
+        if (histogram != null) {
+            histogram.reset();
+        }
+    }
+
+}
@@ -59,4 +59,12 @@ public interface WebServer {
      */
     void removeHost(Host host);
 
+    /**
+     * Get the request latency histogram of a connector.
+     *
+     * @param connector the connector
+     * @return the histogram, or {@code null} if the connector was not added
+     */
+    RequestLatencyHistogram getRequestLatency(Connector connector);
+
 }
@@ -21,11 +21,15 @@
  */
 package org.jboss.as.web;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.management.MBeanServer;
 
 import org.apache.catalina.Engine;
 import org.apache.catalina.Host;
 import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.Request;
 import org.apache.catalina.core.AprLifecycleListener;
 import org.apache.catalina.core.JasperListener;
 import org.apache.catalina.core.StandardEngine;
@@ -55,6 +59,8 @@ class WebServerService implements WebServer, Service<WebServer> {
     private Catalina catalina;
     private StandardService service;
 
+    private final ConcurrentMap<Connector, RequestLatencyHistogram> connectorLatency = new ConcurrentHashMap<Connector, RequestLatencyHistogram>();
+
     private final InjectedValue<MBeanServer> mbeanServer = new InjectedValue<MBeanServer>();
     private final InjectedValue<String> pathInjector = new InjectedValue<String>();
 
@@ -84,10 +90,11 @@ class WebServerService implements WebServer, Service<WebServer> {
         service.setServer(server);
         server.addService(service);
 
-        final Engine engine = new StandardEngine();
+        final StandardEngine engine = new StandardEngine();
         engine.setName(JBOSS_WEB);
         engine.setService(service);
         engine.setDefaultHost(defaultHost);
+        engine.addValve(new ConnectorLatencyValve());
 
         service.setContainer(engine);
 
@@ -127,6 +134,7 @@ class WebServerService implements WebServer, Service<WebServer> {
     /** {@inheritDoc} */
     public synchronized void addConnector(Connector connector) {
         final StandardService service = this.service;
+        connectorLatency.put(connector, new RequestLatencyHistogram());
         service.addConnector(connector);
     }
 
@@ -134,6 +142,12 @@ class WebServerService implements WebServer, Service<WebServer> {
     public synchronized void removeConnector(Connector connector) {
         final StandardService service = this.service;
         service.removeConnector(connector);
+        connectorLatency.remove(connector);
+    }
+
+    /** {@inheritDoc} */
+    public RequestLatencyHistogram getRequestLatency(Connector connector) {
+        return connectorLatency.get(connector);
     }
 
     /** {@inheritDoc} */
@@ -156,4 +170,19 @@ class WebServerService implements WebServer, Service<WebServer> {
         return pathInjector;
     }
 
+    /**
+     * Records each request in the histogram of the connector it arrived on.
+     */
+    private class ConnectorLatencyValve extends RequestLatencyValve {
+
+        ConnectorLatencyValve() {
+            super(null);
+        }
+
+        @Override
+        protected RequestLatencyHistogram getHistogram(final Request request) {
+            return connectorLatency.get(request.getConnector());
+        }
+    }
+
 }
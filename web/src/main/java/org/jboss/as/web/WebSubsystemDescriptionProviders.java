@@ -33,4 +33,11 @@ class WebSubsystemDescriptionProviders {
         }
     };
 
+    public static final DescriptionProvider RESET_REQUEST_LATENCY = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            return WebSubsystemDescriptions.getResetRequestLatency(locale);
+        }
+    };
+
 }
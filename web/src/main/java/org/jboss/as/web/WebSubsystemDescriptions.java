@@ -342,7 +342,9 @@ class WebSubsystemDescriptions {
 
         if (ATTRIBUTES.equals(type)) {
             for(final String metric : WebConnectorMetrics.ATTRIBUTES) {
-                node.get(ATTRIBUTES, metric, TYPE).set(ModelType.INT);
+                // the request latency is a histogram, the other metrics are the counters of the protocol handler
+                node.get(ATTRIBUTES, metric, TYPE).set(Constants.REQUEST_LATENCY.equals(metric) ? ModelType.OBJECT : ModelType.LONG);
+                node.get(ATTRIBUTES, metric, DESCRIPTION).set(bundle.getString("web.connector." + metric));
             }
         }
 
@@ -461,6 +463,13 @@ class WebSubsystemDescriptions {
         getAccessLogCommonDescription(node.get(type, Constants.ACCESS_LOG), type, bundle);
         getRewriteCommonDescription(node.get(type, Constants.REWRITE), type, bundle);
 
+        if (ATTRIBUTES.equals(type)) {
+            for(final String metric : WebVirtualHostMetrics.ATTRIBUTES) {
+                node.get(ATTRIBUTES, metric, TYPE).set(ModelType.OBJECT);
+                node.get(ATTRIBUTES, metric, DESCRIPTION).set(bundle.getString("web.virtual-server." + metric));
+            }
+        }
+
         return node;
     }
 
@@ -562,6 +571,18 @@ class WebSubsystemDescriptions {
         return node;
     }
 
+    static ModelNode getResetRequestLatency(final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+
+        final ModelNode node = new ModelNode();
+        node.get(OPERATION_NAME).set(Constants.RESET_REQUEST_LATENCY);
+        node.get(DESCRIPTION).set(bundle.getString("web.reset-request-latency"));
+        node.get(REQUEST_PROPERTIES).setEmptyObject();
+        node.get(REPLY_PROPERTIES).setEmptyObject();
+
+        return node;
+    }
+
     private static ResourceBundle getResourceBundle(Locale locale) {
         if (locale == null) {
             locale = Locale.getDefault();
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.Host;
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * The request latency metrics of a virtual host and of the contexts deployed on it.
+ */
+class WebVirtualHostMetrics implements ModelQueryOperationHandler {
+
+    static final WebVirtualHostMetrics INSTANCE = new WebVirtualHostMetrics();
+
+    static final String[] ATTRIBUTES = new String[] {Constants.REQUEST_LATENCY, Constants.CONTEXT_REQUEST_LATENCY};
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+                    final String name = address.getLastElement().getValue();
+                    final String attributeName = operation.require(NAME).asString();
+
+                    final ServiceController<?> controller = context.getServiceRegistry()
+                            .getService(WebSubsystemServices.JBOSS_WEB_HOST.append(name));
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final Host host = (Host) controller.getValue();
+                        if (Constants.REQUEST_LATENCY.equals(attributeName)) {
+                            final RequestLatencyHistogram histogram = RequestLatencyValve.findHistogram(host);
+                            if (histogram != null) {
+                                result.set(histogram.toModelNode());
+                            }
+                        } else if (Constants.CONTEXT_REQUEST_LATENCY.equals(attributeName)) {
+                            result.setEmptyObject();
+                            for (Container child : host.findChildren()) {
+                                final RequestLatencyHistogram histogram = RequestLatencyValve.findHistogram(child);
+                                if (histogram != null) {
+                                    result.get(getContextPath(child)).set(histogram.toModelNode());
+                                }
+                            }
+                        }
+                    }
+                    resultHandler.handleResultFragment(WebConnectorMetrics.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(WebConnectorMetrics.NO_LOCATION, new ModelNode().set("no metrics available"));
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+
+    static String getContextPath(final Container context) {
+        // the root context has an empty name
+        final String path = context.getName();
+        return path == null || path.length() == 0 ? "/" : path;
+    }
+
+}
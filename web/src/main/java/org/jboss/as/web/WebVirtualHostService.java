@@ -67,6 +67,7 @@ class WebVirtualHostService implements Service<Host> {
         for(final String alias : aliases) {
             host.addAlias(alias);
         }
+        host.addValve(new RequestLatencyValve());
         if(accessLog != null) {
             host.addValve(createAccessLogValve(accessLogPathInjector.getValue(), accessLog));
         }
@@ -47,6 +47,7 @@ import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.web.NamingListener;
+import org.jboss.as.web.RequestLatencyValve;
 import org.jboss.as.web.WebSubsystemServices;
 import org.jboss.as.web.deployment.component.ComponentInstantiator;
 import org.jboss.as.web.security.JBossWebRealm;
@@ -161,6 +162,7 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
 
         final Loader loader = new WebCtxLoader(classLoader);
         webContext.setLoader(loader);
+        webContext.addValve(new RequestLatencyValve());
 
         // Set the session cookies flag according to metadata
         switch (metaData.getSessionCookies()) {
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link RequestLatencyHistogram}.
+ */
+public class RequestLatencyHistogramTestCase {
+
+    @Test
+    public void testEmptyHistogram() {
+        final ModelNode node = new RequestLatencyHistogram().toModelNode();
+        assertEquals(0, node.get(RequestLatencyHistogram.REQUEST_COUNT).asLong());
+        assertEquals(0, node.get(RequestLatencyHistogram.P50).asLong());
+        assertEquals(0, node.get(RequestLatencyHistogram.P99).asLong());
+        assertEquals(0.0, node.get(RequestLatencyHistogram.MEAN_TIME).asDouble(), 0.0);
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        final RequestLatencyHistogram histogram = new RequestLatencyHistogram();
+        // an upper bound is inclusive, anything above it goes to the next bucket
+        histogram.record(millis(1));
+        histogram.record(millis(1) + 1);
+        histogram.record(millis(10000));
+        histogram.record(millis(10000) + 1);
+        // negative times are counted as zero
+        histogram.record(-1);
+
+        final List<ModelNode> buckets = histogram.toModelNode().get(RequestLatencyHistogram.BUCKETS).asList();
+        assertEquals(14, buckets.size());
+        assertEquals(1, buckets.get(0).get(RequestLatencyHistogram.UPPER_BOUND).asLong());
+        assertEquals(2, buckets.get(0).get(RequestLatencyHistogram.COUNT).asLong());
+        assertEquals(2, buckets.get(1).get(RequestLatencyHistogram.UPPER_BOUND).asLong());
+        assertEquals(1, buckets.get(1).get(RequestLatencyHistogram.COUNT).asLong());
+        assertEquals(10000, buckets.get(12).get(RequestLatencyHistogram.UPPER_BOUND).asLong());
+        assertEquals(1, buckets.get(12).get(RequestLatencyHistogram.COUNT).asLong());
+        // the overflow bucket has no upper bound
+        assertFalse(buckets.get(13).has(RequestLatencyHistogram.UPPER_BOUND));
+        assertEquals(1, buckets.get(13).get(RequestLatencyHistogram.COUNT).asLong());
+    }
+
+    @Test
+    public void testPercentiles() {
+        final RequestLatencyHistogram histogram = new RequestLatencyHistogram();
+        // 50 requests of 3ms, 40 of 40ms, 9 of 200ms and one of 700ms
+        record(histogram, 50, 3);
+        record(histogram, 40, 40);
+        record(histogram, 9, 200);
+        record(histogram, 1, 700);
+
+        final ModelNode node = histogram.toModelNode();
+        assertEquals(100, node.get(RequestLatencyHistogram.REQUEST_COUNT).asLong());
+        assertEquals(50 * 3 + 40 * 40 + 9 * 200 + 700, node.get(RequestLatencyHistogram.TOTAL_TIME).asLong());
+        assertEquals(700, node.get(RequestLatencyHistogram.MAX_TIME).asLong());
+        assertEquals(42.5, node.get(RequestLatencyHistogram.MEAN_TIME).asDouble(), 0.001);
+        // the percentiles are the upper bound of the bucket holding the request of that rank
+        assertEquals(5, node.get(RequestLatencyHistogram.P50).asLong());
+        assertEquals(50, node.get(RequestLatencyHistogram.P90).asLong());
+        assertEquals(250, node.get(RequestLatencyHistogram.P99).asLong());
+    }
+
+    @Test
+    public void testPercentileRankIsRoundedUp() {
+        final RequestLatencyHistogram histogram = new RequestLatencyHistogram();
+        record(histogram, 1, 3);
+        record(histogram, 1, 40);
+        record(histogram, 1, 700);
+
+        // the 50th percentile of three requests is the second one
+        assertEquals(50, histogram.toModelNode().get(RequestLatencyHistogram.P50).asLong());
+    }
+
+    @Test
+    public void testPercentilesAreCappedByMaxTime() {
+        final RequestLatencyHistogram histogram = new RequestLatencyHistogram();
+        record(histogram, 10, 30);
+        // the bound of the bucket is larger than any recorded request
+        assertEquals(30, histogram.toModelNode().get(RequestLatencyHistogram.P50).asLong());
+
+        histogram.record(millis(20000));
+        // the overflow bucket reports the slowest request
+        assertEquals(20000, histogram.toModelNode().get(RequestLatencyHistogram.P99).asLong());
+    }
+
+    @Test
+    public void testReset() {
+        final RequestLatencyHistogram histogram = new RequestLatencyHistogram();
+        record(histogram, 5, 100);
+        histogram.reset();
+
+        ModelNode node = histogram.toModelNode();
+        assertEquals(0, node.get(RequestLatencyHistogram.REQUEST_COUNT).asLong());
+        assertEquals(0, node.get(RequestLatencyHistogram.MAX_TIME).asLong());
+        for (ModelNode bucket : node.get(RequestLatencyHistogram.BUCKETS).asList()) {
+            assertEquals(0, bucket.get(RequestLatencyHistogram.COUNT).asLong());
+        }
+
+        histogram.record(millis(3));
+        node = histogram.toModelNode();
+        assertEquals(1, node.get(RequestLatencyHistogram.REQUEST_COUNT).asLong());
+        assertEquals(3, node.get(RequestLatencyHistogram.P50).asLong());
+    }
+
+    private static void record(final RequestLatencyHistogram histogram, final int count, final long millis) {
+        for (int i = 0; i < count; i++) {
+            histogram.record(millis(millis));
+        }
+    }
+
+    private static long millis(final long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}